@@ -0,0 +1,113 @@
+package com.sber.democrud.benchmark;
+
+import com.sber.democrud.entity.Payment;
+import com.sber.democrud.entity.association.EntityAssociationSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Сравнение {@link HashSet} и {@link EntityAssociationSet} для платежей одного пользователя.
+ * <p>
+ * {@code Payment.hashCode()} возвращает хэш класса, поэтому в {@link HashSet} все платежи попадают в одну
+ * корзину; {@link EntityAssociationSet} индексирует их по идентификатору.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssociationSetBenchmark {
+
+    /**
+     * Количество проверок наличия за одну операцию.
+     */
+    private static final int LOOKUPS = 1_000;
+
+    /**
+     * Количество платежей пользователя.
+     */
+    @Param({"1000", "10000"})
+    private int payments;
+
+    private List<Payment> source;
+
+    private Payment[] probes;
+
+    private Set<Payment> hashSet;
+
+    private Set<Payment> entitySet;
+
+    @Setup
+    public void setup() {
+        source = LongStream.rangeClosed(1, payments).mapToObj(AssociationSetBenchmark::payment).toList();
+        Random random = new Random(42);
+        probes = new Payment[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            probes[i] = payment(1 + random.nextInt(payments * 2));
+        }
+        hashSet = new HashSet<>(source);
+        entitySet = new EntityAssociationSet<>(source);
+    }
+
+    @Benchmark
+    public Set<Payment> buildHashSet() {
+        return build(HashSet::new);
+    }
+
+    @Benchmark
+    public Set<Payment> buildEntityAssociationSet() {
+        return build(EntityAssociationSet::new);
+    }
+
+    @Benchmark
+    public int containsHashSet() {
+        return contains(hashSet);
+    }
+
+    @Benchmark
+    public int containsEntityAssociationSet() {
+        return contains(entitySet);
+    }
+
+    private Set<Payment> build(Supplier<Set<Payment>> factory) {
+        Set<Payment> set = factory.get();
+        for (Payment payment : source) {
+            set.add(payment);
+        }
+        return set;
+    }
+
+    private int contains(Set<Payment> set) {
+        int found = 0;
+        for (Payment probe : probes) {
+            if (set.contains(probe)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static Payment payment(long id) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        return payment;
+    }
+}
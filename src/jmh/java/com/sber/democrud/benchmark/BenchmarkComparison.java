@@ -0,0 +1,118 @@
+package com.sber.democrud.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сравнение результатов JMH с сохранённым базовым прогоном.
+ * <p>
+ * Запуск: {@code mvn -Pbenchmarks exec:exec@compare [-Djmh.baseline=...] [-Djmh.threshold=10]}.
+ * Для каждого бенчмарка выводятся время и нормированная аллокация ({@code gc.alloc.rate.norm}, байт на операцию)
+ * относительно базы; если хотя бы один показатель ухудшился больше порога (в процентах), процесс завершается
+ * с кодом {@code 1}.
+ */
+public final class BenchmarkComparison {
+
+    /**
+     * Нормированная аллокация, меньше которой разница считается шумом (байт на операцию).
+     */
+    private static final double ALLOCATION_NOISE_BYTES = 16;
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        boolean regressed = false;
+        System.out.printf("%-70s %14s %14s %9s %14s %14s %9s%n",
+                "Benchmark", "base", "current", "delta", "base B/op", "B/op", "delta");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-70s %14s %14.3f %9s%n", entry.getKey(), "-", now.score(), "new");
+                continue;
+            }
+            double scoreDelta = percent(base.score(), now.score());
+            double slowdown = "thrpt".equals(now.mode()) ? -scoreDelta : scoreDelta;
+            double allocationDelta = percent(base.allocation(), now.allocation());
+            boolean allocationRegressed = now.allocation() - base.allocation() > ALLOCATION_NOISE_BYTES
+                    && allocationDelta > threshold;
+            boolean failed = slowdown > threshold || allocationRegressed;
+            regressed |= failed;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %14.1f %14.1f %+8.1f%%%s%n",
+                    entry.getKey(), base.score(), now.score(), scoreDelta,
+                    base.allocation(), now.allocation(), allocationDelta, failed ? "  REGRESSION" : "");
+        }
+        if (regressed) {
+            System.out.printf("Regression above %.1f%% detected%n", threshold);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Читает результаты JMH в формате JSON.
+     *
+     * @param file файл результатов.
+     * @return результаты по имени бенчмарка с параметрами.
+     */
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(simpleName(node.path("benchmark").asText()));
+            node.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            double allocation = Double.NaN;
+            var secondary = node.path("secondaryMetrics").fields();
+            while (secondary.hasNext()) {
+                var metric = secondary.next();
+                if (metric.getKey().replace("·", "").equals("gc.alloc.rate.norm")) {
+                    allocation = metric.getValue().path("score").asDouble();
+                }
+            }
+            results.put(key.toString(), new Result(node.path("mode").asText(),
+                    node.path("primaryMetric").path("score").asDouble(), allocation));
+        }
+        return results;
+    }
+
+    /**
+     * Имя бенчмарка без пакета: {@code Class.method}.
+     */
+    private static String simpleName(String benchmark) {
+        int method = benchmark.lastIndexOf('.');
+        return benchmark.substring(benchmark.lastIndexOf('.', method - 1) + 1);
+    }
+
+    /**
+     * Изменение значения в процентах.
+     */
+    private static double percent(double base, double current) {
+        if (Double.isNaN(base) || Double.isNaN(current) || base == 0) {
+            return 0;
+        }
+        return (current - base) / base * 100;
+    }
+
+    /**
+     * Результат одного бенчмарка.
+     *
+     * @param mode       режим JMH.
+     * @param score      основной показатель.
+     * @param allocation нормированная аллокация, байт на операцию.
+     */
+    private record Result(String mode, double score, double allocation) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.sber.democrud.benchmark;
+
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.Payment;
+import com.sber.democrud.entity.User;
+import com.sber.democrud.entity.UserRolesEnum;
+import com.sber.democrud.entity.association.EntityAssociationSet;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Тестовые данные для бенчмарков.
+ */
+final class BenchmarkData {
+
+    private static final GoodTypesEnum[] GOOD_TYPES = GoodTypesEnum.values();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Создаёт сохранённые товары с идентификаторами от {@code 1} до {@code count}.
+     *
+     * @param count количество товаров.
+     * @return множество товаров.
+     */
+    static Set<Good> goods(int count) {
+        Set<Good> goods = new EntityAssociationSet<>(count);
+        for (long id = 1; id <= count; id++) {
+            Good good = new Good();
+            good.setId(id);
+            good.setName("Good " + id);
+            good.setType(GOOD_TYPES[(int) (id % GOOD_TYPES.length)]);
+            good.setDescription("Description of good " + id);
+            good.setPrice(BigDecimal.valueOf(id * 100 + 99, 2));
+            good.setStockQuantity(id);
+            good.setCreatedAt(LocalDateTime.of(2024, 12, 1, 12, 0));
+            goods.add(good);
+        }
+        return goods;
+    }
+
+    /**
+     * Создаёт сохранённого пользователя.
+     *
+     * @return пользователь.
+     */
+    static User user() {
+        User user = new User();
+        user.setId(UUID.fromString("bc31c9b2-49d8-4d1c-9f7b-c40bfbcbce1d"));
+        user.setName("Alex");
+        user.setLogin("pro100alex");
+        user.setPassword("password123");
+        user.setEmail("proalex@mail.com");
+        user.setRole(UserRolesEnum.USER);
+        return user;
+    }
+
+    /**
+     * Создаёт сохранённый платёж пользователя с заданными товарами.
+     *
+     * @param id    идентификатор платежа.
+     * @param user  пользователь.
+     * @param goods товары платежа.
+     * @return платёж.
+     */
+    static Payment payment(long id, User user, Set<Good> goods) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setUser(user);
+        payment.setDateOfPurchase(LocalDateTime.of(2024, 12, 1, 12, 0));
+        goods.forEach(good -> payment.addGood(good, 1L));
+        payment.recalculateTotalPurchaseAmount();
+        return payment;
+    }
+}
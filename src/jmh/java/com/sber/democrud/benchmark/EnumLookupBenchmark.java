@@ -0,0 +1,55 @@
+package com.sber.democrud.benchmark;
+
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.UserRolesEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск значений перечислений по строковому представлению.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnumLookupBenchmark {
+
+    /**
+     * Искомое значение типа товара: первое, последнее или отсутствующее.
+     */
+    @State(Scope.Benchmark)
+    public static class GoodTypeInput {
+        @Param({"ELECTRONICS", "OTHER", "UNKNOWN"})
+        private String value;
+    }
+
+    /**
+     * Искомое значение роли пользователя: первое, последнее или отсутствующее.
+     */
+    @State(Scope.Benchmark)
+    public static class UserRoleInput {
+        @Param({"USER", "ADMIN", "UNKNOWN"})
+        private String value;
+    }
+
+    @Benchmark
+    public GoodTypesEnum goodTypeFromString(GoodTypeInput input) {
+        return GoodTypesEnum.fromString(input.value);
+    }
+
+    @Benchmark
+    public UserRolesEnum userRoleFromString(UserRoleInput input) {
+        return UserRolesEnum.fromString(input.value);
+    }
+}
@@ -0,0 +1,237 @@
+package com.sber.democrud.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время полнотекстового поиска товаров ({@code GoodSearchRepository.search}) в зависимости от числа совпадений
+ * и глубины страницы.
+ * <p>
+ * Каталог генерируется с лог-равномерной частотой слов: существительное названия {@code телескоп} есть примерно
+ * в 23% товаров, {@code бренд50} — в 0,3%, {@code бренд500} — в 0,03%, {@code модель12345} — в 0,002%;
+ * каждый двадцатый товар архивирован. Ранжируются первые {@value #MAX_CANDIDATES} совпадений, как
+ * при {@code app.search.max-candidates} по умолчанию. Страница {@code deep} — последняя из них, после 180-го
+ * товара выдачи (курсор 10-й страницы по 20); для запроса {@code rare} на 1 млн товаров такой страницы нет,
+ * и прогон этого сочетания параметров завершается ошибкой.
+ * Каталог создаётся в схеме {@code jmh_goods_search_<goods>} и не удаляется после прогона: генерация 10 млн
+ * товаров занимает несколько минут. БД задаётся свойствами {@code benchmark.jdbc-url},
+ * {@code benchmark.jdbc-user}, {@code benchmark.jdbc-password}, без них запускается контейнер PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GoodSearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    private static final int MAX_CANDIDATES = 200;
+
+    private static final int DEEP_PAGE_OFFSET = 180;
+
+    private static final String SEARCH = """
+            SELECT *
+            FROM (SELECT c.id, c.name, c.type, c.price, ts_rank_cd(c.search_vector, c.query) AS rank
+                  FROM (SELECT g.id, g.name, g.type, g.price, g.search_vector, q.query
+                        FROM goods g,
+                             websearch_to_tsquery('russian', lower(CAST(? AS text) COLLATE "und-x-icu")) AS q(query)
+                        WHERE g.archive_date IS NULL
+                          AND g.search_vector @@ q.query
+                          %s
+                        LIMIT ?) c) found
+            %s
+            ORDER BY rank DESC, id
+            LIMIT ?
+            """;
+
+    /**
+     * Количество товаров в каталоге.
+     */
+    @Param({"1000000"})
+    private int goods;
+
+    /**
+     * Запрос: {@code rare}, {@code medium}, {@code frequent}, {@code common} или {@code common-type} (частое слово
+     * с типом товара).
+     */
+    @Param({"rare", "medium", "frequent", "common", "common-type"})
+    private String query;
+
+    /**
+     * Страница: {@code first} или {@code deep}.
+     */
+    @Param({"first", "deep"})
+    private String page;
+
+    private PostgreSQLContainer<?> postgres;
+
+    private Connection connection;
+
+    private PreparedStatement search;
+
+    private String words;
+
+    private Short type;
+
+    private Float afterRank;
+
+    private Long afterId;
+
+    @Setup
+    public void setup() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc-url");
+        String user = System.getProperty("benchmark.jdbc-user", "postgres");
+        String password = System.getProperty("benchmark.jdbc-password", "postgres");
+        if (url == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15.10-alpine");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            user = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+        connection = DriverManager.getConnection(url, user, password);
+        createCatalog("jmh_goods_search_" + goods);
+        // Как в GoodSearchRepository.search: план строится для каждого выполнения, без параллельного чтения
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET plan_cache_mode = force_custom_plan");
+            statement.execute("SET max_parallel_workers_per_gather = 0");
+        }
+
+        words = switch (query) {
+            case "rare" -> "модель12345";
+            case "medium" -> "бренд500";
+            case "frequent" -> "бренд50";
+            case "common", "common-type" -> "телескоп";
+            default -> throw new IllegalArgumentException(query);
+        };
+        type = "common-type".equals(query) ? (short) 3 : null;
+        String typeCondition = type != null ? "AND g.type = CAST(? AS integer)" : "";
+        if ("deep".equals(page)) {
+            try (PreparedStatement cursor = connection.prepareStatement(
+                    SEARCH.formatted(typeCondition, "").replace("id\nLIMIT ?", "id\nOFFSET ? LIMIT 1"))) {
+                int index = bindQuery(cursor);
+                cursor.setInt(index, DEEP_PAGE_OFFSET - 1);
+                try (ResultSet resultSet = cursor.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new IllegalStateException("Запрос " + query + " находит меньше "
+                                + DEEP_PAGE_OFFSET + " товаров");
+                    }
+                    afterRank = resultSet.getFloat("rank");
+                    afterId = resultSet.getLong("id");
+                }
+            }
+        }
+        search = connection.prepareStatement(SEARCH.formatted(typeCondition, afterRank != null
+                ? "WHERE rank < CAST(? AS real) OR (rank = CAST(? AS real) AND id > ?)" : ""));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public int search() throws SQLException {
+        int index = bindQuery(search);
+        if (afterRank != null) {
+            search.setFloat(index++, afterRank);
+            search.setFloat(index++, afterRank);
+            search.setLong(index++, afterId);
+        }
+        search.setInt(index, LIMIT);
+        int rows = 0;
+        try (ResultSet resultSet = search.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private int bindQuery(PreparedStatement statement) throws SQLException {
+        int index = 1;
+        statement.setString(index++, words);
+        if (type != null) {
+            statement.setShort(index++, type);
+        }
+        statement.setInt(index++, MAX_CANDIDATES);
+        return index;
+    }
+
+    private void createCatalog(String schema) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS btree_gin SCHEMA public");
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT 1 FROM pg_namespace WHERE nspname = '" + schema + "'")) {
+                if (resultSet.next()) {
+                    statement.execute("SET search_path = " + schema + ", public");
+                    return;
+                }
+            }
+            statement.execute("CREATE SCHEMA " + schema);
+            statement.execute("SET search_path = " + schema + ", public");
+            statement.execute("SET maintenance_work_mem = '512MB'");
+            // Столбец и индекс совпадают с миграциями V20 и V21
+            statement.execute("""
+                    CREATE TABLE goods
+                    (
+                        id            BIGINT PRIMARY KEY,
+                        name          VARCHAR(255)   NOT NULL,
+                        description   TEXT,
+                        type          SMALLINT       NOT NULL,
+                        price         NUMERIC(10, 2) NOT NULL,
+                        archive_date  TIMESTAMP,
+                        search_vector tsvector GENERATED ALWAYS AS (
+                            setweight(to_tsvector('russian', lower(coalesce(name, '') COLLATE "und-x-icu")), 'A') ||
+                            setweight(to_tsvector('russian', lower(coalesce(description, '') COLLATE "und-x-icu")),
+                                      'B')
+                            ) STORED
+                    )
+                    """);
+            statement.execute("""
+                    INSERT INTO goods (id, name, description, type, price, archive_date)
+                    SELECT i,
+                           (ARRAY ['телескоп', 'телефон', 'чайник', 'ноутбук', 'кресло', 'лампа', 'рюкзак', 'часы',
+                               'камера', 'пылесос', 'наушники', 'монитор', 'велосипед', 'палатка', 'куртка',
+                               'ботинки', 'книга', 'стол', 'диван', 'зеркало'])[floor(power(20, random()))::int]
+                               || ' бренд' || floor(power(1000, random()))::int || ' модель' || i %% 50000,
+                           (SELECT string_agg('слово' || floor(power(20000, random()))::int, ' ')
+                            FROM generate_series(1, 10 + i * 0) w),
+                           i %% 10,
+                           i %% 10000 / 10.0,
+                           CASE WHEN i %% 20 = 0 THEN TIMESTAMP '2024-01-01' END
+                    FROM generate_series(1, %d) i
+                    """.formatted(goods));
+            statement.execute("""
+                    CREATE INDEX goods_active_search_idx
+                        ON goods USING gin (search_vector, type)
+                        WHERE archive_date IS NULL
+                    """);
+            statement.execute("VACUUM ANALYZE goods");
+        }
+    }
+}
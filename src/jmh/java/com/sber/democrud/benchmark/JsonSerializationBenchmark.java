@@ -0,0 +1,60 @@
+package com.sber.democrud.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sber.democrud.dto.PaymentResponseDto;
+import com.sber.democrud.mapper.GoodMapperImpl;
+import com.sber.democrud.mapper.PaymentMapper;
+import com.sber.democrud.mapper.PaymentMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация {@link PaymentResponseDto} в JSON тем же набором модулей Jackson, что и в приложении.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    /**
+     * Количество товаров в платеже.
+     */
+    @Param({"1", "10", "100", "1000"})
+    private int goodsCount;
+
+    private ObjectWriter writer;
+
+    private PaymentResponseDto payment;
+
+    @Setup
+    public void setup() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(PaymentResponseDto.class);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                GoodMapperImpl.class, PaymentMapperImpl.class)) {
+            payment = context.getBean(PaymentMapper.class).toPaymentResponseDto(
+                    BenchmarkData.payment(1L, BenchmarkData.user(), BenchmarkData.goods(goodsCount)));
+        }
+    }
+
+    @Benchmark
+    public byte[] paymentToJson() throws JsonProcessingException {
+        return writer.writeValueAsBytes(payment);
+    }
+}
@@ -0,0 +1,106 @@
+package com.sber.democrud.benchmark;
+
+import com.sber.democrud.dto.GoodResponseDto;
+import com.sber.democrud.dto.PaymentResponseDto;
+import com.sber.democrud.dto.UserResponseDto;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.Payment;
+import com.sber.democrud.entity.User;
+import com.sber.democrud.mapper.GoodMapper;
+import com.sber.democrud.mapper.GoodMapperImpl;
+import com.sber.democrud.mapper.PaymentMapper;
+import com.sber.democrud.mapper.PaymentMapperImpl;
+import com.sber.democrud.mapper.UserMapper;
+import com.sber.democrud.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования сущностей в DTO мапперами MapStruct.
+ * <p>
+ * Мапперы создаются в контексте Spring, чтобы вложенные мапперы связывались так же, как в приложении.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    /**
+     * Количество товаров в платеже.
+     */
+    @Param({"1", "100", "1000"})
+    private int goodsCount;
+
+    private AnnotationConfigApplicationContext context;
+
+    private GoodMapper goodMapper;
+
+    private PaymentMapper paymentMapper;
+
+    private UserMapper userMapper;
+
+    private Good good;
+
+    private Set<Good> goods;
+
+    private Payment payment;
+
+    private User user;
+
+    @Setup
+    public void setup() {
+        context = new AnnotationConfigApplicationContext(GoodMapperImpl.class, PaymentMapperImpl.class,
+                UserMapperImpl.class);
+        goodMapper = context.getBean(GoodMapper.class);
+        paymentMapper = context.getBean(PaymentMapper.class);
+        userMapper = context.getBean(UserMapper.class);
+
+        goods = BenchmarkData.goods(goodsCount);
+        good = goods.iterator().next();
+        user = BenchmarkData.user();
+        payment = BenchmarkData.payment(1L, user, goods);
+        user.getPayments().add(payment);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public GoodResponseDto goodToDto() {
+        return goodMapper.toGoodResponseDto(good);
+    }
+
+    @Benchmark
+    public Set<GoodResponseDto> goodsToDtos() {
+        return goodMapper.toGoodResponseDtos(goods);
+    }
+
+    @Benchmark
+    public PaymentResponseDto paymentToDto() {
+        return paymentMapper.toPaymentResponseDto(payment);
+    }
+
+    @Benchmark
+    public UserResponseDto userWithPaymentToDto() {
+        return userMapper.toUserResponseDto(user);
+    }
+}
@@ -0,0 +1,157 @@
+package com.sber.democrud.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время запроса {@code getPaymentById} (платёж с пользователем и позициями, как при загрузке
+ * {@code findWithGoodsById}) в зависимости от размера {@code payment_goods}.
+ * <p>
+ * {@code surrogate} — прежняя схема с суррогатным ключом {@code id} без индексов по внешним ключам,
+ * {@code composite} — первичный ключ {@code (payment_id, good_id)} и обратный индекс {@code (good_id, payment_id)}.
+ * Данные создаются в отдельной схеме {@code jmh_payment_lookup}. БД задаётся свойствами
+ * {@code benchmark.jdbc-url}, {@code benchmark.jdbc-user}, {@code benchmark.jdbc-password}
+ * ({@code -Djmh.args="-jvmArgsAppend -Dbenchmark.jdbc-url=..."}), без них запускается контейнер PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentLookupBenchmark {
+
+    private static final String SCHEMA = "jmh_payment_lookup";
+
+    private static final int GOODS = 10_000;
+
+    private static final int GOODS_PER_PAYMENT = 3;
+
+    private static final String QUERY = """
+            SELECT p.id, p.total_purchase_amount, u.id, u.name, pg.quantity, pg.unit_price, g.id, g.name
+            FROM jmh_payment_lookup.payments p
+                     JOIN jmh_payment_lookup.users u ON u.id = p.user_id
+                     LEFT JOIN jmh_payment_lookup.payment_goods pg ON pg.payment_id = p.id
+                     LEFT JOIN jmh_payment_lookup.goods g ON g.id = pg.good_id
+            WHERE p.id = ?
+            """;
+
+    /**
+     * Ключ таблицы {@code payment_goods}: {@code surrogate} или {@code composite}.
+     */
+    @Param({"surrogate", "composite"})
+    private String key;
+
+    /**
+     * Количество строк в {@code payment_goods}.
+     */
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private PostgreSQLContainer<?> postgres;
+
+    private Connection connection;
+
+    private PreparedStatement query;
+
+    private int payments;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup
+    public void setup() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc-url");
+        String user = System.getProperty("benchmark.jdbc-user", "postgres");
+        String password = System.getProperty("benchmark.jdbc-password", "postgres");
+        if (url == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15.10-alpine");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            user = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+        connection = DriverManager.getConnection(url, user, password);
+        payments = rows / GOODS_PER_PAYMENT;
+        createSchema();
+        query = connection.prepareStatement(QUERY);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            connection.close();
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    @Benchmark
+    public int getPaymentById() throws SQLException {
+        query.setLong(1, 1 + random.nextInt(payments));
+        int lines = 0;
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private void createSchema() throws SQLException {
+        String paymentGoods = "surrogate".equals(key)
+                ? "id BIGSERIAL PRIMARY KEY, payment_id BIGINT NOT NULL, good_id BIGINT NOT NULL,"
+                : "payment_id BIGINT NOT NULL, good_id BIGINT NOT NULL,";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path = " + SCHEMA);
+            statement.execute("CREATE TABLE users (id UUID PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+            statement.execute("CREATE TABLE goods (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                    + "price NUMERIC(10, 2) NOT NULL)");
+            statement.execute("CREATE TABLE payments (id BIGINT PRIMARY KEY, user_id UUID NOT NULL REFERENCES users, "
+                    + "total_purchase_amount NUMERIC(10, 2) NOT NULL)");
+            statement.execute("CREATE TABLE payment_goods (" + paymentGoods
+                    + " quantity BIGINT NOT NULL, unit_price NUMERIC(10, 2) NOT NULL)");
+
+            statement.execute("INSERT INTO users SELECT gen_random_uuid(), 'User ' || u FROM generate_series(1, 1000) u");
+            statement.execute("INSERT INTO goods SELECT g, 'Good ' || g, (g % 1000 + 1) / 10.0 "
+                    + "FROM generate_series(1, " + GOODS + ") g");
+            statement.execute("INSERT INTO payments SELECT p, u.id, 0 FROM generate_series(1, " + payments + ") p "
+                    + "JOIN (SELECT id, row_number() OVER () AS rn FROM users) u ON u.rn = p % 1000 + 1");
+            statement.execute("INSERT INTO payment_goods (payment_id, good_id, quantity, unit_price) "
+                    + "SELECT p, (p * 7 + k * 1009) % " + GOODS + " + 1, 1, 1 "
+                    + "FROM generate_series(1, " + payments + ") p, generate_series(0, " + (GOODS_PER_PAYMENT - 1) + ") k");
+
+            statement.execute("ALTER TABLE payment_goods ADD FOREIGN KEY (payment_id) REFERENCES payments, "
+                    + "ADD FOREIGN KEY (good_id) REFERENCES goods");
+            if ("composite".equals(key)) {
+                statement.execute("ALTER TABLE payment_goods ADD PRIMARY KEY (payment_id, good_id)");
+                statement.execute("CREATE INDEX ON payment_goods (good_id, payment_id)");
+            }
+            statement.execute("ANALYZE");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.sber.democrud.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sber.democrud.dto.PaymentResponseDto;
+import com.sber.democrud.mapper.GoodMapperImpl;
+import com.sber.democrud.mapper.PaymentMapper;
+import com.sber.democrud.mapper.PaymentMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение JSON и CBOR для {@link PaymentResponseDto}: время сериализации и десериализации, аллокации
+ * и размер тела (печатается в журнал прогона при подготовке состояния).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationFormatBenchmark {
+
+    /**
+     * Формат: {@code json} или {@code cbor}.
+     */
+    @Param({"json", "cbor"})
+    private String format;
+
+    /**
+     * Количество товаров в платеже.
+     */
+    @Param({"10", "1000"})
+    private int goodsCount;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private PaymentResponseDto payment;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("cbor".equals(format)) {
+            builder.factory(new CBORFactory());
+        }
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writerFor(PaymentResponseDto.class);
+        reader = objectMapper.readerFor(PaymentResponseDto.class);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                GoodMapperImpl.class, PaymentMapperImpl.class)) {
+            payment = context.getBean(PaymentMapper.class).toPaymentResponseDto(
+                    BenchmarkData.payment(1L, BenchmarkData.user(), BenchmarkData.goods(goodsCount)));
+        }
+        encoded = writer.writeValueAsBytes(payment);
+        System.out.printf("%nРазмер тела (%s, товаров: %d): %d байт%n", format, goodsCount, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(payment);
+    }
+
+    @Benchmark
+    public PaymentResponseDto deserialize() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,33 @@
+package com.sber.democrud.analytics;
+
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.repository.BuyerSketchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+
+import java.util.List;
+
+/**
+ * Учитывает покупателя в дневных оценках уникальных покупателей товаров и их типов.
+ * Выполняется синхронно в транзакции создания платежа.
+ */
+@RequiredArgsConstructor
+public class BuyerSketchRecorder {
+
+    private final BuyerSketchRepository buyerSketchRepository;
+
+    /**
+     * Поднимает регистр покупателя в оценках проданных товаров и их типов.
+     *
+     * @param event событие продажи.
+     */
+    @EventListener
+    public void onGoodsSold(GoodsSoldEvent event) {
+        long hash = HyperLogLog.hash(event.userId());
+        buyerSketchRepository.addBuyer(
+                event.quantities().keySet().stream().sorted().toList(),
+                event.types().stream().map(GoodTypesEnum::getCode).sorted().toList(),
+                HyperLogLog.registerIndex(hash),
+                HyperLogLog.rank(hash));
+    }
+}
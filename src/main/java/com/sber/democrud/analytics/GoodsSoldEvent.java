@@ -0,0 +1,17 @@
+package com.sber.democrud.analytics;
+
+import com.sber.democrud.entity.GoodTypesEnum;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Событие продажи товаров в созданном платеже.
+ *
+ * @param userId     идентификатор покупателя.
+ * @param quantities количество проданных единиц по идентификаторам товаров.
+ * @param types      типы проданных товаров.
+ */
+public record GoodsSoldEvent(UUID userId, Map<Long, Long> quantities, Set<GoodTypesEnum> types) {
+}
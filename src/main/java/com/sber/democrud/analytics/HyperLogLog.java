@@ -0,0 +1,132 @@
+package com.sber.democrud.analytics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Оценка числа уникальных пользователей по алгоритму HyperLogLog (Flajolet, Fusy, Gandouet, Meunier).
+ * <p>
+ * 2048 регистров по байту ({@code p = 11}), стандартная относительная ошибка {@code 1.04 / sqrt(2048)}, около 2,3%.
+ * Хеш и регистры совпадают с SQL-функциями {@code hll_add}/{@code hll_agg} (миграция V16), поэтому регистры
+ * из БД объединяются в памяти побайтовым максимумом. Класс не потокобезопасен.
+ */
+public class HyperLogLog {
+
+    /**
+     * Количество бит хеша, выбирающих регистр.
+     */
+    public static final int PRECISION = 11;
+
+    /**
+     * Количество регистров.
+     */
+    public static final int REGISTERS = 1 << PRECISION;
+
+    /**
+     * Стандартная относительная ошибка оценки.
+     */
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    private static final int MAX_RANK = Long.SIZE - PRECISION + 1;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    /**
+     * Хеш пользователя: первые 64 бита {@code md5} строкового представления идентификатора.
+     *
+     * @param userId идентификатор пользователя.
+     * @return 64-битный хеш.
+     */
+    public static long hash(UUID userId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5")
+                    .digest(userId.toString().getBytes(StandardCharsets.US_ASCII));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 недоступен", e);
+        }
+    }
+
+    /**
+     * Номер регистра для хеша: старшие {@link #PRECISION} бит.
+     *
+     * @param hash хеш пользователя.
+     * @return номер регистра.
+     */
+    public static int registerIndex(long hash) {
+        return (int) (hash >>> (Long.SIZE - PRECISION));
+    }
+
+    /**
+     * Ранг хеша: позиция первой единицы в оставшихся битах.
+     *
+     * @param hash хеш пользователя.
+     * @return ранг от 1 до {@code 64 - PRECISION + 1}.
+     */
+    public static int rank(long hash) {
+        return Math.min(Long.numberOfLeadingZeros(hash << PRECISION) + 1, MAX_RANK);
+    }
+
+    /**
+     * Учитывает пользователя.
+     *
+     * @param userId идентификатор пользователя.
+     */
+    public void add(UUID userId) {
+        long hash = hash(userId);
+        int index = registerIndex(hash);
+        registers[index] = (byte) Math.max(registers[index], rank(hash));
+    }
+
+    /**
+     * Объединяет с регистрами другой оценки.
+     *
+     * @param other регистры в формате {@link #toByteArray()}.
+     */
+    public void merge(byte[] other) {
+        if (other.length != REGISTERS) {
+            throw new IllegalArgumentException("Ожидалось " + REGISTERS + " регистров, получено " + other.length);
+        }
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other[i] > registers[i]) {
+                registers[i] = other[i];
+            }
+        }
+    }
+
+    /**
+     * Оценивает количество уникальных пользователей; для малых значений применяется линейный подсчёт
+     * по пустым регистрам.
+     *
+     * @return оценка.
+     */
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Возвращает копию регистров.
+     *
+     * @return регистры, по байту на регистр.
+     */
+    public byte[] toByteArray() {
+        return registers.clone();
+    }
+}
@@ -0,0 +1,15 @@
+package com.sber.democrud.analytics;
+
+/**
+ * Период группировки продаж.
+ */
+public enum SalesGranularity {
+    /**
+     * День.
+     */
+    DAY,
+    /**
+     * Календарный месяц.
+     */
+    MONTH
+}
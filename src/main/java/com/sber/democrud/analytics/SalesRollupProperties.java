@@ -0,0 +1,32 @@
+package com.sber.democrud.analytics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки инкрементального обновления агрегатов продаж ({@code app.analytics.rollup.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.analytics.rollup")
+public class SalesRollupProperties {
+
+    /**
+     * Включено ли периодическое обновление агрегатов.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Пауза между окончанием одного обновления и началом следующего.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * Отставание водяного знака от текущего времени БД. Платежи из транзакций, которые дольше этого
+     * срока остаются незафиксированными, в агрегаты не попадут.
+     */
+    private Duration lag = Duration.ofMinutes(1);
+}
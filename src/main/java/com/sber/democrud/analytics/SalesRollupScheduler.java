@@ -0,0 +1,29 @@
+package com.sber.democrud.analytics;
+
+import com.sber.democrud.service.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Периодически обновляет агрегаты продаж с интервалом {@code app.analytics.rollup.refresh-interval}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SalesRollupScheduler {
+
+    private final AnalyticsService analyticsService;
+
+    /**
+     * Обновляет агрегаты; ошибка записывается в журнал, следующая попытка выполняется по расписанию.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.refresh-interval:PT1M}",
+            initialDelayString = "${app.analytics.rollup.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            analyticsService.refreshSalesRollup();
+        } catch (RuntimeException e) {
+            log.error("Не удалось обновить агрегаты продаж", e);
+        }
+    }
+}
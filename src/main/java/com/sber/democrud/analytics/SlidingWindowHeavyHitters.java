@@ -0,0 +1,156 @@
+package com.sber.democrud.analytics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Частые элементы за скользящее окно: кольцо из {@code buckets} сводок {@link SpaceSavingSketch},
+ * каждая из которых покрывает {@code window / buckets}.
+ * <p>
+ * Устаревшая сводка очищается при первой записи в её слот, поэтому память ограничена
+ * {@code buckets * capacity} счётчиками. Окно сдвигается шагами по одной сводке: запрос учитывает
+ * текущую неполную сводку и {@code buckets - 1} предыдущих. При объединении сводок оценка ключа сверху —
+ * сумма его счётчиков плюс минимальные счётчики заполненных сводок, где ключа нет; оценка снизу — сумма
+ * {@code count - error}. Погрешность не превышает {@code total / capacity}, где {@code total} — вес за окно.
+ */
+public class SlidingWindowHeavyHitters {
+
+    private final SpaceSavingSketch[] sketches;
+
+    /**
+     * Номер периода, который покрывает сводка слота.
+     */
+    private final long[] periods;
+
+    private final long periodMillis;
+
+    private final Clock clock;
+
+    /**
+     * Создаёт пустое окно.
+     *
+     * @param capacity количество счётчиков в одной сводке.
+     * @param window   длительность окна.
+     * @param buckets  количество сводок в окне.
+     * @param clock    часы.
+     */
+    public SlidingWindowHeavyHitters(int capacity, Duration window, int buckets, Clock clock) {
+        if (buckets < 1 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Некорректное окно " + window + " из " + buckets + " сводок");
+        }
+        this.sketches = new SpaceSavingSketch[buckets];
+        for (int i = 0; i < buckets; i++) {
+            sketches[i] = new SpaceSavingSketch(capacity);
+        }
+        this.periods = new long[buckets];
+        Arrays.fill(periods, Long.MIN_VALUE);
+        this.periodMillis = window.toMillis() / buckets;
+        this.clock = clock;
+    }
+
+    /**
+     * Учитывает вес ключей в текущей сводке.
+     *
+     * @param weights положительные веса по ключам.
+     */
+    public synchronized void offer(Map<Long, Long> weights) {
+        long period = currentPeriod();
+        int slot = slot(period);
+        if (periods[slot] != period) {
+            sketches[slot].clear();
+            periods[slot] = period;
+        }
+        weights.forEach(sketches[slot]::offer);
+    }
+
+    /**
+     * Возвращает ключи с наибольшей оценкой за окно.
+     *
+     * @param limit максимальное количество ключей.
+     * @return ключи в порядке убывания оценки сверху.
+     */
+    public synchronized List<HeavyHitter> top(int limit) {
+        long period = currentPeriod();
+        Map<Long, long[]> merged = new HashMap<>();
+        long missingTotal = 0;
+        for (int slot = 0; slot < sketches.length; slot++) {
+            if (!isLive(slot, period)) {
+                continue;
+            }
+            SpaceSavingSketch sketch = sketches[slot];
+            long missing = sketch.missingBound();
+            missingTotal += missing;
+            for (SpaceSavingSketch.Counter counter : sketch.top(sketch.getCapacity())) {
+                // {сумма count, сумма count - error, сумма missingBound сводок, где ключ есть}
+                long[] sums = merged.computeIfAbsent(counter.getKey(), key -> new long[3]);
+                sums[0] += counter.getCount();
+                sums[1] += counter.getCount() - counter.getError();
+                sums[2] += missing;
+            }
+        }
+
+        List<HeavyHitter> result = new ArrayList<>(merged.size());
+        for (Map.Entry<Long, long[]> entry : merged.entrySet()) {
+            long[] sums = entry.getValue();
+            long upper = sums[0] + missingTotal - sums[2];
+            result.add(new HeavyHitter(entry.getKey(), upper, upper - sums[1]));
+        }
+        result.sort(Comparator.comparingLong(HeavyHitter::count).reversed()
+                .thenComparingLong(HeavyHitter::key));
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Суммарный вес за окно.
+     *
+     * @return суммарный вес.
+     */
+    public synchronized long total() {
+        long period = currentPeriod();
+        long total = 0;
+        for (int slot = 0; slot < sketches.length; slot++) {
+            if (isLive(slot, period)) {
+                total += sketches[slot].getTotal();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Начало самой старой сводки окна.
+     *
+     * @return момент начала окна.
+     */
+    public Instant windowStart() {
+        return Instant.ofEpochMilli((currentPeriod() - sketches.length + 1) * periodMillis);
+    }
+
+    private boolean isLive(int slot, long period) {
+        return periods[slot] > period - sketches.length && periods[slot] <= period;
+    }
+
+    private long currentPeriod() {
+        return clock.millis() / periodMillis;
+    }
+
+    private int slot(long period) {
+        return Math.floorMod(period, sketches.length);
+    }
+
+    /**
+     * Частый ключ: истинный вес лежит в интервале {@code [count - error, count]}.
+     *
+     * @param key   ключ.
+     * @param count оценка веса сверху.
+     * @param error погрешность оценки.
+     */
+    public record HeavyHitter(long key, long count, long error) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.sber.democrud.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Сводка частых элементов потока по алгоритму Space-Saving (Metwally, Agrawal, El Abbadi).
+ * <p>
+ * Хранит не более {@code capacity} счётчиков. Новый ключ при заполненной сводке вытесняет счётчик с минимальным
+ * значением и наследует его значение как погрешность. Для каждого ключа {@code count - error <= истинное <= count},
+ * а погрешность не превышает {@code total / capacity}, поэтому любой ключ с частотой больше {@code total / capacity}
+ * гарантированно присутствует в сводке. Класс не потокобезопасен.
+ */
+public class SpaceSavingSketch {
+
+    /**
+     * Порядок вытеснения: по значению счётчика, при равенстве — по ключу.
+     */
+    private static final Comparator<Counter> BY_COUNT = Comparator.comparingLong(Counter::getCount)
+            .thenComparingLong(Counter::getKey);
+
+    private final int capacity;
+
+    private final Map<Long, Counter> counters;
+
+    private final TreeSet<Counter> ordered = new TreeSet<>(BY_COUNT);
+
+    private long total;
+
+    /**
+     * Создаёт пустую сводку.
+     *
+     * @param capacity максимальное количество счётчиков.
+     */
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity должен быть положительным: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = HashMap.newHashMap(capacity);
+    }
+
+    /**
+     * Учитывает {@code weight} вхождений ключа.
+     *
+     * @param key    ключ.
+     * @param weight положительный вес.
+     */
+    public void offer(long key, long weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight должен быть положительным: " + weight);
+        }
+        total += weight;
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(key, 0, 0);
+            } else {
+                Counter evicted = ordered.pollFirst();
+                counters.remove(evicted.key);
+                counter = new Counter(key, evicted.count, evicted.count);
+            }
+            counters.put(key, counter);
+        } else {
+            ordered.remove(counter);
+        }
+        counter.count += weight;
+        ordered.add(counter);
+    }
+
+    /**
+     * Минимальное значение счётчика: верхняя граница частоты любого ключа, отсутствующего в заполненной сводке.
+     *
+     * @return минимальное значение или {@code 0}, если сводка не заполнена.
+     */
+    public long missingBound() {
+        return counters.size() < capacity ? 0 : ordered.first().count;
+    }
+
+    /**
+     * Возвращает счётчики в порядке убывания значения.
+     *
+     * @param limit максимальное количество счётчиков.
+     * @return копии счётчиков.
+     */
+    public List<Counter> top(int limit) {
+        List<Counter> result = new ArrayList<>(Math.min(limit, counters.size()));
+        Iterator<Counter> iterator = ordered.descendingIterator();
+        while (iterator.hasNext() && result.size() < limit) {
+            Counter counter = iterator.next();
+            result.add(new Counter(counter.key, counter.count, counter.error));
+        }
+        return result;
+    }
+
+    /**
+     * Суммарный вес всех учтённых вхождений.
+     *
+     * @return суммарный вес.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Максимальное количество счётчиков.
+     *
+     * @return ёмкость сводки.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Очищает сводку.
+     */
+    public void clear() {
+        counters.clear();
+        ordered.clear();
+        total = 0;
+    }
+
+    /**
+     * Счётчик ключа: оценка сверху {@code count} и погрешность {@code error}.
+     */
+    public static final class Counter {
+
+        private final long key;
+
+        private long count;
+
+        private final long error;
+
+        Counter(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.sber.democrud.analytics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки оценки самых продаваемых товаров за скользящее окно ({@code app.analytics.top-goods.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.analytics.top-goods")
+public class TopGoodsProperties {
+
+    /**
+     * Количество счётчиков в одной сводке. Погрешность оценки не больше {@code единиц за окно / capacity}.
+     */
+    private int capacity = 1000;
+
+    /**
+     * Длительность окна.
+     */
+    private Duration window = Duration.ofHours(1);
+
+    /**
+     * Количество сводок в окне: окно сдвигается шагами {@code window / buckets}.
+     */
+    private int buckets = 12;
+
+    /**
+     * Включена ли периодическая сверка оценки с точным запросом к БД.
+     */
+    private boolean reconcileEnabled = true;
+
+    /**
+     * Пауза между сверками.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+
+    /**
+     * Количество товаров, по которым выполняется сверка.
+     */
+    private int reconcileSize = 100;
+}
@@ -0,0 +1,84 @@
+package com.sber.democrud.analytics;
+
+import com.sber.democrud.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Периодически сверяет оценку самых продаваемых товаров с точным запросом к БД за то же окно
+ * и записывает в журнал полноту оценки и число товаров, чей точный вес вышел за границы погрешности.
+ * <p>
+ * Расхождения ожидаемы после перезапуска приложения (окно заполняется заново) и при нескольких
+ * экземплярах приложения (каждый видит только свои платежи).
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TopGoodsReconciler {
+
+    private final SlidingWindowHeavyHitters heavyHitters;
+
+    private final PaymentRepository paymentRepository;
+
+    private final TopGoodsProperties properties;
+
+    /**
+     * Выполняет сверку; ошибка записывается в журнал, следующая попытка выполняется по расписанию.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.top-goods.reconcile-interval:PT5M}",
+            initialDelayString = "${app.analytics.top-goods.reconcile-interval:PT5M}")
+    public void reconcile() {
+        try {
+            Reconciliation reconciliation = compare(properties.getReconcileSize());
+            log.info("Сверка самых продаваемых товаров: полнота {}, вне границ погрешности {} из {}",
+                    reconciliation.recall(), reconciliation.outOfBounds(), reconciliation.size());
+        } catch (RuntimeException e) {
+            log.error("Не удалось сверить самые продаваемые товары", e);
+        }
+    }
+
+    /**
+     * Сравнивает {@code size} самых продаваемых товаров по оценке и по БД.
+     *
+     * @param size количество товаров.
+     * @return результат сверки.
+     */
+    public Reconciliation compare(int size) {
+        LocalDateTime windowStart = LocalDateTime.ofInstant(heavyHitters.windowStart(), ZoneId.systemDefault());
+        List<PaymentRepository.GoodUnits> exact = paymentRepository.sumUnitsByGoodCreatedFrom(windowStart, size);
+        Map<Long, SlidingWindowHeavyHitters.HeavyHitter> estimated = heavyHitters.top(size).stream()
+                .collect(Collectors.toMap(SlidingWindowHeavyHitters.HeavyHitter::key, Function.identity()));
+
+        int found = 0;
+        int outOfBounds = 0;
+        for (PaymentRepository.GoodUnits good : exact) {
+            SlidingWindowHeavyHitters.HeavyHitter hitter = estimated.get(good.getGoodId());
+            if (hitter == null) {
+                continue;
+            }
+            found++;
+            if (good.getUnits() > hitter.count() || good.getUnits() < hitter.count() - hitter.error()) {
+                outOfBounds++;
+            }
+        }
+        double recall = exact.isEmpty() ? 1.0 : (double) found / exact.size();
+        return new Reconciliation(exact.size(), recall, outOfBounds);
+    }
+
+    /**
+     * Результат сверки.
+     *
+     * @param size        количество товаров по точному запросу.
+     * @param recall      доля этих товаров, найденных оценкой.
+     * @param outOfBounds количество найденных товаров, чей точный вес вне {@code [count - error, count]}.
+     */
+    public record Reconciliation(int size, double recall, int outOfBounds) {
+    }
+}
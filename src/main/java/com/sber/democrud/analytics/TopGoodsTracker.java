@@ -0,0 +1,24 @@
+package com.sber.democrud.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Передаёт продажи в оценку самых продаваемых товаров после фиксации транзакции платежа,
+ * поэтому откаченные платежи не учитываются.
+ */
+@RequiredArgsConstructor
+public class TopGoodsTracker {
+
+    private final SlidingWindowHeavyHitters heavyHitters;
+
+    /**
+     * Учитывает проданные единицы товаров.
+     *
+     * @param event событие продажи.
+     */
+    @TransactionalEventListener
+    public void onGoodsSold(GoodsSoldEvent event) {
+        heavyHitters.offer(event.quantities());
+    }
+}
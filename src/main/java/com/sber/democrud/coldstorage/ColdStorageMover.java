@@ -0,0 +1,88 @@
+package com.sber.democrud.coldstorage;
+
+import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.HotTableVacuumRepository;
+import com.sber.democrud.repository.PaymentRepository;
+import com.sber.democrud.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Периодически переносит записи, архивированные раньше {@code app.cold-storage.archived-age}, из рабочих таблиц
+ * в холодное хранилище порциями по {@code app.cold-storage.chunk-size} с паузой между порциями.
+ * <p>
+ * Сначала переносятся платежи, затем пользователи и товары, на которые больше не ссылаются платежи рабочих
+ * таблиц. Если включено {@code app.cold-storage.vacuum}, таблицы, из которых перенесены записи, сразу
+ * очищаются {@code VACUUM}: место удалённых строк в таблицах и индексах становится доступным новым записям,
+ * не дожидаясь autovacuum. Рабочие таблицы перестают расти за счёт архива, но файлы уменьшаются только
+ * на пустые страницы в конце.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ColdStorageMover {
+
+    private final PaymentRepository paymentRepository;
+
+    private final UserRepository userRepository;
+
+    private final GoodRepository goodRepository;
+
+    private final HotTableVacuumRepository vacuumRepository;
+
+    private final ColdStorageProperties properties;
+
+    private final Clock clock;
+
+    /**
+     * Переносит записи; ошибка записывается в журнал, перенос продолжается при следующем запуске.
+     */
+    @Scheduled(fixedDelayString = "${app.cold-storage.check-interval:PT1H}")
+    public void moveArchived() {
+        LocalDateTime archivedBefore = LocalDateTime.now(clock).minus(properties.getArchivedAge());
+        move("платежей", limit -> paymentRepository.moveToColdStorage(archivedBefore, limit),
+                List.of("payments", "payment_goods"));
+        move("пользователей", limit -> userRepository.moveToColdStorage(archivedBefore, limit), List.of("users"));
+        move("товаров", limit -> goodRepository.moveToColdStorage(archivedBefore, limit), List.of("goods"));
+    }
+
+    private void move(String entities, IntUnaryOperator moveChunk, List<String> tables) {
+        int chunkSize = properties.getChunkSize();
+        long moved = 0;
+        try {
+            int count;
+            do {
+                count = moveChunk.applyAsInt(chunkSize);
+                moved += count;
+                if (count == chunkSize) {
+                    Thread.sleep(properties.getChunkPause().toMillis());
+                }
+            } while (count == chunkSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Не удалось перенести архивированные записи {} в холодное хранилище", entities, e);
+        }
+        if (moved > 0) {
+            log.info("В холодное хранилище перенесено {}: {}", entities, moved);
+            if (properties.isVacuum()) {
+                vacuum(tables);
+            }
+        }
+    }
+
+    private void vacuum(List<String> tables) {
+        for (String table : tables) {
+            try {
+                vacuumRepository.vacuum(table);
+            } catch (RuntimeException e) {
+                log.error("Не удалось очистить таблицу {} после переноса в холодное хранилище", table, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.sber.democrud.coldstorage;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки переноса давно архивированных записей в холодное хранилище ({@code app.cold-storage.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.cold-storage")
+public class ColdStorageProperties {
+
+    /**
+     * Включён ли периодический перенос.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Сколько времени архивированная запись остаётся в рабочей таблице.
+     */
+    private Duration archivedAge = Duration.ofDays(30);
+
+    /**
+     * Максимальное количество записей, переносимых одной транзакцией.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Пауза между порциями: перенос не занимает БД надолго и оставляет место рабочей нагрузке.
+     */
+    private Duration chunkPause = Duration.ofMillis(200);
+
+    /**
+     * Пауза между запусками переноса. Первый запуск выполняется при старте приложения.
+     */
+    private Duration checkInterval = Duration.ofHours(1);
+
+    /**
+     * Очищать ли {@code VACUUM} рабочие таблицы, из которых перенесены записи, сразу после переноса.
+     */
+    private boolean vacuum = true;
+}
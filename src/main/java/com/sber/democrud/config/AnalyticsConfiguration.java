@@ -0,0 +1,111 @@
+package com.sber.democrud.config;
+
+import com.sber.democrud.analytics.BuyerSketchRecorder;
+import com.sber.democrud.analytics.SalesRollupProperties;
+import com.sber.democrud.analytics.SalesRollupScheduler;
+import com.sber.democrud.analytics.SlidingWindowHeavyHitters;
+import com.sber.democrud.analytics.TopGoodsProperties;
+import com.sber.democrud.analytics.TopGoodsReconciler;
+import com.sber.democrud.analytics.TopGoodsTracker;
+import com.sber.democrud.repository.BuyerSketchRepository;
+import com.sber.democrud.repository.PaymentRepository;
+import com.sber.democrud.service.AnalyticsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+/**
+ * Конфигурация аналитики продаж.
+ * <p>
+ * Агрегаты продаж обновляются по расписанию, если не отключено {@code app.analytics.rollup.enabled}.
+ * Самые продаваемые товары оцениваются в памяти по созданным платежам и периодически сверяются с БД,
+ * если не отключено {@code app.analytics.top-goods.reconcile-enabled}. Уникальные покупатели учитываются
+ * в дневных оценках HyperLogLog в транзакции создания платежа.
+ */
+@Configuration
+@EnableConfigurationProperties({SalesRollupProperties.class, TopGoodsProperties.class})
+public class AnalyticsConfiguration {
+
+    /**
+     * Создаёт оценку самых продаваемых товаров за скользящее окно.
+     *
+     * @param properties настройки оценки.
+     * @return оценка самых продаваемых товаров.
+     */
+    @Bean
+    public SlidingWindowHeavyHitters topGoodsHeavyHitters(TopGoodsProperties properties) {
+        return new SlidingWindowHeavyHitters(properties.getCapacity(), properties.getWindow(),
+                properties.getBuckets(), Clock.systemUTC());
+    }
+
+    /**
+     * Создаёт слушатель продаж, передающий проданные единицы в оценку.
+     *
+     * @param topGoodsHeavyHitters оценка самых продаваемых товаров.
+     * @return слушатель продаж.
+     */
+    @Bean
+    public TopGoodsTracker topGoodsTracker(SlidingWindowHeavyHitters topGoodsHeavyHitters) {
+        return new TopGoodsTracker(topGoodsHeavyHitters);
+    }
+
+    /**
+     * Создаёт слушатель продаж, учитывающий покупателей в дневных оценках HyperLogLog.
+     *
+     * @param buyerSketchRepository репозиторий оценок уникальных покупателей.
+     * @return слушатель продаж.
+     */
+    @Bean
+    public BuyerSketchRecorder buyerSketchRecorder(BuyerSketchRepository buyerSketchRepository) {
+        return new BuyerSketchRecorder(buyerSketchRepository);
+    }
+
+    /**
+     * Периодическое обновление агрегатов продаж.
+     */
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "app.analytics.rollup.enabled", havingValue = "true", matchIfMissing = true)
+    static class RollupSchedulingConfiguration {
+
+        /**
+         * Создаёт планировщик обновления агрегатов продаж.
+         *
+         * @param analyticsService сервис аналитики продаж.
+         * @return планировщик.
+         */
+        @Bean
+        public SalesRollupScheduler salesRollupScheduler(AnalyticsService analyticsService) {
+            return new SalesRollupScheduler(analyticsService);
+        }
+    }
+
+    /**
+     * Периодическая сверка самых продаваемых товаров с БД.
+     */
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "app.analytics.top-goods.reconcile-enabled", havingValue = "true",
+            matchIfMissing = true)
+    static class TopGoodsReconcileConfiguration {
+
+        /**
+         * Создаёт сверку самых продаваемых товаров.
+         *
+         * @param topGoodsHeavyHitters оценка самых продаваемых товаров.
+         * @param paymentRepository    репозиторий платежей.
+         * @param properties           настройки оценки.
+         * @return сверка.
+         */
+        @Bean
+        public TopGoodsReconciler topGoodsReconciler(SlidingWindowHeavyHitters topGoodsHeavyHitters,
+                                                     PaymentRepository paymentRepository,
+                                                     TopGoodsProperties properties) {
+            return new TopGoodsReconciler(topGoodsHeavyHitters, paymentRepository, properties);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.sber.democrud.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Конфигурация двоичного формата CBOR ({@code application/cbor}) для тел запросов и ответов всех контроллеров.
+ * <p>
+ * Формат выбирается по заголовкам {@code Content-Type} и {@code Accept}; без них используется JSON.
+ * CBOR сериализуется тем же набором модулей и настроек Jackson, что и JSON, поэтому структура данных
+ * в обоих форматах совпадает.
+ */
+@Configuration
+public class CborConfiguration {
+
+    /**
+     * Создаёт конвертер CBOR на основе настроенного Spring Boot построителя {@code ObjectMapper}.
+     * Заменяет конвертер по умолчанию, который создаётся Spring MVC без настроек {@code spring.jackson.*}.
+     *
+     * @param objectMapperBuilder построитель {@code ObjectMapper} с настройками приложения.
+     * @return конвертер CBOR.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+}
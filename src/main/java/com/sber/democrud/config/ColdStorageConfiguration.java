@@ -0,0 +1,46 @@
+package com.sber.democrud.config;
+
+import com.sber.democrud.coldstorage.ColdStorageMover;
+import com.sber.democrud.coldstorage.ColdStorageProperties;
+import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.HotTableVacuumRepository;
+import com.sber.democrud.repository.PaymentRepository;
+import com.sber.democrud.repository.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+/**
+ * Конфигурация переноса давно архивированных записей в холодное хранилище.
+ * Активна, если не отключено {@code app.cold-storage.enabled}.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ColdStorageProperties.class)
+@ConditionalOnProperty(name = "app.cold-storage.enabled", havingValue = "true", matchIfMissing = true)
+public class ColdStorageConfiguration {
+
+    /**
+     * Создаёт перенос в холодное хранилище. Возраст архивации отсчитывается по часовому поясу приложения,
+     * как и дата архивации.
+     *
+     * @param paymentRepository репозиторий платежей.
+     * @param userRepository    репозиторий пользователей.
+     * @param goodRepository    репозиторий товаров.
+     * @param vacuumRepository  очистка рабочих таблиц.
+     * @param properties        настройки переноса.
+     * @return перенос в холодное хранилище.
+     */
+    @Bean
+    public ColdStorageMover coldStorageMover(PaymentRepository paymentRepository, UserRepository userRepository,
+                                             GoodRepository goodRepository,
+                                             HotTableVacuumRepository vacuumRepository,
+                                             ColdStorageProperties properties) {
+        return new ColdStorageMover(paymentRepository, userRepository, goodRepository, vacuumRepository, properties,
+                Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,74 @@
+package com.sber.democrud.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.limiter.AdaptiveConcurrencyLimiter;
+import com.sber.democrud.limiter.ConcurrencyLimitFilter;
+import com.sber.democrud.limiter.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Конфигурация адаптивного ограничения параллелизма для контроллеров {@code /api/*}.
+ * <p>
+ * Публикует метрики {@code api.concurrency.limit}, {@code api.concurrency.in-flight}
+ * и {@code api.concurrency.rejected} с тегом {@code kind=read|write}.
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfiguration {
+
+    /**
+     * Регистрирует фильтр ограничения параллелизма в начале цепочки для {@code /api/*}.
+     *
+     * @param properties    настройки ограничения.
+     * @param objectMapper  объект для сериализации ответов об ошибке.
+     * @param meterRegistry реестр метрик.
+     * @return регистрация фильтра.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                 ObjectMapper objectMapper,
+                                                                                 MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter readLimiter = properties.getRead().toLimiter();
+        AdaptiveConcurrencyLimiter writeLimiter = properties.getWrite().toLimiter();
+        bindMetrics(meterRegistry, "read", readLimiter);
+        bindMetrics(meterRegistry, "write", writeLimiter);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(readLimiter, writeLimiter,
+                        Math.max(1, properties.getRetryAfter().toSeconds()), objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /**
+     * Регистрирует метрики ограничителя.
+     *
+     * @param meterRegistry реестр метрик.
+     * @param kind          вид запросов ({@code read} или {@code write}).
+     * @param limiter       ограничитель.
+     */
+    private static void bindMetrics(MeterRegistry meterRegistry, String kind, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("api.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Текущий адаптивный лимит одновременных запросов")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        Gauge.builder("api.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Число выполняющихся запросов")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        FunctionCounter.builder("api.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .description("Число запросов, отклонённых со статусом 503")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
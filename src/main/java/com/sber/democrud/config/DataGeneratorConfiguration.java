@@ -0,0 +1,32 @@
+package com.sber.democrud.config;
+
+import com.sber.democrud.datagen.DataGenerator;
+import com.sber.democrud.datagen.DataGeneratorProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация генератора синтетических данных. Активна только в профиле {@code datagen}:
+ * генерация выполняется при запуске приложения, после миграций Flyway.
+ */
+@Configuration
+@Profile("datagen")
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class DataGeneratorConfiguration {
+
+    /**
+     * Создаёт генератор данных.
+     *
+     * @param dataSource источник данных.
+     * @param properties настройки генерации.
+     * @return генератор данных.
+     */
+    @Bean
+    public DataGenerator dataGenerator(DataSource dataSource, DataGeneratorProperties properties) {
+        return new DataGenerator(dataSource, properties);
+    }
+}
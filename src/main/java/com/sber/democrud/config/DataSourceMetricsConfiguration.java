@@ -0,0 +1,40 @@
+package com.sber.democrud.config;
+
+import com.sber.democrud.datasource.ConnectionHoldTimeDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация метрик использования соединений с БД.
+ * <p>
+ * При выключенном open-session-in-view соединение удерживается только на время транзакции или запроса
+ * репозитория; метрика {@code db.connection.hold} показывает это время по каждому эндпоинту.
+ */
+@Configuration
+public class DataSourceMetricsConfiguration {
+
+    /**
+     * Оборачивает бин {@link DataSource} в {@link ConnectionHoldTimeDataSource}.
+     *
+     * @param meterRegistry поставщик реестра метрик.
+     * @return пост-процессор бинов источника данных.
+     */
+    @Bean
+    public static BeanPostProcessor connectionHoldTimeDataSourcePostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionHoldTimeDataSource)) {
+                    return new ConnectionHoldTimeDataSource(dataSource, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+}
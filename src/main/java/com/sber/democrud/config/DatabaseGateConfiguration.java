@@ -0,0 +1,57 @@
+package com.sber.democrud.config;
+
+import com.sber.democrud.datasource.ConcurrencyGatedDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Конфигурация «шлюза» перед пулом соединений.
+ * <p>
+ * Всегда включается вместе с {@code spring.threads.virtual.enabled=true}: в этом режиме Tomcat больше
+ * не ограничивает число одновременно обрабатываемых запросов, и ограничение переносится на доступ к БД.
+ * В режиме пула платформенных потоков включается настройкой {@code app.db.gate.enabled}; тогда ожидание
+ * соединения ограничивается остатком бюджета запроса.
+ */
+@Configuration
+@ConditionalOnExpression("${app.db.gate.enabled:false} or ${spring.threads.virtual.enabled:false}")
+public class DatabaseGateConfiguration {
+    /**
+     * Логгер.
+     */
+    private static final Logger log = LoggerFactory.getLogger(DatabaseGateConfiguration.class);
+
+    /**
+     * Оборачивает бин {@link DataSource} в {@link ConcurrencyGatedDataSource}.
+     * Метод статический, чтобы пост-процессор регистрировался до создания остальных бинов.
+     *
+     * @param environment окружение с настройками {@code app.db.gate.*}.
+     * @return пост-процессор бинов источника данных.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyGatedDataSourcePostProcessor(Environment environment) {
+        int maxConcurrency = environment.getProperty("app.db.gate.max-concurrency", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = environment.getProperty("app.db.gate.acquire-timeout", Duration.class,
+                Duration.ofSeconds(30));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyGatedDataSource)) {
+                    log.info("Источник данных '{}' ограничен {} одновременными соединениями (ожидание до {})",
+                            beanName, maxConcurrency, acquireTimeout);
+                    return new ConcurrencyGatedDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
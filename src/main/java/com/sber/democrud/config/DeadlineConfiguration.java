@@ -0,0 +1,66 @@
+package com.sber.democrud.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.datasource.DeadlineAwareDataSource;
+import com.sber.democrud.deadline.DeadlineFilter;
+import com.sber.democrud.deadline.DeadlineProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация крайних сроков обработки запросов.
+ * <p>
+ * Фильтр {@link DeadlineFilter} устанавливает срок до ограничителя параллелизма, поэтому время,
+ * проведённое в любой очереди, расходует бюджет запроса. Источник данных оборачивается в
+ * {@link DeadlineAwareDataSource}, который переносит остаток бюджета в таймауты JDBC.
+ */
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+@ConditionalOnProperty(name = "app.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineConfiguration {
+
+    /**
+     * Регистрирует фильтр крайних сроков первым в цепочке для {@code /api/*}.
+     *
+     * @param properties    настройки крайних сроков.
+     * @param objectMapper  объект для сериализации ответов об ошибке.
+     * @param meterRegistry реестр метрик.
+     * @return регистрация фильтра.
+     */
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(DeadlineProperties properties,
+                                                                 ObjectMapper objectMapper,
+                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(
+                new DeadlineFilter(properties, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Оборачивает бин {@link DataSource} в {@link DeadlineAwareDataSource}.
+     *
+     * @return пост-процессор бинов источника данных.
+     */
+    @Bean
+    public static BeanPostProcessor deadlineAwareDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DeadlineAwareDataSource)) {
+                    return new DeadlineAwareDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
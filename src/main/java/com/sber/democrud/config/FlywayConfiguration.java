@@ -0,0 +1,23 @@
+package com.sber.democrud.config;
+
+import com.sber.democrud.migration.SeedUserIdsCallback;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация обработчиков Flyway. Spring Boot передаёт Flyway все бины
+ * {@link org.flywaydb.core.api.callback.Callback}.
+ */
+@Configuration
+public class FlywayConfiguration {
+
+    /**
+     * Создаёт подготовку новой БД к миграции {@code V5}.
+     *
+     * @return обработчик Flyway.
+     */
+    @Bean
+    public SeedUserIdsCallback seedUserIdsCallback() {
+        return new SeedUserIdsCallback();
+    }
+}
@@ -0,0 +1,31 @@
+package com.sber.democrud.config;
+
+import com.sber.democrud.repository.GoodSearchRepository;
+import com.sber.democrud.search.GoodPrefixIndex;
+import com.sber.democrud.search.GoodSearchProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Конфигурация подсказок по названию товара.
+ */
+@Configuration
+@EnableConfigurationProperties(GoodSearchProperties.class)
+public class GoodSearchConfiguration {
+
+    /**
+     * Создаёт индекс результатов по коротким префиксам названия.
+     *
+     * @param goodSearchRepository репозиторий поиска товаров.
+     * @param properties           настройки подсказок.
+     * @return индекс префиксов.
+     */
+    @Bean
+    public GoodPrefixIndex goodPrefixIndex(GoodSearchRepository goodSearchRepository,
+                                           GoodSearchProperties properties) {
+        return new GoodPrefixIndex(goodSearchRepository, properties, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,38 @@
+package com.sber.democrud.config;
+
+import com.sber.democrud.partition.PaymentPartitionMaintainer;
+import com.sber.democrud.partition.PaymentPartitionProperties;
+import com.sber.democrud.repository.PaymentPartitionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+/**
+ * Конфигурация обслуживания месячных секций платежей. Активна, если не отключено {@code app.partitions.enabled}.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(PaymentPartitionProperties.class)
+@ConditionalOnProperty(name = "app.partitions.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentPartitionConfiguration {
+
+    /**
+     * Создаёт обслуживание секций. Месяц определяется по часовому поясу приложения. Дата покупки задаётся часами
+     * БД ({@code CURRENT_TIMESTAMP}) в часовом поясе сеанса, а драйвер PostgreSQL устанавливает его равным
+     * часовому поясу приложения, поэтому месяцы совпадают; расхождение часов на границе месяца покрывает запас
+     * секций вперёд.
+     *
+     * @param partitionRepository репозиторий секций платежей.
+     * @param properties          настройки обслуживания секций.
+     * @return обслуживание секций.
+     */
+    @Bean
+    public PaymentPartitionMaintainer paymentPartitionMaintainer(PaymentPartitionRepository partitionRepository,
+                                                                 PaymentPartitionProperties properties) {
+        return new PaymentPartitionMaintainer(partitionRepository, properties, Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,122 @@
+package com.sber.democrud.controller;
+
+import com.sber.democrud.analytics.SalesGranularity;
+import com.sber.democrud.dto.SalesResponseDto;
+import com.sber.democrud.dto.TopGoodResponseDto;
+import com.sber.democrud.dto.UniqueBuyersResponseDto;
+import com.sber.democrud.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST контроллер аналитики продаж.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    /**
+     * Сервис аналитики продаж.
+     */
+    private final AnalyticsService analyticsService;
+
+    /**
+     * Конструктор для внедрения зависимости сервиса {@link AnalyticsService}.
+     *
+     * @param analyticsService сервис аналитики продаж.
+     */
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * Получает выручку и количество проданных единиц по типам товаров за период.
+     *
+     * @param from        первый день (включительно).
+     * @param to          последний день (включительно).
+     * @param granularity период группировки: {@code DAY} или {@code MONTH}.
+     * @param type        тип товара; без него возвращаются все типы.
+     * @return {@link ResponseEntity}, содержащий список {@link SalesResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Продажи по типам товаров",
+            description = "Возвращает выручку и количество единиц по дням или месяцам из агрегатов, "
+                    + "обновляемых с интервалом app.analytics.rollup.refresh-interval")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Продажи получены",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = SalesResponseDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @GetMapping("/sales")
+    public ResponseEntity<List<SalesResponseDto>> getSales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "granularity", defaultValue = "DAY") SalesGranularity granularity,
+            @RequestParam(value = "type", required = false) String type) {
+        return ResponseEntity.ok(analyticsService.getSales(from, to, granularity, type));
+    }
+
+    /**
+     * Получает самые продаваемые товары за скользящее окно.
+     *
+     * @param limit количество товаров (по умолчанию 100).
+     * @return {@link ResponseEntity}, содержащий список {@link TopGoodResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Самые продаваемые товары",
+            description = "Возвращает оценку проданных единиц за окно app.analytics.top-goods.window "
+                    + "с погрешностью: истинное значение лежит в [units - error, units]")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Товары получены",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = TopGoodResponseDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @GetMapping("/top-goods")
+    public ResponseEntity<List<TopGoodResponseDto>> getTopGoods(
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(analyticsService.getTopGoods(limit));
+    }
+
+    /**
+     * Оценивает число уникальных покупателей товара или типа товаров за период.
+     *
+     * @param from   первый день (включительно).
+     * @param to     последний день (включительно).
+     * @param goodId идентификатор товара.
+     * @param type   тип товара; задаётся вместо {@code goodId}.
+     * @return {@link ResponseEntity}, содержащий {@link UniqueBuyersResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Уникальные покупатели",
+            description = "Оценивает число уникальных покупателей товара или типа товаров за период "
+                    + "по дневным оценкам HyperLogLog со стандартной ошибкой около 2,3%")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Оценка получена",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UniqueBuyersResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @GetMapping("/unique-buyers")
+    public ResponseEntity<UniqueBuyersResponseDto> getUniqueBuyers(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "goodId", required = false) Long goodId,
+            @RequestParam(value = "type", required = false) String type) {
+        return ResponseEntity.ok(analyticsService.getUniqueBuyers(from, to, goodId, type));
+    }
+}
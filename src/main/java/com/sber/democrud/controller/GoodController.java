@@ -1,18 +1,30 @@
 package com.sber.democrud.controller;
 
+import com.sber.democrud.dto.BulkArchiveResponseDto;
+import com.sber.democrud.dto.GoodImportResponseDto;
 import com.sber.democrud.dto.GoodRequestDto;
 import com.sber.democrud.dto.GoodResponseDto;
+import com.sber.democrud.dto.GoodSearchResponseDto;
+import com.sber.democrud.dto.GoodSuggestionDto;
 import com.sber.democrud.service.GoodService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 /**
  * REST контроллер для управления товарами.
  */
@@ -73,6 +85,105 @@ public class GoodController {
         return new ResponseEntity<>(goodService.getGoodById(id), HttpStatus.OK);
     }
 
+    /**
+     * Получает только указанные поля товара.
+     * Невостребованные поля не читаются из БД и не попадают в ответ.
+     *
+     * @param id     идентификатор товара.
+     * @param fields поля {@link GoodResponseDto} через запятую, например {@code fields=id,name,price}.
+     * @return ответ со значениями запрошенных полей и статусом HTTP 200 OK.
+     */
+    @Operation(summary = "Получение выбранных полей товара по ID",
+            description = "Возвращает только поля товара, перечисленные в параметре fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Товар найден",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Неизвестное поле",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Товар не найден",
+                    content = @Content)
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getGoodFieldsById(@PathVariable Long id,
+                                                                 @RequestParam List<String> fields) {
+        return ResponseEntity.ok(goodService.getGoodFieldsById(id, fields));
+    }
+
+    /**
+     * Ищет активные товары по словам названия и описания с сортировкой по релевантности.
+     *
+     * @param q     запрос: слова, {@code "фраза"}, {@code or}, {@code -слово}.
+     * @param type  тип товара; без него ищется по всем типам.
+     * @param limit размер страницы (по умолчанию 20).
+     * @param after курсор {@code nextCursor} предыдущей страницы; без него возвращается первая страница.
+     * @return {@link ResponseEntity}, содержащий {@link GoodSearchResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Полнотекстовый поиск товаров",
+            description = "Возвращает активные товары, подходящие под запрос, по убыванию релевантности; "
+                    + "совпадения в названии весят больше совпадений в описании")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница найденных товаров",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = GoodSearchResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @GetMapping("/search")
+    public ResponseEntity<GoodSearchResponseDto> searchGoods(
+            @RequestParam("q") String q,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "after", required = false) String after) {
+        return ResponseEntity.ok(goodService.searchGoods(q, type, limit, after));
+    }
+
+    /**
+     * Ищет активные товары по началу названия без учёта регистра для подсказок при вводе.
+     *
+     * @param q     начало названия.
+     * @param limit количество товаров (по умолчанию 10).
+     * @return {@link ResponseEntity}, содержащий список {@link GoodSuggestionDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Поиск товаров по началу названия",
+            description = "Возвращает id, название и цену активных товаров по алфавиту названий")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Товары найдены",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = GoodSuggestionDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @GetMapping("/search/prefix")
+    public ResponseEntity<List<GoodSuggestionDto>> findGoodsByNamePrefix(
+            @RequestParam("q") String q,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(goodService.findGoodsByNamePrefix(q, limit));
+    }
+
+    /**
+     * Ищет активные товары, в названии которых есть слово, похожее на запрос: допускает опечатки
+     * и незаконченное слово.
+     *
+     * @param q     искомое слово.
+     * @param limit количество товаров (по умолчанию 10).
+     * @return {@link ResponseEntity}, содержащий список {@link GoodSuggestionDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Поиск товаров по похожему названию",
+            description = "Возвращает id, название и цену активных товаров по убыванию сходства названия с запросом")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Товары найдены",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = GoodSuggestionDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @GetMapping("/search/similar")
+    public ResponseEntity<List<GoodSuggestionDto>> findGoodsBySimilarName(
+            @RequestParam("q") String q,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(goodService.findGoodsBySimilarName(q, limit));
+    }
+
     /**
      * Обновляет данные товара по его идентификатору.
      *
@@ -114,5 +225,68 @@ public class GoodController {
     public ResponseEntity<GoodResponseDto> archiveGoodById(@PathVariable Long id) {
         return new ResponseEntity<>(goodService.archiveGoodById(id), HttpStatus.OK);
     }
-}
 
+    /**
+     * Массово архивирует товары по списку идентификаторов.
+     * Уже архивированные записи не изменяются.
+     *
+     * @param ids идентификаторы товаров.
+     * @return {@link ResponseEntity}, содержащий {@link BulkArchiveResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Массовая архивация товаров по списку ID",
+            description = "Возвращает количество архивированных товаров")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Товары архивированы",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkArchiveResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @PostMapping("/archive/bulk")
+    public ResponseEntity<BulkArchiveResponseDto> archiveGoodsByIds(@RequestBody @NotEmpty List<Long> ids) {
+        return ResponseEntity.ok(goodService.archiveGoodsByIds(ids));
+    }
+
+    /**
+     * Массово архивирует все активные товары, созданные раньше указанной даты.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @return {@link ResponseEntity}, содержащий {@link BulkArchiveResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Массовая архивация товаров, созданных до указанной даты",
+            description = "Возвращает количество архивированных товаров")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Товары архивированы",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkArchiveResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @PostMapping("/archive/bulk/created-before")
+    public ResponseEntity<BulkArchiveResponseDto> archiveGoodsCreatedBefore(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore) {
+        return ResponseEntity.ok(goodService.archiveGoodsCreatedBefore(createdBefore));
+    }
+
+    /**
+     * Импортирует товары из CSV-файла, переданного телом запроса.
+     * Товары сопоставляются с активными по названию: найденные обновляются, остальные добавляются.
+     *
+     * @param csv тело запроса: CSV в UTF-8 с заголовком {@code name,type,description,price,stock_quantity}.
+     * @return {@link ResponseEntity}, содержащий {@link GoodImportResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Импорт товаров из CSV",
+            description = "Добавляет и обновляет товары по названию; строки с ошибками пропускаются "
+                    + "и возвращаются в ответе с номером строки")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Импорт выполнен",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = GoodImportResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Файл не в кодировке UTF-8",
+                    content = @Content)
+    })
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<GoodImportResponseDto> importGoods(InputStream csv) {
+        return ResponseEntity.ok(goodService.importGoods(csv));
+    }
+}
@@ -1,5 +1,6 @@
 package com.sber.democrud.controller;
 
+import com.sber.democrud.dto.BulkArchiveResponseDto;
 import com.sber.democrud.dto.PaymentRequestDto;
 import com.sber.democrud.dto.PaymentResponseDto;
 import com.sber.democrud.service.PaymentService;
@@ -9,10 +10,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Контроллер REST API для управления платежами.
  */
@@ -114,4 +120,46 @@ public class PaymentController {
     public ResponseEntity<PaymentResponseDto> archivePaymentById(@PathVariable Long id) {
         return new ResponseEntity<>(paymentService.archivePaymentById(id), HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    /**
+     * Массово архивирует платежи по списку идентификаторов.
+     * Уже архивированные записи не изменяются.
+     *
+     * @param ids идентификаторы платежей.
+     * @return {@link ResponseEntity}, содержащий {@link BulkArchiveResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Массовая архивация платежей по списку ID",
+            description = "Возвращает количество архивированных платежей")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Платежи архивированы",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkArchiveResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @PostMapping("/archive/bulk")
+    public ResponseEntity<BulkArchiveResponseDto> archivePaymentsByIds(@RequestBody @NotEmpty List<Long> ids) {
+        return ResponseEntity.ok(paymentService.archivePaymentsByIds(ids));
+    }
+
+    /**
+     * Массово архивирует все активные платежи, созданные раньше указанной даты.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @return {@link ResponseEntity}, содержащий {@link BulkArchiveResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Массовая архивация платежей, созданных до указанной даты",
+            description = "Возвращает количество архивированных платежей")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Платежи архивированы",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkArchiveResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @PostMapping("/archive/bulk/created-before")
+    public ResponseEntity<BulkArchiveResponseDto> archivePaymentsCreatedBefore(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore) {
+        return ResponseEntity.ok(paymentService.archivePaymentsCreatedBefore(createdBefore));
+    }
+}
@@ -1,7 +1,9 @@
 package com.sber.democrud.controller;
 
+import com.sber.democrud.dto.BulkArchiveResponseDto;
 import com.sber.democrud.dto.UserRequestDto;
 import com.sber.democrud.dto.UserResponseDto;
+import com.sber.democrud.dto.UserSpendSummaryResponseDto;
 import com.sber.democrud.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,10 +11,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -80,6 +87,52 @@ public class UserController {
         return ResponseEntity.ok(userResponseDto);
     }
 
+    /**
+     * Получает только указанные поля пользователя.
+     * Невостребованные поля не читаются из БД и не попадают в ответ.
+     *
+     * @param id     идентификатор пользователя.
+     * @param fields поля {@link UserResponseDto} через запятую, например {@code fields=id,name,email};
+     *               платежи возвращаются, только если указано поле {@code payments}.
+     * @return {@link ResponseEntity}, содержащий значения запрошенных полей и статус 200 (OK).
+     */
+    @Operation(summary = "Получение выбранных полей пользователя по ID",
+            description = "Возвращает только поля пользователя, перечисленные в параметре fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователь найден",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Неизвестное поле",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден",
+                    content = @Content)
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getUserFieldsById(
+            @PathVariable UUID id,
+            @RequestParam List<String> fields) {
+        return ResponseEntity.ok(userService.getUserFieldsById(id, fields));
+    }
+
+    /**
+     * Получает сводку покупок пользователя без загрузки его платежей.
+     *
+     * @param id идентификатор пользователя.
+     * @return {@link ResponseEntity}, содержащий {@link UserSpendSummaryResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Сводка покупок пользователя",
+            description = "Возвращает сумму и количество активных платежей пользователя и дату последней покупки")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Сводка получена",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserSpendSummaryResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден",
+                    content = @Content)
+    })
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<UserSpendSummaryResponseDto> getUserSpendSummary(@PathVariable UUID id) {
+        return ResponseEntity.ok(userService.getUserSpendSummary(id));
+    }
+
     /**
      * Обновляет существующего пользователя по идентификатору.
      *
@@ -122,4 +175,46 @@ public class UserController {
     public ResponseEntity<UserResponseDto> archiveUserById(@PathVariable UUID id) {
         return new ResponseEntity<>(userService.archiveUserById(id), HttpStatus.OK);
     }
+
+    /**
+     * Массово архивирует пользователей по списку идентификаторов.
+     * Уже архивированные записи не изменяются.
+     *
+     * @param ids идентификаторы пользователей.
+     * @return {@link ResponseEntity}, содержащий {@link BulkArchiveResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Массовая архивация пользователей по списку ID",
+            description = "Возвращает количество архивированных пользователей")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователи архивированы",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkArchiveResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @PostMapping("/archive/bulk")
+    public ResponseEntity<BulkArchiveResponseDto> archiveUsersByIds(@RequestBody @NotEmpty List<UUID> ids) {
+        return ResponseEntity.ok(userService.archiveUsersByIds(ids));
+    }
+
+    /**
+     * Массово архивирует все активные пользователей, созданные раньше указанной даты.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @return {@link ResponseEntity}, содержащий {@link BulkArchiveResponseDto} и статус 200 (OK).
+     */
+    @Operation(summary = "Массовая архивация пользователей, созданных до указанной даты",
+            description = "Возвращает количество архивированных пользователей")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователи архивированы",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkArchiveResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)
+    })
+    @PostMapping("/archive/bulk/created-before")
+    public ResponseEntity<BulkArchiveResponseDto> archiveUsersCreatedBefore(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore) {
+        return ResponseEntity.ok(userService.archiveUsersCreatedBefore(createdBefore));
+    }
 }
@@ -0,0 +1,116 @@
+package com.sber.democrud.datagen;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Поток строк для {@code COPY ... FROM STDIN} в текстовом формате PostgreSQL.
+ * <p>
+ * Строки накапливаются в буфере и отправляются серверу блоками; значения не экранируются, поэтому
+ * генератор не должен выдавать символы табуляции, перевода строки и обратной косой черты.
+ */
+final class CopyStream implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final CopyIn copyIn;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int position;
+
+    private boolean rowStarted;
+
+    private long rows;
+
+    /**
+     * Начинает COPY.
+     *
+     * @param copyManager API COPY соединения.
+     * @param table       таблица со списком столбцов, например {@code users (id, name)}.
+     */
+    CopyStream(CopyManager copyManager, String table) throws SQLException {
+        this.copyIn = copyManager.copyIn("COPY " + table + " FROM STDIN");
+    }
+
+    CopyStream value(String value) throws SQLException {
+        separator();
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.length - position) {
+            flush();
+        }
+        if (bytes.length > buffer.length) {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+        } else {
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+        return this;
+    }
+
+    CopyStream value(long value) throws SQLException {
+        return value(Long.toString(value));
+    }
+
+    CopyStream value(Object value) throws SQLException {
+        return value == null ? nullValue() : value(value.toString());
+    }
+
+    CopyStream nullValue() throws SQLException {
+        separator();
+        put((byte) '\\');
+        put((byte) 'N');
+        return this;
+    }
+
+    /**
+     * Завершает строку.
+     */
+    void endRow() throws SQLException {
+        put((byte) '\n');
+        rowStarted = false;
+        rows++;
+    }
+
+    /**
+     * Завершает COPY и фиксирует загруженные строки.
+     *
+     * @return количество загруженных строк.
+     */
+    long finish() throws SQLException {
+        flush();
+        copyIn.endCopy();
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+
+    private void separator() throws SQLException {
+        if (rowStarted) {
+            put((byte) '\t');
+        }
+        rowStarted = true;
+    }
+
+    private void put(byte b) throws SQLException {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = b;
+    }
+
+    private void flush() throws SQLException {
+        if (position > 0) {
+            copyIn.writeToCopy(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
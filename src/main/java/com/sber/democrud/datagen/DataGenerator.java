@@ -0,0 +1,399 @@
+package com.sber.democrud.datagen;
+
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.UserRolesEnum;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Генератор синтетического набора данных для нагрузочных испытаний на больших объёмах.
+ * <p>
+ * Загружает пользователей, товары, платежи и связи платежей с товарами через {@code COPY ... FROM STDIN}
+ * в несколько параллельных потоков. Каждая порция загружается в своей транзакции, поэтому прерванную
+ * загрузку можно повторить с {@code truncate=true}.
+ * <p>
+ * Распределения приближены к реальным:
+ * <ul>
+ *     <li>популярность товаров подчиняется закону Ципфа ({@code goods-zipf-exponent});</li>
+ *     <li>число платежей на пользователя убывает по степенному закону ({@code payments-per-user-exponent});</li>
+ *     <li>число товаров в платеже распределено геометрически со средним {@code goods-per-payment};</li>
+ *     <li>доля {@code archived-share} записей архивирована.</li>
+ * </ul>
+ * Данные детерминированы: при одинаковом {@code seed} и настройках генерируется один и тот же набор.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DataGenerator implements ApplicationRunner {
+
+    private static final GoodTypesEnum[] GOOD_TYPES = GoodTypesEnum.values();
+
+    /**
+     * Пароль генерируемых пользователей (значение не используется приложением).
+     */
+    private static final String PASSWORD = "generated";
+
+    private final DataSource dataSource;
+
+    private final DataGeneratorProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long startedAt = System.nanoTime();
+        if (properties.isTruncate()) {
+            execute("TRUNCATE payment_goods, payments, goods, users, good_buyer_sketches, good_type_buyer_sketches, "
+                    + "payments_archive, goods_archive, users_archive RESTART IDENTITY CASCADE");
+        }
+        long goodsBase = nextId("goods");
+        long paymentsBase = nextId("payments");
+        LocalDateTime now = LocalDateTime.now();
+        // Платежи секционированы по месяцам даты покупки: секции создаются для каждого месяца периода history
+        execute("""
+                SELECT ensure_payment_partition(CAST(month AS date))
+                FROM generate_series(date_trunc('month', TIMESTAMP '%s'), TIMESTAMP '%s', INTERVAL '1 month') month
+                """.formatted(Timestamp.valueOf(now.minus(properties.getHistory())), Timestamp.valueOf(now)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+        try {
+            runChunks(executor, "users", properties.getUsers(),
+                    (copyManager, from, to) -> copyUsers(copyManager, from, to, now));
+            runChunks(executor, "goods", properties.getGoods(),
+                    (copyManager, from, to) -> copyGoods(copyManager, goodsBase, from, to, now));
+            ZipfSampler userSampler = new ZipfSampler(properties.getUsers(), properties.getPaymentsPerUserExponent());
+            ZipfSampler goodSampler = new ZipfSampler(properties.getGoods(), properties.getGoodsZipfExponent());
+            runChunks(executor, "payments", properties.getPayments(),
+                    (copyManager, from, to) -> copyPayments(copyManager, userSampler, goodSampler,
+                            goodsBase, paymentsBase, from, to, now));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        execute("SELECT setval(pg_get_serial_sequence('goods', 'id'), (SELECT max(id) FROM goods))");
+        execute("SELECT setval(pg_get_serial_sequence('payments', 'id'), (SELECT max(id) FROM payments))");
+        // Платежи загружены в обход сервиса, поэтому сводки покупок пересчитываются по всем активным платежам
+        execute("""
+                INSERT INTO user_spend_summary (user_id, total_spend, payment_count, last_purchase_date)
+                SELECT user_id, sum(total_purchase_amount), count(*), max(date_of_purchase)
+                FROM payments
+                WHERE archive_date IS NULL
+                GROUP BY user_id
+                ON CONFLICT (user_id) DO UPDATE
+                    SET total_spend        = EXCLUDED.total_spend,
+                        payment_count      = EXCLUDED.payment_count,
+                        last_purchase_date = EXCLUDED.last_purchase_date
+                """);
+        // Платежи созданы задним числом, раньше водяного знака: агрегаты продаж пересобираются при следующем обновлении
+        execute("TRUNCATE sales_daily_rollup");
+        execute("UPDATE rollup_watermarks SET watermark = '1970-01-01' WHERE name = 'sales_daily'");
+        // Оценки уникальных покупателей пересчитываются по всем платежам
+        execute("""
+                INSERT INTO good_buyer_sketches (good_id, sales_date, registers)
+                SELECT pg.good_id, CAST(p.created_at AS date), hll_agg(p.user_id)
+                FROM payments p
+                         JOIN payment_goods pg ON pg.payment_id = p.id
+                GROUP BY 1, 2
+                ON CONFLICT (good_id, sales_date) DO UPDATE SET registers = EXCLUDED.registers
+                """);
+        execute("""
+                INSERT INTO good_type_buyer_sketches (good_type, sales_date, registers)
+                SELECT g.type, CAST(p.created_at AS date), hll_agg(DISTINCT p.user_id)
+                FROM payments p
+                         JOIN payment_goods pg ON pg.payment_id = p.id
+                         JOIN goods g ON g.id = pg.good_id
+                GROUP BY 1, 2
+                ON CONFLICT (good_type, sales_date) DO UPDATE SET registers = EXCLUDED.registers
+                """);
+        execute("ANALYZE users, goods, payments, payment_goods, user_spend_summary, "
+                + "good_buyer_sketches, good_type_buyer_sketches");
+        log.info("Генерация данных завершена за {} с", (System.nanoTime() - startedAt) / 1_000_000_000);
+    }
+
+    /**
+     * Загружает строки {@code [0, total)} порциями по {@code chunk-size} в пуле потоков.
+     *
+     * @param executor пул потоков.
+     * @param table    имя таблицы для журнала.
+     * @param total    количество строк.
+     * @param loader   загрузчик порции.
+     */
+    private void runChunks(ExecutorService executor, String table, long total, ChunkLoader loader)
+            throws InterruptedException, ExecutionException {
+        long startedAt = System.nanoTime();
+        AtomicLong done = new AtomicLong();
+        AtomicLong rows = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (long from = 0; from < total; from += properties.getChunkSize()) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(total, from + properties.getChunkSize());
+            futures.add(executor.submit(() -> {
+                long loaded = loadChunk(loader, chunkFrom, chunkTo);
+                long completed = done.addAndGet(chunkTo - chunkFrom);
+                long totalRows = rows.addAndGet(loaded);
+                double seconds = Math.max(1e-3, (System.nanoTime() - startedAt) / 1e9);
+                log.info("{}: {}/{} ({} строк/с)", table, completed, total, (long) (totalRows / seconds));
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    /**
+     * Загружает одну порцию в отдельной транзакции.
+     *
+     * @return количество загруженных строк во всех таблицах.
+     */
+    private long loadChunk(ChunkLoader loader, long from, long to) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long rows = loader.load(connection.unwrap(PGConnection.class).getCopyAPI(), from, to);
+                connection.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private long copyUsers(CopyManager copyManager, long from, long to, LocalDateTime now) throws SQLException {
+        try (CopyStream copy = new CopyStream(copyManager,
+                "users (id, name, login, password, email, role, archive_date, created_at, updated_at)")) {
+            for (long i = from; i < to; i++) {
+                SplittableRandom random = random(1, i);
+                String login = properties.getPrefix() + i;
+                LocalDateTime createdAt = createdAt(random, now);
+                UserRolesEnum role = random.nextDouble() < properties.getAdminShare()
+                        ? UserRolesEnum.ADMIN
+                        : UserRolesEnum.USER;
+                copy.value(userId(i))
+                        .value("User " + i)
+                        .value(login)
+                        .value(PASSWORD)
+                        .value(login + "@example.com")
+                        .value(role.getCode())
+                        .value(archiveDate(random, createdAt, now))
+                        .value(Timestamp.valueOf(createdAt))
+                        .value(Timestamp.valueOf(createdAt))
+                        .endRow();
+            }
+            return copy.finish();
+        }
+    }
+
+    private long copyGoods(CopyManager copyManager, long goodsBase, long from, long to, LocalDateTime now)
+            throws SQLException {
+        try (CopyStream copy = new CopyStream(copyManager,
+                "goods (id, name, type, description, price, stock_quantity, archive_date, created_at, updated_at)")) {
+            for (long i = from; i < to; i++) {
+                SplittableRandom random = random(2, i);
+                LocalDateTime createdAt = createdAt(random, now);
+                GoodTypesEnum type = GOOD_TYPES[random.nextInt(GOOD_TYPES.length)];
+                copy.value(goodsBase + i)
+                        .value("Good " + i)
+                        .value(type.getCode())
+                        .value("Generated " + type.getValue().toLowerCase() + " item " + i)
+                        .value(BigDecimal.valueOf(priceCents(i), 2).toPlainString())
+                        .value(random.nextLong(0, 10_000))
+                        .value(archiveDate(random, createdAt, now))
+                        .value(Timestamp.valueOf(createdAt))
+                        .value(Timestamp.valueOf(createdAt))
+                        .endRow();
+            }
+            return copy.finish();
+        }
+    }
+
+    /**
+     * Загружает порцию платежей и их связи с товарами. Обе таблицы загружаются в одной транзакции,
+     * поэтому внешние ключи {@code payment_goods} ссылаются на уже вставленные платежи. Цена позиции равна
+     * цене товара, итоговая сумма платежа — сумме позиций, дата покупки позиции — дате покупки платежа.
+     */
+    private long copyPayments(CopyManager copyManager, ZipfSampler userSampler, ZipfSampler goodSampler,
+                              long goodsBase, long paymentsBase, long from, long to, LocalDateTime now)
+            throws SQLException {
+        int count = (int) (to - from);
+        int[] offsets = new int[count + 1];
+        int[] goods = new int[Math.max(16, (int) (count * properties.getGoodsPerPayment() * 1.2))];
+        int[] quantities = new int[goods.length];
+        Timestamp[] dates = new Timestamp[count];
+        long rows;
+        try (CopyStream copy = new CopyStream(copyManager,
+                "payments (id, user_id, date_of_purchase, total_purchase_amount, archive_date, created_at, updated_at)")) {
+            for (int p = 0; p < count; p++) {
+                SplittableRandom random = random(3, from + p);
+                int goodsCount = goodsCount(random);
+                if (goods.length < offsets[p] + goodsCount) {
+                    goods = Arrays.copyOf(goods, goods.length * 2);
+                    quantities = Arrays.copyOf(quantities, goods.length);
+                }
+                long totalCents = 0;
+                int start = offsets[p];
+                for (int g = 0; g < goodsCount; g++) {
+                    int good = distinctGood(random, goodSampler, goods, start, start + g);
+                    goods[start + g] = good;
+                    quantities[start + g] = 1 + random.nextInt(Math.max(1, properties.getMaxQuantity()));
+                    totalCents += priceCents(good) * quantities[start + g];
+                }
+                offsets[p + 1] = start + goodsCount;
+
+                LocalDateTime createdAt = createdAt(random, now);
+                dates[p] = Timestamp.valueOf(createdAt);
+                copy.value(paymentsBase + from + p)
+                        .value(userId(userSampler.sample(random) - 1))
+                        .value(dates[p])
+                        .value(BigDecimal.valueOf(totalCents, 2).toPlainString())
+                        .value(archiveDate(random, createdAt, now))
+                        .value(Timestamp.valueOf(createdAt))
+                        .value(Timestamp.valueOf(createdAt))
+                        .endRow();
+            }
+            rows = copy.finish();
+        }
+        try (CopyStream copy = new CopyStream(copyManager,
+                "payment_goods (payment_id, good_id, quantity, unit_price, date_of_purchase)")) {
+            for (int p = 0; p < count; p++) {
+                for (int g = offsets[p]; g < offsets[p + 1]; g++) {
+                    copy.value(paymentsBase + from + p)
+                            .value(goodsBase + goods[g])
+                            .value(quantities[g])
+                            .value(BigDecimal.valueOf(priceCents(goods[g]), 2).toPlainString())
+                            .value(dates[p])
+                            .endRow();
+                }
+            }
+            return rows + copy.finish();
+        }
+    }
+
+    /**
+     * Количество товаров в платеже: {@code 1 +} геометрическое распределение, ограниченное сверху.
+     */
+    private int goodsCount(SplittableRandom random) {
+        int max = Math.min(properties.getMaxGoodsPerPayment(), properties.getGoods());
+        double extraMean = Math.max(0, properties.getGoodsPerPayment() - 1);
+        int count = 1;
+        if (extraMean > 0) {
+            double continueProbability = extraMean / (1 + extraMean);
+            while (count < max && random.nextDouble() < continueProbability) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Выбирает индекс товара по закону Ципфа, не совпадающий с уже выбранными в платеже.
+     * При сильной асимметрии после нескольких повторов берётся равномерно случайный товар.
+     */
+    private int distinctGood(SplittableRandom random, ZipfSampler sampler, int[] goods, int from, int to) {
+        for (int attempt = 0; ; attempt++) {
+            int good = attempt < 8 ? sampler.sample(random) - 1 : random.nextInt(properties.getGoods());
+            boolean duplicate = false;
+            for (int i = from; i < to && !duplicate; i++) {
+                duplicate = goods[i] == good;
+            }
+            if (!duplicate) {
+                return good;
+            }
+        }
+    }
+
+    private LocalDateTime createdAt(SplittableRandom random, LocalDateTime now) {
+        return now.minusSeconds(random.nextLong(Math.max(1, properties.getHistory().toSeconds())));
+    }
+
+    private Timestamp archiveDate(SplittableRandom random, LocalDateTime createdAt, LocalDateTime now) {
+        if (random.nextDouble() >= properties.getArchivedShare()) {
+            return null;
+        }
+        long lifetime = Math.max(1, Duration.between(createdAt, now).toSeconds());
+        return Timestamp.valueOf(createdAt.plusSeconds(random.nextLong(lifetime)));
+    }
+
+    /**
+     * Независимый генератор для строки {@code index} таблицы {@code stream}: строку можно воспроизвести
+     * без генерации предыдущих, поэтому порции не зависят от порядка выполнения.
+     */
+    private SplittableRandom random(int stream, long index) {
+        return new SplittableRandom(mix(properties.getSeed() * 31 + stream) ^ mix(index));
+    }
+
+    /**
+     * Идентификатор пользователя с индексом {@code index} (UUID версии 4, детерминированный по {@code seed}).
+     */
+    private UUID userId(long index) {
+        long most = mix(properties.getSeed() ^ mix(index));
+        long least = mix(most ^ index);
+        most = (most & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        least = (least & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+
+    /**
+     * Цена товара с индексом {@code index} в копейках (от 1.00 до 999.99). Цена вычисляется по индексу,
+     * поэтому сумма платежа считается без обращения к загруженным товарам.
+     */
+    private long priceCents(long index) {
+        return 100 + Math.floorMod(mix(properties.getSeed() ^ (index * 0x9E3779B97F4A7C15L)), 99_900L);
+    }
+
+    private long nextId(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT coalesce(max(id), 0) + 1 FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Перемешивающая функция SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Загрузчик порции строк {@code [from, to)}.
+     */
+    @FunctionalInterface
+    private interface ChunkLoader {
+
+        long load(CopyManager copyManager, long from, long to) throws SQLException;
+    }
+}
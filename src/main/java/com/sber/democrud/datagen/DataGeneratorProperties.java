@@ -0,0 +1,100 @@
+package com.sber.democrud.datagen;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки генератора синтетических данных ({@code app.datagen.*}).
+ * <p>
+ * Значения по умолчанию дают около 50 млн строк: 1 млн пользователей, 100 тыс. товаров, 12 млн платежей
+ * и в среднем 3 товара в платеже.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datagen")
+public class DataGeneratorProperties {
+
+    /**
+     * Количество пользователей.
+     */
+    private int users = 1_000_000;
+
+    /**
+     * Количество товаров.
+     */
+    private int goods = 100_000;
+
+    /**
+     * Количество платежей.
+     */
+    private long payments = 12_000_000;
+
+    /**
+     * Среднее количество товаров в платеже (не меньше 1).
+     */
+    private double goodsPerPayment = 3;
+
+    /**
+     * Максимальное количество товаров в платеже.
+     */
+    private int maxGoodsPerPayment = 20;
+
+    /**
+     * Максимальное количество единиц товара в позиции платежа (количество распределено равномерно от 1).
+     */
+    private int maxQuantity = 3;
+
+    /**
+     * Показатель распределения Ципфа для популярности товаров: товар ранга {@code k} выбирается
+     * с вероятностью, пропорциональной {@code 1 / k^s}.
+     */
+    private double goodsZipfExponent = 1.1;
+
+    /**
+     * Показатель степенного распределения числа платежей на пользователя (распределение Ципфа по рангу пользователя).
+     */
+    private double paymentsPerUserExponent = 0.7;
+
+    /**
+     * Доля архивированных записей.
+     */
+    private double archivedShare = 0.05;
+
+    /**
+     * Доля администраторов среди пользователей.
+     */
+    private double adminShare = 0.01;
+
+    /**
+     * Период, на который распределяются даты создания записей (до момента запуска).
+     */
+    private Duration history = Duration.ofDays(730);
+
+    /**
+     * Количество параллельных потоков COPY.
+     */
+    private int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
+    /**
+     * Количество строк основной таблицы в одной порции (одна транзакция COPY).
+     */
+    private int chunkSize = 100_000;
+
+    /**
+     * Начальное значение генератора случайных чисел; одинаковое значение даёт одинаковые данные.
+     */
+    private long seed = 42;
+
+    /**
+     * Префикс логинов и email создаваемых пользователей.
+     */
+    private String prefix = "gen";
+
+    /**
+     * Очистить таблицы перед загрузкой.
+     */
+    private boolean truncate = false;
+}
@@ -0,0 +1,98 @@
+package com.sber.democrud.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Генератор рангов по распределению Ципфа на {@code 1..n} с показателем {@code s}.
+ * <p>
+ * Использует метод отбраковки-инверсии (W. Hörmann, G. Derflinger, "Rejection-inversion to generate variates
+ * from monotone discrete distributions"): выборка занимает O(1) и не требует таблицы размера {@code n}.
+ */
+final class ZipfSampler {
+
+    private final int n;
+
+    private final double exponent;
+
+    private final double hIntegralX1;
+
+    private final double hIntegralN;
+
+    private final double s;
+
+    /**
+     * Создаёт генератор.
+     *
+     * @param n        количество элементов.
+     * @param exponent показатель распределения (больше 0).
+     */
+    ZipfSampler(int n, double exponent) {
+        if (n < 1 || exponent <= 0) {
+            throw new IllegalArgumentException("n должно быть >= 1, показатель > 0");
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1d;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2d - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    /**
+     * Возвращает случайный ранг.
+     *
+     * @param random источник случайности.
+     * @return ранг от {@code 1} до {@code n}; ранг 1 самый частый.
+     */
+    int sample(SplittableRandom random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > n) {
+                k = n;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1d - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1d - exponent);
+        if (t < -1d) {
+            t = -1d;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    /**
+     * {@code log(1 + x) / x} с устойчивостью около нуля.
+     */
+    private static double helper1(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1 - x * (0.5 - x * (1d / 3 - 0.25 * x));
+    }
+
+    /**
+     * {@code (exp(x) - 1) / x} с устойчивостью около нуля.
+     */
+    private static double helper2(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+}
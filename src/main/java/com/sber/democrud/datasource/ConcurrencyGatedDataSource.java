@@ -0,0 +1,186 @@
+package com.sber.democrud.datasource;
+
+import com.sber.democrud.deadline.RequestDeadline;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Источник данных, ограничивающий число одновременно выданных соединений честным семафором.
+ * <p>
+ * При выполнении запросов в виртуальных потоках количество ожидающих соединения потоков не ограничено
+ * пулом Tomcat, поэтому без «шлюза» тысячи потоков одновременно попадают в очередь Hikari.
+ * Семафор с {@code fair = true} выдаёт разрешения в порядке очереди, а лишние потоки паркуются
+ * до того, как начнут конкурировать за соединения пула.
+ * Разрешение возвращается при закрытии соединения.
+ * <p>
+ * Если у текущего запроса задан крайний срок {@link RequestDeadline}, ожидание разрешения ограничено
+ * оставшимся временем: так время получения соединения из пула зависит от бюджета конкретного запроса,
+ * а не только от общего {@code connectionTimeout} Hikari.
+ * <p>
+ * Ожидание в самом пуле бюджетом не ограничено: Hikari не принимает таймаут на отдельный вызов и ждёт
+ * до {@code connectionTimeout}. Пока разрешений не больше размера пула, это ожидание короткое, но оно
+ * растёт, если пул открывает новые соединения или соединения заняты в обход семафора. Соединение,
+ * полученное после истечения срока, сразу возвращается в пул, а запрос завершается
+ * {@link SQLTimeoutException}, не обращаясь к БД. Чтобы ожидание в пуле не превышало бюджет,
+ * {@code spring.datasource.hikari.connection-timeout} не должен быть больше самого короткого бюджета эндпоинта.
+ */
+public class ConcurrencyGatedDataSource extends DelegatingDataSource {
+
+    /**
+     * Семафор, ограничивающий число выданных соединений.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Максимальное время ожидания разрешения.
+     */
+    private final Duration acquireTimeout;
+
+    /**
+     * Создаёт источник данных со «шлюзом» перед целевым пулом.
+     *
+     * @param targetDataSource целевой источник данных (пул соединений).
+     * @param maxConcurrency   максимальное число одновременно выданных соединений.
+     * @param acquireTimeout   максимальное время ожидания разрешения.
+     */
+    public ConcurrencyGatedDataSource(DataSource targetDataSource, int maxConcurrency, Duration acquireTimeout) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return gated(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return gated(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Возвращает число потоков, ожидающих разрешения.
+     *
+     * @return оценка длины очереди перед пулом соединений.
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Возвращает число свободных разрешений.
+     *
+     * @return количество соединений, которые можно получить без ожидания.
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Получает разрешение, затем соединение из целевого пула.
+     * Если пул не выдал соединение, разрешение сразу возвращается.
+     *
+     * @param connectionSupplier способ получения соединения из целевого пула.
+     * @return прокси соединения, возвращающий разрешение при закрытии.
+     * @throws SQLException если разрешение или соединение получить не удалось.
+     */
+    private Connection gated(ConnectionSupplier connectionSupplier) throws SQLException {
+        long timeoutNanos = acquireTimeout.toNanos();
+        Optional<RequestDeadline> deadline = RequestDeadline.current();
+        if (deadline.isPresent()) {
+            timeoutNanos = Math.min(timeoutNanos, deadline.get().remainingNanos());
+        }
+        acquire(timeoutNanos);
+        Connection connection;
+        try {
+            connection = connectionSupplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        if (connection != null && deadline.isPresent() && deadline.get().isExpired()) {
+            try {
+                connection.close();
+            } finally {
+                permits.release();
+            }
+            throw new SQLTimeoutException("Крайний срок запроса истёк во время ожидания соединения из пула");
+        }
+        return releaseOnClose(connection);
+    }
+
+    /**
+     * Ожидает разрешение не дольше указанного времени.
+     *
+     * @param timeoutNanos максимальное время ожидания в наносекундах.
+     * @throws SQLException если разрешение не получено вовремя или поток прерван.
+     */
+    private void acquire(long timeoutNanos) throws SQLException {
+        try {
+            if (!permits.tryAcquire(Math.max(timeoutNanos, 0), TimeUnit.NANOSECONDS)) {
+                throw new SQLTimeoutException(
+                        "Превышено время ожидания соединения с БД ("
+                                + TimeUnit.NANOSECONDS.toMillis(Math.max(timeoutNanos, 0)) + " мс), "
+                                + "в очереди: " + permits.getQueueLength());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Ожидание соединения с БД прервано", e);
+        }
+    }
+
+    /**
+     * Оборачивает соединение так, чтобы его закрытие вернуло разрешение семафору ровно один раз.
+     *
+     * @param connection соединение, полученное из пула.
+     * @return прокси соединения.
+     * @throws SQLException если пул вернул пустое соединение.
+     */
+    private Connection releaseOnClose(Connection connection) throws SQLException {
+        if (connection == null) {
+            permits.release();
+            throw new SQLTransientConnectionException("Пул вернул пустое соединение");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConcurrencyGatedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    /**
+     * Способ получения соединения из целевого пула.
+     */
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,119 @@
+package com.sber.democrud.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Источник данных, измеряющий время удержания соединения от получения до закрытия.
+ * <p>
+ * Замеры публикуются таймером {@code db.connection.hold} с тегом {@code endpoint} —
+ * HTTP-метод и шаблон пути обработчика (например, {@code GET /api/users/{id}}). Соединения,
+ * полученные вне HTTP-запроса (миграции, фоновые задачи), помечаются значением {@code none}.
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+
+    /**
+     * Название таймера.
+     */
+    private static final String METRIC_NAME = "db.connection.hold";
+
+    /**
+     * Поставщик реестра метрик; реестр запрашивается лениво, так как источник данных создаётся раньше него.
+     */
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /**
+     * Создаёт источник данных.
+     *
+     * @param targetDataSource целевой источник данных.
+     * @param meterRegistry    поставщик реестра метрик.
+     */
+    public ConnectionHoldTimeDataSource(DataSource targetDataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Оборачивает соединение так, чтобы при закрытии записать время его удержания.
+     *
+     * @param connection соединение.
+     * @return прокси соединения.
+     */
+    private Connection timed(Connection connection) {
+        long start = System.nanoTime();
+        String endpoint = currentEndpoint();
+        AtomicBoolean recorded = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionHoldTimeDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(method.getName()) && recorded.compareAndSet(false, true)) {
+                            record(endpoint, System.nanoTime() - start);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Записывает замер времени удержания соединения.
+     *
+     * @param endpoint  эндпоинт, обработчик которого получил соединение.
+     * @param heldNanos время удержания в наносекундах.
+     */
+    private void record(String endpoint, long heldNanos) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Timer.builder(METRIC_NAME)
+                .description("Время удержания соединения с БД")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(heldNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Определяет эндпоинт текущего HTTP-запроса.
+     *
+     * @return HTTP-метод и шаблон пути обработчика или {@code none} вне HTTP-запроса.
+     */
+    private static String currentEndpoint() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                    RequestAttributes.SCOPE_REQUEST);
+            if (pattern != null) {
+                return attributes.getRequest().getMethod() + " " + pattern;
+            }
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,92 @@
+package com.sber.democrud.datasource;
+
+import com.sber.democrud.deadline.RequestDeadline;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Источник данных, применяющий крайний срок запроса {@link RequestDeadline} к операциям JDBC.
+ * <p>
+ * Если срок уже истёк, получение соединения и создание запроса завершаются {@link SQLTimeoutException}
+ * без обращения к БД. Иначе оставшееся время устанавливается каждому создаваемому {@link Statement}
+ * как {@link Statement#setQueryTimeout(int)} (с округлением вверх до секунды, минимум 1 секунда),
+ * поэтому медленный запрос отменяется сервером вскоре после того, как клиент перестал ждать ответ.
+ */
+public class DeadlineAwareDataSource extends DelegatingDataSource {
+
+    /**
+     * Создаёт источник данных.
+     *
+     * @param targetDataSource целевой источник данных.
+     */
+    public DeadlineAwareDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkNotExpired();
+        return withStatementTimeouts(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        checkNotExpired();
+        return withStatementTimeouts(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Проверяет, что крайний срок текущего запроса не истёк.
+     *
+     * @return крайний срок текущего запроса, если он задан.
+     * @throws SQLTimeoutException если срок истёк.
+     */
+    private static Optional<RequestDeadline> checkNotExpired() throws SQLTimeoutException {
+        Optional<RequestDeadline> deadline = RequestDeadline.current();
+        if (deadline.isPresent() && deadline.get().isExpired()) {
+            throw new SQLTimeoutException("Крайний срок обработки запроса истёк до обращения к БД");
+        }
+        return deadline;
+    }
+
+    /**
+     * Оборачивает соединение так, чтобы создаваемые им запросы получали таймаут по оставшемуся времени.
+     *
+     * @param connection соединение.
+     * @return прокси соединения.
+     */
+    private static Connection withStatementTimeouts(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                DeadlineAwareDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    boolean createsStatement = name.equals("createStatement")
+                            || name.equals("prepareStatement")
+                            || name.equals("prepareCall");
+                    Optional<RequestDeadline> deadline = createsStatement ? checkNotExpired() : Optional.empty();
+
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+
+                    if (result instanceof Statement statement && deadline.isPresent()) {
+                        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline.get().remainingNanos());
+                        statement.setQueryTimeout((int) Math.max(1, (remainingMillis + 999) / 1000));
+                    }
+                    return result;
+                });
+    }
+}
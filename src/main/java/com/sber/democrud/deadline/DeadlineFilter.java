@@ -0,0 +1,192 @@
+package com.sber.democrud.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springdoc.api.ErrorMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Фильтр, устанавливающий крайний срок обработки запроса.
+ * <p>
+ * Бюджет берётся из настроек эндпоинта. Заголовок {@code X-Request-Timeout} (миллисекунды) может только
+ * сократить его: клиент не может продлить обработку запроса дольше, чем разрешает сервер.
+ * Если бюджет уже исчерпан, запрос сразу завершается статусом 504. Если запрос завершился ошибкой из-за
+ * истёкшего срока (отмена запроса в БД, таймаут ожидания соединения), клиент также получает 504.
+ * Каждый такой исход учитывается метрикой {@code api.deadline.exceeded}.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+    /**
+     * Логгер.
+     */
+    private static final Logger log = LoggerFactory.getLogger(DeadlineFilter.class);
+
+    /**
+     * SQLSTATE PostgreSQL для запроса, отменённого по таймауту.
+     */
+    private static final String QUERY_CANCELED_SQL_STATE = "57014";
+
+    /**
+     * Настройки крайних сроков.
+     */
+    private final DeadlineProperties properties;
+
+    /**
+     * Объект для сериализации тела ответа об ошибке.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Счётчик запросов, отклонённых до начала обработки.
+     */
+    private final Counter expiredOnArrival;
+
+    /**
+     * Счётчик запросов, срок которых истёк во время обработки.
+     */
+    private final Counter expiredInProcessing;
+
+    /**
+     * Сопоставитель путей для настроек эндпоинтов.
+     */
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * Конструктор фильтра.
+     *
+     * @param properties    настройки крайних сроков.
+     * @param objectMapper  объект для сериализации тела ответа об ошибке.
+     * @param meterRegistry реестр метрик.
+     */
+    public DeadlineFilter(DeadlineProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.expiredOnArrival = Counter.builder("api.deadline.exceeded")
+                .description("Запросы, завершённые статусом 504 из-за истёкшего срока")
+                .tag("stage", "arrival")
+                .register(meterRegistry);
+        this.expiredInProcessing = Counter.builder("api.deadline.exceeded")
+                .description("Запросы, завершённые статусом 504 из-за истёкшего срока")
+                .tag("stage", "processing")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Duration budget;
+        try {
+            budget = resolveBudget(request);
+        } catch (NumberFormatException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Некорректный заголовок " + properties.getHeader());
+            return;
+        }
+        if (budget.isNegative() || budget.isZero()) {
+            expiredOnArrival.increment();
+            writeTimeout(response, "Бюджет запроса исчерпан до начала обработки");
+            return;
+        }
+
+        RequestDeadline.set(RequestDeadline.after(budget));
+        try {
+            filterChain.doFilter(request, response);
+            if (response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+                expiredInProcessing.increment();
+            }
+        } catch (ServletException | RuntimeException e) {
+            if (!isDeadlineFailure(e) || response.isCommitted()) {
+                throw e;
+            }
+            log.warn("Запрос {} {} не уложился в бюджет {} мс", request.getMethod(), request.getRequestURI(),
+                    budget.toMillis(), e);
+            expiredInProcessing.increment();
+            writeTimeout(response, "Крайний срок обработки запроса истёк");
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    /**
+     * Определяет бюджет запроса: бюджет эндпоинта, сокращённый до значения заголовка, если оно меньше.
+     *
+     * @param request HTTP-запрос.
+     * @return бюджет запроса.
+     * @throws NumberFormatException если заголовок содержит не число.
+     */
+    private Duration resolveBudget(HttpServletRequest request) {
+        Duration endpointBudget = endpointBudget(request);
+        String header = request.getHeader(properties.getHeader());
+        if (header != null && !header.isBlank()) {
+            Duration clientBudget = Duration.ofMillis(Long.parseLong(header.trim()));
+            return clientBudget.compareTo(endpointBudget) < 0 ? clientBudget : endpointBudget;
+        }
+        return endpointBudget;
+    }
+
+    /**
+     * Определяет бюджет эндпоинта по настройкам.
+     *
+     * @param request HTTP-запрос.
+     * @return бюджет первого подходящего шаблона пути или бюджет по умолчанию.
+     */
+    private Duration endpointBudget(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, Duration> endpoint : properties.getEndpoints().entrySet()) {
+            if (pathMatcher.match(endpoint.getKey(), path)) {
+                return endpoint.getValue();
+            }
+        }
+        return properties.getDefaultTimeout();
+    }
+
+    /**
+     * Проверяет, вызвана ли ошибка истечением срока.
+     *
+     * @param e исключение обработки запроса.
+     * @return {@code true}, если в цепочке причин есть таймаут JDBC, отмена запроса в БД
+     * или {@link DeadlineExceededException}.
+     */
+    private static boolean isDeadlineFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTimeoutException || cause instanceof DeadlineExceededException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException
+                    && QUERY_CANCELED_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Записывает ответ 504.
+     *
+     * @param response HTTP-ответ.
+     * @param message  сообщение об ошибке.
+     * @throws IOException при ошибке записи ответа.
+     */
+    private void writeTimeout(HttpServletResponse response, String message) throws IOException {
+        response.resetBuffer();
+        response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorMessage(message));
+    }
+}
@@ -0,0 +1,39 @@
+package com.sber.democrud.deadline;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки крайних сроков обработки запросов ({@code app.deadline.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.deadline")
+public class DeadlineProperties {
+
+    /**
+     * Включена ли обработка крайних сроков.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Заголовок, в котором клиент передаёт оставшийся бюджет запроса в миллисекундах.
+     */
+    private String header = "X-Request-Timeout";
+
+    /**
+     * Бюджет запроса, если клиент его не передал и путь не найден в {@link #endpoints}.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Бюджеты по умолчанию для отдельных эндпоинтов: Ant-шаблон пути → бюджет.
+     * Применяется первый подходящий шаблон.
+     */
+    private Map<String, Duration> endpoints = new LinkedHashMap<>();
+}
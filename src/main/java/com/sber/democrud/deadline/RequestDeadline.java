@@ -0,0 +1,78 @@
+package com.sber.democrud.deadline;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Крайний срок обработки текущего запроса.
+ * <p>
+ * Устанавливается фильтром {@link DeadlineFilter} и хранится в контексте потока (аналогично
+ * {@link org.springframework.context.i18n.LocaleContextHolder}), поэтому доступен сервисному слою и
+ * уровню JDBC без передачи через параметры каждого метода.
+ *
+ * @param deadlineNanos момент истечения срока по шкале {@link System#nanoTime()}.
+ */
+public record RequestDeadline(long deadlineNanos) {
+
+    /**
+     * Крайний срок текущего потока.
+     */
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Создаёт крайний срок, отсчитываемый от текущего момента.
+     *
+     * @param budget допустимое время обработки.
+     * @return крайний срок.
+     */
+    public static RequestDeadline after(Duration budget) {
+        return new RequestDeadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Возвращает крайний срок текущего потока.
+     *
+     * @return крайний срок или пустой {@link Optional}, если запрос выполняется без срока.
+     */
+    public static Optional<RequestDeadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Устанавливает крайний срок текущего потока.
+     *
+     * @param deadline крайний срок или {@code null} для сброса.
+     */
+    public static void set(RequestDeadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    /**
+     * Сбрасывает крайний срок текущего потока.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Возвращает оставшееся время.
+     *
+     * @return оставшееся время в наносекундах (отрицательное, если срок истёк).
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * Проверяет, истёк ли срок.
+     *
+     * @return {@code true}, если оставшееся время исчерпано.
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.sber.democrud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO-ответа для массовой архивации сущностей.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkArchiveResponseDto {
+
+    /**
+     * Количество идентификаторов, переданных в запросе (для архивации по фильтру равно {@code 0}).
+     */
+    private long requested;
+
+    /**
+     * Количество записей, фактически архивированных запросом.
+     * Уже архивированные записи повторно не обновляются и не учитываются.
+     */
+    private long archived;
+}
@@ -0,0 +1,33 @@
+package com.sber.democrud.dto;
+
+import jakarta.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO строки файла импорта товаров, не прошедшей проверку.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoodImportErrorDto {
+
+    /**
+     * Номер строки данных в файле, начиная с 1 (без заголовка).
+     */
+    private long row;
+
+    /**
+     * Наименование товара из строки.
+     */
+    @Nullable
+    private String name;
+
+    /**
+     * Нарушенные проверки через {@code ;}.
+     */
+    private String message;
+}
@@ -0,0 +1,43 @@
+package com.sber.democrud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO-ответа с результатом импорта товаров из CSV.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoodImportResponseDto {
+
+    /**
+     * Количество строк данных в файле.
+     */
+    private long rows;
+
+    /**
+     * Количество добавленных товаров.
+     */
+    private long inserted;
+
+    /**
+     * Количество обновлённых товаров.
+     */
+    private long updated;
+
+    /**
+     * Количество строк, не прошедших проверку.
+     */
+    private long failed;
+
+    /**
+     * Первые строки, не прошедшие проверку, в порядке файла.
+     */
+    private List<GoodImportErrorDto> errors;
+}
@@ -0,0 +1,43 @@
+package com.sber.democrud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO товара, найденного полнотекстовым поиском.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoodSearchItemDto {
+
+    /**
+     * Идентификатор товара.
+     */
+    private Long id;
+
+    /**
+     * Наименование товара.
+     */
+    private String name;
+
+    /**
+     * Тип товара.
+     */
+    private String type;
+
+    /**
+     * Цена товара.
+     */
+    private BigDecimal price;
+
+    /**
+     * Релевантность товара запросу: чем больше, тем выше товар в выдаче.
+     */
+    private float rank;
+}
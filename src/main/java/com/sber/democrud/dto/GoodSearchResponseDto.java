@@ -0,0 +1,30 @@
+package com.sber.democrud.dto;
+
+import jakarta.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO-ответа страницы полнотекстового поиска товаров.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoodSearchResponseDto {
+
+    /**
+     * Найденные товары по убыванию релевантности.
+     */
+    private List<GoodSearchItemDto> items;
+
+    /**
+     * Значение параметра {@code after} для следующей страницы; {@code null}, если страница последняя.
+     */
+    @Nullable
+    private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package com.sber.democrud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO подсказки товара при вводе названия: только поля, нужные для списка подсказок.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoodSuggestionDto {
+
+    /**
+     * Идентификатор товара.
+     */
+    private Long id;
+
+    /**
+     * Наименование товара.
+     */
+    private String name;
+
+    /**
+     * Цена товара.
+     */
+    private BigDecimal price;
+}
@@ -0,0 +1,32 @@
+package com.sber.democrud.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO-запроса позиции платежа: ссылка на товар {@link com.sber.democrud.entity.Good} по идентификатору
+ * и количество.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentGoodRequestDto {
+
+    /**
+     * Идентификатор товара.
+     */
+    @NotNull
+    private Long goodId;
+
+    /**
+     * Количество единиц товара.
+     */
+    @NotNull
+    @Positive(message = "Количество товара должно быть больше 0")
+    private Long quantity = 1L;
+}
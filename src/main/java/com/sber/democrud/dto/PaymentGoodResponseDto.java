@@ -0,0 +1,40 @@
+package com.sber.democrud.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO-ответа для представления позиции платежа {@link com.sber.democrud.entity.PaymentGood}.
+ */
+@Getter
+@Setter
+public class PaymentGoodResponseDto {
+
+    /**
+     * Идентификатор товара.
+     */
+    @NotNull
+    private Long goodId;
+
+    /**
+     * Название товара.
+     */
+    @NotBlank
+    private String name;
+
+    /**
+     * Количество единиц товара.
+     */
+    @NotNull
+    private Long quantity;
+
+    /**
+     * Цена единицы товара на момент покупки.
+     */
+    @NotNull
+    private BigDecimal unitPrice;
+}
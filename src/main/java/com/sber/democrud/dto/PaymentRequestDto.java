@@ -1,20 +1,20 @@
 package com.sber.democrud.dto;
 
 import jakarta.annotation.Nullable;
-import jakarta.validation.constraints.DecimalMin;
-import jakarta.validation.constraints.Digits;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * DTO-запроса для создания нового платежа {@link com.sber.democrud.entity.Payment}.
+ * Итоговая сумма не передаётся: она вычисляется сервером по ценам товаров на момент покупки.
  */
 @Getter
 @Setter
@@ -27,23 +27,17 @@ public class PaymentRequestDto {
     private UUID userId;
 
     /**
-     * Итоговая сумма покупки.
-     */
-    @NotNull
-    @DecimalMin(value = "0.0", inclusive = false, message = "Итоговая цена должна быть больше 0")
-    @Digits(integer = 10, fraction = 2, message = "Итоговая цена покупки должна быть действительным денежным значением")
-    private BigDecimal totalPurchaseAmount;
-
-    /**
-     * Дата архивации платежа.
+     * Дата архивации платежа. Не учитывается при создании и изменении: платёж архивируется запросом архивации,
+     * а дата архивации задаётся часами БД.
      */
     @Nullable
     private LocalDateTime archiveDate;
 
     /**
-     * Список товаров, включённых в платёж.
+     * Позиции платежа: идентификаторы товаров и их количество.
+     * Товары должны существовать и не быть архивированными.
      */
-    @NotNull
-    private Set<GoodResponseDto> goods = new HashSet<>();
+    @NotEmpty
+    private List<@Valid @NotNull PaymentGoodRequestDto> goods = new ArrayList<>();
 }
 
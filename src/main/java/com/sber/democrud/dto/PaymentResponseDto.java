@@ -9,8 +9,8 @@ import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -32,7 +32,7 @@ public class PaymentResponseDto {
     private UUID userId;
 
     /**
-     * Итоговая сумма покупки.
+     * Итоговая сумма покупки, вычисленная по позициям платежа.
      */
     @NotNull
     @DecimalMin(value = "0.0", inclusive = false, message = "Итоговая цена должна быть больше 0")
@@ -46,9 +46,9 @@ public class PaymentResponseDto {
     private LocalDateTime archiveDate;
 
     /**
-     * Список товаров, включённых в платёж.
+     * Позиции платежа: товары с количеством и ценой на момент покупки.
      */
     @NotNull
-    private Set<GoodResponseDto> goods = new HashSet<>();
+    private List<PaymentGoodResponseDto> goods = new ArrayList<>();
 }
 
@@ -0,0 +1,39 @@
+package com.sber.democrud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO-ответа с продажами товаров одного типа за период.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesResponseDto {
+
+    /**
+     * Первый день периода (день или первое число месяца).
+     */
+    private LocalDate period;
+
+    /**
+     * Тип товара.
+     */
+    private String type;
+
+    /**
+     * Выручка по ценам на момент покупки.
+     */
+    private BigDecimal revenue;
+
+    /**
+     * Количество проданных единиц.
+     */
+    private long units;
+}
@@ -0,0 +1,39 @@
+package com.sber.democrud.dto;
+
+import jakarta.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO-ответа оценки продаж товара за скользящее окно.
+ * Истинное количество проданных единиц лежит в интервале {@code [units - error, units]}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopGoodResponseDto {
+
+    /**
+     * Идентификатор товара.
+     */
+    private Long goodId;
+
+    /**
+     * Наименование товара; {@code null}, если товар удалён.
+     */
+    @Nullable
+    private String name;
+
+    /**
+     * Оценка количества проданных единиц сверху.
+     */
+    private long units;
+
+    /**
+     * Погрешность оценки.
+     */
+    private long error;
+}
@@ -0,0 +1,51 @@
+package com.sber.democrud.dto;
+
+import jakarta.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * DTO-ответа оценки числа уникальных покупателей товара или типа товаров за период.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UniqueBuyersResponseDto {
+
+    /**
+     * Первый день периода.
+     */
+    private LocalDate from;
+
+    /**
+     * Последний день периода.
+     */
+    private LocalDate to;
+
+    /**
+     * Идентификатор товара; {@code null} при запросе по типу.
+     */
+    @Nullable
+    private Long goodId;
+
+    /**
+     * Тип товара; {@code null} при запросе по товару.
+     */
+    @Nullable
+    private String type;
+
+    /**
+     * Оценка числа уникальных покупателей.
+     */
+    private long buyers;
+
+    /**
+     * Стандартная относительная ошибка оценки.
+     */
+    private double standardError;
+}
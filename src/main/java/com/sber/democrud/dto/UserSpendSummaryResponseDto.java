@@ -0,0 +1,42 @@
+package com.sber.democrud.dto;
+
+import jakarta.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO-ответа сводки покупок пользователя по активным платежам.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSpendSummaryResponseDto {
+
+    /**
+     * Идентификатор пользователя.
+     */
+    private UUID userId;
+
+    /**
+     * Сумма активных платежей.
+     */
+    private BigDecimal totalSpend;
+
+    /**
+     * Количество активных платежей.
+     */
+    private long paymentCount;
+
+    /**
+     * Дата последней покупки; {@code null}, если активных платежей нет.
+     */
+    @Nullable
+    private LocalDateTime lastPurchaseDate;
+}
@@ -0,0 +1,25 @@
+package com.sber.democrud.entity;
+
+/**
+ * Фильтр Hibernate активных (неархивированных) записей.
+ * <p>
+ * Фильтр включён в каждой сессии и добавляет условие {@value #CONDITION} к запросам JPQL и Criteria API
+ * к пользователям, товарам и платежам. Загрузка по первичному ключу ({@code findById}) фильтром не ограничена.
+ * Запросы, которым нужны и архивированные записи, выполняются через
+ * {@link com.sber.democrud.repository.ActiveFilterSwitch}.
+ */
+public final class ActiveFilter {
+
+    /**
+     * Имя фильтра.
+     */
+    public static final String NAME = "active";
+
+    /**
+     * Условие фильтра; совпадает с условием частичных индексов активных записей.
+     */
+    public static final String CONDITION = "archive_date IS NULL";
+
+    private ActiveFilter() {
+    }
+}
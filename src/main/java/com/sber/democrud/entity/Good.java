@@ -1,20 +1,23 @@
 package com.sber.democrud.entity;
 
+import com.sber.democrud.entity.association.Identifiable;
+import com.sber.democrud.entity.converter.GoodTypeConverter;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Filter;
 import org.hibernate.proxy.HibernateProxy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * Класс представляет сущность "Товар" в системе.
@@ -25,8 +28,9 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Filter(name = ActiveFilter.NAME)
 @Table(name = "goods")
-public class Good {
+public class Good implements Identifiable<Long> {
     /**
      * Уникальный идентификатор товара.
      */
@@ -45,7 +49,7 @@ public class Good {
      * Тип товара.
      */
     @NotNull
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = GoodTypeConverter.class)
     @Column(name = "type", nullable = false)
     private GoodTypesEnum type;
 
@@ -94,11 +98,12 @@ public class Good {
     private LocalDateTime updatedAt;
 
     /**
-     * Список платежей, связанных с этим товаром.
-     * Это связь "многие ко многим" с сущностью {@link Payment}.
+     * Позиции платежей, в которые входит этот товар.
+     * Это связь "один ко многим" с сущностью {@link PaymentGood}.
      */
-    @ManyToMany(mappedBy = "goods", fetch = FetchType.LAZY)
-    protected Set<Payment> goodsInPayments = new HashSet<>();
+    @ToString.Exclude
+    @OneToMany(mappedBy = "good", fetch = FetchType.LAZY)
+    protected List<PaymentGood> goodsInPayments = new ArrayList<>();
 
     /**
      * Проверяет, является ли товар "удалённым".
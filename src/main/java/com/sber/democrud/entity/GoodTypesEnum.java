@@ -4,7 +4,8 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.Getter;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Enum, представляющий возможные типы товара {@link Good}.
@@ -14,22 +15,22 @@ public enum GoodTypesEnum {
     /**
      * Тип товара: электроника.
      */
-    ELECTRONICS("ELECTRONICS"),
+    ELECTRONICS("ELECTRONICS", (short) 1),
 
     /**
      * Тип товара: одежда.
      */
-    CLOTHING("CLOTHING"),
+    CLOTHING("CLOTHING", (short) 2),
 
     /**
      * Тип товара: книги.
      */
-    BOOKS("BOOKS"),
+    BOOKS("BOOKS", (short) 3),
 
     /**
      * Тип товара: другой тип товара не подходящий ни под одну из вышеперечисленных категорий.
      */
-    OTHER("OTHER");
+    OTHER("OTHER", (short) 4);
 
     /**
      * Строковое значение типа товара.
@@ -38,12 +39,36 @@ public enum GoodTypesEnum {
     private final String value;
 
     /**
-     * Конструктор для создания типа товара с указанным строковым значением.
+     * Код типа товара в БД (столбец {@code smallint}). Коды не переиспользуются и не меняются:
+     * для нового значения берётся следующий свободный код.
+     */
+    private final short code;
+
+    private static final Map<String, GoodTypesEnum> BY_VALUE = new HashMap<>();
+
+    private static final GoodTypesEnum[] BY_CODE;
+
+    static {
+        short maxCode = 0;
+        for (GoodTypesEnum item : values()) {
+            BY_VALUE.put(item.value, item);
+            maxCode = (short) Math.max(maxCode, item.code);
+        }
+        BY_CODE = new GoodTypesEnum[maxCode + 1];
+        for (GoodTypesEnum item : values()) {
+            BY_CODE[item.code] = item;
+        }
+    }
+
+    /**
+     * Конструктор для создания типа товара с указанным строковым значением и кодом.
      *
      * @param value строковое представление типа товара
+     * @param code  код типа товара в БД
      */
-    GoodTypesEnum(String value) {
+    GoodTypesEnum(String value, short code) {
         this.value = value;
+        this.code = code;
     }
 
     /**
@@ -54,11 +79,23 @@ public enum GoodTypesEnum {
      * или {@code null}, если значение некорректно
      */
     @JsonCreator
-    public GoodTypesEnum fromString(String value) {
-        return Arrays.stream(values())
-                .filter(status -> status.value.equals(value))
-                .findFirst()
-                .orElse(null);
+    public static GoodTypesEnum fromString(String value) {
+        return value == null ? null : BY_VALUE.get(value);
+    }
+
+    /**
+     * Возвращает тип товара по коду в БД.
+     *
+     * @param code код типа товара
+     * @return объект {@link GoodTypesEnum}
+     * @throws IllegalArgumentException если код неизвестен
+     */
+    public static GoodTypesEnum fromCode(short code) {
+        GoodTypesEnum item = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (item == null) {
+            throw new IllegalArgumentException("Неизвестный код типа товара: " + code);
+        }
+        return item;
     }
 
     /**
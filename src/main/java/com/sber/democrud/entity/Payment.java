@@ -1,19 +1,22 @@
 package com.sber.democrud.entity;
 
+import com.sber.democrud.entity.association.Identifiable;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.SourceType;
 import org.hibernate.proxy.HibernateProxy;
-import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * Класс представляет сущность "Платёж" в системе.
@@ -24,8 +27,9 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Filter(name = ActiveFilter.NAME)
 @Table(name = "payments")
-public class Payment {
+public class Payment implements Identifiable<Long> {
     /**
      * Уникальный идентификатор платежа.
      */
@@ -35,8 +39,10 @@ public class Payment {
 
     /**
      * Дата совершения покупки.
+     * Задаётся часами БД при вставке и не меняется: это ключ секционирования {@code payments} по месяцам.
      */
-    @Column(name = "date_of_purchase", insertable = false, updatable = false)
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "date_of_purchase", nullable = false, updatable = false)
     private LocalDateTime dateOfPurchase;
 
     /**
@@ -56,9 +62,10 @@ public class Payment {
 
     /**
      * Дата создания записи о платеже.
+     * Задаётся часами БД при вставке: по ней инкрементально обновляются агрегаты продаж.
      */
-    @CreatedDate
-    @Column(name = "created_at", updatable = false)
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     /**
@@ -77,36 +84,43 @@ public class Payment {
     private User user;
 
     /**
-     * Товары, связанные с этим платежом.
-     * Устанавливается через связь "многие ко многим" с сущностью {@link Good}.
-     * Для хранения связи используется промежуточная таблица `payment_goods`.
+     * Позиции платежа: товары с количеством и ценой на момент покупки.
+     * Устанавливается через связь "один ко многим" с сущностью {@link PaymentGood},
+     * хранящейся в промежуточной таблице `payment_goods`.
      */
     @ToString.Exclude
     @NotNull
-    @ManyToMany(cascade = CascadeType.MERGE, fetch = FetchType.LAZY)
-    @JoinTable(name = "payment_goods",
-            joinColumns = @JoinColumn(name = "payment_id"),
-            inverseJoinColumns = @JoinColumn(name = "good_id"))
-    private Set<Good> goods = new HashSet<>();
+    @OneToMany(mappedBy = "payment", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<PaymentGood> goods = new ArrayList<>();
 
     /**
-     * Добавляет товар в платёж и устанавливает двунаправленную связь.
+     * Добавляет товар в платёж, фиксируя его текущую цену.
+     * Обратная сторона связи ({@link Good#getGoodsInPayments()}) не заполняется, чтобы не загружать
+     * все платежи товара.
      *
-     * @param good объект товара, который добавляется к платежу.
+     * @param good     объект товара, который добавляется к платежу.
+     * @param quantity количество единиц товара.
      */
-    public void addGood(Good good) {
-        goods.add(good);
-        good.goodsInPayments.add(this);
+    public void addGood(Good good, Long quantity) {
+        goods.add(new PaymentGood(this, good, quantity));
     }
 
     /**
-     * Удаляет товар из платежа и разрывает двунаправленную связь.
+     * Удаляет товар из платежа.
      *
-     * @param good объект товара, который удаляется из платежа.
+     * @param goodId идентификатор товара, который удаляется из платежа.
      */
-    public void removeGood(Good good) {
-        goods.remove(good);
-        good.goodsInPayments.remove(this);
+    public void removeGood(Long goodId) {
+        goods.removeIf(item -> Objects.equals(item.getId().getGoodId(), goodId));
+    }
+
+    /**
+     * Пересчитывает итоговую сумму платежа по позициям.
+     */
+    public void recalculateTotalPurchaseAmount() {
+        totalPurchaseAmount = goods.stream()
+                .map(PaymentGood::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     /**
@@ -0,0 +1,144 @@
+package com.sber.democrud.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Класс представляет позицию платежа: товар, его количество и цену на момент покупки.
+ * Хранится в промежуточной таблице `payment_goods`.
+ */
+@ToString
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "payment_goods")
+public class PaymentGood {
+    /**
+     * Идентификатор позиции: префикс первичного ключа {@code (payment_id, good_id, date_of_purchase)}, дата покупки
+     * однозначно определяется платежом. Позиции платежа читаются по префиксу ключа, позиции товара — по обратному
+     * индексу {@code (good_id, payment_id)}.
+     */
+    @EmbeddedId
+    private PaymentGoodId id = new PaymentGoodId();
+
+    /**
+     * Платёж, к которому относится позиция.
+     */
+    @ToString.Exclude
+    @MapsId("paymentId")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "payment_id")
+    private Payment payment;
+
+    /**
+     * Купленный товар.
+     */
+    @ToString.Exclude
+    @MapsId("goodId")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "good_id")
+    private Good good;
+
+    /**
+     * Количество единиц товара.
+     */
+    @NotNull
+    @Positive
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    /**
+     * Цена единицы товара на момент покупки.
+     * Не меняется при последующем изменении цены товара.
+     */
+    @NotNull
+    @Digits(integer = 10, fraction = 2)
+    @Column(name = "unit_price", nullable = false)
+    private BigDecimal unitPrice;
+
+    /**
+     * Дата покупки платежа: ключ секционирования {@code payment_goods}, позиция хранится в секции месяца платежа.
+     */
+    @Column(name = "date_of_purchase", nullable = false, updatable = false)
+    private LocalDateTime dateOfPurchase;
+
+    /**
+     * Создаёт позицию платежа, фиксируя текущую цену товара.
+     *
+     * @param payment  платёж.
+     * @param good     товар.
+     * @param quantity количество единиц товара.
+     */
+    public PaymentGood(Payment payment, Good good, Long quantity) {
+        this.id = new PaymentGoodId(payment.getId(), good.getId());
+        this.payment = payment;
+        this.good = good;
+        this.quantity = quantity;
+        this.unitPrice = good.getPrice();
+    }
+
+    /**
+     * Копирует дату покупки из платежа перед вставкой: к этому моменту платёж уже вставлен
+     * и дата покупки получена от БД.
+     */
+    @PrePersist
+    void copyDateOfPurchase() {
+        dateOfPurchase = payment.getDateOfPurchase();
+    }
+
+    /**
+     * Вычисляет стоимость позиции: цена единицы, умноженная на количество.
+     *
+     * @return стоимость позиции.
+     */
+    public BigDecimal getAmount() {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    /**
+     * Сравнивает текущий объект с другим объектом на равенство.
+     * Сравнение выполняется на основе идентификатора {@code id}.
+     *
+     * @param o объект для сравнения
+     * @return {@code true}, если объекты равны, иначе {@code false}
+     */
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy
+                ? ((HibernateProxy) o).getHibernateLazyInitializer()
+                .getPersistentClass()
+                : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy
+                ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                .getPersistentClass()
+                : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        PaymentGood paymentGood = (PaymentGood) o;
+        return getId() != null && getId().getPaymentId() != null && Objects.equals(getId(), paymentGood.getId());
+    }
+
+    /**
+     * Вычисляет хэш-код объекта на основе его класса и прокси.
+     *
+     * @return хэш-код объекта
+     */
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy
+                ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                .getPersistentClass()
+                .hashCode()
+                : getClass().hashCode();
+    }
+}
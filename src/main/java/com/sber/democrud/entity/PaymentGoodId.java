@@ -0,0 +1,36 @@
+package com.sber.democrud.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * Идентификатор позиции платежа {@link PaymentGood}: платёж и товар.
+ */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class PaymentGoodId implements Serializable {
+    /**
+     * Идентификатор платежа.
+     */
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    /**
+     * Идентификатор товара.
+     */
+    @Column(name = "good_id")
+    private Long goodId;
+}
@@ -1,5 +1,9 @@
 package com.sber.democrud.entity;
 
+import com.sber.democrud.entity.association.EntityAssociationSet;
+import com.sber.democrud.entity.association.EntityAssociationSetType;
+import com.sber.democrud.entity.association.Identifiable;
+import com.sber.democrud.entity.converter.UserRoleConverter;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -7,13 +11,14 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.CollectionType;
+import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.proxy.HibernateProxy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -27,8 +32,9 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Filter(name = ActiveFilter.NAME)
 @Table(name = "users")
-public class User {
+public class User implements Identifiable<UUID> {
 
     /**
      * Уникальный идентификатор пользователя.
@@ -75,7 +81,7 @@ public class User {
      * Роль пользователя в системе.
      */
     @NotNull
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = UserRoleConverter.class)
     @Column(name = "role", nullable = false)
     private UserRolesEnum role;
 
@@ -105,7 +111,8 @@ public class User {
      */
     @ToString.Exclude
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "user", fetch = FetchType.LAZY)
-    protected Set<Payment> payments = new HashSet<>();
+    @CollectionType(type = EntityAssociationSetType.class)
+    protected Set<Payment> payments = new EntityAssociationSet<>();
 
     /**
      * Добавляет платёж к пользователю и устанавливает двунаправленную связь.
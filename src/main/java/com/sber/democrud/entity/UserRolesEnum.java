@@ -4,7 +4,8 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.Getter;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Enum, представляющий роли пользователя {@link User}.
@@ -14,11 +15,11 @@ public enum UserRolesEnum {
     /**
      * Роль обычного пользователя.
      */
-    USER("USER"),
+    USER("USER", (short) 1),
     /**
      * Роль пользователя с расширенными правами.
      */
-    ADMIN("ADMIN");
+    ADMIN("ADMIN", (short) 2);
 
     /**
      * Строковое значение роли.
@@ -27,12 +28,36 @@ public enum UserRolesEnum {
     private final String value;
 
     /**
-     * Конструктор для создания роли с указанным строковым значением.
+     * Код роли в БД (столбец {@code smallint}). Коды не переиспользуются и не меняются:
+     * для нового значения берётся следующий свободный код.
+     */
+    private final short code;
+
+    private static final Map<String, UserRolesEnum> BY_VALUE = new HashMap<>();
+
+    private static final UserRolesEnum[] BY_CODE;
+
+    static {
+        short maxCode = 0;
+        for (UserRolesEnum item : values()) {
+            BY_VALUE.put(item.value, item);
+            maxCode = (short) Math.max(maxCode, item.code);
+        }
+        BY_CODE = new UserRolesEnum[maxCode + 1];
+        for (UserRolesEnum item : values()) {
+            BY_CODE[item.code] = item;
+        }
+    }
+
+    /**
+     * Конструктор для создания роли с указанным строковым значением и кодом.
      *
      * @param value строковое представление роли
+     * @param code  код роли в БД
      */
-    UserRolesEnum(String value) {
+    UserRolesEnum(String value, short code) {
         this.value = value;
+        this.code = code;
     }
 
     /**
@@ -43,11 +68,23 @@ public enum UserRolesEnum {
      * или {@code null}, если значение некорректно
      */
     @JsonCreator
-    public UserRolesEnum fromString(String value) {
-        return Arrays.stream(values())
-                .filter(status -> status.value.equals(value))
-                .findFirst()
-                .orElse(null);
+    public static UserRolesEnum fromString(String value) {
+        return value == null ? null : BY_VALUE.get(value);
+    }
+
+    /**
+     * Возвращает роль по коду в БД.
+     *
+     * @param code код роли
+     * @return объект {@link UserRolesEnum}
+     * @throws IllegalArgumentException если код неизвестен
+     */
+    public static UserRolesEnum fromCode(short code) {
+        UserRolesEnum item = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (item == null) {
+            throw new IllegalArgumentException("Неизвестный код роли: " + code);
+        }
+        return item;
     }
 
     /**
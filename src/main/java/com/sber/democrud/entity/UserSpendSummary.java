@@ -0,0 +1,54 @@
+package com.sber.democrud.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Сводка покупок пользователя по активным (не архивированным) платежам.
+ * <p>
+ * Строка изменяется только атомарными запросами {@link com.sber.democrud.repository.UserSpendSummaryRepository}
+ * в транзакции изменения платежа, поэтому сущность доступна только для чтения.
+ */
+@ToString
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(name = "user_spend_summary")
+public class UserSpendSummary {
+
+    /**
+     * Идентификатор пользователя.
+     */
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    /**
+     * Сумма активных платежей пользователя.
+     */
+    @Column(name = "total_spend", nullable = false)
+    private BigDecimal totalSpend;
+
+    /**
+     * Количество активных платежей пользователя.
+     */
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    /**
+     * Дата последней покупки среди активных платежей.
+     */
+    @Column(name = "last_purchase_date")
+    private LocalDateTime lastPurchaseDate;
+}
@@ -0,0 +1,284 @@
+package com.sber.democrud.entity.association;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Множество сущностей для связей "один ко многим" и "многие ко многим".
+ * <p>
+ * Сущности проекта возвращают из {@code hashCode()} хэш класса, чтобы оставаться корректными до и после
+ * сохранения, поэтому в {@link java.util.HashSet} все элементы связи попадают в одну корзину, и
+ * добавление или проверка наличия превращаются в линейный поиск. Это множество индексирует сохранённые
+ * сущности ({@link Identifiable} с непустым идентификатором) по идентификатору, а несохранённые хранит
+ * в отдельном списке и сравнивает через {@code equals}.
+ * <p>
+ * Несохранённая сущность получает идентификатор уже после добавления; при изменении множества такие
+ * элементы переносятся в индекс, а при чтении ищутся в списке по идентификатору, поэтому множество
+ * остаётся согласованным с {@code equals} сущностей.
+ *
+ * @param <E> тип сущности.
+ */
+public class EntityAssociationSet<E> extends AbstractSet<E> implements Serializable {
+
+    /**
+     * Сохранённые сущности по идентификатору.
+     */
+    private final HashMap<Object, E> persisted;
+
+    /**
+     * Сущности, у которых на момент добавления не было идентификатора.
+     */
+    private final List<E> transients = new ArrayList<>();
+
+    /**
+     * Создаёт пустое множество.
+     */
+    public EntityAssociationSet() {
+        this(16);
+    }
+
+    /**
+     * Создаёт пустое множество, рассчитанное на заданное количество элементов.
+     *
+     * @param expectedSize ожидаемое количество элементов.
+     */
+    public EntityAssociationSet(int expectedSize) {
+        this.persisted = HashMap.newHashMap(Math.max(expectedSize, 0));
+    }
+
+    /**
+     * Создаёт множество из элементов коллекции.
+     *
+     * @param elements элементы.
+     */
+    public EntityAssociationSet(Collection<? extends E> elements) {
+        this(elements.size());
+        addAll(elements);
+    }
+
+    @Override
+    public int size() {
+        return persisted.size() + transients.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return find(o) != null;
+    }
+
+    @Override
+    public boolean add(E element) {
+        Object id = idOf(element);
+        if (id == null) {
+            if (indexOfTransient(element) >= 0) {
+                return false;
+            }
+            return transients.add(element);
+        }
+        promoteTransients();
+        return persisted.putIfAbsent(id, element) == null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Object id = idOf(o);
+        if (id == null) {
+            int index = indexOfTransient(o);
+            if (index < 0) {
+                return false;
+            }
+            transients.remove(index);
+            return true;
+        }
+        promoteTransients();
+        return persisted.remove(id) != null;
+    }
+
+    @Override
+    public void clear() {
+        persisted.clear();
+        transients.clear();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private final Iterator<E> persistedIterator = persisted.values().iterator();
+            private final Iterator<E> transientIterator = transients.iterator();
+            private Iterator<E> last;
+
+            @Override
+            public boolean hasNext() {
+                return persistedIterator.hasNext() || transientIterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                if (persistedIterator.hasNext()) {
+                    last = persistedIterator;
+                } else if (transientIterator.hasNext()) {
+                    last = transientIterator;
+                } else {
+                    throw new NoSuchElementException();
+                }
+                return last.next();
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                last.remove();
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * Находит элемент множества, равный переданному объекту.
+     *
+     * @param o искомый объект.
+     * @return элемент множества или {@code null}, если такого нет.
+     */
+    E find(Object o) {
+        Object id = idOf(o);
+        if (id == null) {
+            int index = indexOfTransient(o);
+            return index < 0 ? null : transients.get(index);
+        }
+        E element = persisted.get(id);
+        if (element != null) {
+            return element;
+        }
+        for (E candidate : transients) {
+            if (id.equals(idOf(candidate))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Переносит в индекс элементы, получившие идентификатор после добавления.
+     */
+    private void promoteTransients() {
+        if (transients.isEmpty()) {
+            return;
+        }
+        Iterator<E> iterator = transients.iterator();
+        while (iterator.hasNext()) {
+            E element = iterator.next();
+            Object id = idOf(element);
+            if (id != null) {
+                iterator.remove();
+                persisted.putIfAbsent(id, element);
+            }
+        }
+    }
+
+    /**
+     * Ищет объект среди несохранённых элементов.
+     *
+     * @param o искомый объект.
+     * @return позиция в списке или {@code -1}.
+     */
+    private int indexOfTransient(Object o) {
+        for (int i = 0; i < transients.size(); i++) {
+            if (Objects.equals(transients.get(i), o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает идентификатор сущности.
+     *
+     * @param o объект.
+     * @return идентификатор или {@code null}, если объект не сохранён или не реализует {@link Identifiable}.
+     */
+    private static Object idOf(Object o) {
+        return o instanceof Identifiable<?> identifiable ? identifiable.getId() : null;
+    }
+
+    /**
+     * Снимок множества для проверки изменений коллекции Hibernate: отображение элемента на самого себя
+     * с поиском по идентификатору.
+     *
+     * @param <E> тип сущности.
+     */
+    static final class Snapshot<E> extends AbstractMap<E, E> implements Serializable {
+
+        /**
+         * Элементы снимка.
+         */
+        private final EntityAssociationSet<E> elements;
+
+        /**
+         * Создаёт снимок.
+         *
+         * @param elements элементы снимка.
+         */
+        Snapshot(EntityAssociationSet<E> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public E get(Object key) {
+            return elements.find(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return elements.find(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+        @Override
+        public Set<E> keySet() {
+            return elements;
+        }
+
+        @Override
+        public Set<Map.Entry<E, E>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<E, E>> iterator() {
+                    Iterator<E> iterator = elements.iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<E, E> next() {
+                            E element = iterator.next();
+                            return new SimpleImmutableEntry<>(element, element);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return elements.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.sber.democrud.entity.association;
+
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.metamodel.CollectionClassification;
+import org.hibernate.metamodel.mapping.CollectionPart;
+import org.hibernate.metamodel.mapping.EntityValuedModelPart;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.usertype.UserCollectionType;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Тип коллекции Hibernate, хранящий элементы связи в {@link EntityAssociationSet}.
+ * <p>
+ * Подключается к полю связи аннотацией {@code @CollectionType(type = EntityAssociationSetType.class)}.
+ * Множества, переданные приложением (например, из маппера), копируются в {@link EntityAssociationSet}
+ * при сохранении сущности. Элементами могут быть только сущности.
+ */
+public class EntityAssociationSetType implements UserCollectionType {
+
+    @Override
+    public CollectionClassification getClassification() {
+        return CollectionClassification.SET;
+    }
+
+    @Override
+    public Class<?> getCollectionClass() {
+        return Set.class;
+    }
+
+    @Override
+    public PersistentCollection<?> instantiate(SharedSessionContractImplementor session,
+                                               CollectionPersister persister) {
+        return new PersistentEntityAssociationSet<>(session);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public PersistentCollection<?> wrap(SharedSessionContractImplementor session, Object collection) {
+        Set<Object> set = collection instanceof EntityAssociationSet<?>
+                ? (Set<Object>) collection
+                : new EntityAssociationSet<>((Collection<Object>) collection);
+        return new PersistentEntityAssociationSet<>(session, set);
+    }
+
+    @Override
+    public Iterator<?> getElementsIterator(Object collection) {
+        return ((Collection<?>) collection).iterator();
+    }
+
+    @Override
+    public boolean contains(Object collection, Object entity) {
+        return ((Collection<?>) collection).contains(entity);
+    }
+
+    @Override
+    public Object indexOf(Object collection, Object entity) {
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object replaceElements(Object original, Object target, CollectionPersister persister, Object owner,
+                                  Map copyCache, SharedSessionContractImplementor session) {
+        Collection<Object> result = (Collection<Object>) target;
+        result.clear();
+        CollectionPart elementDescriptor = persister.getAttributeMapping().getElementDescriptor();
+        if (!(elementDescriptor instanceof EntityValuedModelPart entityPart)) {
+            throw new IllegalStateException("Элементами коллекции " + persister.getRole() + " должны быть сущности");
+        }
+        EntityPersister elementPersister = entityPart.getEntityMappingType().getEntityPersister();
+        for (Object element : (Collection<?>) original) {
+            result.add(replaceElement(element, elementPersister, copyCache, session));
+        }
+        if (original instanceof PersistentCollection<?> originalCollection
+                && result instanceof PersistentCollection<?> resultCollection
+                && !originalCollection.isDirty()) {
+            resultCollection.clearDirty();
+        }
+        return result;
+    }
+
+    @Override
+    public Object instantiate(int anticipatedSize) {
+        return new EntityAssociationSet<>(anticipatedSize);
+    }
+
+    /**
+     * Находит управляемый сессией экземпляр элемента при слиянии (merge).
+     * <p>
+     * Элемент, уже слитый каскадом, берётся из кэша копий. Иначе сохранённый элемент загружается из сессии
+     * по идентификатору, а новый элемент без идентификатора переносится как есть.
+     *
+     * @param element          элемент исходной коллекции.
+     * @param elementPersister описание сущности элемента.
+     * @param copyCache        кэш копий текущего слияния.
+     * @param session          сессия.
+     * @return элемент для коллекции управляемой сущности.
+     */
+    private static Object replaceElement(Object element, EntityPersister elementPersister, Map<?, ?> copyCache,
+                                         SharedSessionContractImplementor session) {
+        if (element == null) {
+            return null;
+        }
+        Object copy = copyCache.get(element);
+        if (copy != null) {
+            return copy;
+        }
+        Object id = elementPersister.getIdentifier(element, session);
+        return id == null ? element : session.internalLoad(elementPersister.getEntityName(), id, false, false);
+    }
+}
@@ -0,0 +1,16 @@
+package com.sber.democrud.entity.association;
+
+/**
+ * Сущность с идентификатором, по которому её можно искать в {@link EntityAssociationSet}.
+ *
+ * @param <ID> тип идентификатора.
+ */
+public interface Identifiable<ID> {
+
+    /**
+     * Возвращает идентификатор сущности.
+     *
+     * @return идентификатор или {@code null}, если сущность ещё не сохранена.
+     */
+    ID getId();
+}
@@ -0,0 +1,51 @@
+package com.sber.democrud.entity.association;
+
+import org.hibernate.collection.spi.PersistentSet;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Обёртка Hibernate над {@link EntityAssociationSet}.
+ * <p>
+ * Стандартный {@link PersistentSet} хранит снимок коллекции в {@link java.util.HashMap}, где сущности с
+ * одинаковым хэшем снова попадают в одну корзину; здесь снимок индексируется по идентификатору, чтобы
+ * проверка изменений при flush оставалась линейной.
+ *
+ * @param <E> тип сущности.
+ */
+public class PersistentEntityAssociationSet<E> extends PersistentSet<E> {
+
+    /**
+     * Создаёт неинициализированную коллекцию.
+     *
+     * @param session сессия.
+     */
+    public PersistentEntityAssociationSet(SharedSessionContractImplementor session) {
+        super(session);
+    }
+
+    /**
+     * Создаёт коллекцию поверх переданного множества.
+     *
+     * @param session сессия.
+     * @param set     множество элементов.
+     */
+    public PersistentEntityAssociationSet(SharedSessionContractImplementor session, Set<E> set) {
+        super(session, set);
+    }
+
+    /**
+     * Снимок хранит те же ссылки на сущности: как и для стандартных коллекций сущностей, изменения
+     * самих элементов отслеживаются их собственной проверкой изменений, а снимок коллекции — только её состав.
+     *
+     * @param persister описание коллекции.
+     * @return снимок, индексированный по идентификатору.
+     */
+    @Override
+    public Serializable getSnapshot(CollectionPersister persister) {
+        return new EntityAssociationSet.Snapshot<>(new EntityAssociationSet<>(set));
+    }
+}
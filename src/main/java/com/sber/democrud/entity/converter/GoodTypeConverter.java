@@ -0,0 +1,22 @@
+package com.sber.democrud.entity.converter;
+
+import com.sber.democrud.entity.GoodTypesEnum;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Преобразует тип товара {@link GoodTypesEnum} в код {@code smallint} для хранения в БД и обратно.
+ */
+@Converter
+public class GoodTypeConverter implements AttributeConverter<GoodTypesEnum, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(GoodTypesEnum attribute) {
+        return attribute == null ? null : attribute.getCode();
+    }
+
+    @Override
+    public GoodTypesEnum convertToEntityAttribute(Short dbData) {
+        return dbData == null ? null : GoodTypesEnum.fromCode(dbData);
+    }
+}
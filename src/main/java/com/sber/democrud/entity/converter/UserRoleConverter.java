@@ -0,0 +1,22 @@
+package com.sber.democrud.entity.converter;
+
+import com.sber.democrud.entity.UserRolesEnum;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Преобразует роль пользователя {@link UserRolesEnum} в код {@code smallint} для хранения в БД и обратно.
+ */
+@Converter
+public class UserRoleConverter implements AttributeConverter<UserRolesEnum, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(UserRolesEnum attribute) {
+        return attribute == null ? null : attribute.getCode();
+    }
+
+    @Override
+    public UserRolesEnum convertToEntityAttribute(Short dbData) {
+        return dbData == null ? null : UserRolesEnum.fromCode(dbData);
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Сущности приложения. Пользователи, товары и платежи по умолчанию выбираются запросами только активными
+ * (см. {@link com.sber.democrud.entity.ActiveFilter}).
+ */
+@FilterDef(name = ActiveFilter.NAME, defaultCondition = ActiveFilter.CONDITION, autoEnabled = true)
+package com.sber.democrud.entity;
+
+import org.hibernate.annotations.FilterDef;
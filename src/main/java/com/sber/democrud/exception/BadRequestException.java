@@ -0,0 +1,23 @@
+package com.sber.democrud.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.text.MessageFormat;
+
+/**
+ * Исключение для некорректных параметров запроса.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends ApiException {
+
+    /**
+     * Конструктор для создания исключения BadRequestException с форматированным сообщением.
+     *
+     * @param message Сообщение об ошибке.
+     * @param args    Аргументы для форматирования сообщения.
+     */
+    public BadRequestException(String message, Object... args) {
+        super(MessageFormat.format(message, args), HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,23 @@
+package com.sber.democrud.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.text.MessageFormat;
+
+/**
+ * Исключение для случаев, когда крайний срок обработки запроса истёк.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class DeadlineExceededException extends ApiException {
+
+    /**
+     * Конструктор для создания исключения DeadlineExceededException с форматированным сообщением.
+     *
+     * @param message Сообщение об ошибке.
+     * @param args    Аргументы для форматирования сообщения.
+     */
+    public DeadlineExceededException(String message, Object... args) {
+        super(MessageFormat.format(message, args), HttpStatus.GATEWAY_TIMEOUT);
+    }
+}
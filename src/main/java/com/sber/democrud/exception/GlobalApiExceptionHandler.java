@@ -32,6 +32,21 @@ public class GlobalApiExceptionHandler {
                 .body(new ErrorMessage(notFoundException.getMessage()));
     }
 
+    /**
+     * Обработчик исключения BadRequestException.
+     * Возвращает статус 400 и сообщение об ошибке.
+     *
+     * @param badRequestException Исключение BadRequestException.
+     * @return Ответ с сообщением об ошибке и статусом 400.
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorMessage> badRequestException(BadRequestException badRequestException) {
+        log.warn(badRequestException.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorMessage(badRequestException.getMessage()));
+    }
+
     /**
      * Обработчик исключения NoSuchElementException.
      * Возвращает статус 204 и сообщение об ошибке.
@@ -47,6 +62,21 @@ public class GlobalApiExceptionHandler {
                 .body(new ErrorMessage(noSuchElementException.getMessage()));
     }
 
+    /**
+     * Обработчик исключения DeadlineExceededException.
+     * Возвращает статус 504 и сообщение об ошибке.
+     *
+     * @param deadlineExceededException Исключение DeadlineExceededException.
+     * @return Ответ с сообщением об ошибке и статусом 504.
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorMessage> deadlineExceededException(DeadlineExceededException deadlineExceededException) {
+        log.warn(deadlineExceededException.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(new ErrorMessage(deadlineExceededException.getMessage()));
+    }
+
     /**
      * Обработчик всех прочих исключений ApiException.
      * Возвращает статус 500 и сообщение об ошибке.
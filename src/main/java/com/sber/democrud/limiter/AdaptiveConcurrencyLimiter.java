@@ -0,0 +1,92 @@
+package com.sber.democrud.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничитель числа одновременно выполняемых запросов с адаптивным лимитом {@link VegasLimit}.
+ * Запрос, для которого не нашлось свободного места, отклоняется сразу, без ожидания в очереди.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Адаптивный лимит.
+     */
+    private final VegasLimit limit;
+
+    /**
+     * Число выполняющихся запросов.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Число отклонённых запросов.
+     */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Создаёт ограничитель.
+     *
+     * @param limit адаптивный лимит.
+     */
+    public AdaptiveConcurrencyLimiter(VegasLimit limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Пытается занять место для запроса.
+     *
+     * @return число выполняющихся запросов с учётом текущего или {@code -1}, если лимит исчерпан.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                rejected.incrementAndGet();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место и передаёт замер в адаптивный лимит.
+     *
+     * @param rttNanos задержка запроса в наносекундах.
+     * @param inFlight значение, возвращённое {@link #tryAcquire()} для этого запроса.
+     * @param dropped  признак завершения запроса из-за перегрузки.
+     */
+    public void release(long rttNanos, int inFlight, boolean dropped) {
+        this.inFlight.decrementAndGet();
+        limit.onSample(rttNanos, inFlight, dropped);
+    }
+
+    /**
+     * Возвращает текущий лимит.
+     *
+     * @return текущий лимит.
+     */
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    /**
+     * Возвращает число выполняющихся запросов.
+     *
+     * @return число выполняющихся запросов.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Возвращает общее число отклонённых запросов.
+     *
+     * @return число отклонённых запросов.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+}
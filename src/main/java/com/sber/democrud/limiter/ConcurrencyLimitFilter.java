@@ -0,0 +1,129 @@
+package com.sber.democrud.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springdoc.api.ErrorMessage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Фильтр, ограничивающий число одновременно обрабатываемых запросов к API.
+ * <p>
+ * Читающие и изменяющие запросы ограничиваются раздельно. Если лимит исчерпан, запрос сразу
+ * отклоняется со статусом 503 и заголовком {@code Retry-After} до вызова контроллера и обращения к БД,
+ * поэтому не занимает соединение Hikari. Поток Tomcat запрос при этом уже получил: фильтр выполняется в нём,
+ * и запросы, ждущие свободного потока в очереди Tomcat, ограничитель не видит.
+ * Ответы 503 и 504 считаются признаком перегрузки и уменьшают лимит.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    /**
+     * Логгер.
+     */
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    /**
+     * Ограничитель читающих запросов.
+     */
+    private final AdaptiveConcurrencyLimiter readLimiter;
+
+    /**
+     * Ограничитель изменяющих запросов.
+     */
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+
+    /**
+     * Значение заголовка {@code Retry-After} в секундах.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Объект для сериализации тела ответа об ошибке.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Конструктор фильтра.
+     *
+     * @param readLimiter       ограничитель читающих запросов.
+     * @param writeLimiter      ограничитель изменяющих запросов.
+     * @param retryAfterSeconds значение заголовка {@code Retry-After} в секундах.
+     * @param objectMapper      объект для сериализации тела ответа об ошибке.
+     */
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter readLimiter,
+                                  AdaptiveConcurrencyLimiter writeLimiter,
+                                  long retryAfterSeconds,
+                                  ObjectMapper objectMapper) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+        int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            log.warn("Запрос {} {} отклонён: превышен лимит параллелизма {}",
+                    request.getMethod(), request.getRequestURI(), limiter.getLimit());
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = isOverloadStatus(response.getStatus());
+        } finally {
+            limiter.release(System.nanoTime() - start, inFlight, dropped);
+        }
+    }
+
+    /**
+     * Определяет, является ли запрос читающим.
+     *
+     * @param request HTTP-запрос.
+     * @return {@code true} для GET, HEAD и OPTIONS.
+     */
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    /**
+     * Проверяет, говорит ли статус ответа о перегрузке.
+     *
+     * @param status HTTP-статус ответа.
+     * @return {@code true} для 503 и 504.
+     */
+    private static boolean isOverloadStatus(int status) {
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    /**
+     * Записывает ответ 503 с заголовком {@code Retry-After}.
+     *
+     * @param response HTTP-ответ.
+     * @throws IOException при ошибке записи ответа.
+     */
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorMessage("Сервис перегружен, повторите запрос позже"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.sber.democrud.limiter;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки адаптивного ограничения параллелизма API ({@code app.concurrency-limit.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Включено ли ограничение.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Значение заголовка {@code Retry-After} для отклонённых запросов.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Лимит для читающих запросов (GET, HEAD, OPTIONS).
+     */
+    private Limit read = new Limit(20, 4, 200);
+
+    /**
+     * Лимит для изменяющих запросов (POST, PUT, DELETE, PATCH).
+     */
+    private Limit write = new Limit(10, 2, 100);
+
+    /**
+     * Параметры одного адаптивного лимита.
+     */
+    @Getter
+    @Setter
+    public static class Limit {
+
+        /**
+         * Начальное значение лимита.
+         */
+        private int initialLimit;
+
+        /**
+         * Минимальное значение лимита.
+         */
+        private int minLimit;
+
+        /**
+         * Максимальное значение лимита.
+         */
+        private int maxLimit;
+
+        /**
+         * Коэффициент сглаживания изменений лимита (1 — без сглаживания).
+         */
+        private double smoothing = 1.0;
+
+        /**
+         * Множитель периода сброса задержки «без нагрузки» (в замерах на единицу лимита).
+         */
+        private int probeMultiplier = 30;
+
+        /**
+         * Конструктор для привязки настроек.
+         */
+        public Limit() {
+        }
+
+        /**
+         * Конструктор со значениями по умолчанию.
+         *
+         * @param initialLimit начальное значение лимита.
+         * @param minLimit     минимальное значение лимита.
+         * @param maxLimit     максимальное значение лимита.
+         */
+        public Limit(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+
+        /**
+         * Создаёт ограничитель с этими параметрами.
+         *
+         * @return новый ограничитель.
+         */
+        public AdaptiveConcurrencyLimiter toLimiter() {
+            return new AdaptiveConcurrencyLimiter(
+                    new VegasLimit(initialLimit, minLimit, maxLimit, smoothing, probeMultiplier));
+        }
+    }
+}
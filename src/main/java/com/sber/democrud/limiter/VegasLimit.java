@@ -0,0 +1,144 @@
+package com.sber.democrud.limiter;
+
+/**
+ * Адаптивный лимит параллелизма в стиле TCP Vegas.
+ * <p>
+ * Лимит оценивается по задержке: минимальная наблюдаемая задержка считается задержкой «без нагрузки»,
+ * а отношение текущей задержки к ней даёт оценку длины очереди
+ * {@code queue = limit * (1 - rttNoLoad / rtt)}. Пока очередь мала, лимит растёт,
+ * при росте очереди или при сбросе запроса (таймаут, отказ БД) — уменьшается.
+ * Периодически задержка «без нагрузки» сбрасывается, чтобы лимит подстраивался под изменение базовой
+ * задержки (например, после деградации Postgres).
+ */
+public class VegasLimit {
+
+    /**
+     * Минимальное значение лимита.
+     */
+    private final int minLimit;
+
+    /**
+     * Максимальное значение лимита.
+     */
+    private final int maxLimit;
+
+    /**
+     * Коэффициент сглаживания изменений лимита в диапазоне (0, 1].
+     */
+    private final double smoothing;
+
+    /**
+     * Через сколько замеров (в единицах текущего лимита) сбрасывать задержку «без нагрузки».
+     */
+    private final int probeMultiplier;
+
+    /**
+     * Текущая оценка лимита.
+     */
+    private volatile double estimatedLimit;
+
+    /**
+     * Минимальная наблюдаемая задержка в наносекундах.
+     */
+    private long rttNoLoadNanos;
+
+    /**
+     * Количество замеров до следующего сброса задержки «без нагрузки».
+     */
+    private long probeCountdown;
+
+    /**
+     * Создаёт лимит.
+     *
+     * @param initialLimit    начальное значение лимита.
+     * @param minLimit        минимальное значение лимита.
+     * @param maxLimit        максимальное значение лимита.
+     * @param smoothing       коэффициент сглаживания (1 — без сглаживания).
+     * @param probeMultiplier множитель периода сброса задержки «без нагрузки».
+     */
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, int probeMultiplier) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.probeMultiplier = probeMultiplier;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        resetProbeCountdown();
+    }
+
+    /**
+     * Возвращает текущий лимит.
+     *
+     * @return максимальное число одновременно выполняемых запросов.
+     */
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    /**
+     * Учитывает замер выполненного запроса.
+     *
+     * @param rttNanos задержка запроса в наносекундах.
+     * @param inFlight число запросов, выполнявшихся одновременно с этим (включая его).
+     * @param dropped  признак того, что запрос завершился из-за перегрузки (таймаут, отказ в ресурсе).
+     */
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (dropped) {
+            // Быстрый отказ (таймаут ожидания, ошибка пула) не говорит о задержке «без нагрузки»,
+            // поэтому лимит уменьшается до проверки минимальной задержки и без её обновления
+            double current = estimatedLimit;
+            setLimit(current, current - Math.max(1, Math.log10(current)));
+            return;
+        }
+        if (--probeCountdown <= 0) {
+            resetProbeCountdown();
+            rttNoLoadNanos = rttNanos;
+            return;
+        }
+        if (rttNoLoadNanos == 0 || rttNanos < rttNoLoadNanos) {
+            rttNoLoadNanos = rttNanos;
+            return;
+        }
+
+        double current = estimatedLimit;
+        double log = Math.max(1, Math.log10(current));
+        double newLimit;
+        if (inFlight * 2 < current) {
+            // Нагрузка меньше половины лимита: задержка не говорит о его достаточности
+            return;
+        } else {
+            int queueSize = (int) Math.ceil(current * (1 - (double) rttNoLoadNanos / rttNanos));
+            if (queueSize <= log) {
+                newLimit = current + 6 * log;
+            } else if (queueSize < 3 * log) {
+                newLimit = current + log;
+            } else if (queueSize > 6 * log) {
+                newLimit = current - log;
+            } else {
+                return;
+            }
+        }
+
+        setLimit(current, newLimit);
+    }
+
+    /**
+     * Сдвигает лимит к новому значению с учётом сглаживания и границ.
+     *
+     * @param current  текущий лимит.
+     * @param newLimit новое значение лимита до сглаживания.
+     */
+    private void setLimit(double current, double newLimit) {
+        newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        estimatedLimit = (1 - smoothing) * current + smoothing * newLimit;
+    }
+
+    /**
+     * Перезапускает отсчёт замеров до сброса задержки «без нагрузки».
+     */
+    private void resetProbeCountdown() {
+        probeCountdown = (long) probeMultiplier * Math.max(1, getLimit());
+    }
+}
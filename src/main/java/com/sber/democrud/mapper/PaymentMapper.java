@@ -1,8 +1,10 @@
 package com.sber.democrud.mapper;
 
+import com.sber.democrud.dto.PaymentGoodResponseDto;
 import com.sber.democrud.dto.PaymentRequestDto;
 import com.sber.democrud.dto.PaymentResponseDto;
 import com.sber.democrud.entity.Payment;
+import com.sber.democrud.entity.PaymentGood;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -11,7 +13,7 @@ import org.mapstruct.MappingTarget;
 /**
  * Маппер для преобразования между сущностью {@link Payment} и DTO объектами.
  */
-@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = {GoodMapper.class})
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface PaymentMapper {
     /**
      * Преобразует сущность {@link com.sber.democrud.entity.Payment} в объект {@link com.sber.democrud.dto.PaymentResponseDto}.
@@ -26,13 +28,27 @@ public interface PaymentMapper {
     @Mapping(target = "goods", source = "goods")
     PaymentResponseDto toPaymentResponseDto(Payment payment);
 
+    /**
+     * Преобразует позицию платежа {@link PaymentGood} в объект {@link PaymentGoodResponseDto}.
+     *
+     * @param paymentGood позиция платежа.
+     * @return DTO позиции платежа.
+     */
+    @Mapping(target = "goodId", source = "id.goodId")
+    @Mapping(target = "name", source = "good.name")
+    PaymentGoodResponseDto toPaymentGoodResponseDto(PaymentGood paymentGood);
+
     /**
      * Преобразует DTO объекта {@link com.sber.democrud.dto.PaymentRequestDto} в сущность {@link com.sber.democrud.entity.Payment}.
+     * Товары и итоговая сумма не заполняются: позиции платежа содержат только идентификаторы товаров,
+     * связываются сервисом, а сумма вычисляется по ним. Дата архивации не заполняется: новый платёж активен.
      *
      * @param paymentRequestDto DTO с данными для создания покупки.
      * @return объект сущности покупки.
      */
-    @Mapping(target = "goods", source = "goods")
+    @Mapping(target = "archiveDate", ignore = true)
+    @Mapping(target = "goods", ignore = true)
+    @Mapping(target = "totalPurchaseAmount", ignore = true)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "dateOfPurchase", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
@@ -42,13 +58,16 @@ public interface PaymentMapper {
 
     /**
      * Обновляет существующий объект {@link Payment} на основе данных из {@link PaymentRequestDto}.
-     * Кроме пользователя, так как в совершенной покупке нельзя поменять данные того, кто произвел оплату.
+     * Кроме пользователя, так как в совершенной покупке нельзя поменять данные того, кто произвел оплату,
+     * товаров, которые связываются сервисом вместе с пересчётом итоговой суммы, и даты архивации:
+     * платёж архивируется только отдельным запросом, который вычитает его из сводки покупок.
      *
      * @param paymentRequestDto DTO с новыми данными покупки.
      * @param payment           объект покупки, который необходимо обновить.
      */
-
-    @Mapping(target = "goods", source = "goods")
+    @Mapping(target = "archiveDate", ignore = true)
+    @Mapping(target = "goods", ignore = true)
+    @Mapping(target = "totalPurchaseAmount", ignore = true)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "dateOfPurchase", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
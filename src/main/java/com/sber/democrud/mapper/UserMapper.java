@@ -2,8 +2,9 @@ package com.sber.democrud.mapper;
 
 import com.sber.democrud.dto.UserRequestDto;
 import com.sber.democrud.dto.UserResponseDto;
-import com.sber.democrud.entity.Good;
+import com.sber.democrud.dto.UserSpendSummaryResponseDto;
 import com.sber.democrud.entity.User;
+import com.sber.democrud.entity.UserSpendSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -16,6 +17,7 @@ import org.mapstruct.MappingTarget;
 public interface UserMapper {
     /**
      * Преобразует сущность {@link com.sber.democrud.entity.User} в объект {@link com.sber.democrud.dto.UserResponseDto}.
+     * Платежи переносятся, только если коллекция уже загружена: маппинг не инициирует ленивую загрузку.
      *
      * @param user объект пользователя.
      * @return DTO объекта пользователя.
@@ -27,7 +29,8 @@ public interface UserMapper {
     @Mapping(target = "email", source = "email")
     @Mapping(target = "role", source = "role")
     @Mapping(target = "archiveDate", source = "archiveDate")
-    @Mapping(target = "payments", source = "payments")
+    @Mapping(target = "payments", source = "payments",
+            conditionExpression = "java(org.hibernate.Hibernate.isInitialized(user.getPayments()))")
     UserResponseDto toUserResponseDto(User user);
 
     /**
@@ -53,4 +56,12 @@ public interface UserMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "payments", ignore = true)
     void updateUserFromDto(UserRequestDto userRequestDto, @MappingTarget User user);
+
+    /**
+     * Преобразует сводку покупок {@link UserSpendSummary} в {@link UserSpendSummaryResponseDto}.
+     *
+     * @param summary сводка покупок пользователя.
+     * @return DTO сводки покупок.
+     */
+    UserSpendSummaryResponseDto toUserSpendSummaryResponseDto(UserSpendSummary summary);
 }
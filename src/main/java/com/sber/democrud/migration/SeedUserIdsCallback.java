@@ -0,0 +1,57 @@
+package com.sber.democrud.migration;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Подготовка новой БД к миграции {@code V5__insert_data_for_payments.sql}.
+ * <p>
+ * {@code V5} ссылается на пользователей по заданным UUID, а {@code V4} создаёт их со случайными, поэтому на новой БД
+ * она нарушала бы внешний ключ платежей. Обе миграции уже применены в существующих БД и не меняются (иначе
+ * не совпадёт контрольная сумма), поэтому перед {@code V5} пользователи {@code V4} получают те UUID, на которые
+ * она ссылается. На этом шаге платежей ещё нет, и ссылок на прежние UUID тоже. В БД, где {@code V5} уже применена,
+ * обработчик не вызывается.
+ */
+public class SeedUserIdsCallback implements Callback {
+
+    private static final MigrationVersion VERSION = MigrationVersion.fromVersion("5");
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_EACH_MIGRATE
+                && context.getMigrationInfo() != null
+                && VERSION.equals(context.getMigrationInfo().getVersion());
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.executeUpdate("""
+                    UPDATE users u
+                    SET id = s.id
+                    FROM (VALUES ('pro100alex', CAST('bc31c9b2-49d8-4d1c-9f7b-c40bfbcbce1d' AS uuid)),
+                                 ('prr100admin', CAST('4545ec5b-f3b8-40d3-91cd-8f8d8efc3922' AS uuid)),
+                                 ('qtjulia', CAST('0b4e7b98-8b73-4d4b-af81-64d58499be78' AS uuid))) s(login, id)
+                    WHERE u.login = s.login
+                      AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.user_id = u.id)
+                    """);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось подготовить пользователей к миграции V5", e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "seed-user-ids";
+    }
+}
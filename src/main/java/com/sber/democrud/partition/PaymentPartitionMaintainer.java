@@ -0,0 +1,86 @@
+package com.sber.democrud.partition;
+
+import com.sber.democrud.repository.PaymentPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Периодически создаёт секции {@code payments} и {@code payment_goods} на {@code app.partitions.months-ahead}
+ * месяцев вперёд и отсоединяет секции старше {@code app.partitions.retention-months}, если срок хранения задан.
+ * <p>
+ * Платёж получает дату покупки при вставке, поэтому секция текущего месяца должна существовать заранее:
+ * запас в несколько месяцев позволяет пережить простой приложения без ошибок вставки. Секции по умолчанию
+ * нет: платёж за месяц без секции не вставляется, поэтому без секций текущего и следующего месяца приложение
+ * не запускается.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentPartitionMaintainer implements ApplicationRunner {
+
+    private final PaymentPartitionRepository partitionRepository;
+
+    private final PaymentPartitionProperties properties;
+
+    private final Clock clock;
+
+    /**
+     * Проверяет секции при запуске приложения.
+     *
+     * @param args аргументы запуска.
+     * @throws IllegalStateException если секции текущего или следующего месяца нет и создать её не удалось.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        maintain();
+        YearMonth current = YearMonth.now(clock);
+        List<YearMonth> partitions = partitionRepository.findPartitions();
+        for (int i = 0; i <= Math.min(1, properties.getMonthsAhead()); i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!partitions.contains(month)) {
+                throw new IllegalStateException("Нет секции платежей за " + month
+                        + ": платежи этого месяца не будут сохраняться");
+            }
+        }
+    }
+
+    /**
+     * Проверяет секции; ошибка по месяцу записывается в журнал, следующая попытка выполняется по расписанию.
+     */
+    @Scheduled(fixedDelayString = "${app.partitions.check-interval:PT1H}",
+            initialDelayString = "${app.partitions.check-interval:PT1H}")
+    public void maintain() {
+        YearMonth current = YearMonth.now(clock);
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                if (partitionRepository.ensurePartition(month, properties.getLockTimeout())) {
+                    log.info("Созданы секции платежей за {}", month);
+                }
+            } catch (RuntimeException e) {
+                log.error("Не удалось создать секции платежей за {}", month, e);
+            }
+        }
+
+        if (properties.getRetentionMonths() > 0) {
+            YearMonth oldest = current.minusMonths(properties.getRetentionMonths());
+            for (YearMonth month : partitionRepository.findPartitions()) {
+                if (!month.isBefore(oldest)) {
+                    break;
+                }
+                try {
+                    partitionRepository.detachPartition(month);
+                    log.info("Отсоединены секции платежей за {}", month);
+                } catch (RuntimeException e) {
+                    log.error("Не удалось отсоединить секции платежей за {}", month, e);
+                }
+            }
+        }
+    }
+}
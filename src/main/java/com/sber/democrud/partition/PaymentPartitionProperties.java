@@ -0,0 +1,43 @@
+package com.sber.democrud.partition;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки обслуживания месячных секций {@code payments} и {@code payment_goods} ({@code app.partitions.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.partitions")
+public class PaymentPartitionProperties {
+
+    /**
+     * Включено ли периодическое обслуживание секций.
+     */
+    private boolean enabled = true;
+
+    /**
+     * На сколько месяцев вперёд, кроме текущего, создаются секции.
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * Пауза между проверками секций. Первая проверка выполняется при запуске приложения.
+     */
+    private Duration checkInterval = Duration.ofHours(1);
+
+    /**
+     * Максимальное ожидание блокировки при присоединении секции: обслуживание не встаёт в очередь
+     * за долгими транзакциями и повторяется при следующей проверке.
+     */
+    private Duration lockTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Сколько месяцев, кроме текущего, секции остаются в таблицах. Более старые секции отсоединяются
+     * и остаются отдельными таблицами. {@code 0} — секции не отсоединяются.
+     */
+    private int retentionMonths = 0;
+}
@@ -0,0 +1,44 @@
+package com.sber.democrud.repository;
+
+import com.sber.democrud.entity.ActiveFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+/**
+ * Выключение фильтра активных записей {@link ActiveFilter} на время запроса.
+ * <p>
+ * Фильтр включается в каждой сессии, поэтому выключается в транзакции: текущей или новой, только для чтения.
+ * После запроса фильтр включается снова, если был включён.
+ */
+@Repository
+public class ActiveFilterSwitch {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Выполняет запросы с учётом архивированных записей.
+     *
+     * @param queries запросы к репозиториям.
+     * @param <T>     тип результата.
+     * @return результат запросов.
+     */
+    @Transactional(readOnly = true)
+    public <T> T includingArchived(Supplier<T> queries) {
+        Session session = entityManager.unwrap(Session.class);
+        boolean enabled = session.getEnabledFilter(ActiveFilter.NAME) != null;
+        session.disableFilter(ActiveFilter.NAME);
+        try {
+            return queries.get();
+        } finally {
+            if (enabled) {
+                session.enableFilter(ActiveFilter.NAME);
+            }
+        }
+    }
+}
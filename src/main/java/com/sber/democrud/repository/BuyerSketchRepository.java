@@ -0,0 +1,98 @@
+package com.sber.democrud.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Репозиторий дневных оценок HyperLogLog уникальных покупателей по товарам ({@code good_buyer_sketches})
+ * и типам товаров ({@code good_type_buyer_sketches}).
+ * <p>
+ * Регистр обновляется, только если новый ранг больше текущего. С ростом числа покупателей почти все покупки
+ * не меняют регистры, поэтому строка популярного товара за день редко блокируется.
+ */
+@Repository
+public class BuyerSketchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Учитывает покупателя в оценках товаров и типов товаров за текущий день БД.
+     *
+     * @param goodIds   идентификаторы товаров.
+     * @param typeCodes коды типов товаров.
+     * @param index     номер регистра.
+     * @param rank      ранг хеша покупателя.
+     */
+    public void addBuyer(List<Long> goodIds, List<Short> typeCodes, int index, int rank) {
+        addBuyer("good_buyer_sketches", "good_id", "bigint", goodIds.toArray(Long[]::new), index, rank);
+        addBuyer("good_type_buyer_sketches", "good_type", "smallint", typeCodes.toArray(Short[]::new), index, rank);
+    }
+
+    /**
+     * Находит регистры товара за период.
+     *
+     * @param goodId идентификатор товара.
+     * @param from   первый день (включительно).
+     * @param to     последний день (включительно).
+     * @return регистры по дням.
+     */
+    public List<byte[]> findGoodSketches(long goodId, LocalDate from, LocalDate to) {
+        return findSketches("good_buyer_sketches", "good_id", goodId, from, to);
+    }
+
+    /**
+     * Находит регистры типа товара за период.
+     *
+     * @param typeCode код типа товара.
+     * @param from     первый день (включительно).
+     * @param to       последний день (включительно).
+     * @return регистры по дням.
+     */
+    public List<byte[]> findTypeSketches(short typeCode, LocalDate from, LocalDate to) {
+        return findSketches("good_type_buyer_sketches", "good_type", typeCode, from, to);
+    }
+
+    private void addBuyer(String table, String key, String keyType, Object[] keys, int index, int rank) {
+        // Новые строки вставляются с уже поднятым регистром; существующие блокируются, только если регистр растёт
+        entityManager.createNativeQuery("""
+                        INSERT INTO %1$s (%2$s, sales_date, registers)
+                        SELECT k, current_date, hll_set(NULL, :index, :rank)
+                        FROM unnest(CAST(:keys AS %3$s[])) k
+                        ON CONFLICT DO NOTHING
+                        """.formatted(table, key, keyType))
+                .setParameter("keys", keys)
+                .setParameter("index", index)
+                .setParameter("rank", rank)
+                .executeUpdate();
+        entityManager.createNativeQuery("""
+                        UPDATE %1$s
+                        SET registers = hll_set(registers, :index, :rank)
+                        WHERE %2$s = ANY(CAST(:keys AS %3$s[]))
+                          AND sales_date = current_date
+                          AND get_byte(registers, :index) < :rank
+                        """.formatted(table, key, keyType))
+                .setParameter("keys", keys)
+                .setParameter("index", index)
+                .setParameter("rank", rank)
+                .executeUpdate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<byte[]> findSketches(String table, String key, Object value, LocalDate from, LocalDate to) {
+        return entityManager.createNativeQuery("""
+                        SELECT registers
+                        FROM %1$s
+                        WHERE %2$s = :value
+                          AND sales_date BETWEEN :from AND :to
+                        """.formatted(table, key), byte[].class)
+                .setParameter("value", value)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+}
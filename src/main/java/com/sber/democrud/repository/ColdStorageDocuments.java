@@ -0,0 +1,100 @@
+package com.sber.democrud.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Чтение документов холодного хранилища: строк рабочих таблиц, сохранённых функцией {@code to_jsonb}
+ * с именами столбцов в качестве ключей.
+ */
+final class ColdStorageDocuments {
+
+    /**
+     * Денежные значения читаются как {@link BigDecimal} без потери масштаба.
+     */
+    private static final ObjectReader READER = new ObjectMapper()
+            .reader(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private ColdStorageDocuments() {
+    }
+
+    /**
+     * Выполняет запрос, выбирающий документы как текст ({@code CAST(data AS text)}).
+     *
+     * @param query нативный запрос.
+     * @return документы.
+     */
+    @SuppressWarnings("unchecked")
+    static List<String> documents(Query query) {
+        return query.getResultList();
+    }
+
+    /**
+     * Собирает страницу из двух страниц, упорядоченных по ключу: записей рабочей таблицы и холодного хранилища.
+     * Каждая из них выбрана с тем же курсором и ограничением, поэтому первые {@code limit} записей слияния
+     * совпадают со страницей общей выдачи.
+     *
+     * @param hot   записи рабочей таблицы.
+     * @param cold  записи холодного хранилища.
+     * @param key   ключ сортировки; порядок должен совпадать с порядком {@code ORDER BY} в БД.
+     * @param limit размер страницы.
+     * @return не более {@code limit} записей по возрастанию ключа.
+     */
+    static <T, K extends Comparable<? super K>> List<T> mergePage(List<T> hot, List<T> cold, Function<T, K> key,
+                                                                  int limit) {
+        List<T> page = new ArrayList<>(hot.size() + cold.size());
+        page.addAll(hot);
+        page.addAll(cold);
+        page.sort(Comparator.comparing(key));
+        return page.size() > limit ? new ArrayList<>(page.subList(0, limit)) : page;
+    }
+
+    static JsonNode parse(String document) {
+        try {
+            return READER.readTree(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Некорректный документ холодного хранилища", e);
+        }
+    }
+
+    static String text(JsonNode document, String column) {
+        JsonNode value = document.get(column);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    static UUID uuid(JsonNode document, String column) {
+        String value = text(document, column);
+        return value == null ? null : UUID.fromString(value);
+    }
+
+    static Long number(JsonNode document, String column) {
+        JsonNode value = document.get(column);
+        return value == null || value.isNull() ? null : value.asLong();
+    }
+
+    static short code(JsonNode document, String column) {
+        return document.get(column).shortValue();
+    }
+
+    static BigDecimal decimal(JsonNode document, String column) {
+        JsonNode value = document.get(column);
+        return value == null || value.isNull() ? null : value.decimalValue();
+    }
+
+    static LocalDateTime dateTime(JsonNode document, String column) {
+        String value = text(document, column);
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+}
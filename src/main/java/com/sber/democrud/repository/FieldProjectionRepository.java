@@ -0,0 +1,65 @@
+package com.sber.democrud.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Репозиторий выборки отдельных атрибутов сущности по идентификатору.
+ * <p>
+ * Запрос строится через Criteria API и выбирает только указанные столбцы, поэтому невостребованные поля
+ * (например, длинное описание товара) не читаются из БД и не материализуются в сущность.
+ */
+@Repository
+public class FieldProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Находит значения атрибутов сущности по идентификатору.
+     *
+     * @param entityClass класс сущности.
+     * @param id          идентификатор сущности.
+     * @param attributes  имена базовых (не коллекционных) атрибутов сущности.
+     * @param <T>         тип сущности.
+     * @return значения атрибутов в порядке {@code attributes} или пустой {@link Optional}, если запись не найдена.
+     */
+    @Transactional(readOnly = true)
+    public <T> Optional<Map<String, Object>> findById(Class<T> entityClass, Object id, List<String> attributes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+        List<Selection<?>> selections = attributes.stream()
+                .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+                .toList();
+        query.multiselect(selections)
+                .where(criteriaBuilder.equal(root.get("id"), id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst()
+                .map(FieldProjectionRepository::toMap);
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            values.put(element.getAlias(), tuple.get(element));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,46 @@
+package com.sber.democrud.repository;
+
+import com.sber.democrud.entity.Good;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Фрагмент {@link GoodRepository} для холодного хранилища товаров ({@code goods_archive}).
+ * <p>
+ * Товар переносится, только когда в рабочей таблице не осталось позиций платежей с ним. Оценки уникальных
+ * покупателей товара остаются на месте.
+ */
+public interface GoodArchiveRepository {
+
+    /**
+     * Находит страницу товаров, которые были архивированы: оставшихся в рабочей таблице и перенесённых
+     * в холодное хранилище, по возрастанию идентификатора.
+     *
+     * @param afterId идентификатор последнего товара предыдущей страницы или {@code null} для первой.
+     * @param limit   размер страницы.
+     * @return не более {@code limit} архивированных товаров.
+     */
+    List<Good> findByArchiveDateIsNotNull(Long afterId, int limit);
+
+    /**
+     * Находит товар в холодном хранилище.
+     *
+     * @param id идентификатор товара.
+     * @return товар или пустой {@link Optional}, если товар не перенесён.
+     */
+    Optional<Good> findInColdStorageById(Long id);
+
+    /**
+     * Переносит в холодное хранилище не более {@code limit} товаров, архивированных раньше указанной даты
+     * и не входящих в платежи рабочей таблицы.
+     *
+     * @param archivedBefore граница даты архивации (не включительно).
+     * @param limit          максимальное количество товаров в порции.
+     * @return количество перенесённых товаров.
+     */
+    @Transactional
+    int moveToColdStorage(LocalDateTime archivedBefore, int limit);
+}
@@ -0,0 +1,91 @@
+package com.sber.democrud.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.sber.democrud.repository.ColdStorageDocuments.code;
+import static com.sber.democrud.repository.ColdStorageDocuments.dateTime;
+import static com.sber.democrud.repository.ColdStorageDocuments.decimal;
+import static com.sber.democrud.repository.ColdStorageDocuments.documents;
+import static com.sber.democrud.repository.ColdStorageDocuments.mergePage;
+import static com.sber.democrud.repository.ColdStorageDocuments.number;
+import static com.sber.democrud.repository.ColdStorageDocuments.text;
+
+/**
+ * Реализация {@link GoodArchiveRepository}.
+ */
+class GoodArchiveRepositoryImpl implements GoodArchiveRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Good> findByArchiveDateIsNotNull(Long afterId, int limit) {
+        Query hot = entityManager.createNativeQuery("SELECT * FROM goods WHERE archive_date IS NOT NULL"
+                + (afterId == null ? "" : " AND id > :afterId") + " ORDER BY id LIMIT :limit", Good.class);
+        Query cold = entityManager.createNativeQuery("SELECT CAST(data AS text) FROM goods_archive"
+                + (afterId == null ? "" : " WHERE id > :afterId") + " ORDER BY id LIMIT :limit", String.class);
+        for (Query query : List.of(hot, cold)) {
+            query.setParameter("limit", limit);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+        }
+        return mergePage((List<Good>) hot.getResultList(), documents(cold).stream()
+                .map(GoodArchiveRepositoryImpl::toGood)
+                .toList(), Good::getId, limit);
+    }
+
+    @Override
+    public Optional<Good> findInColdStorageById(Long id) {
+        return documents(entityManager.createNativeQuery(
+                        "SELECT CAST(data AS text) FROM goods_archive WHERE id = :id", String.class)
+                .setParameter("id", id)).stream()
+                .findFirst()
+                .map(GoodArchiveRepositoryImpl::toGood);
+    }
+
+    @Override
+    public int moveToColdStorage(LocalDateTime archivedBefore, int limit) {
+        return entityManager.createNativeQuery("""
+                        WITH moved AS (DELETE FROM goods
+                            WHERE id IN (SELECT g.id
+                                         FROM goods g
+                                         WHERE g.archive_date < :archivedBefore
+                                           AND NOT EXISTS (SELECT 1 FROM payment_goods pg WHERE pg.good_id = g.id)
+                                         ORDER BY g.archive_date
+                                         LIMIT :limit FOR UPDATE SKIP LOCKED)
+                            RETURNING *)
+                        INSERT INTO goods_archive (id, archive_date, data)
+                        SELECT m.id, m.archive_date, to_jsonb(m) - 'search_vector'
+                        FROM moved m
+                        """)
+                .setParameter("archivedBefore", archivedBefore)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    private static Good toGood(String json) {
+        JsonNode document = ColdStorageDocuments.parse(json);
+        Good good = new Good();
+        good.setId(number(document, "id"));
+        good.setName(text(document, "name"));
+        good.setType(GoodTypesEnum.fromCode(code(document, "type")));
+        good.setDescription(text(document, "description"));
+        good.setPrice(decimal(document, "price"));
+        good.setStockQuantity(number(document, "stock_quantity"));
+        good.setArchiveDate(dateTime(document, "archive_date"));
+        good.setCreatedAt(dateTime(document, "created_at"));
+        good.setUpdatedAt(dateTime(document, "updated_at"));
+        return good;
+    }
+}
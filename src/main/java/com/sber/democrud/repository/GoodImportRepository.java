@@ -0,0 +1,277 @@
+package com.sber.democrud.repository;
+
+import com.sber.democrud.entity.GoodTypesEnum;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Репозиторий импорта товаров из CSV.
+ * <p>
+ * Файл передаётся серверу через {@code COPY ... FROM STDIN} построчно, без разбора CSV, во временную таблицу
+ * {@code goods_import_lines}, поэтому загрузка не зависит от содержимого строк и не держит файл в памяти.
+ * Разбор на записи и значения, проверка и слияние с {@code goods} выполняются запросами над всей таблицей:
+ * нарушение структуры CSV в одной записи становится ошибкой этой записи, а не всего файла. Временные таблицы
+ * удаляются при завершении транзакции, поэтому все методы вызываются в одной транзакции, начиная с {@link #copy}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GoodImportRepository {
+
+    /**
+     * Типы товаров как {@code VALUES (значение, код)}.
+     */
+    private static final String TYPES = Arrays.stream(GoodTypesEnum.values())
+            .map(type -> "('" + type.getValue() + "', " + type.getCode() + ")")
+            .collect(Collectors.joining(", ", "(VALUES ", ")"));
+
+    /**
+     * Значение CSV: в кавычках (кавычка внутри удваивается) или без кавычек и запятых.
+     */
+    private static final String FIELD = "(\"([^\"]|\"\")*\"|[^,\"]*)";
+
+    /**
+     * Часть значения в кавычках без закрывающей кавычки.
+     */
+    private static final String QUOTED = "([^\"]|\"\")*";
+
+    /**
+     * Собирает строки файла в записи CSV и разбивает записи на значения.
+     * <p>
+     * Строка продолжает запись, если предыдущая строка закончилась внутри значения в кавычках. Для каждой строки
+     * определяется, чем она заканчивается, если начинается вне кавычек ({@code opens}) и внутри них
+     * ({@code stays_open}). Если ответы совпадают, состояние после строки от предыдущих строк не зависит; иначе
+     * строка либо сохраняет состояние, либо меняет его на противоположное. Поэтому состояние после строки —
+     * состояние после последней такой строки (в начале файла — вне кавычек), изменённое столько раз, сколько
+     * строк после неё меняют состояние. Строка, которая не разбирается как CSV, заканчивает запись, поэтому
+     * лишняя кавычка не захватывает следующие строки.
+     * <p>
+     * Первая запись — заголовок. Пустое значение без кавычек загружается как {@code null}, как в
+     * {@code COPY ... (FORMAT csv)}.
+     */
+    private static final String SPLIT_RECORDS = """
+            INSERT INTO goods_import (row_number, name, type, description, price, stock_quantity, error)
+            WITH transitions AS (SELECT line_number,
+                                        coalesce(line, '') AS line,
+                                        coalesce(line, '') ~ '^(FIELD,)*"QUOTED$' AS opens,
+                                        coalesce(line, '') ~ '^QUOTED("(,FIELD)*,"QUOTED)?$' AS stays_open
+                                 FROM goods_import_lines),
+                 counters AS (SELECT line_number,
+                                     line,
+                                     opens,
+                                     count(*) FILTER (WHERE opens = stays_open) OVER w AS reset_group,
+                                     count(*) FILTER (WHERE opens AND NOT stays_open) OVER w AS flips
+                              FROM transitions
+                              WINDOW w AS (ORDER BY line_number)),
+                 states AS (SELECT line_number,
+                                   line,
+                                   (reset_group > 0 AND first_value(opens) OVER g)
+                                       <> ((flips - CASE WHEN reset_group > 0 THEN first_value(flips) OVER g ELSE 0 END)
+                                       % 2 = 1) AS open_after
+                            FROM counters
+                            WINDOW g AS (PARTITION BY reset_group ORDER BY line_number)),
+                 starts AS (SELECT line_number,
+                                   line,
+                                   NOT coalesce(lag(open_after) OVER (ORDER BY line_number), false) AS starts_record
+                            FROM states),
+                 records AS (SELECT row_number, ',' || string_agg(line, chr(10) ORDER BY line_number) AS record
+                             FROM (SELECT line_number,
+                                          line,
+                                          count(*) FILTER (WHERE starts_record) OVER (ORDER BY line_number) - 1
+                                              AS row_number
+                                   FROM starts) s
+                             GROUP BY row_number),
+                 fields AS (SELECT row_number,
+                                   record ~ '^(,FIELD)+$' AS well_formed,
+                                   ARRAY(SELECT CASE
+                                                    WHEN m.f[1] = '' THEN NULL
+                                                    WHEN left(m.f[1], 1) = '"'
+                                                        THEN replace(substr(m.f[1], 2, length(m.f[1]) - 2), '""', '"')
+                                                    ELSE m.f[1]
+                                                    END
+                                         FROM regexp_matches(record, ',FIELD', 'g') WITH ORDINALITY m(f, n)
+                                         ORDER BY m.n) AS v
+                            FROM records
+                            WHERE row_number > 0)
+            SELECT row_number,
+                   v[1],
+                   v[2],
+                   v[3],
+                   v[4],
+                   v[5],
+                   CASE
+                       WHEN NOT well_formed
+                           THEN 'строка: некорректный CSV: незакрытая кавычка или кавычка внутри значения без кавычек'
+                       WHEN cardinality(v) <> 5 THEN 'строка: ожидается 5 значений, получено ' || cardinality(v)
+                       END
+            FROM fields
+            """.replace("FIELD", FIELD).replace("QUOTED", QUOTED);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Загружает CSV во временную таблицу. Первая запись файла — заголовок, столбцы идут в порядке
+     * {@code name,type,description,price,stock_quantity}. Записи нумеруются в порядке файла, начиная с 1.
+     * Записи с нарушенной структурой CSV (незакрытая кавычка, кавычка внутри значения без кавычек, другое
+     * количество значений) загружаются с ошибкой. Параллельные импорты выполняются по очереди: иначе два импорта
+     * могли бы добавить товар с одним названием дважды.
+     *
+     * @param csv содержимое файла в UTF-8.
+     * @return количество загруженных записей.
+     */
+    public long copy(InputStream csv) {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('goods_import'))");
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE goods_import_lines
+                (
+                    line_number BIGINT GENERATED ALWAYS AS IDENTITY,
+                    line        TEXT
+                ) ON COMMIT DROP
+                """);
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE goods_import
+                (
+                    row_number     BIGINT,
+                    name           TEXT,
+                    type           TEXT,
+                    description    TEXT,
+                    price          TEXT,
+                    stock_quantity TEXT,
+                    error          TEXT
+                ) ON COMMIT DROP
+                """);
+        // Управляющие символы 0x01 и 0x02 в качестве кавычки и разделителя не встречаются в тексте,
+        // поэтому каждая строка файла загружается одним значением как есть
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn("""
+                        COPY goods_import_lines (line)
+                            FROM STDIN WITH (FORMAT csv, DELIMITER E'\\x02', QUOTE E'\\x01')
+                        """, csv);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return jdbcTemplate.update(SPLIT_RECORDS);
+    }
+
+    /**
+     * Отмечает разобранные строки, не проходящие проверки {@code GoodRequestDto}, и строки, название в которых
+     * повторяется ниже по файлу: из повторяющихся строк импортируется последняя. Цена дополнительно ограничена
+     * столбцом {@code numeric(10, 2)}: не больше 8 цифр до точки.
+     */
+    public void markInvalidRows() {
+        jdbcTemplate.update("""
+                UPDATE goods_import
+                SET error = nullif(concat_ws('; ',
+                        CASE
+                            WHEN btrim(coalesce(name, '')) = '' THEN 'name: не должно быть пустым'
+                            WHEN length(name) > 255 THEN 'name: длина должна быть не больше 255'
+                            END,
+                        CASE
+                            WHEN type IS NULL THEN 'type: не должно равняться null'
+                            WHEN type NOT IN (SELECT value FROM %s t(value, code))
+                                THEN 'type: неизвестный тип товара ' || type
+                            END,
+                        CASE
+                            WHEN btrim(coalesce(description, '')) = '' THEN 'description: не должно быть пустым'
+                            END,
+                        CASE
+                            WHEN price IS NULL THEN 'price: не должно равняться null'
+                            WHEN price !~ '^\\s*[+-]?\\d{1,8}(\\.\\d{1,2})?\\s*$'
+                                THEN 'price: Цена должна быть действительным денежным значением'
+                            WHEN CAST(price AS numeric) <= 0 THEN 'price: Цена должна быть больше 0'
+                            END,
+                        CASE
+                            WHEN stock_quantity IS NULL THEN 'stockQuantity: не должно равняться null'
+                            WHEN stock_quantity !~ '^\\s*[+-]?\\d{1,18}\\s*$'
+                                THEN 'stockQuantity: должно быть целым числом'
+                            WHEN CAST(stock_quantity AS bigint) < 0
+                                THEN 'stockQuantity: Количество на складе должно быть равно нулю или больше'
+                            END), '')
+                WHERE error IS NULL
+                """.formatted(TYPES));
+        jdbcTemplate.update("""
+                UPDATE goods_import i
+                SET error = 'name: повторяется в строке ' || d.next_row_number
+                FROM (SELECT row_number,
+                             lead(row_number) OVER (PARTITION BY name ORDER BY row_number) AS next_row_number
+                      FROM goods_import
+                      WHERE error IS NULL) d
+                WHERE i.row_number = d.row_number
+                  AND d.next_row_number IS NOT NULL
+                """);
+    }
+
+    /**
+     * Считает отмеченные строки.
+     *
+     * @return количество строк с ошибками.
+     */
+    public long countInvalidRows() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM goods_import WHERE error IS NOT NULL", Long.class);
+    }
+
+    /**
+     * Сливает проверенные строки с активными товарами по названию одним запросом: найденные товары обновляются,
+     * остальные добавляются.
+     *
+     * @return количество обновлённых ({@code updated}) и добавленных ({@code inserted}) товаров.
+     */
+    public Map<String, Object> merge() {
+        return jdbcTemplate.queryForMap("""
+                WITH valid AS (SELECT i.name,
+                                      t.code                          AS type_code,
+                                      i.description,
+                                      CAST(i.price AS numeric(10, 2)) AS price,
+                                      CAST(i.stock_quantity AS bigint) AS stock_quantity
+                               FROM goods_import i
+                                        JOIN %s t(value, code) ON t.value = i.type
+                               WHERE i.error IS NULL),
+                     updated AS (UPDATE goods g
+                         SET type = v.type_code,
+                             description = v.description,
+                             price = v.price,
+                             stock_quantity = v.stock_quantity,
+                             updated_at = LOCALTIMESTAMP
+                         FROM valid v
+                         WHERE g.name = v.name
+                           AND g.archive_date IS NULL
+                         RETURNING g.name),
+                     inserted AS (INSERT INTO goods (name, type, description, price, stock_quantity, created_at,
+                                                     updated_at)
+                         SELECT name, type_code, description, price, stock_quantity, LOCALTIMESTAMP, LOCALTIMESTAMP
+                         FROM valid v
+                         WHERE NOT EXISTS (SELECT 1 FROM updated u WHERE u.name = v.name)
+                         RETURNING id)
+                SELECT (SELECT count(*) FROM updated)  AS updated,
+                       (SELECT count(*) FROM inserted) AS inserted
+                """.formatted(TYPES));
+    }
+
+    /**
+     * Находит отмеченные строки.
+     *
+     * @param limit максимальное количество строк.
+     * @return строки со столбцами {@code row_number}, {@code name}, {@code error} в порядке файла.
+     */
+    public List<Map<String, Object>> findInvalidRows(int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT row_number, name, error
+                FROM goods_import
+                WHERE error IS NOT NULL
+                ORDER BY row_number
+                LIMIT ?
+                """, limit);
+    }
+}
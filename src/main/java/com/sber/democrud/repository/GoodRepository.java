@@ -2,25 +2,55 @@ package com.sber.democrud.repository;
 
 import com.sber.democrud.entity.Good;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
  * JPA Репозиторий для работы с сущностью {@link Good}.
  */
 @Repository
-public interface GoodRepository extends JpaRepository<Good, Long> {
+public interface GoodRepository extends JpaRepository<Good, Long>, GoodArchiveRepository {
 
     /**
-     * Находит список товаров, которые были архивированы.
-     * Возвращает только те товары, у которых поле {@code archiveDate} не равно {@code null}.
+     * Находит активный товар по названию. Архивированные товары исключаются фильтром активных записей,
+     * поиск идёт по частичному индексу {@code goods_active_name_idx}.
      *
-     * @return список архивированных товаров.
+     * @param name название товара.
+     * @return активный товар.
      */
-    List<Good> findByArchiveDateIsNotNull();
-
     Optional<Good> findByName(String name);
-}
 
+    /**
+     * Архивирует активные товары с указанными идентификаторами одним UPDATE, не загружая сущности.
+     *
+     * @param ids идентификаторы товаров.
+     * @return количество архивированных записей.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE goods SET archive_date = now(), updated_at = now() "
+            + "WHERE id = ANY(:ids) AND archive_date IS NULL", nativeQuery = true)
+    int archiveAllByIds(@Param("ids") Long[] ids);
+
+    /**
+     * Архивирует не более {@code limit} активных товаров, созданных раньше указанной даты.
+     * Строки, заблокированные другими транзакциями (параллельная архивация), пропускаются до следующей порции,
+     * а повторная проверка {@code archive_date IS NULL} не даёт перезаписать дату уже архивированной записи.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @param limit         максимальное количество записей в порции.
+     * @return количество архивированных записей.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE goods SET archive_date = now(), updated_at = now() "
+            + "WHERE id IN (SELECT id FROM goods WHERE archive_date IS NULL AND created_at < :createdBefore "
+            + "LIMIT :limit FOR UPDATE SKIP LOCKED) AND archive_date IS NULL", nativeQuery = true)
+    int archiveChunkCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore, @Param("limit") int limit);
+}
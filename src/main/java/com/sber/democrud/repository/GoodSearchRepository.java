@@ -0,0 +1,144 @@
+package com.sber.democrud.repository;
+
+import com.sber.democrud.dto.GoodSuggestionDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Репозиторий поиска активных товаров.
+ * <p>
+ * Полнотекстовый поиск идёт по сохранённому вектору {@code goods.search_vector} через частичный GIN-индекс
+ * {@code goods_active_search_idx (search_vector, type)}. Релевантность {@code ts_rank_cd} считается только
+ * для ограниченного числа кандидатов — первых совпадений в порядке хранения строк, поэтому частое слово
+ * не заставляет ранжировать весь каталог. Кандидаты упорядочиваются по релевантности (слова названия весят больше слов
+ * описания), при равной релевантности — по id.
+ * Поиск по началу названия и по названию с опечатками идёт по триграммному индексу
+ * {@code goods_active_name_trgm_idx}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GoodSearchRepository {
+
+    private static final String SEARCH = """
+            SELECT *
+            FROM (SELECT c.id, c.name, c.type, c.price, ts_rank_cd(c.search_vector, c.query) AS rank
+                  FROM (SELECT g.id, g.name, g.type, g.price, g.search_vector, q.query
+                        FROM goods g,
+                             websearch_to_tsquery('russian', lower(CAST(? AS text) COLLATE "und-x-icu")) AS q(query)
+                        WHERE g.archive_date IS NULL
+                          AND g.search_vector @@ q.query
+                          %s
+                        LIMIT ?) c) found
+            %s
+            ORDER BY rank DESC, id
+            LIMIT ?
+            """;
+
+    private static final RowMapper<GoodSuggestionDto> SUGGESTION = (rs, rowNum) ->
+            new GoodSuggestionDto(rs.getLong("id"), rs.getString("name"), rs.getBigDecimal("price"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Находит активные товары, подходящие под запрос, начиная после позиции предыдущей страницы.
+     * Позиция задаётся парой (релевантность, id) последнего товара страницы, поэтому следующая страница
+     * не повторяет товары, даже если между запросами каталог изменился.
+     * <p>
+     * Ранжируются только первые {@code maxCandidates} совпадений в порядке хранения строк (частое слово
+     * иначе заставило бы считать релевантность для миллионов товаров), поэтому для широкого запроса выдача —
+     * лучшие из кандидатов, а не из всех совпадений, и заканчивается после {@code maxCandidates} товаров.
+     * Набор кандидатов не меняется между страницами, пока не меняются совпадающие товары и план запроса.
+     * <p>
+     * План строится для каждого запроса заново ({@code plan_cache_mode = force_custom_plan}): выбор между
+     * GIN-индексом (редкое слово) и чтением таблицы до первых кандидатов (частое слово) зависит от частоты слов,
+     * которой не знает общий план подготовленного выражения. Параллельное чтение отключено: рабочие процессы
+     * отдают совпадения в разном порядке, и набор кандидатов менялся бы от запроса к запросу.
+     *
+     * @param query         запрос в синтаксисе {@code websearch_to_tsquery}: слова, {@code "фраза"}, {@code or},
+     *                      {@code -слово}.
+     * @param typeCode      код типа товара или {@code null} для всех типов.
+     * @param afterRank     релевантность последнего товара предыдущей страницы или {@code null} для первой
+     *                      страницы.
+     * @param afterId       id последнего товара предыдущей страницы; учитывается вместе с {@code afterRank}.
+     * @param maxCandidates максимальное количество ранжируемых совпадений.
+     * @param limit         максимальное количество товаров.
+     * @return строки со столбцами {@code id}, {@code name}, {@code type}, {@code price}, {@code rank}.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> search(String query, Short typeCode, Float afterRank, Long afterId,
+                                            int maxCandidates, int limit) {
+        jdbcTemplate.execute("""
+                SELECT set_config('plan_cache_mode', 'force_custom_plan', true),
+                       set_config('max_parallel_workers_per_gather', '0', true)
+                """);
+        List<Object> args = new ArrayList<>();
+        args.add(query);
+        String typeCondition = "";
+        if (typeCode != null) {
+            // Параметр integer не подходит к столбцу smallint GIN-индекса: тип проверяется у строк, а не
+            // пересечением списков слова и типа в индексе, которое для частого слова дороже чтения кандидатов
+            typeCondition = "AND g.type = CAST(? AS integer)";
+            args.add(typeCode);
+        }
+        args.add(maxCandidates);
+        String afterCondition = "";
+        if (afterRank != null) {
+            afterCondition = "WHERE rank < CAST(? AS real) OR (rank = CAST(? AS real) AND id > ?)";
+            args.add(afterRank);
+            args.add(afterRank);
+            args.add(afterId);
+        }
+        args.add(limit);
+        return jdbcTemplate.queryForList(SEARCH.formatted(typeCondition, afterCondition), args.toArray());
+    }
+
+    /**
+     * Находит активные товары, название которых начинается с префикса без учёта регистра.
+     * Символы {@code %} и {@code _} в префиксе ищутся буквально.
+     *
+     * @param prefix начало названия.
+     * @param limit  максимальное количество товаров.
+     * @return товары по алфавиту названий.
+     */
+    public List<GoodSuggestionDto> findByNamePrefix(String prefix, int limit) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return jdbcTemplate.query("""
+                SELECT id, name, price
+                FROM goods
+                WHERE archive_date IS NULL
+                  AND name ILIKE ?
+                ORDER BY name, id
+                LIMIT ?
+                """, SUGGESTION, pattern, limit);
+    }
+
+    /**
+     * Находит активные товары, в названии которых есть слово, похожее на запрос: допускаются опечатки
+     * и незаконченное слово.
+     *
+     * @param query     искомое слово или его часть.
+     * @param threshold минимальное сходство {@code word_similarity} от 0 до 1.
+     * @param limit     максимальное количество товаров.
+     * @return товары по убыванию сходства.
+     */
+    @Transactional(readOnly = true)
+    public List<GoodSuggestionDto> findBySimilarName(String query, double threshold, int limit) {
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)", String.class,
+                Double.toString(threshold));
+        return jdbcTemplate.query("""
+                SELECT id, name, price
+                FROM goods
+                WHERE archive_date IS NULL
+                  AND ? <% name
+                ORDER BY word_similarity(?, name) DESC, id
+                LIMIT ?
+                """, SUGGESTION, query, query, limit);
+    }
+}
@@ -0,0 +1,35 @@
+package com.sber.democrud.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Set;
+
+/**
+ * Очистка рабочих таблиц после переноса записей в холодное хранилище.
+ * <p>
+ * {@code VACUUM} не выполняется в транзакции, поэтому методы репозитория вызываются вне {@code @Transactional}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HotTableVacuumRepository {
+
+    private static final Set<String> TABLES = Set.of("users", "goods", "payments", "payment_goods");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Очищает таблицу (для секционированной — все секции): место удалённых строк в таблице и индексах сразу
+     * становится доступным новым записям, а пустые страницы в конце файла возвращаются ОС. Чтение и запись
+     * таблицы не блокируются.
+     *
+     * @param table рабочая таблица: {@code users}, {@code goods}, {@code payments} или {@code payment_goods}.
+     */
+    public void vacuum(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Неизвестная рабочая таблица: " + table);
+        }
+        jdbcTemplate.execute("VACUUM (ANALYZE) " + table);
+    }
+}
@@ -0,0 +1,56 @@
+package com.sber.democrud.repository;
+
+import com.sber.democrud.entity.Payment;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Фрагмент {@link PaymentRepository} для холодного хранилища платежей ({@code payments_archive}).
+ * <p>
+ * Давно архивированные платежи переносятся из секций {@code payments} и {@code payment_goods} в архивную таблицу
+ * одним документом вместе с позициями. Перенесённые платежи восстанавливаются только для чтения: пользователь
+ * и товары позиций заполняются идентификатором (у товара — и названием).
+ */
+public interface PaymentArchiveRepository {
+
+    /**
+     * Находит страницу архивированных платежей: оставшихся в рабочей таблице и перенесённых в холодное
+     * хранилище, по возрастанию идентификатора.
+     *
+     * @param afterId идентификатор последнего платежа предыдущей страницы или {@code null} для первой.
+     * @param limit   размер страницы.
+     * @return не более {@code limit} архивированных платежей (с установленной датой архивации).
+     */
+    List<Payment> findByArchiveDateIsNotNull(Long afterId, int limit);
+
+    /**
+     * Находит платёж в холодном хранилище.
+     *
+     * @param id идентификатор платежа.
+     * @return платёж с позициями или пустой {@link Optional}, если платёж не перенесён.
+     */
+    Optional<Payment> findInColdStorageById(Long id);
+
+    /**
+     * Находит платежи пользователя в холодном хранилище.
+     *
+     * @param userId идентификатор пользователя.
+     * @return платежи пользователя с позициями.
+     */
+    List<Payment> findAllInColdStorageByUserId(UUID userId);
+
+    /**
+     * Переносит в холодное хранилище не более {@code limit} платежей, архивированных раньше указанной даты,
+     * вместе с их позициями. Строки, заблокированные другими транзакциями, пропускаются до следующей порции.
+     *
+     * @param archivedBefore граница даты архивации (не включительно).
+     * @param limit          максимальное количество платежей в порции.
+     * @return количество перенесённых платежей.
+     */
+    @Transactional
+    int moveToColdStorage(LocalDateTime archivedBefore, int limit);
+}
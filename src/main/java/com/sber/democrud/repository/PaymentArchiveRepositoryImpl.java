@@ -0,0 +1,136 @@
+package com.sber.democrud.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.Payment;
+import com.sber.democrud.entity.PaymentGood;
+import com.sber.democrud.entity.PaymentGoodId;
+import com.sber.democrud.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.sber.democrud.repository.ColdStorageDocuments.dateTime;
+import static com.sber.democrud.repository.ColdStorageDocuments.decimal;
+import static com.sber.democrud.repository.ColdStorageDocuments.documents;
+import static com.sber.democrud.repository.ColdStorageDocuments.mergePage;
+import static com.sber.democrud.repository.ColdStorageDocuments.number;
+import static com.sber.democrud.repository.ColdStorageDocuments.text;
+import static com.sber.democrud.repository.ColdStorageDocuments.uuid;
+
+/**
+ * Реализация {@link PaymentArchiveRepository}.
+ */
+class PaymentArchiveRepositoryImpl implements PaymentArchiveRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Payment> findByArchiveDateIsNotNull(Long afterId, int limit) {
+        // Нативный запрос не ограничивается фильтром активных записей
+        Query hot = entityManager.createNativeQuery("SELECT * FROM payments WHERE archive_date IS NOT NULL"
+                + (afterId == null ? "" : " AND id > :afterId") + " ORDER BY id LIMIT :limit", Payment.class);
+        Query cold = entityManager.createNativeQuery("SELECT CAST(data AS text) FROM payments_archive"
+                + (afterId == null ? "" : " WHERE id > :afterId") + " ORDER BY id LIMIT :limit", String.class);
+        for (Query query : List.of(hot, cold)) {
+            query.setParameter("limit", limit);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+        }
+        return mergePage((List<Payment>) hot.getResultList(), documents(cold).stream()
+                .map(PaymentArchiveRepositoryImpl::toPayment)
+                .toList(), Payment::getId, limit);
+    }
+
+    @Override
+    public Optional<Payment> findInColdStorageById(Long id) {
+        return documents(entityManager.createNativeQuery(
+                        "SELECT CAST(data AS text) FROM payments_archive WHERE id = :id", String.class)
+                .setParameter("id", id)).stream()
+                .findFirst()
+                .map(PaymentArchiveRepositoryImpl::toPayment);
+    }
+
+    @Override
+    public List<Payment> findAllInColdStorageByUserId(UUID userId) {
+        return documents(entityManager.createNativeQuery(
+                        "SELECT CAST(data AS text) FROM payments_archive WHERE user_id = :userId ORDER BY id",
+                        String.class)
+                .setParameter("userId", userId)).stream()
+                .map(PaymentArchiveRepositoryImpl::toPayment)
+                .toList();
+    }
+
+    @Override
+    public int moveToColdStorage(LocalDateTime archivedBefore, int limit) {
+        // Платежи и позиции удаляются одним оператором, поэтому внешний ключ позиций на платежи не нарушается;
+        // строка платежа и его позиции с названиями товаров сохраняются одним документом
+        return entityManager.createNativeQuery("""
+                        WITH moved AS (DELETE FROM payments
+                            WHERE (id, date_of_purchase) IN (SELECT id, date_of_purchase
+                                                             FROM payments
+                                                             WHERE archive_date < :archivedBefore
+                                                             ORDER BY archive_date
+                                                             LIMIT :limit FOR UPDATE SKIP LOCKED)
+                            RETURNING *),
+                             moved_goods AS (DELETE FROM payment_goods pg
+                                 USING moved m
+                                 WHERE pg.payment_id = m.id
+                                   AND pg.date_of_purchase = m.date_of_purchase
+                                 RETURNING pg.*)
+                        INSERT INTO payments_archive (id, user_id, archive_date, data)
+                        SELECT m.id, m.user_id, m.archive_date,
+                               to_jsonb(m) || jsonb_build_object('goods', coalesce(
+                                       (SELECT jsonb_agg(jsonb_build_object('good_id', mg.good_id,
+                                                                            'name', g.name,
+                                                                            'quantity', mg.quantity,
+                                                                            'unit_price', mg.unit_price)
+                                                         ORDER BY mg.good_id)
+                                        FROM moved_goods mg
+                                                 JOIN goods g ON g.id = mg.good_id
+                                        WHERE mg.payment_id = m.id), '[]'))
+                        FROM moved m
+                        """)
+                .setParameter("archivedBefore", archivedBefore)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    private static Payment toPayment(String json) {
+        JsonNode document = ColdStorageDocuments.parse(json);
+        User user = new User();
+        user.setId(uuid(document, "user_id"));
+
+        Payment payment = new Payment();
+        payment.setId(number(document, "id"));
+        payment.setUser(user);
+        payment.setDateOfPurchase(dateTime(document, "date_of_purchase"));
+        payment.setTotalPurchaseAmount(decimal(document, "total_purchase_amount"));
+        payment.setArchiveDate(dateTime(document, "archive_date"));
+        payment.setCreatedAt(dateTime(document, "created_at"));
+        payment.setUpdatedAt(dateTime(document, "updated_at"));
+        for (JsonNode item : document.get("goods")) {
+            Good good = new Good();
+            good.setId(number(item, "good_id"));
+            good.setName(text(item, "name"));
+
+            PaymentGood paymentGood = new PaymentGood();
+            paymentGood.setId(new PaymentGoodId(payment.getId(), good.getId()));
+            paymentGood.setPayment(payment);
+            paymentGood.setGood(good);
+            paymentGood.setQuantity(number(item, "quantity"));
+            paymentGood.setUnitPrice(decimal(item, "unit_price"));
+            paymentGood.setDateOfPurchase(payment.getDateOfPurchase());
+            payment.getGoods().add(paymentGood);
+        }
+        return payment;
+    }
+}
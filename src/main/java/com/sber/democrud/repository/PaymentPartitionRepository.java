@@ -0,0 +1,98 @@
+package com.sber.democrud.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Репозиторий месячных секций {@code payments} и {@code payment_goods}.
+ * <p>
+ * Секции месяца называются {@code payments_pYYYY_MM} и {@code payment_goods_pYYYY_MM} и создаются функцией
+ * {@code ensure_payment_partition}. Позиции платежа хранятся в секции того же месяца, что и платёж.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentPartitionRepository {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'p'yyyy_MM");
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("payments_p(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Создаёт и присоединяет секции месяца, если их ещё нет. Присоединение не блокирует чтение и запись
+     * в другие секции; внешний ключ новой секции {@code payment_goods} кратко блокирует запись в {@code payments},
+     * поэтому ожидание блокировок ограничено.
+     *
+     * @param month       месяц.
+     * @param lockTimeout максимальное ожидание блокировки.
+     * @return {@code true}, если секции созданы.
+     */
+    @Transactional
+    public boolean ensurePartition(YearMonth month, Duration lockTimeout) {
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                lockTimeout.toMillis() + "ms");
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT ensure_payment_partition(?)", Boolean.class,
+                month.atDay(1)));
+    }
+
+    /**
+     * Находит секции {@code payments}, в том числе не до конца отсоединённые.
+     *
+     * @return месяцы секций по возрастанию.
+     */
+    public List<YearMonth> findPartitions() {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname
+                        FROM pg_inherits i
+                                 JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = CAST('payments' AS regclass)
+                        """, String.class).stream()
+                .map(PARTITION_NAME::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))))
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Отсоединяет секции месяца без блокировки остальных секций ({@code DETACH PARTITION ... CONCURRENTLY}).
+     * Сначала отсоединяются позиции, затем с них снимается внешний ключ на платежи и отсоединяются платежи.
+     * Отсоединение, прерванное на середине, завершается повторным вызовом. Выполняется вне транзакции.
+     *
+     * @param month месяц.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void detachPartition(YearMonth month) {
+        String suffix = month.format(SUFFIX);
+        detach("payment_goods", "payment_goods_" + suffix);
+        jdbcTemplate.execute("ALTER TABLE IF EXISTS payment_goods_" + suffix
+                + " DROP CONSTRAINT IF EXISTS good_id_to_payment_id_fk");
+        detach("payments", "payments_" + suffix);
+    }
+
+    private void detach(String parent, String partition) {
+        Boolean pending = jdbcTemplate.query("""
+                        SELECT inhdetachpending
+                        FROM pg_inherits
+                        WHERE inhparent = CAST(? AS regclass)
+                          AND inhrelid = to_regclass(?)
+                        """, resultSet -> resultSet.next() ? resultSet.getBoolean(1) : null,
+                parent, partition);
+        if (pending == null) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + parent + " DETACH PARTITION " + partition
+                + (pending ? " FINALIZE" : " CONCURRENTLY"));
+    }
+}
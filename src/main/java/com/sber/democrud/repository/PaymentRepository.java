@@ -1,9 +1,15 @@
 package com.sber.democrud.repository;
 
 import com.sber.democrud.entity.Payment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,21 +18,105 @@ import java.util.UUID;
  * Репозиторий для управления сущностью {@link Payment}.
  */
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentArchiveRepository {
 
     /**
-     * Находит все архивированные платежи.
+     * Находит платёж по идентификатору вместе с пользователем и товарами одним запросом.
+     * <p>
+     * Первичные ключи секций включают дату покупки, а запрос знает только {@code id}, поэтому он проверяет
+     * индекс каждой секции. Это допустимо: {@code id} уникален и без даты (выдаётся последовательностью),
+     * а проверка секции — один спуск по индексу, около 13 мкс; 24 секции добавляют около 0,3 мс при бюджете
+     * запроса в секунды. Число секций ограничивает {@code app.partitions.retention-months}.
      *
-     * @return список архивированных платежей (с установленной датой архивации).
+     * @param id идентификатор платежа.
+     * @return платёж с загруженными связями.
      */
-    List<Payment> findByArchiveDateIsNotNull();
+    @EntityGraph(attributePaths = {"user", "goods", "goods.good"})
+    Optional<Payment> findWithGoodsById(Long id);
 
     /**
-     * Находит платеж по идентификатору пользователя.
+     * Находит активный платеж по идентификатору пользователя.
      *
      * @param userId id пользователя
      * @return платеж пользователя.
      */
     Optional<Payment> findPaymentByUserId(UUID userId);
-}
 
+    /**
+     * Находит все платежи пользователя вместе с товарами одним запросом.
+     *
+     * @param userId идентификатор пользователя.
+     * @return платежи пользователя с загруженными товарами.
+     */
+    @EntityGraph(attributePaths = {"goods", "goods.good"})
+    List<Payment> findAllWithGoodsByUserId(UUID userId);
+
+    /**
+     * Архивирует активные платежи с указанными идентификаторами одним UPDATE, не загружая сущности.
+     * Тем же оператором архивированные платежи вычитаются из сводок покупок пользователей.
+     *
+     * @param ids идентификаторы платежей.
+     * @return количество архивированных записей.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "WITH archived AS (SELECT id, user_id, total_purchase_amount FROM payments "
+            + "WHERE id = ANY(:ids) AND archive_date IS NULL FOR UPDATE), "
+            + UserSpendSummaryRepository.SUBTRACT_ARCHIVED_CTE
+            + "UPDATE payments SET archive_date = now(), updated_at = now() "
+            + "WHERE id IN (SELECT id FROM archived)", nativeQuery = true)
+    int archiveAllByIds(@Param("ids") Long[] ids);
+
+    /**
+     * Архивирует не более {@code limit} активных платежей, созданных раньше указанной даты.
+     * Тем же оператором архивированные платежи вычитаются из сводок покупок пользователей.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @param limit         максимальное количество записей в порции.
+     * @return количество архивированных записей.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "WITH archived AS (SELECT id, user_id, total_purchase_amount FROM payments "
+            + "WHERE archive_date IS NULL AND created_at < :createdBefore LIMIT :limit FOR UPDATE), "
+            + UserSpendSummaryRepository.SUBTRACT_ARCHIVED_CTE
+            + "UPDATE payments SET archive_date = now(), updated_at = now() "
+            + "WHERE id IN (SELECT id FROM archived)", nativeQuery = true)
+    int archiveChunkCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore, @Param("limit") int limit);
+
+    /**
+     * Суммирует проданные единицы по товарам в платежах, созданных не раньше указанной даты,
+     * включая архивированные позже. Читает окно по индексу {@code payments(created_at)}.
+     *
+     * @param createdFrom начало окна (включительно).
+     * @param limit       максимальное количество товаров.
+     * @return товары в порядке убывания проданных единиц.
+     */
+    @Query(value = """
+            SELECT pg.good_id AS goodId, sum(pg.quantity) AS units
+            FROM payments p
+                     JOIN payment_goods pg ON pg.payment_id = p.id
+            WHERE p.created_at >= :createdFrom
+            GROUP BY pg.good_id
+            ORDER BY units DESC, pg.good_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<GoodUnits> sumUnitsByGoodCreatedFrom(@Param("createdFrom") LocalDateTime createdFrom,
+                                              @Param("limit") int limit);
+
+    /**
+     * Количество проданных единиц товара.
+     */
+    interface GoodUnits {
+
+        /**
+         * @return идентификатор товара.
+         */
+        Long getGoodId();
+
+        /**
+         * @return количество проданных единиц.
+         */
+        Long getUnits();
+    }
+}
@@ -0,0 +1,196 @@
+package com.sber.democrud.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий дневных агрегатов продаж ({@code sales_daily_rollup}) и их водяного знака ({@code rollup_watermarks}).
+ * <p>
+ * Агрегаты обновляются инкрементально: платежи, созданные после водяного знака, прибавляются, а платежи,
+ * учтённые ранее и архивированные после водяного знака, вычитаются. Изменение позиций уже учтённого платежа
+ * исправляет агрегаты сразу, в транзакции изменения. Методы изменения данных вызываются в одной транзакции,
+ * которую открывает сервис.
+ */
+@Repository
+public class SalesRollupRepository {
+
+    /**
+     * Имя водяного знака дневных агрегатов продаж.
+     */
+    public static final String SALES_DAILY = "sales_daily";
+
+    /**
+     * Добавление (знак {@code 1}) или вычитание (знак {@code -1}) позиций выбранных платежей.
+     */
+    private static final String UPSERT = """
+            INSERT INTO sales_daily_rollup (sales_date, good_type, revenue, units)
+            SELECT CAST(p.created_at AS date), g.type,
+                   %1$s sum(pg.quantity * pg.unit_price), %1$s sum(pg.quantity)
+            FROM payments p
+                     JOIN payment_goods pg ON pg.payment_id = p.id
+                     JOIN goods g ON g.id = pg.good_id
+            WHERE %2$s
+            GROUP BY 1, 2
+            ON CONFLICT (sales_date, good_type) DO UPDATE
+                SET revenue = sales_daily_rollup.revenue + EXCLUDED.revenue,
+                    units   = sales_daily_rollup.units + EXCLUDED.units
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Блокирует водяной знак до конца транзакции, чтобы параллельные обновления выполнялись по очереди.
+     *
+     * @param name имя агрегата.
+     * @return текущий водяной знак.
+     */
+    public LocalDateTime lockWatermark(String name) {
+        return (LocalDateTime) entityManager.createNativeQuery(
+                        "SELECT watermark FROM rollup_watermarks WHERE name = :name FOR UPDATE", LocalDateTime.class)
+                .setParameter("name", name)
+                .getSingleResult();
+    }
+
+    /**
+     * Блокирует водяной знак в разделяемом режиме до конца транзакции: изменения платежей не ждут друг друга,
+     * а обновление агрегатов ждёт их фиксации и видит изменённые позиции.
+     *
+     * @param name имя агрегата.
+     * @return текущий водяной знак.
+     */
+    public LocalDateTime shareWatermark(String name) {
+        return (LocalDateTime) entityManager.createNativeQuery(
+                        "SELECT watermark FROM rollup_watermarks WHERE name = :name FOR SHARE", LocalDateTime.class)
+                .setParameter("name", name)
+                .getSingleResult();
+    }
+
+    /**
+     * Вычисляет новый водяной знак по часам БД: текущее время минус задержка.
+     *
+     * @param lagSeconds задержка в секундах для транзакций, которые ещё не зафиксированы.
+     * @return новый водяной знак.
+     */
+    public LocalDateTime currentUpperBound(long lagSeconds) {
+        return (LocalDateTime) entityManager.createNativeQuery(
+                        "SELECT CAST(localtimestamp - make_interval(secs => :lag) AS timestamp)", LocalDateTime.class)
+                .setParameter("lag", lagSeconds)
+                .getSingleResult();
+    }
+
+    /**
+     * Прибавляет платежи, созданные в интервале {@code (from, to]} и не архивированные к его концу.
+     *
+     * @param from предыдущий водяной знак.
+     * @param to   новый водяной знак.
+     * @return количество изменённых строк агрегата.
+     */
+    public int addCreated(LocalDateTime from, LocalDateTime to) {
+        return upsert("", """
+                p.created_at > :from AND p.created_at <= :to
+                  AND (p.archive_date IS NULL OR p.archive_date > :to)""", from, to);
+    }
+
+    /**
+     * Вычитает платежи, учтённые до {@code from} и архивированные в интервале {@code (from, to]}.
+     *
+     * @param from предыдущий водяной знак.
+     * @param to   новый водяной знак.
+     * @return количество изменённых строк агрегата.
+     */
+    public int subtractArchived(LocalDateTime from, LocalDateTime to) {
+        return upsert("-", """
+                p.archive_date > :from AND p.archive_date <= :to
+                  AND p.created_at <= :from""", from, to);
+    }
+
+    /**
+     * Прибавляет текущие позиции платежа, если он учтён в агрегатах: создан не позже водяного знака
+     * и не архивирован к нему.
+     *
+     * @param paymentId идентификатор платежа.
+     * @param watermark водяной знак, заблокированный {@link #shareWatermark(String)}.
+     * @return количество изменённых строк агрегата.
+     */
+    public int addCounted(Long paymentId, LocalDateTime watermark) {
+        return upsertCounted("", paymentId, watermark);
+    }
+
+    /**
+     * Вычитает текущие позиции платежа, если он учтён в агрегатах: создан не позже водяного знака
+     * и не архивирован к нему.
+     *
+     * @param paymentId идентификатор платежа.
+     * @param watermark водяной знак, заблокированный {@link #shareWatermark(String)}.
+     * @return количество изменённых строк агрегата.
+     */
+    public int subtractCounted(Long paymentId, LocalDateTime watermark) {
+        return upsertCounted("-", paymentId, watermark);
+    }
+
+    /**
+     * Сдвигает водяной знак.
+     *
+     * @param name      имя агрегата.
+     * @param watermark новый водяной знак.
+     */
+    public void updateWatermark(String name, LocalDateTime watermark) {
+        entityManager.createNativeQuery("UPDATE rollup_watermarks SET watermark = :watermark WHERE name = :name")
+                .setParameter("watermark", watermark)
+                .setParameter("name", name)
+                .executeUpdate();
+    }
+
+    /**
+     * Суммирует дневные агрегаты по периодам.
+     *
+     * @param from     первый день (включительно).
+     * @param to       последний день (включительно).
+     * @param unit     единица периода {@code date_trunc}: {@code day} или {@code month}.
+     * @param typeCode код типа товара или {@code null} для всех типов.
+     * @return строки с полями {@code period}, {@code type}, {@code revenue}, {@code units},
+     * упорядоченные по периоду и типу.
+     */
+    public List<Tuple> findSales(LocalDate from, LocalDate to, String unit, Short typeCode) {
+        return entityManager.createNativeQuery("""
+                        SELECT CAST(date_trunc(:unit, sales_date) AS date) AS period,
+                               good_type                                   AS type,
+                               sum(revenue)                                AS revenue,
+                               sum(units)                                  AS units
+                        FROM sales_daily_rollup
+                        WHERE sales_date BETWEEN :from AND :to
+                          AND (CAST(:type AS smallint) IS NULL OR good_type = CAST(:type AS smallint))
+                        GROUP BY 1, 2
+                        HAVING sum(units) <> 0
+                        ORDER BY 1, 2
+                        """, Tuple.class)
+                .setParameter("unit", unit)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("type", typeCode)
+                .getResultList();
+    }
+
+    private int upsert(String sign, String condition, LocalDateTime from, LocalDateTime to) {
+        return entityManager.createNativeQuery(UPSERT.formatted(sign, condition))
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .executeUpdate();
+    }
+
+    private int upsertCounted(String sign, Long paymentId, LocalDateTime watermark) {
+        return entityManager.createNativeQuery(UPSERT.formatted(sign, """
+                        p.id = :paymentId AND p.created_at <= :watermark
+                          AND (p.archive_date IS NULL OR p.archive_date > :watermark)"""))
+                .setParameter("paymentId", paymentId)
+                .setParameter("watermark", watermark)
+                .executeUpdate();
+    }
+}
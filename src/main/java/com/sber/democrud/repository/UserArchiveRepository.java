@@ -0,0 +1,47 @@
+package com.sber.democrud.repository;
+
+import com.sber.democrud.entity.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Фрагмент {@link UserRepository} для холодного хранилища пользователей ({@code users_archive}).
+ * <p>
+ * Пользователь переносится, только когда в рабочей таблице не осталось его платежей: платежи переносятся
+ * раньше, после собственной архивации.
+ */
+public interface UserArchiveRepository {
+
+    /**
+     * Находит страницу архивированных пользователей: оставшихся в рабочей таблице и перенесённых
+     * в холодное хранилище, по возрастанию идентификатора.
+     *
+     * @param afterId идентификатор последнего пользователя предыдущей страницы или {@code null} для первой.
+     * @param limit   размер страницы.
+     * @return не более {@code limit} архивированных пользователей с установленной датой архивации.
+     */
+    List<User> findByArchiveDateIsNotNull(UUID afterId, int limit);
+
+    /**
+     * Находит пользователя в холодном хранилище.
+     *
+     * @param id идентификатор пользователя.
+     * @return пользователь или пустой {@link Optional}, если пользователь не перенесён.
+     */
+    Optional<User> findInColdStorageById(UUID id);
+
+    /**
+     * Переносит в холодное хранилище не более {@code limit} пользователей, архивированных раньше указанной даты
+     * и не имеющих платежей в рабочей таблице. Сводки покупок перенесённых пользователей удаляются каскадно.
+     *
+     * @param archivedBefore граница даты архивации (не включительно).
+     * @param limit          максимальное количество пользователей в порции.
+     * @return количество перенесённых пользователей.
+     */
+    @Transactional
+    int moveToColdStorage(LocalDateTime archivedBefore, int limit);
+}
@@ -0,0 +1,91 @@
+package com.sber.democrud.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sber.democrud.entity.User;
+import com.sber.democrud.entity.UserRolesEnum;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.sber.democrud.repository.ColdStorageDocuments.code;
+import static com.sber.democrud.repository.ColdStorageDocuments.dateTime;
+import static com.sber.democrud.repository.ColdStorageDocuments.documents;
+import static com.sber.democrud.repository.ColdStorageDocuments.mergePage;
+import static com.sber.democrud.repository.ColdStorageDocuments.text;
+import static com.sber.democrud.repository.ColdStorageDocuments.uuid;
+
+/**
+ * Реализация {@link UserArchiveRepository}.
+ */
+class UserArchiveRepositoryImpl implements UserArchiveRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<User> findByArchiveDateIsNotNull(UUID afterId, int limit) {
+        Query hot = entityManager.createNativeQuery("SELECT * FROM users WHERE archive_date IS NOT NULL"
+                + (afterId == null ? "" : " AND id > :afterId") + " ORDER BY id LIMIT :limit", User.class);
+        Query cold = entityManager.createNativeQuery("SELECT CAST(data AS text) FROM users_archive"
+                + (afterId == null ? "" : " WHERE id > :afterId") + " ORDER BY id LIMIT :limit", String.class);
+        for (Query query : List.of(hot, cold)) {
+            query.setParameter("limit", limit);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+        }
+        return mergePage((List<User>) hot.getResultList(), documents(cold).stream()
+                .map(UserArchiveRepositoryImpl::toUser)
+                .toList(), user -> user.getId().toString(), limit);
+    }
+
+    @Override
+    public Optional<User> findInColdStorageById(UUID id) {
+        return documents(entityManager.createNativeQuery(
+                        "SELECT CAST(data AS text) FROM users_archive WHERE id = :id", String.class)
+                .setParameter("id", id)).stream()
+                .findFirst()
+                .map(UserArchiveRepositoryImpl::toUser);
+    }
+
+    @Override
+    public int moveToColdStorage(LocalDateTime archivedBefore, int limit) {
+        return entityManager.createNativeQuery("""
+                        WITH moved AS (DELETE FROM users
+                            WHERE id IN (SELECT u.id
+                                         FROM users u
+                                         WHERE u.archive_date < :archivedBefore
+                                           AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.user_id = u.id)
+                                         ORDER BY u.archive_date
+                                         LIMIT :limit FOR UPDATE SKIP LOCKED)
+                            RETURNING *)
+                        INSERT INTO users_archive (id, archive_date, data)
+                        SELECT m.id, m.archive_date, to_jsonb(m)
+                        FROM moved m
+                        """)
+                .setParameter("archivedBefore", archivedBefore)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    private static User toUser(String json) {
+        JsonNode document = ColdStorageDocuments.parse(json);
+        User user = new User();
+        user.setId(uuid(document, "id"));
+        user.setName(text(document, "name"));
+        user.setLogin(text(document, "login"));
+        user.setPassword(text(document, "password"));
+        user.setEmail(text(document, "email"));
+        user.setRole(UserRolesEnum.fromCode(code(document, "role")));
+        user.setArchiveDate(dateTime(document, "archive_date"));
+        user.setCreatedAt(dateTime(document, "created_at"));
+        user.setUpdatedAt(dateTime(document, "updated_at"));
+        return user;
+    }
+}
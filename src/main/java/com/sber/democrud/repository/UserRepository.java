@@ -1,23 +1,58 @@
 package com.sber.democrud.repository;
 
 import com.sber.democrud.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Репозиторий для управления сущностью {@link User}.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserArchiveRepository {
 
     /**
-     * Находит всех архивированных пользователей.
+     * Находит пользователя по идентификатору вместе с платежами и товарами в них одним запросом.
      *
-     * @return список архивированных пользователей с установленной датой архивации.
+     * @param id идентификатор пользователя.
+     * @return пользователь с загруженными платежами.
      */
-    List<User> findByArchiveDateIsNotNull();
-}
+    @EntityGraph(attributePaths = {"payments", "payments.goods", "payments.goods.good"})
+    Optional<User> findWithPaymentsById(UUID id);
+
+    /**
+     * Архивирует активные пользователей с указанными идентификаторами одним UPDATE, не загружая сущности.
+     *
+     * @param ids идентификаторы пользователей.
+     * @return количество архивированных записей.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE users SET archive_date = now(), updated_at = now() "
+            + "WHERE id = ANY(:ids) AND archive_date IS NULL", nativeQuery = true)
+    int archiveAllByIds(@Param("ids") UUID[] ids);
 
+    /**
+     * Архивирует не более {@code limit} активных пользователей, созданных раньше указанной даты.
+     * Строки, заблокированные другими транзакциями (параллельная архивация), пропускаются до следующей порции,
+     * а повторная проверка {@code archive_date IS NULL} не даёт перезаписать дату уже архивированной записи.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @param limit         максимальное количество записей в порции.
+     * @return количество архивированных записей.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE users SET archive_date = now(), updated_at = now() "
+            + "WHERE id IN (SELECT id FROM users WHERE archive_date IS NULL AND created_at < :createdBefore "
+            + "LIMIT :limit FOR UPDATE SKIP LOCKED) AND archive_date IS NULL", nativeQuery = true)
+    int archiveChunkCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore, @Param("limit") int limit);
+}
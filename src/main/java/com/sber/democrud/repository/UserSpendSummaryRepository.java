@@ -0,0 +1,82 @@
+package com.sber.democrud.repository;
+
+import com.sber.democrud.entity.UserSpendSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Репозиторий сводок покупок пользователей {@link UserSpendSummary}.
+ * <p>
+ * Сводка меняется атомарными UPDATE/UPSERT без чтения строки, поэтому параллельные платежи одного пользователя
+ * не теряют изменения. Методы изменения вызываются в транзакции изменения платежа.
+ */
+@Repository
+public interface UserSpendSummaryRepository extends JpaRepository<UserSpendSummary, UUID> {
+
+    /**
+     * Фрагмент {@code WITH}, вычитающий из сводок платежи CTE {@code archived (id, user_id, total_purchase_amount)}.
+     * Используется запросами архивации платежей, чтобы сводки менялись тем же оператором, что и платежи.
+     */
+    String SUBTRACT_ARCHIVED_CTE = """
+            summary AS (
+                UPDATE user_spend_summary s
+                SET total_spend        = s.total_spend - a.amount,
+                    payment_count      = s.payment_count - a.payments,
+                    last_purchase_date = (SELECT max(p.date_of_purchase)
+                                          FROM payments p
+                                          WHERE p.user_id = s.user_id
+                                            AND p.archive_date IS NULL
+                                            AND p.id NOT IN (SELECT id FROM archived))
+                FROM (SELECT user_id, sum(total_purchase_amount) AS amount, count(*) AS payments
+                      FROM archived
+                      GROUP BY user_id) a
+                WHERE s.user_id = a.user_id)
+            """;
+
+    /**
+     * Учитывает новый платёж пользователя; создаёт сводку, если её ещё нет.
+     * Дата последней покупки берётся из даты покупки платежа, как при вычитании архивированных платежей.
+     *
+     * @param userId         идентификатор пользователя.
+     * @param amount         сумма платежа.
+     * @param dateOfPurchase дата покупки платежа.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_spend_summary (user_id, total_spend, payment_count, last_purchase_date)
+            VALUES (:userId, :amount, 1, :dateOfPurchase)
+            ON CONFLICT (user_id) DO UPDATE
+                SET total_spend        = user_spend_summary.total_spend + EXCLUDED.total_spend,
+                    payment_count      = user_spend_summary.payment_count + 1,
+                    last_purchase_date = greatest(user_spend_summary.last_purchase_date, EXCLUDED.last_purchase_date)
+            """, nativeQuery = true)
+    void addPayment(@Param("userId") UUID userId, @Param("amount") BigDecimal amount,
+                    @Param("dateOfPurchase") LocalDateTime dateOfPurchase);
+
+    /**
+     * Изменяет сумму покупок пользователя при изменении суммы активного платежа.
+     * Если сводки нет, она создаётся по активным платежам пользователя, уже включающим изменённую сумму,
+     * поэтому изменение платежа перед вызовом должно быть записано в БД.
+     *
+     * @param userId идентификатор пользователя.
+     * @param delta  разница между новой и прежней суммой платежа.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO user_spend_summary (user_id, total_spend, payment_count, last_purchase_date)
+            SELECT :userId, coalesce(sum(total_purchase_amount), 0), count(*), max(date_of_purchase)
+            FROM payments
+            WHERE user_id = :userId
+              AND archive_date IS NULL
+            ON CONFLICT (user_id) DO UPDATE
+                SET total_spend = user_spend_summary.total_spend + :delta
+            """, nativeQuery = true)
+    void addToTotalSpend(@Param("userId") UUID userId, @Param("delta") BigDecimal delta);
+}
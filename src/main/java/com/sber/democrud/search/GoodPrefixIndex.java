@@ -0,0 +1,118 @@
+package com.sber.democrud.search;
+
+import com.sber.democrud.dto.GoodSuggestionDto;
+import com.sber.democrud.repository.GoodSearchRepository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Результаты поиска товаров по коротким префиксам названия, хранимые в памяти.
+ * <p>
+ * Префикс до {@code prefix-index-max-length} символов ищется в БД один раз, дальше его первые
+ * {@code prefix-index-result-size} товаров отдаются из памяти. Хранятся последние запрошенные префиксы,
+ * не больше {@code prefix-index-max-entries}. После фиксации создания, изменения или архивации товара
+ * удаляются префиксы его старого и нового названия и при следующем запросе читаются заново;
+ * после массовой архивации удаляются все префиксы.
+ * <p>
+ * Чтение из БД, начатое до изменения, своих результатов не сохраняет: они могут не содержать изменения.
+ */
+public class GoodPrefixIndex {
+
+    private final GoodSearchRepository goodSearchRepository;
+
+    private final GoodSearchProperties properties;
+
+    private final Clock clock;
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Номер изменения товаров: растёт при каждом удалении префиксов.
+     */
+    private long version;
+
+    /**
+     * Создаёт пустой индекс префиксов.
+     *
+     * @param goodSearchRepository репозиторий поиска товаров.
+     * @param properties           настройки подсказок.
+     * @param clock                часы для времени жизни результатов.
+     */
+    public GoodPrefixIndex(GoodSearchRepository goodSearchRepository, GoodSearchProperties properties, Clock clock) {
+        this.goodSearchRepository = goodSearchRepository;
+        this.properties = properties;
+        this.clock = clock;
+        int maxEntries = properties.getPrefixIndexMaxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Находит активные товары, название которых начинается с префикса без учёта регистра.
+     *
+     * @param prefix начало названия.
+     * @param limit  максимальное количество товаров.
+     * @return товары по алфавиту названий.
+     */
+    public List<GoodSuggestionDto> findByPrefix(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        int resultSize = properties.getPrefixIndexResultSize();
+        if (key.length() > properties.getPrefixIndexMaxLength() || limit > resultSize) {
+            return goodSearchRepository.findByNamePrefix(prefix, limit);
+        }
+
+        Instant now = clock.instant();
+        Entry entry;
+        long loadVersion;
+        synchronized (this) {
+            entry = entries.get(key);
+            loadVersion = version;
+        }
+        if (entry == null || !now.isBefore(entry.expiresAt())) {
+            entry = new Entry(goodSearchRepository.findByNamePrefix(key, resultSize),
+                    now.plus(properties.getPrefixIndexTtl()));
+            synchronized (this) {
+                if (version == loadVersion) {
+                    entries.put(key, entry);
+                }
+            }
+        }
+        List<GoodSuggestionDto> goods = entry.goods();
+        return goods.subList(0, Math.min(limit, goods.size()));
+    }
+
+    /**
+     * Удаляет префиксы изменённых товаров после фиксации транзакции. Изменения вне транзакции
+     * (массовая архивация порциями) обрабатываются сразу.
+     *
+     * @param event событие изменения товаров.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onGoodsChanged(GoodsChangedEvent event) {
+        version++;
+        if (event.names() == null) {
+            entries.clear();
+            return;
+        }
+        int maxLength = properties.getPrefixIndexMaxLength();
+        for (String name : event.names()) {
+            String key = name.toLowerCase(Locale.ROOT);
+            for (int length = 1; length <= Math.min(maxLength, key.length()); length++) {
+                entries.remove(key.substring(0, length));
+            }
+        }
+    }
+
+    private record Entry(List<GoodSuggestionDto> goods, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.sber.democrud.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки поиска товаров и подсказок по названию ({@code app.search.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.search")
+public class GoodSearchProperties {
+
+    /**
+     * Максимальное количество совпадений полнотекстового запроса, для которых считается релевантность.
+     * Ограничивает время запроса по частому слову; такая выдача заканчивается после этого числа товаров.
+     */
+    private int maxCandidates = 200;
+
+    /**
+     * Минимальное сходство слова названия с запросом ({@code word_similarity}) для поиска с опечатками.
+     */
+    private double similarityThreshold = 0.5;
+
+    /**
+     * Максимальная длина префикса, результаты по которому хранятся в памяти. Короткие префиксы запрашиваются
+     * чаще всего, и у них больше всего совпадений; длинные префиксы избирательны и ищутся в БД.
+     */
+    private int prefixIndexMaxLength = 3;
+
+    /**
+     * Максимальное количество префиксов в памяти: вытесняются давно не запрошенные.
+     */
+    private int prefixIndexMaxEntries = 10_000;
+
+    /**
+     * Количество товаров, хранимых для префикса. Запросы большего размера выполняются в БД.
+     */
+    private int prefixIndexResultSize = 20;
+
+    /**
+     * Время жизни результатов префикса: ограничивает устаревание из-за изменений товаров
+     * в других экземплярах приложения.
+     */
+    private Duration prefixIndexTtl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,23 @@
+package com.sber.democrud.search;
+
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Событие создания, изменения или архивации товаров.
+ *
+ * @param names названия товаров до и после изменения; {@code null}, если изменённые товары неизвестны
+ *              (массовая архивация).
+ */
+public record GoodsChangedEvent(@Nullable List<String> names) {
+
+    /**
+     * Создаёт событие изменения неизвестного набора товаров.
+     *
+     * @return событие.
+     */
+    public static GoodsChangedEvent unknownGoods() {
+        return new GoodsChangedEvent(null);
+    }
+}
@@ -0,0 +1,53 @@
+package com.sber.democrud.service;
+
+import com.sber.democrud.analytics.SalesGranularity;
+import com.sber.democrud.dto.SalesResponseDto;
+import com.sber.democrud.dto.TopGoodResponseDto;
+import com.sber.democrud.dto.UniqueBuyersResponseDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Интерфейс для аналитики продаж.
+ */
+public interface AnalyticsService {
+
+    /**
+     * Получает выручку и количество проданных единиц по типам товаров. Читаются только агрегаты,
+     * поэтому платежи, созданные или архивированные после последнего обновления, не учитываются.
+     *
+     * @param from        первый день (включительно).
+     * @param to          последний день (включительно).
+     * @param granularity период группировки.
+     * @param type        тип товара или {@code null} для всех типов.
+     * @return продажи, упорядоченные по периоду и типу.
+     */
+    List<SalesResponseDto> getSales(LocalDate from, LocalDate to, SalesGranularity granularity, String type);
+
+    /**
+     * Обновляет агрегаты продаж платежами, созданными или архивированными после водяного знака.
+     *
+     * @return {@code true}, если водяной знак сдвинут.
+     */
+    boolean refreshSalesRollup();
+
+    /**
+     * Получает оценку самых продаваемых товаров за скользящее окно без запроса к платежам.
+     *
+     * @param limit количество товаров.
+     * @return товары в порядке убывания оценки проданных единиц.
+     */
+    List<TopGoodResponseDto> getTopGoods(int limit);
+
+    /**
+     * Оценивает число уникальных покупателей товара или типа товаров за период по дневным оценкам HyperLogLog.
+     *
+     * @param from   первый день (включительно).
+     * @param to     последний день (включительно).
+     * @param goodId идентификатор товара или {@code null}.
+     * @param type   тип товара или {@code null}; задаётся ровно один из {@code goodId} и {@code type}.
+     * @return оценка числа уникальных покупателей.
+     */
+    UniqueBuyersResponseDto getUniqueBuyers(LocalDate from, LocalDate to, Long goodId, String type);
+}
@@ -1,7 +1,16 @@
 package com.sber.democrud.service;
 
+import com.sber.democrud.dto.BulkArchiveResponseDto;
+import com.sber.democrud.dto.GoodImportResponseDto;
 import com.sber.democrud.dto.GoodRequestDto;
 import com.sber.democrud.dto.GoodResponseDto;
+import com.sber.democrud.dto.GoodSearchResponseDto;
+import com.sber.democrud.dto.GoodSuggestionDto;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Интерфейс для управления логикой работы с товарами.
@@ -24,6 +33,44 @@ public interface GoodService {
      */
     GoodResponseDto getGoodById(Long id);
 
+    /**
+     * Получает только указанные поля товара. Из БД читаются только соответствующие столбцы.
+     *
+     * @param id     идентификатор товара.
+     * @param fields имена полей {@link GoodResponseDto}.
+     * @return значения запрошенных полей в порядке запроса.
+     */
+    Map<String, Object> getGoodFieldsById(Long id, List<String> fields);
+
+    /**
+     * Ищет активные товары по словам названия и описания.
+     *
+     * @param query запрос.
+     * @param type  тип товара или {@code null} для всех типов.
+     * @param limit размер страницы.
+     * @param after курсор предыдущей страницы или {@code null} для первой страницы.
+     * @return страница найденных товаров по убыванию релевантности.
+     */
+    GoodSearchResponseDto searchGoods(String query, String type, int limit, String after);
+
+    /**
+     * Ищет активные товары по началу названия без учёта регистра.
+     *
+     * @param prefix начало названия.
+     * @param limit  максимальное количество товаров.
+     * @return товары по алфавиту названий.
+     */
+    List<GoodSuggestionDto> findGoodsByNamePrefix(String prefix, int limit);
+
+    /**
+     * Ищет активные товары, в названии которых есть слово, похожее на запрос.
+     *
+     * @param query искомое слово, возможно с опечатками.
+     * @param limit максимальное количество товаров.
+     * @return товары по убыванию сходства.
+     */
+    List<GoodSuggestionDto> findGoodsBySimilarName(String query, int limit);
+
     /**
      * Обновляет товар по его идентификатору.
      *
@@ -40,5 +87,29 @@ public interface GoodService {
      * @return DTO с информацией об архивированном товаре.
      */
     GoodResponseDto archiveGoodById(Long id);
-}
 
+    /**
+     * Архивирует товары по списку идентификаторов.
+     *
+     * @param ids идентификаторы товаров.
+     * @return DTO с количеством архивированных записей.
+     */
+    BulkArchiveResponseDto archiveGoodsByIds(List<Long> ids);
+
+    /**
+     * Архивирует все активные товары, созданные раньше указанной даты.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @return DTO с количеством архивированных записей.
+     */
+    BulkArchiveResponseDto archiveGoodsCreatedBefore(LocalDateTime createdBefore);
+
+    /**
+     * Импортирует товары из CSV: существующие активные товары с тем же названием обновляются,
+     * остальные добавляются.
+     *
+     * @param csv содержимое файла в UTF-8 с заголовком {@code name,type,description,price,stock_quantity}.
+     * @return количество добавленных и обновлённых товаров и строки, не прошедшие проверку.
+     */
+    GoodImportResponseDto importGoods(InputStream csv);
+}
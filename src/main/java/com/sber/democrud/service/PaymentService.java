@@ -1,8 +1,12 @@
 package com.sber.democrud.service;
 
+import com.sber.democrud.dto.BulkArchiveResponseDto;
 import com.sber.democrud.dto.PaymentRequestDto;
 import com.sber.democrud.dto.PaymentResponseDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Интерфейс сервисного слоя для управления платежами.
  */
@@ -40,5 +44,20 @@ public interface PaymentService {
      * @return архивированный {@link PaymentResponseDto}.
      */
     PaymentResponseDto archivePaymentById(Long id);
-}
 
+    /**
+     * Архивирует платежи по списку идентификаторов.
+     *
+     * @param ids идентификаторы платежей.
+     * @return DTO с количеством архивированных записей.
+     */
+    BulkArchiveResponseDto archivePaymentsByIds(List<Long> ids);
+
+    /**
+     * Архивирует все активные платежи, созданные раньше указанной даты.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @return DTO с количеством архивированных записей.
+     */
+    BulkArchiveResponseDto archivePaymentsCreatedBefore(LocalDateTime createdBefore);
+}
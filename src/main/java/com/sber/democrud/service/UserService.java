@@ -1,8 +1,13 @@
 package com.sber.democrud.service;
 
+import com.sber.democrud.dto.BulkArchiveResponseDto;
 import com.sber.democrud.dto.UserRequestDto;
 import com.sber.democrud.dto.UserResponseDto;
+import com.sber.democrud.dto.UserSpendSummaryResponseDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -27,6 +32,24 @@ public interface UserService {
      */
     UserResponseDto getUserById(UUID id, boolean includePayments);
 
+    /**
+     * Получает только указанные поля пользователя. Из БД читаются только соответствующие столбцы,
+     * платежи загружаются, только если запрошено поле {@code payments}.
+     *
+     * @param id     идентификатор пользователя.
+     * @param fields имена полей {@link UserResponseDto}.
+     * @return значения запрошенных полей в порядке запроса.
+     */
+    Map<String, Object> getUserFieldsById(UUID id, List<String> fields);
+
+    /**
+     * Получает сводку покупок пользователя: сумму и количество активных платежей и дату последней покупки.
+     *
+     * @param id идентификатор пользователя.
+     * @return {@link UserSpendSummaryResponseDto} пользователя.
+     */
+    UserSpendSummaryResponseDto getUserSpendSummary(UUID id);
+
     /**
      * Обновляет данные пользователя.
      *
@@ -43,5 +66,20 @@ public interface UserService {
      * @return архивированный {@link UserResponseDto}.
      */
     UserResponseDto archiveUserById(UUID id);
-}
 
+    /**
+     * Архивирует пользователей по списку идентификаторов.
+     *
+     * @param ids идентификаторы пользователей.
+     * @return DTO с количеством архивированных записей.
+     */
+    BulkArchiveResponseDto archiveUsersByIds(List<UUID> ids);
+
+    /**
+     * Архивирует всех активных пользователей, созданных раньше указанной даты.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @return DTO с количеством архивированных записей.
+     */
+    BulkArchiveResponseDto archiveUsersCreatedBefore(LocalDateTime createdBefore);
+}
@@ -0,0 +1,230 @@
+package com.sber.democrud.service.impl;
+
+import com.sber.democrud.analytics.HyperLogLog;
+import com.sber.democrud.analytics.SalesGranularity;
+import com.sber.democrud.analytics.SalesRollupProperties;
+import com.sber.democrud.analytics.SlidingWindowHeavyHitters;
+import com.sber.democrud.analytics.TopGoodsProperties;
+import com.sber.democrud.dto.SalesResponseDto;
+import com.sber.democrud.dto.TopGoodResponseDto;
+import com.sber.democrud.dto.UniqueBuyersResponseDto;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.exception.BadRequestException;
+import com.sber.democrud.repository.ActiveFilterSwitch;
+import com.sber.democrud.repository.BuyerSketchRepository;
+import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.SalesRollupRepository;
+import com.sber.democrud.service.AnalyticsService;
+import jakarta.persistence.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация сервисного слоя аналитики продаж на дневных агрегатах.
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+    /**
+     * Логгер.
+     */
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    /**
+     * Репозиторий агрегатов продаж.
+     */
+    private final SalesRollupRepository salesRollupRepository;
+
+    /**
+     * Настройки обновления агрегатов.
+     */
+    private final SalesRollupProperties properties;
+
+    /**
+     * Оценка самых продаваемых товаров за скользящее окно.
+     */
+    private final SlidingWindowHeavyHitters topGoods;
+
+    /**
+     * Настройки оценки самых продаваемых товаров.
+     */
+    private final TopGoodsProperties topGoodsProperties;
+
+    /**
+     * Репозиторий товаров.
+     */
+    private final GoodRepository goodRepository;
+
+    /**
+     * Репозиторий оценок уникальных покупателей.
+     */
+    private final BuyerSketchRepository buyerSketchRepository;
+
+    /**
+     * Выключение фильтра активных записей.
+     */
+    private final ActiveFilterSwitch activeFilterSwitch;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param salesRollupRepository репозиторий агрегатов продаж.
+     * @param properties            настройки обновления агрегатов.
+     * @param topGoods              оценка самых продаваемых товаров.
+     * @param topGoodsProperties    настройки оценки самых продаваемых товаров.
+     * @param goodRepository        репозиторий товаров.
+     * @param buyerSketchRepository репозиторий оценок уникальных покупателей.
+     * @param activeFilterSwitch    выключение фильтра активных записей.
+     */
+    public AnalyticsServiceImpl(SalesRollupRepository salesRollupRepository,
+                                SalesRollupProperties properties,
+                                SlidingWindowHeavyHitters topGoods,
+                                TopGoodsProperties topGoodsProperties,
+                                GoodRepository goodRepository,
+                                BuyerSketchRepository buyerSketchRepository,
+                                ActiveFilterSwitch activeFilterSwitch) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.properties = properties;
+        this.topGoods = topGoods;
+        this.topGoodsProperties = topGoodsProperties;
+        this.goodRepository = goodRepository;
+        this.buyerSketchRepository = buyerSketchRepository;
+        this.activeFilterSwitch = activeFilterSwitch;
+    }
+
+    /**
+     * Получает продажи по типам товаров за период из дневных агрегатов.
+     *
+     * @param from        первый день (включительно).
+     * @param to          последний день (включительно).
+     * @param granularity период группировки.
+     * @param type        тип товара или {@code null} для всех типов.
+     * @return продажи, упорядоченные по периоду и типу.
+     * @throws BadRequestException, если период задан неверно или тип товара неизвестен.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesResponseDto> getSales(LocalDate from, LocalDate to, SalesGranularity granularity, String type) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Начало периода {0} позже его конца {1}", from, to);
+        }
+        Short typeCode = null;
+        if (type != null) {
+            GoodTypesEnum goodType = GoodTypesEnum.fromString(type);
+            if (goodType == null) {
+                throw new BadRequestException("Неизвестный тип товара: {0}", type);
+            }
+            typeCode = goodType.getCode();
+        }
+
+        return salesRollupRepository.findSales(from, to, granularity.name().toLowerCase(), typeCode).stream()
+                .map(AnalyticsServiceImpl::toSalesResponseDto)
+                .toList();
+    }
+
+    /**
+     * Обновляет агрегаты продаж в одной транзакции: прибавляет платежи, созданные после водяного знака,
+     * вычитает ранее учтённые платежи, архивированные после него, и сдвигает водяной знак.
+     *
+     * @return {@code true}, если водяной знак сдвинут.
+     */
+    @Override
+    @Transactional
+    public boolean refreshSalesRollup() {
+        LocalDateTime from = salesRollupRepository.lockWatermark(SalesRollupRepository.SALES_DAILY);
+        LocalDateTime to = salesRollupRepository.currentUpperBound(properties.getLag().toSeconds());
+        if (!to.isAfter(from)) {
+            return false;
+        }
+
+        int added = salesRollupRepository.addCreated(from, to);
+        int corrected = salesRollupRepository.subtractArchived(from, to);
+        salesRollupRepository.updateWatermark(SalesRollupRepository.SALES_DAILY, to);
+
+        log.debug("Агрегаты продаж обновлены до {}: новых строк {}, корректировок {}", to, added, corrected);
+        return true;
+    }
+
+    /**
+     * Получает оценку самых продаваемых товаров за скользящее окно. Наименования товаров читаются
+     * одним запросом по первичному ключу.
+     *
+     * @param limit количество товаров, от 1 до {@code app.analytics.top-goods.capacity}.
+     * @return товары в порядке убывания оценки проданных единиц.
+     * @throws BadRequestException, если количество вне допустимого диапазона.
+     */
+    @Override
+    public List<TopGoodResponseDto> getTopGoods(int limit) {
+        if (limit < 1 || limit > topGoodsProperties.getCapacity()) {
+            throw new BadRequestException("Количество товаров должно быть от 1 до {0}",
+                    topGoodsProperties.getCapacity());
+        }
+        List<SlidingWindowHeavyHitters.HeavyHitter> hitters = topGoods.top(limit);
+        List<Long> ids = hitters.stream()
+                .map(SlidingWindowHeavyHitters.HeavyHitter::key)
+                .toList();
+        // Названия нужны и товарам, архивированным после продажи
+        Map<Long, String> names = activeFilterSwitch.includingArchived(() -> goodRepository.findAllById(ids)).stream()
+                .collect(Collectors.toMap(Good::getId, Good::getName));
+
+        return hitters.stream()
+                .map(hitter -> new TopGoodResponseDto(hitter.key(), names.get(hitter.key()),
+                        hitter.count(), hitter.error()))
+                .toList();
+    }
+
+    /**
+     * Оценивает число уникальных покупателей, объединяя в памяти дневные регистры HyperLogLog за период:
+     * период в N дней — не более N строк по первичному ключу, без соединения платежей.
+     *
+     * @param from   первый день (включительно).
+     * @param to     последний день (включительно).
+     * @param goodId идентификатор товара или {@code null}.
+     * @param type   тип товара или {@code null}.
+     * @return оценка числа уникальных покупателей.
+     * @throws BadRequestException, если период задан неверно, тип товара неизвестен
+     *                              или не задан ровно один из {@code goodId} и {@code type}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UniqueBuyersResponseDto getUniqueBuyers(LocalDate from, LocalDate to, Long goodId, String type) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Начало периода {0} позже его конца {1}", from, to);
+        }
+        if ((goodId == null) == (type == null)) {
+            throw new BadRequestException("Нужно указать либо goodId, либо type");
+        }
+        List<byte[]> sketches;
+        if (goodId != null) {
+            sketches = buyerSketchRepository.findGoodSketches(goodId, from, to);
+        } else {
+            GoodTypesEnum goodType = GoodTypesEnum.fromString(type);
+            if (goodType == null) {
+                throw new BadRequestException("Неизвестный тип товара: {0}", type);
+            }
+            sketches = buyerSketchRepository.findTypeSketches(goodType.getCode(), from, to);
+        }
+
+        HyperLogLog buyers = new HyperLogLog();
+        sketches.forEach(buyers::merge);
+        return new UniqueBuyersResponseDto(from, to, goodId, type, buyers.estimate(), HyperLogLog.STANDARD_ERROR);
+    }
+
+    private static SalesResponseDto toSalesResponseDto(Tuple row) {
+        return new SalesResponseDto(
+                row.get("period", Date.class).toLocalDate(),
+                GoodTypesEnum.fromCode(((Number) row.get("type")).shortValue()).getValue(),
+                row.get("revenue", BigDecimal.class),
+                ((Number) row.get("units")).longValue());
+    }
+}
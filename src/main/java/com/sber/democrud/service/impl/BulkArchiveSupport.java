@@ -0,0 +1,64 @@
+package com.sber.democrud.service.impl;
+
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Вспомогательные методы для массовой архивации порциями.
+ * Каждая порция выполняется отдельным UPDATE в собственной транзакции репозитория,
+ * поэтому длинная архивация не удерживает блокировки на всех строках сразу.
+ */
+final class BulkArchiveSupport {
+
+    private BulkArchiveSupport() {
+    }
+
+    /**
+     * Проверяет размер порции: при неположительном размере архивация порциями не продвигалась бы.
+     *
+     * @param chunkSize размер порции ({@code app.archive.chunk-size}).
+     * @return размер порции.
+     * @throws IllegalArgumentException, если размер порции не больше нуля.
+     */
+    static int checkChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Размер порции архивации должен быть больше 0: " + chunkSize);
+        }
+        return chunkSize;
+    }
+
+    /**
+     * Архивирует записи по списку идентификаторов, разбивая его на порции.
+     *
+     * @param ids             идентификаторы записей.
+     * @param chunkSize       размер порции.
+     * @param archiveChunk    функция, архивирующая одну порцию и возвращающая число обновлённых строк.
+     * @param <ID>            тип идентификатора.
+     * @return общее количество архивированных записей.
+     */
+    static <ID> long archiveByIds(List<ID> ids, int chunkSize, ToIntFunction<List<ID>> archiveChunk) {
+        long archived = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            archived += archiveChunk.applyAsInt(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return archived;
+    }
+
+    /**
+     * Повторяет архивацию порций, пока очередная порция не окажется неполной.
+     *
+     * @param chunkSize    размер порции.
+     * @param archiveChunk функция, архивирующая не более {@code chunkSize} строк и возвращающая их число.
+     * @return общее количество архивированных записей.
+     */
+    static long archiveWhileFull(int chunkSize, IntSupplier archiveChunk) {
+        long archived = 0;
+        int updated;
+        do {
+            updated = archiveChunk.getAsInt();
+            archived += updated;
+        } while (updated == chunkSize);
+        return archived;
+    }
+}
@@ -0,0 +1,85 @@
+package com.sber.democrud.service.impl;
+
+import com.sber.democrud.exception.BadRequestException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Вспомогательные методы для выборки отдельных полей ответа ({@code ?fields=}).
+ */
+final class FieldSelectionSupport {
+
+    private FieldSelectionSupport() {
+    }
+
+    /**
+     * Нормализует и проверяет список запрошенных полей.
+     *
+     * @param requested запрошенные поля (могут содержать пробелы и повторы).
+     * @param allowed   допустимые поля ответа.
+     * @return запрошенные поля без повторов в исходном порядке.
+     * @throws BadRequestException если список пуст или содержит неизвестное поле.
+     */
+    static List<String> parse(List<String> requested, Set<String> allowed) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : requested) {
+            String trimmed = field.trim();
+            if (!trimmed.isEmpty()) {
+                fields.add(trimmed);
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new BadRequestException("Параметр fields не должен быть пустым, допустимые поля: {0}", allowed);
+        }
+        List<String> unknown = new ArrayList<>();
+        for (String field : fields) {
+            if (!allowed.contains(field)) {
+                unknown.add(field);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new BadRequestException("Неизвестные поля {0}, допустимые поля: {1}", unknown, allowed);
+        }
+        return List.copyOf(fields);
+    }
+
+    /**
+     * Возвращает атрибуты для запроса: запрошенные базовые поля и всегда идентификатор, по которому
+     * проверяется существование записи.
+     *
+     * @param fields         запрошенные поля.
+     * @param excludedFields поля, которые загружаются отдельно (коллекции).
+     * @return атрибуты для выборки.
+     */
+    static List<String> queryAttributes(List<String> fields, Set<String> excludedFields) {
+        List<String> attributes = new ArrayList<>();
+        attributes.add("id");
+        for (String field : fields) {
+            if (!excludedFields.contains(field) && !field.equals("id")) {
+                attributes.add(field);
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Читает значения атрибутов из уже загруженной сущности, например восстановленной из холодного хранилища.
+     *
+     * @param entity     сущность.
+     * @param attributes имена атрибутов.
+     * @return значения атрибутов в порядке {@code attributes}.
+     */
+    static Map<String, Object> attributes(Object entity, List<String> attributes) {
+        BeanWrapper wrapper = new BeanWrapperImpl(entity);
+        Map<String, Object> values = new LinkedHashMap<>();
+        attributes.forEach(attribute -> values.put(attribute, wrapper.getPropertyValue(attribute)));
+        return values;
+    }
+}
@@ -1,17 +1,44 @@
 package com.sber.democrud.service.impl;
 
+import com.sber.democrud.dto.BulkArchiveResponseDto;
+import com.sber.democrud.dto.GoodImportErrorDto;
+import com.sber.democrud.dto.GoodImportResponseDto;
 import com.sber.democrud.dto.GoodRequestDto;
 import com.sber.democrud.dto.GoodResponseDto;
+import com.sber.democrud.dto.GoodSearchItemDto;
+import com.sber.democrud.dto.GoodSearchResponseDto;
+import com.sber.democrud.dto.GoodSuggestionDto;
 import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.exception.BadRequestException;
 import com.sber.democrud.exception.NotFoundException;
 import com.sber.democrud.mapper.GoodMapper;
+import com.sber.democrud.repository.ActiveFilterSwitch;
+import com.sber.democrud.repository.FieldProjectionRepository;
+import com.sber.democrud.repository.GoodImportRepository;
 import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.GoodSearchRepository;
+import com.sber.democrud.search.GoodPrefixIndex;
+import com.sber.democrud.search.GoodSearchProperties;
+import com.sber.democrud.search.GoodsChangedEvent;
 import com.sber.democrud.service.GoodService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Сервисный слой для управления объектами {@link Good}.
@@ -25,6 +52,22 @@ public class GoodServiceImpl implements GoodService {
      */
     private static final Logger log = LoggerFactory.getLogger(GoodServiceImpl.class);
 
+    /**
+     * Поля {@link GoodResponseDto}, доступные для выборки через {@code ?fields=}.
+     */
+    private static final Set<String> SELECTABLE_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(List.of(
+            "id", "name", "type", "description", "price", "stockQuantity", "archiveDate")));
+
+    /**
+     * Максимальный размер страницы поиска.
+     */
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    /**
+     * Максимальное количество строк с ошибками в ответе импорта.
+     */
+    private static final int MAX_IMPORT_ERRORS = 1000;
+
     /**
      * Репозиторий для работы с базой данных, соответствующий сущности {@link Good}.
      */
@@ -35,15 +78,80 @@ public class GoodServiceImpl implements GoodService {
      */
     private final GoodMapper goodMapper;
 
+    /**
+     * Репозиторий выборки отдельных полей.
+     */
+    private final FieldProjectionRepository fieldProjectionRepository;
+
+    /**
+     * Выключение фильтра активных записей.
+     */
+    private final ActiveFilterSwitch activeFilterSwitch;
+
+    /**
+     * Репозиторий полнотекстового поиска товаров.
+     */
+    private final GoodSearchRepository goodSearchRepository;
+
+    /**
+     * Репозиторий импорта товаров из CSV.
+     */
+    private final GoodImportRepository goodImportRepository;
+
+    /**
+     * Результаты поиска по коротким префиксам названия в памяти.
+     */
+    private final GoodPrefixIndex goodPrefixIndex;
+
+    /**
+     * Настройки подсказок по названию товара.
+     */
+    private final GoodSearchProperties goodSearchProperties;
+
+    /**
+     * Публикация событий изменения товаров.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Размер порции для массовой архивации.
+     */
+    private final int archiveChunkSize;
+
     /**
      * Конструктор для создания объекта {@link GoodServiceImpl}.
      *
-     * @param goodRepository репозиторий для управления товарами.
-     * @param goodMapper     маппер для преобразования DTO и сущностей.
+     * @param goodRepository            репозиторий для управления товарами.
+     * @param goodMapper                маппер для преобразования DTO и сущностей.
+     * @param fieldProjectionRepository репозиторий выборки отдельных полей.
+     * @param activeFilterSwitch        выключение фильтра активных записей.
+     * @param goodSearchRepository      репозиторий поиска товаров.
+     * @param goodImportRepository      репозиторий импорта товаров из CSV.
+     * @param goodPrefixIndex           результаты поиска по коротким префиксам в памяти.
+     * @param goodSearchProperties      настройки поиска товаров и подсказок по названию.
+     * @param eventPublisher            публикация событий изменения товаров.
+     * @param archiveChunkSize          размер порции для массовой архивации.
      */
-    public GoodServiceImpl(GoodRepository goodRepository, GoodMapper goodMapper) {
+    public GoodServiceImpl(GoodRepository goodRepository,
+                           GoodMapper goodMapper,
+                           FieldProjectionRepository fieldProjectionRepository,
+                           ActiveFilterSwitch activeFilterSwitch,
+                           GoodSearchRepository goodSearchRepository,
+                           GoodImportRepository goodImportRepository,
+                           GoodPrefixIndex goodPrefixIndex,
+                           GoodSearchProperties goodSearchProperties,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${app.archive.chunk-size:1000}") int archiveChunkSize) {
         this.goodRepository = goodRepository;
         this.goodMapper = goodMapper;
+        this.fieldProjectionRepository = fieldProjectionRepository;
+        this.activeFilterSwitch = activeFilterSwitch;
+        this.goodSearchRepository = goodSearchRepository;
+        this.goodImportRepository = goodImportRepository;
+        this.goodPrefixIndex = goodPrefixIndex;
+        this.goodSearchProperties = goodSearchProperties;
+        this.eventPublisher = eventPublisher;
+        this.archiveChunkSize = BulkArchiveSupport.checkChunkSize(archiveChunkSize);
     }
 
     /**
@@ -55,11 +163,13 @@ public class GoodServiceImpl implements GoodService {
      * @return DTO с информацией о созданном товаре.
      */
     @Override
+    @Transactional
     public GoodResponseDto createGood(GoodRequestDto goodRequestDto) {
         log.info("Создание товара: {}", goodRequestDto);
 
         Good good = goodMapper.toGood(goodRequestDto);
         goodRepository.save(good);
+        eventPublisher.publishEvent(new GoodsChangedEvent(List.of(good.getName())));
 
         GoodResponseDto goodResponseDto = goodMapper.toGoodResponseDto(good);
         log.info("Товар успешно создан с ID: {}", goodResponseDto.getId());
@@ -68,7 +178,7 @@ public class GoodServiceImpl implements GoodService {
 
     /**
      * Получает товар по его идентификатору.
-     * Выполняет поиск по ID в репозитории.
+     * Выполняет поиск по ID в репозитории, затем в холодном хранилище.
      * Если товар не найден, выбрасывает исключение {@link NotFoundException}.
      *
      * @param id идентификатор товара.
@@ -78,12 +188,137 @@ public class GoodServiceImpl implements GoodService {
     public GoodResponseDto getGoodById(Long id) {
         log.info("Получение товара с ID: {}", id);
 
-        Good good = findGoodOrNotFound(id);
+        Good good = goodRepository.findById(id)
+                .or(() -> goodRepository.findInColdStorageById(id))
+                .orElseThrow(() -> {
+                    log.error("Товар с ID: {} не найден", id);
+                    return new NotFoundException("Товар c id={0} не найден", id);
+                });
         log.debug("Товар найден: {}", good);
 
         return goodMapper.toGoodResponseDto(good);
     }
 
+    /**
+     * Получает только указанные поля товара.
+     * Выбираются только столбцы запрошенных полей, поэтому, например, описание товара
+     * не читается из БД, если оно не запрошено. Товар, перенесённый в холодное хранилище, читается целиком.
+     *
+     * @param id     идентификатор товара.
+     * @param fields имена полей {@link GoodResponseDto}.
+     * @return значения запрошенных полей в порядке запроса.
+     * @throws NotFoundException если товар не найден.
+     */
+    @Override
+    public Map<String, Object> getGoodFieldsById(Long id, List<String> fields) {
+        List<String> selectedFields = FieldSelectionSupport.parse(fields, SELECTABLE_FIELDS);
+        log.info("Получение полей {} товара с ID: {}", selectedFields, id);
+
+        List<String> attributes = FieldSelectionSupport.queryAttributes(selectedFields, Set.of());
+        Map<String, Object> values = activeFilterSwitch.includingArchived(
+                        () -> fieldProjectionRepository.findById(Good.class, id, attributes))
+                .or(() -> goodRepository.findInColdStorageById(id)
+                        .map(good -> FieldSelectionSupport.attributes(good, attributes)))
+                .orElseThrow(() -> {
+                    log.error("Товар с ID: {} не найден", id);
+                    return new NotFoundException("Товар c id={0} не найден", id);
+                });
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        selectedFields.forEach(field -> response.put(field, values.get(field)));
+        return response;
+    }
+
+    /**
+     * Ищет активные товары по словам названия и описания. Ранжируются не более
+     * {@code app.search.max-candidates} совпадений.
+     * Страница запрашивается на один товар больше: если он есть, курсор следующей страницы — позиция
+     * последнего возвращённого товара в формате {@code релевантность:id}.
+     *
+     * @param query запрос.
+     * @param type  тип товара или {@code null} для всех типов.
+     * @param limit размер страницы.
+     * @param after курсор предыдущей страницы или {@code null} для первой страницы.
+     * @return страница найденных товаров по убыванию релевантности.
+     * @throws BadRequestException, если запрос пуст, тип товара неизвестен, размер страницы вне допустимого
+     *                              диапазона или курсор некорректен.
+     */
+    @Override
+    public GoodSearchResponseDto searchGoods(String query, String type, int limit, String after) {
+        log.info("Поиск товаров по запросу: {}, тип: {}, после: {}", query, type, after);
+
+        validateQuery(query, limit);
+        Short typeCode = null;
+        if (type != null) {
+            GoodTypesEnum goodType = GoodTypesEnum.fromString(type);
+            if (goodType == null) {
+                throw new BadRequestException("Неизвестный тип товара: {0}", type);
+            }
+            typeCode = goodType.getCode();
+        }
+        Float afterRank = null;
+        Long afterId = null;
+        if (after != null) {
+            int separator = after.indexOf(':');
+            try {
+                afterRank = Float.parseFloat(after.substring(0, separator));
+                afterId = Long.parseLong(after.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Некорректный курсор: {0}", after);
+            }
+        }
+
+        List<GoodSearchItemDto> items = goodSearchRepository.search(query, typeCode, afterRank, afterId,
+                        goodSearchProperties.getMaxCandidates(), limit + 1)
+                .stream()
+                .map(row -> new GoodSearchItemDto(
+                        ((Number) row.get("id")).longValue(),
+                        (String) row.get("name"),
+                        GoodTypesEnum.fromCode(((Number) row.get("type")).shortValue()).getValue(),
+                        (BigDecimal) row.get("price"),
+                        ((Number) row.get("rank")).floatValue()))
+                .toList();
+        if (items.size() <= limit) {
+            return new GoodSearchResponseDto(items, null);
+        }
+        GoodSearchItemDto last = items.get(limit - 1);
+        return new GoodSearchResponseDto(items.subList(0, limit), last.getRank() + ":" + last.getId());
+    }
+
+    /**
+     * Ищет активные товары по началу названия без учёта регистра.
+     * Короткие префиксы обслуживаются из памяти ({@link GoodPrefixIndex}), остальные — триграммным индексом.
+     *
+     * @param prefix начало названия.
+     * @param limit  максимальное количество товаров.
+     * @return товары по алфавиту названий.
+     * @throws BadRequestException, если префикс пуст или количество вне допустимого диапазона.
+     */
+    @Override
+    public List<GoodSuggestionDto> findGoodsByNamePrefix(String prefix, int limit) {
+        log.info("Поиск товаров по началу названия: {}", prefix);
+
+        validateQuery(prefix, limit);
+        return goodPrefixIndex.findByPrefix(prefix, limit);
+    }
+
+    /**
+     * Ищет активные товары, в названии которых есть слово, похожее на запрос, с порогом сходства
+     * {@code app.search.similarity-threshold}.
+     *
+     * @param query искомое слово, возможно с опечатками.
+     * @param limit максимальное количество товаров.
+     * @return товары по убыванию сходства.
+     * @throws BadRequestException, если запрос пуст или количество вне допустимого диапазона.
+     */
+    @Override
+    public List<GoodSuggestionDto> findGoodsBySimilarName(String query, int limit) {
+        log.info("Поиск товаров с похожим названием: {}", query);
+
+        validateQuery(query, limit);
+        return goodSearchRepository.findBySimilarName(query, goodSearchProperties.getSimilarityThreshold(), limit);
+    }
+
     /**
      * Обновляет существующий товар по его идентификатору.
      * Получает товар из базы данных, обновляет его полями из DTO
@@ -94,12 +329,15 @@ public class GoodServiceImpl implements GoodService {
      * @return DTO с обновленной информацией о товаре.
      */
     @Override
+    @Transactional
     public GoodResponseDto updateGoodById(Long id, GoodRequestDto goodRequestDto) {
         log.info("Обновление товара с ID: {} данными: {}", id, goodRequestDto);
 
         Good existingGood = findGoodOrNotFound(id);
+        String previousName = existingGood.getName();
         goodMapper.updateGoodFromDto(goodRequestDto, existingGood);
         goodRepository.save(existingGood);
+        eventPublisher.publishEvent(new GoodsChangedEvent(List.of(previousName, existingGood.getName())));
         log.info("Товар с ID: {} успешно обновлен", id);
 
         return goodMapper.toGoodResponseDto(existingGood);
@@ -113,17 +351,118 @@ public class GoodServiceImpl implements GoodService {
      * @return DTO с информацией об архивированном товаре.
      */
     @Override
+    @Transactional
     public GoodResponseDto archiveGoodById(Long id) {
         log.info("Архивирование товара с ID: {}", id);
 
         Good good = findGoodOrNotFound(id);
         good.setArchiveDate(LocalDateTime.now());
         goodRepository.save(good);
+        eventPublisher.publishEvent(new GoodsChangedEvent(List.of(good.getName())));
 
         log.info("Товар с ID: {} успешно архивирован на дату: {}", id, good.getArchiveDate());
         return goodMapper.toGoodResponseDto(good);
     }
 
+    /**
+     * Архивирует товары по списку идентификаторов.
+     * Выполняет UPDATE порциями по {@code app.archive.chunk-size} без загрузки сущностей.
+     *
+     * @param ids идентификаторы товаров.
+     * @return DTO с количеством архивированных записей.
+     */
+    @Override
+    public BulkArchiveResponseDto archiveGoodsByIds(List<Long> ids) {
+        log.info("Массовое архивирование товаров, количество ID: {}", ids.size());
+
+        long archived = BulkArchiveSupport.archiveByIds(ids, archiveChunkSize,
+                chunk -> goodRepository.archiveAllByIds(chunk.toArray(Long[]::new)));
+        if (archived > 0) {
+            eventPublisher.publishEvent(GoodsChangedEvent.unknownGoods());
+        }
+
+        log.info("Архивировано товаров: {} из {}", archived, ids.size());
+        return new BulkArchiveResponseDto(ids.size(), archived);
+    }
+
+    /**
+     * Архивирует все активные товары, созданные раньше указанной даты.
+     * Выполняет UPDATE порциями по {@code app.archive.chunk-size}, пока не будет обработана последняя порция.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @return DTO с количеством архивированных записей.
+     */
+    @Override
+    public BulkArchiveResponseDto archiveGoodsCreatedBefore(LocalDateTime createdBefore) {
+        log.info("Массовое архивирование товаров, созданных до: {}", createdBefore);
+
+        long archived = BulkArchiveSupport.archiveWhileFull(archiveChunkSize,
+                () -> goodRepository.archiveChunkCreatedBefore(createdBefore, archiveChunkSize));
+        if (archived > 0) {
+            eventPublisher.publishEvent(GoodsChangedEvent.unknownGoods());
+        }
+
+        log.info("Архивировано товаров, созданных до {}: {}", createdBefore, archived);
+        return new BulkArchiveResponseDto(0, archived);
+    }
+
+    /**
+     * Импортирует товары из CSV в одной транзакции.
+     * Файл передаётся в БД потоком через {@code COPY}, проверка и слияние выполняются запросами над всеми строками,
+     * поэтому память не зависит от размера файла. Строки, не прошедшие проверку, в том числе с нарушенной
+     * структурой CSV, пропускаются, в ответ попадают первые {@value MAX_IMPORT_ERRORS} из них.
+     *
+     * @param csv содержимое файла в UTF-8 с заголовком {@code name,type,description,price,stock_quantity}.
+     * @return количество добавленных и обновлённых товаров и строки, не прошедшие проверку.
+     * @throws BadRequestException, если файл не в кодировке UTF-8.
+     */
+    @Override
+    @Transactional
+    public GoodImportResponseDto importGoods(InputStream csv) {
+        log.info("Импорт товаров из CSV");
+
+        long rows;
+        try {
+            rows = goodImportRepository.copy(csv);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Файл не в кодировке UTF-8: {0}", e.getMostSpecificCause().getMessage());
+        }
+        goodImportRepository.markInvalidRows();
+        Map<String, Object> merged = goodImportRepository.merge();
+        long failed = goodImportRepository.countInvalidRows();
+        List<GoodImportErrorDto> errors = goodImportRepository.findInvalidRows(MAX_IMPORT_ERRORS).stream()
+                .map(row -> new GoodImportErrorDto(
+                        ((Number) row.get("row_number")).longValue(),
+                        (String) row.get("name"),
+                        (String) row.get("error")))
+                .toList();
+        long inserted = ((Number) merged.get("inserted")).longValue();
+        long updated = ((Number) merged.get("updated")).longValue();
+        if (inserted + updated > 0) {
+            eventPublisher.publishEvent(GoodsChangedEvent.unknownGoods());
+        }
+
+        log.info("Импорт товаров завершён: строк {}, добавлено {}, обновлено {}, с ошибками {}",
+                rows, inserted, updated, failed);
+        return new GoodImportResponseDto(rows, inserted, updated, failed, errors);
+    }
+
+    /**
+     * Проверяет поисковый запрос и размер страницы.
+     *
+     * @param query поисковый запрос.
+     * @param limit размер страницы.
+     * @throws BadRequestException, если запрос пуст или размер страницы вне допустимого диапазона.
+     */
+    private static void validateQuery(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Поисковый запрос не задан");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до {0}", MAX_SEARCH_LIMIT);
+        }
+    }
+
     /**
      * Выполняет поиск товара по идентификатору.
      * Если товар не найден, выбрасывает исключение {@link NotFoundException}.
@@ -1,19 +1,41 @@
 package com.sber.democrud.service.impl;
 
+import com.sber.democrud.analytics.GoodsSoldEvent;
+import com.sber.democrud.dto.BulkArchiveResponseDto;
+import com.sber.democrud.dto.PaymentGoodRequestDto;
 import com.sber.democrud.dto.PaymentRequestDto;
 import com.sber.democrud.dto.PaymentResponseDto;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
 import com.sber.democrud.entity.Payment;
+import com.sber.democrud.entity.PaymentGood;
 import com.sber.democrud.entity.User;
+import com.sber.democrud.exception.BadRequestException;
 import com.sber.democrud.exception.NotFoundException;
 import com.sber.democrud.mapper.PaymentMapper;
+import com.sber.democrud.repository.ActiveFilterSwitch;
+import com.sber.democrud.repository.GoodRepository;
 import com.sber.democrud.repository.PaymentRepository;
+import com.sber.democrud.repository.SalesRollupRepository;
 import com.sber.democrud.repository.UserRepository;
+import com.sber.democrud.repository.UserSpendSummaryRepository;
 import com.sber.democrud.service.PaymentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Реализация сервисного слоя для управления платежами.
@@ -33,34 +55,83 @@ public class PaymentServiceImpl implements PaymentService {
      * Репозиторий пользователей.
      */
     private final UserRepository userRepository;
+    /**
+     * Репозиторий товаров.
+     */
+    private final GoodRepository goodRepository;
+    /**
+     * Репозиторий сводок покупок пользователей.
+     */
+    private final UserSpendSummaryRepository userSpendSummaryRepository;
+    /**
+     * Репозиторий дневных агрегатов продаж.
+     */
+    private final SalesRollupRepository salesRollupRepository;
     /**
      * Маппер для сущности {@link Payment}.
      */
     private final PaymentMapper paymentMapper;
+    /**
+     * Публикатор событий продажи товаров.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+    /**
+     * Выключение фильтра активных записей.
+     */
+    private final ActiveFilterSwitch activeFilterSwitch;
+    /**
+     * Размер порции для массовой архивации.
+     */
+    private final int archiveChunkSize;
 
     /**
      * Конструктор сервиса {@link PaymentServiceImpl}.
      *
-     * @param paymentRepository репозиторий для работы с платежами.
-     * @param userRepository    репозиторий для работы с пользователями.
-     * @param paymentMapper     маппер для преобразования между сущностями и DTO.
+     * @param paymentRepository          репозиторий для работы с платежами.
+     * @param userRepository             репозиторий для работы с пользователями.
+     * @param goodRepository             репозиторий для работы с товарами.
+     * @param userSpendSummaryRepository репозиторий сводок покупок пользователей.
+     * @param salesRollupRepository      репозиторий дневных агрегатов продаж.
+     * @param paymentMapper              маппер для преобразования между сущностями и DTO.
+     * @param eventPublisher             публикатор событий продажи товаров.
+     * @param activeFilterSwitch         выключение фильтра активных записей.
+     * @param archiveChunkSize           размер порции для массовой архивации.
      */
     public PaymentServiceImpl(PaymentRepository paymentRepository,
                               UserRepository userRepository,
-                              PaymentMapper paymentMapper) {
+                              GoodRepository goodRepository,
+                              UserSpendSummaryRepository userSpendSummaryRepository,
+                              SalesRollupRepository salesRollupRepository,
+                              PaymentMapper paymentMapper,
+                              ApplicationEventPublisher eventPublisher,
+                              ActiveFilterSwitch activeFilterSwitch,
+                              @Value("${app.archive.chunk-size:1000}") int archiveChunkSize) {
         this.paymentRepository = paymentRepository;
         this.userRepository = userRepository;
+        this.goodRepository = goodRepository;
+        this.userSpendSummaryRepository = userSpendSummaryRepository;
+        this.salesRollupRepository = salesRollupRepository;
         this.paymentMapper = paymentMapper;
+        this.eventPublisher = eventPublisher;
+        this.activeFilterSwitch = activeFilterSwitch;
+        this.archiveChunkSize = BulkArchiveSupport.checkChunkSize(archiveChunkSize);
     }
 
     /**
-     * Создаёт новый платеж, связывая его с пользователем.
+     * Создаёт новый платеж, связывая его с пользователем и товарами.
+     * Цена каждого товара фиксируется в позиции платежа, итоговая сумма вычисляется по позициям.
+     * Число запросов к БД не зависит от количества товаров: пользователь и все товары читаются
+     * двумя SELECT, строки {@code payment_goods} вставляются пакетом. Сводка покупок пользователя
+     * и оценки уникальных покупателей обновляются в той же транзакции, проданные единицы передаются в оценку
+     * самых продаваемых товаров после её фиксации.
      *
      * @param paymentRequestDto DTO с данными для создания платежа.
      * @return созданный {@link PaymentResponseDto}.
-     * @throws NotFoundException, если пользователь с указанным ID не найден.
+     * @throws NotFoundException,   если пользователь или один из товаров не найден.
+     * @throws BadRequestException, если один из товаров архивирован.
      */
     @Override
+    @Transactional
     public PaymentResponseDto createPayment(PaymentRequestDto paymentRequestDto) {
         log.info("Создание платежа: {}", paymentRequestDto);
 
@@ -75,15 +146,20 @@ public class PaymentServiceImpl implements PaymentService {
         log.debug("Пользователь найден: {}", userPayment);
         payment.setUser(userPayment);
 
-//        // Устанавливаем связь между пользователем и платежом, приводят к ConcurrentModificationException
-//        userPayment.addPayment(payment);
-//
-//        // Связываем товары с платежом
-//        Set<Good> goodsInPayment = payment.getGoods();
-//        goodsInPayment.forEach(payment::addGood);
+        Map<Long, Long> quantities = mergeQuantities(paymentRequestDto.getGoods());
+        Set<GoodTypesEnum> types = EnumSet.noneOf(GoodTypesEnum.class);
+        for (Good good : findGoodsForPayment(quantities.keySet())) {
+            payment.addGood(good, quantities.get(good.getId()));
+            types.add(good.getType());
+        }
+        payment.recalculateTotalPurchaseAmount();
 
         // Сохраняем платёж
-        paymentRepository.save(payment);
+        // Дата покупки задаётся часами БД при вставке
+        paymentRepository.saveAndFlush(payment);
+        userSpendSummaryRepository.addPayment(userPayment.getId(), payment.getTotalPurchaseAmount(),
+                payment.getDateOfPurchase());
+        eventPublisher.publishEvent(new GoodsSoldEvent(userPayment.getId(), quantities, types));
 
         PaymentResponseDto responseDto = paymentMapper.toPaymentResponseDto(payment);
         log.info("Платеж успешно создан с ID: {}", responseDto.getId());
@@ -92,6 +168,7 @@ public class PaymentServiceImpl implements PaymentService {
 
     /**
      * Получает платёж по его идентификатору.
+     * Если платёж не найден в рабочей таблице, он ищется в холодном хранилище.
      *
      * @param id идентификатор платежа.
      * @return {@link PaymentResponseDto}, соответствующий найденному платежу.
@@ -101,7 +178,12 @@ public class PaymentServiceImpl implements PaymentService {
     public PaymentResponseDto getPaymentById(Long id) {
         log.info("Получение платежа с ID: {}", id);
 
-        Payment payment = findPaymentOrNotFound(id);
+        Payment payment = activeFilterSwitch.includingArchived(() -> paymentRepository.findWithGoodsById(id))
+                .or(() -> paymentRepository.findInColdStorageById(id))
+                .orElseThrow(() -> {
+                    log.error("Платеж с ID: {} не найден", id);
+                    return new NotFoundException("Платеж c id={0} не найден", id);
+                });
         log.debug("Платеж найден: {}", payment);
 
         return paymentMapper.toPaymentResponseDto(payment);
@@ -110,20 +192,49 @@ public class PaymentServiceImpl implements PaymentService {
     /**
      * Обновляет существующий платёж по идентификатору.
      * Кроме пользователя, так как в совершенной покупке нельзя поменять данные того, кто произвел оплату.
+     * У оставшихся в платеже товаров меняется только количество, цена на момент покупки сохраняется;
+     * новые товары добавляются по текущей цене. Итоговая сумма пересчитывается. Если платёж уже учтён
+     * в агрегатах продаж, в той же транзакции из них вычитаются прежние позиции и прибавляются новые.
      *
      * @param id                идентификатор платежа.
      * @param paymentRequestDto DTO с новыми данными для платежа.
      * @return обновлённый {@link PaymentResponseDto}.
-     * @throws NotFoundException, если платёж не найден.
+     * @throws NotFoundException,   если платёж или один из товаров не найден.
+     * @throws BadRequestException, если один из товаров архивирован.
      */
     @Override
+    @Transactional
     public PaymentResponseDto updatePaymentById(Long id, PaymentRequestDto paymentRequestDto) {
         log.info("Обновление платежа с ID: {} данными: {}", id, paymentRequestDto);
 
         Payment currentPayment = findPaymentOrNotFound(id);
+        BigDecimal previousAmount = currentPayment.getTotalPurchaseAmount();
+        // Прежние позиции вычитаются из агрегатов до изменения сущности: нативный запрос читает их из БД
+        LocalDateTime watermark = salesRollupRepository.shareWatermark(SalesRollupRepository.SALES_DAILY);
+        salesRollupRepository.subtractCounted(id, watermark);
         paymentMapper.updatePaymentFromDto(paymentRequestDto, currentPayment);
+        Map<Long, Long> quantities = mergeQuantities(paymentRequestDto.getGoods());
+        List<Good> goods = findGoodsForPayment(quantities.keySet());
 
-        paymentRepository.save(currentPayment);
+        currentPayment.getGoods().removeIf(item -> !quantities.containsKey(item.getId().getGoodId()));
+        Set<Long> present = new HashSet<>();
+        for (PaymentGood item : currentPayment.getGoods()) {
+            item.setQuantity(quantities.get(item.getId().getGoodId()));
+            present.add(item.getId().getGoodId());
+        }
+        for (Good good : goods) {
+            if (!present.contains(good.getId())) {
+                currentPayment.addGood(good, quantities.get(good.getId()));
+            }
+        }
+        currentPayment.recalculateTotalPurchaseAmount();
+
+        paymentRepository.saveAndFlush(currentPayment);
+        salesRollupRepository.addCounted(id, watermark);
+        BigDecimal delta = currentPayment.getTotalPurchaseAmount().subtract(previousAmount);
+        if (!currentPayment.isDeleted() && delta.signum() != 0) {
+            userSpendSummaryRepository.addToTotalSpend(currentPayment.getUser().getId(), delta);
+        }
         log.info("Платеж с ID: {} успешно обновлен", id);
 
         return paymentMapper.toPaymentResponseDto(currentPayment);
@@ -131,30 +242,105 @@ public class PaymentServiceImpl implements PaymentService {
 
     /**
      * Архивирует платеж, устанавливая дату архивации.
+     * Архивирование выполняется тем же оператором, что и массовое: дата архивации берётся из часов БД,
+     * по которым сдвигается водяной знак агрегатов продаж, а активный платёж тем же оператором исключается
+     * из сводки покупок пользователя. Повторное архивирование дату не меняет.
      *
      * @param id идентификатор платежа.
      * @return обновлённый {@link PaymentResponseDto}.
      * @throws NotFoundException, если платёж не найден.
      */
     @Override
+    @Transactional
     public PaymentResponseDto archivePaymentById(Long id) {
         log.info("Архивирование платежа с ID: {}", id);
 
+        paymentRepository.archiveAllByIds(new Long[]{id});
         Payment payment = findPaymentOrNotFound(id);
 
-        // Разрываем связь между платежом и товарами, приводят к ConcurrentModificationException
-//        Set<Good> goodsInPayment = payment.getGoods();
-//        goodsInPayment.forEach(payment::removeGood);
+        log.info("Платеж с ID: {} архивирован на дату: {}", id, payment.getArchiveDate());
+        return paymentMapper.toPaymentResponseDto(payment);
+    }
+
+    /**
+     * Архивирует платежи по списку идентификаторов.
+     * Выполняет UPDATE порциями по {@code app.archive.chunk-size} без загрузки сущностей.
+     *
+     * @param ids идентификаторы платежей.
+     * @return DTO с количеством архивированных записей.
+     */
+    @Override
+    public BulkArchiveResponseDto archivePaymentsByIds(List<Long> ids) {
+        log.info("Массовое архивирование платежей, количество ID: {}", ids.size());
+
+        long archived = BulkArchiveSupport.archiveByIds(ids, archiveChunkSize,
+                chunk -> paymentRepository.archiveAllByIds(chunk.toArray(Long[]::new)));
 
-        payment.setArchiveDate(LocalDateTime.now());
-        paymentRepository.save(payment);
+        log.info("Архивировано платежей: {} из {}", archived, ids.size());
+        return new BulkArchiveResponseDto(ids.size(), archived);
+    }
 
-        log.info("Платеж с ID: {} успешно архивирован на дату: {}", id, payment.getArchiveDate());
-        return paymentMapper.toPaymentResponseDto(payment);
+    /**
+     * Архивирует все активные платежи, созданные раньше указанной даты.
+     * Выполняет UPDATE порциями по {@code app.archive.chunk-size}, пока не будет обработана последняя порция.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @return DTO с количеством архивированных записей.
+     */
+    @Override
+    public BulkArchiveResponseDto archivePaymentsCreatedBefore(LocalDateTime createdBefore) {
+        log.info("Массовое архивирование платежей, созданных до: {}", createdBefore);
+
+        long archived = BulkArchiveSupport.archiveWhileFull(archiveChunkSize,
+                () -> paymentRepository.archiveChunkCreatedBefore(createdBefore, archiveChunkSize));
+
+        log.info("Архивировано платежей, созданных до {}: {}", createdBefore, archived);
+        return new BulkArchiveResponseDto(0, archived);
+    }
+
+    /**
+     * Суммирует количество по товарам: повторяющиеся позиции одного товара объединяются.
+     *
+     * @param items позиции платежа из запроса.
+     * @return количество по идентификаторам товаров в порядке первого упоминания.
+     */
+    private static Map<Long, Long> mergeQuantities(List<PaymentGoodRequestDto> items) {
+        Map<Long, Long> quantities = new LinkedHashMap<>();
+        for (PaymentGoodRequestDto item : items) {
+            quantities.merge(item.getGoodId(), item.getQuantity(), Math::addExact);
+        }
+        return quantities;
+    }
+
+    /**
+     * Загружает товары позиций платежа одним запросом и проверяет, что все они существуют и не архивированы.
+     *
+     * @param ids идентификаторы товаров.
+     * @return управляемые сущности товаров.
+     * @throws NotFoundException,   если часть товаров не найдена.
+     * @throws BadRequestException, если часть товаров архивирована.
+     */
+    private List<Good> findGoodsForPayment(Set<Long> ids) {
+        List<Good> goods = activeFilterSwitch.includingArchived(() -> goodRepository.findAllById(ids));
+
+        if (goods.size() != ids.size()) {
+            Set<Long> missing = new LinkedHashSet<>(ids);
+            goods.forEach(good -> missing.remove(good.getId()));
+            log.error("Товары с ID: {} не найдены", missing);
+            throw new NotFoundException("Товары c id={0} не найдены", missing);
+        }
+        List<Long> archived = goods.stream()
+                .filter(Good::isDeleted)
+                .map(Good::getId)
+                .toList();
+        if (!archived.isEmpty()) {
+            throw new BadRequestException("Товары c id={0} архивированы", archived);
+        }
+        return goods;
     }
 
     /**
-     * Поиск платежа по ID.
+     * Поиск платежа по ID вместе с пользователем и товарами.
      *
      * @param id идентификатор платежа.
      * @return найденный {@link Payment}.
@@ -163,7 +349,7 @@ public class PaymentServiceImpl implements PaymentService {
     private Payment findPaymentOrNotFound(Long id) {
         log.debug("Поиск платежа с ID: {}", id);
 
-        return paymentRepository.findById(id)
+        return activeFilterSwitch.includingArchived(() -> paymentRepository.findWithGoodsById(id))
                 .orElseThrow(() -> {
                     log.error("Платеж с ID: {} не найден", id);
                     return new NotFoundException("Платеж c id={0} не найден", id);
@@ -1,22 +1,37 @@
 package com.sber.democrud.service.impl;
 
+import com.sber.democrud.dto.BulkArchiveResponseDto;
 import com.sber.democrud.dto.PaymentResponseDto;
 import com.sber.democrud.dto.UserRequestDto;
 import com.sber.democrud.dto.UserResponseDto;
+import com.sber.democrud.dto.UserSpendSummaryResponseDto;
+import com.sber.democrud.entity.Payment;
 import com.sber.democrud.entity.User;
 import com.sber.democrud.exception.NotFoundException;
 import com.sber.democrud.mapper.PaymentMapper;
 import com.sber.democrud.mapper.UserMapper;
+import com.sber.democrud.repository.ActiveFilterSwitch;
+import com.sber.democrud.repository.FieldProjectionRepository;
+import com.sber.democrud.repository.PaymentRepository;
 import com.sber.democrud.repository.UserRepository;
+import com.sber.democrud.repository.UserSpendSummaryRepository;
 import com.sber.democrud.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Реализация сервисного слоя для управления пользователями.
@@ -28,6 +43,17 @@ public class UserServiceImpl implements UserService {
      */
     private static final Logger log = LoggerFactory.getLogger(PaymentServiceImpl.class);
 
+    /**
+     * Поле ответа с платежами пользователя; загружается отдельным запросом.
+     */
+    private static final String PAYMENTS_FIELD = "payments";
+
+    /**
+     * Поля {@link UserResponseDto}, доступные для выборки через {@code ?fields=}.
+     */
+    private static final Set<String> SELECTABLE_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(List.of(
+            "id", "name", "login", "email", "role", "archiveDate", PAYMENTS_FIELD)));
+
     /**
      * Репозиторий пользователей.
      */
@@ -37,24 +63,59 @@ public class UserServiceImpl implements UserService {
      */
     private final UserMapper userMapper;
     /**
-     * Маппер для сущности {@link com.sber.democrud.entity.Payment}
+     * Репозиторий платежей.
+     */
+    private final PaymentRepository paymentRepository;
+    /**
+     * Маппер для сущности {@link Payment}.
      */
     private final PaymentMapper paymentMapper;
+    /**
+     * Репозиторий выборки отдельных полей.
+     */
+    private final FieldProjectionRepository fieldProjectionRepository;
+    /**
+     * Репозиторий сводок покупок пользователей.
+     */
+    private final UserSpendSummaryRepository userSpendSummaryRepository;
+    /**
+     * Выключение фильтра активных записей.
+     */
+    private final ActiveFilterSwitch activeFilterSwitch;
+    /**
+     * Размер порции для массовой архивации.
+     */
+    private final int archiveChunkSize;
 
     /**
      * Конструктор сервиса {@link UserServiceImpl}.
      *
-     * @param userRepository репозиторий для работы с пользователями.
-     * @param userMapper     маппер для преобразования пользователей между сущностями и DTO.
-     * @param paymentMapper  маппер для преобразования платежей между сущностями и DTO.
+     * @param userRepository             репозиторий для работы с пользователями.
+     * @param userMapper                 маппер для преобразования пользователей между сущностями и DTO.
+     * @param paymentRepository          репозиторий для работы с платежами.
+     * @param paymentMapper              маппер для преобразования платежей в DTO.
+     * @param fieldProjectionRepository  репозиторий выборки отдельных полей.
+     * @param userSpendSummaryRepository репозиторий сводок покупок пользователей.
+     * @param activeFilterSwitch         выключение фильтра активных записей.
+     * @param archiveChunkSize           размер порции для массовой архивации.
      */
     public UserServiceImpl(
             UserRepository userRepository,
             UserMapper userMapper,
-            PaymentMapper paymentMapper) {
+            PaymentRepository paymentRepository,
+            PaymentMapper paymentMapper,
+            FieldProjectionRepository fieldProjectionRepository,
+            UserSpendSummaryRepository userSpendSummaryRepository,
+            ActiveFilterSwitch activeFilterSwitch,
+            @Value("${app.archive.chunk-size:1000}") int archiveChunkSize) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.paymentRepository = paymentRepository;
         this.paymentMapper = paymentMapper;
+        this.fieldProjectionRepository = fieldProjectionRepository;
+        this.userSpendSummaryRepository = userSpendSummaryRepository;
+        this.activeFilterSwitch = activeFilterSwitch;
+        this.archiveChunkSize = BulkArchiveSupport.checkChunkSize(archiveChunkSize);
     }
 
     /**
@@ -64,6 +125,7 @@ public class UserServiceImpl implements UserService {
      * @return созданный {@link UserResponseDto}.
      */
     @Override
+    @Transactional
     public UserResponseDto createUser(UserRequestDto userRequestDto) {
         log.info("Создание пользователя: {}", userRequestDto);
 
@@ -78,6 +140,9 @@ public class UserServiceImpl implements UserService {
     /**
      * Получает пользователя по идентификатору.
      * Может включать связанные платежи, если указан соответствующий флаг.
+     * Платежи и товары в них загружаются тем же запросом, что и пользователь, поэтому маппинг
+     * выполняется без открытой сессии и без ленивой загрузки. Пользователь и платежи, перенесённые
+     * в холодное хранилище, дополняют результат.
      *
      * @param id              идентификатор пользователя.
      * @param includePayments флаг для включения связанных платежей.
@@ -88,21 +153,84 @@ public class UserServiceImpl implements UserService {
     public UserResponseDto getUserById(UUID id, boolean includePayments) {
         log.info("Получение пользователя с ID: {}, includePayments: {}", id, includePayments);
 
-        User user = findUserOrNotFound(id);
+        User user = (includePayments
+                ? activeFilterSwitch.includingArchived(() -> userRepository.findWithPaymentsById(id))
+                : userRepository.findById(id))
+                .or(() -> userRepository.findInColdStorageById(id))
+                .orElseThrow(() -> {
+                    log.error("Пользователь с ID: {} не найден", id);
+                    return new NotFoundException("Пользователь с id={0} не найден", id);
+                });
         log.debug("Пользователь найден: {}", user);
 
         UserResponseDto responseDto = userMapper.toUserResponseDto(user);
         if (includePayments) {
-            log.debug("Добавление связанных платежей в ответ");
-            Set<PaymentResponseDto> paymentDtos = user.getPayments().stream()
+            paymentRepository.findAllInColdStorageByUserId(id).stream()
                     .map(paymentMapper::toPaymentResponseDto)
-                    .collect(Collectors.toSet());
-            responseDto.setPayments(paymentDtos);
+                    .forEach(responseDto.getPayments()::add);
         }
-
         return responseDto;
     }
 
+    /**
+     * Получает только указанные поля пользователя.
+     * Базовые поля выбираются одним запросом только по нужным столбцам; платежи с товарами загружаются
+     * вторым запросом и только при запросе поля {@code payments}. Пользователь и платежи, перенесённые
+     * в холодное хранилище, читаются из него.
+     *
+     * @param id     идентификатор пользователя.
+     * @param fields имена полей {@link UserResponseDto}.
+     * @return значения запрошенных полей в порядке запроса.
+     * @throws NotFoundException если пользователь не найден.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUserFieldsById(UUID id, List<String> fields) {
+        List<String> selectedFields = FieldSelectionSupport.parse(fields, SELECTABLE_FIELDS);
+        log.info("Получение полей {} пользователя с ID: {}", selectedFields, id);
+
+        List<String> attributes = FieldSelectionSupport.queryAttributes(selectedFields, Set.of(PAYMENTS_FIELD));
+        Map<String, Object> values = activeFilterSwitch.includingArchived(
+                        () -> fieldProjectionRepository.findById(User.class, id, attributes))
+                .or(() -> userRepository.findInColdStorageById(id)
+                        .map(user -> FieldSelectionSupport.attributes(user, attributes)))
+                .orElseThrow(() -> {
+                    log.error("Пользователь с ID: {} не найден", id);
+                    return new NotFoundException("Пользователь с id={0} не найден", id);
+                });
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        for (String field : selectedFields) {
+            response.put(field, PAYMENTS_FIELD.equals(field) ? findPaymentDtosByUserId(id) : values.get(field));
+        }
+        return response;
+    }
+
+    /**
+     * Получает сводку покупок пользователя одним поиском по первичному ключу {@code user_spend_summary}.
+     * Пользователь без активных платежей может не иметь сводки: тогда проверяется его существование,
+     * в том числе в холодном хранилище, и возвращается нулевая сводка.
+     *
+     * @param id идентификатор пользователя.
+     * @return {@link UserSpendSummaryResponseDto} пользователя.
+     * @throws NotFoundException если пользователь не найден.
+     */
+    @Override
+    public UserSpendSummaryResponseDto getUserSpendSummary(UUID id) {
+        log.info("Получение сводки покупок пользователя с ID: {}", id);
+
+        return userSpendSummaryRepository.findById(id)
+                .map(userMapper::toUserSpendSummaryResponseDto)
+                .orElseGet(() -> {
+                    if (!activeFilterSwitch.includingArchived(() -> userRepository.existsById(id))
+                            && userRepository.findInColdStorageById(id).isEmpty()) {
+                        log.error("Пользователь с ID: {} не найден", id);
+                        throw new NotFoundException("Пользователь с id={0} не найден", id);
+                    }
+                    return new UserSpendSummaryResponseDto(id, BigDecimal.ZERO, 0, null);
+                });
+    }
+
     /**
      * Обновляет данные существующего пользователя.
      *
@@ -112,6 +240,7 @@ public class UserServiceImpl implements UserService {
      * @throws NotFoundException если пользователь не найден.
      */
     @Override
+    @Transactional
     public UserResponseDto updateUserById(UUID id, UserRequestDto userRequestDto) {
         log.info("Обновление пользователя с ID: {} данными: {}", id, userRequestDto);
 
@@ -132,6 +261,7 @@ public class UserServiceImpl implements UserService {
      * @throws NotFoundException если пользователь не найден.
      */
     @Override
+    @Transactional
     public UserResponseDto archiveUserById(UUID id) {
         log.info("Архивирование пользователя с ID: {}", id);
 
@@ -148,6 +278,57 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserResponseDto(user);
     }
 
+    /**
+     * Архивирует пользователей по списку идентификаторов.
+     * Выполняет UPDATE порциями по {@code app.archive.chunk-size} без загрузки сущностей.
+     *
+     * @param ids идентификаторы пользователей.
+     * @return DTO с количеством архивированных записей.
+     */
+    @Override
+    public BulkArchiveResponseDto archiveUsersByIds(List<UUID> ids) {
+        log.info("Массовое архивирование пользователей, количество ID: {}", ids.size());
+
+        long archived = BulkArchiveSupport.archiveByIds(ids, archiveChunkSize,
+                chunk -> userRepository.archiveAllByIds(chunk.toArray(UUID[]::new)));
+
+        log.info("Архивировано пользователей: {} из {}", archived, ids.size());
+        return new BulkArchiveResponseDto(ids.size(), archived);
+    }
+
+    /**
+     * Архивирует всех активных пользователей, созданных раньше указанной даты.
+     * Выполняет UPDATE порциями по {@code app.archive.chunk-size}, пока не будет обработана последняя порция.
+     *
+     * @param createdBefore граница даты создания (не включительно).
+     * @return DTO с количеством архивированных записей.
+     */
+    @Override
+    public BulkArchiveResponseDto archiveUsersCreatedBefore(LocalDateTime createdBefore) {
+        log.info("Массовое архивирование пользователей, созданных до: {}", createdBefore);
+
+        long archived = BulkArchiveSupport.archiveWhileFull(archiveChunkSize,
+                () -> userRepository.archiveChunkCreatedBefore(createdBefore, archiveChunkSize));
+
+        log.info("Архивировано пользователей, созданных до {}: {}", createdBefore, archived);
+        return new BulkArchiveResponseDto(0, archived);
+    }
+
+    /**
+     * Загружает платежи пользователя вместе с товарами, в том числе из холодного хранилища,
+     * и преобразует их в DTO.
+     *
+     * @param userId идентификатор пользователя.
+     * @return платежи пользователя.
+     */
+    private List<PaymentResponseDto> findPaymentDtosByUserId(UUID userId) {
+        return Stream.concat(activeFilterSwitch.includingArchived(
+                                () -> paymentRepository.findAllWithGoodsByUserId(userId)).stream(),
+                        paymentRepository.findAllInColdStorageByUserId(userId).stream())
+                .map(paymentMapper::toPaymentResponseDto)
+                .toList();
+    }
+
     /**
      * Выполняет поиск пользователя по идентификатору.
      * Если пользователь не найден, выбрасывается {@link NotFoundException}.
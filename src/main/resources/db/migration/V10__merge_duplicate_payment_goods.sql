@@ -0,0 +1,15 @@
+-- Перед созданием ключа (payment_id, good_id) повторяющиеся позиции одного товара в платеже
+-- объединяются в одну с суммарным количеством
+WITH duplicates AS (SELECT payment_id, good_id, min(id) AS keep_id, sum(quantity) AS quantity
+                    FROM payment_goods
+                    GROUP BY payment_id, good_id
+                    HAVING count(*) > 1),
+     removed AS (DELETE FROM payment_goods pg
+         USING duplicates d
+         WHERE pg.payment_id = d.payment_id
+           AND pg.good_id = d.good_id
+           AND pg.id <> d.keep_id)
+UPDATE payment_goods pg
+SET quantity = d.quantity
+FROM duplicates d
+WHERE pg.id = d.keep_id;
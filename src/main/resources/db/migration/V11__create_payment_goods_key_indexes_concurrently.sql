@@ -0,0 +1,11 @@
+-- Индексы строятся без блокировки записи (CONCURRENTLY), поэтому миграция выполняется вне транзакции.
+-- Прерванное построение оставляет невалидный индекс: его нужно удалить (DROP INDEX CONCURRENTLY)
+-- и повторить миграцию.
+
+-- Будущий первичный ключ: загрузка позиций платежа
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS payment_goods_payment_id_good_id_key
+    ON payment_goods (payment_id, good_id);
+
+-- Обратный индекс: позиции с товаром и проверка внешнего ключа при удалении товара
+CREATE INDEX CONCURRENTLY IF NOT EXISTS payment_goods_good_id_payment_id_idx
+    ON payment_goods (good_id, payment_id);
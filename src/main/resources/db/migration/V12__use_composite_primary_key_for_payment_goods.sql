@@ -0,0 +1,6 @@
+-- Суррогатный ключ заменяется составным по готовому уникальному индексу: таблица не сканируется,
+-- блокировка удерживается только на время изменения метаданных
+ALTER TABLE payment_goods
+    DROP CONSTRAINT payment_goods_pkey,
+    DROP COLUMN id,
+    ADD CONSTRAINT payment_goods_pkey PRIMARY KEY USING INDEX payment_goods_payment_id_good_id_key;
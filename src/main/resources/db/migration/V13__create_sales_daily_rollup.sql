@@ -0,0 +1,28 @@
+-- Дата создания платежа задаётся БД; записи, созданные приложением без неё, получают дату покупки
+UPDATE payments
+SET created_at = coalesce(date_of_purchase, CURRENT_TIMESTAMP)
+WHERE created_at IS NULL;
+ALTER TABLE payments
+    ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP,
+    ALTER COLUMN created_at SET NOT NULL;
+
+-- Дневные агрегаты продаж по типу товара: выручка и количество единиц по активным платежам
+CREATE TABLE sales_daily_rollup
+(
+    sales_date DATE           NOT NULL,
+    good_type  SMALLINT       NOT NULL,
+    revenue    NUMERIC(16, 2) NOT NULL,
+    units      BIGINT         NOT NULL,
+    PRIMARY KEY (sales_date, good_type)
+);
+
+-- Водяные знаки инкрементального обновления агрегатов: платежи с created_at и archive_date
+-- не позже водяного знака уже учтены
+CREATE TABLE rollup_watermarks
+(
+    name      VARCHAR(64) PRIMARY KEY,
+    watermark TIMESTAMP   NOT NULL
+);
+
+INSERT INTO rollup_watermarks (name, watermark)
+VALUES ('sales_daily', '1970-01-01');
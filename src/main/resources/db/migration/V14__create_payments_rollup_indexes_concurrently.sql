@@ -0,0 +1,10 @@
+-- Индексы строятся без блокировки записи (CONCURRENTLY), поэтому миграция выполняется вне транзакции.
+
+-- Новые платежи после водяного знака
+CREATE INDEX CONCURRENTLY IF NOT EXISTS payments_created_at_idx
+    ON payments (created_at);
+
+-- Платежи, архивированные после водяного знака (корректировки агрегатов)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS payments_archive_date_idx
+    ON payments (archive_date)
+    WHERE archive_date IS NOT NULL;
@@ -0,0 +1,14 @@
+-- Сводка покупок пользователя по активным платежам: обновляется в транзакции изменения платежа
+CREATE TABLE user_spend_summary
+(
+    user_id            UUID PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    total_spend        NUMERIC(16, 2) NOT NULL DEFAULT 0,
+    payment_count      BIGINT         NOT NULL DEFAULT 0,
+    last_purchase_date TIMESTAMP
+);
+
+INSERT INTO user_spend_summary (user_id, total_spend, payment_count, last_purchase_date)
+SELECT user_id, sum(total_purchase_amount), count(*), max(date_of_purchase)
+FROM payments
+WHERE archive_date IS NULL
+GROUP BY user_id;
@@ -0,0 +1,65 @@
+-- HyperLogLog уникальных покупателей: 2048 регистров по байту (p = 11, стандартная ошибка около 2,3%).
+-- Номер регистра — старшие 11 бит первых 64 бит md5(user_id), ранг — позиция первой единицы в оставшихся
+-- 53 битах (54, если их нет). Те же правила реализует com.sber.democrud.analytics.HyperLogLog.
+
+-- Поднимает регистр idx до ранга rho; без изменения возвращает исходное значение без копирования
+CREATE FUNCTION hll_set(registers BYTEA, idx INT, rho INT) RETURNS BYTEA
+    LANGUAGE sql
+    IMMUTABLE
+    PARALLEL SAFE AS
+$$
+SELECT CASE WHEN get_byte(r, idx) >= rho THEN r ELSE set_byte(r, idx, rho) END
+FROM (SELECT coalesce(registers, decode(repeat('00', 2048), 'hex')) AS r) s
+$$;
+
+CREATE FUNCTION hll_add(registers BYTEA, user_id UUID) RETURNS BYTEA
+    LANGUAGE sql
+    IMMUTABLE
+    PARALLEL SAFE AS
+$$
+SELECT hll_set(registers,
+               ((h::BIGINT >> 53) & 2047)::INT,
+               coalesce(nullif(position('1' IN substring(h::TEXT FROM 12)), 0), 54))
+FROM (SELECT ('x' || left(md5(user_id::TEXT), 16))::BIT(64) AS h) s
+$$;
+
+CREATE AGGREGATE hll_agg(UUID) (SFUNC = hll_add, STYPE = BYTEA);
+
+-- Регистры по товару и дню покупки
+CREATE TABLE good_buyer_sketches
+(
+    good_id    BIGINT NOT NULL REFERENCES goods (id) ON DELETE CASCADE,
+    sales_date DATE   NOT NULL,
+    registers  BYTEA  NOT NULL,
+    PRIMARY KEY (good_id, sales_date)
+);
+
+-- Регистры по типу товара и дню покупки
+CREATE TABLE good_type_buyer_sketches
+(
+    good_type  SMALLINT NOT NULL,
+    sales_date DATE     NOT NULL,
+    registers  BYTEA    NOT NULL,
+    PRIMARY KEY (good_type, sales_date)
+);
+
+-- Регистры дня с небольшим числом покупателей почти нулевые: сжимаем их в строке таблицы уже от 128 байт
+ALTER TABLE good_buyer_sketches
+    ALTER COLUMN registers SET STORAGE MAIN,
+    SET (toast_tuple_target = 128);
+ALTER TABLE good_type_buyer_sketches
+    ALTER COLUMN registers SET STORAGE MAIN,
+    SET (toast_tuple_target = 128);
+
+INSERT INTO good_buyer_sketches (good_id, sales_date, registers)
+SELECT pg.good_id, CAST(p.created_at AS DATE), hll_agg(p.user_id)
+FROM payments p
+         JOIN payment_goods pg ON pg.payment_id = p.id
+GROUP BY 1, 2;
+
+INSERT INTO good_type_buyer_sketches (good_type, sales_date, registers)
+SELECT g.type, CAST(p.created_at AS DATE), hll_agg(DISTINCT p.user_id)
+FROM payments p
+         JOIN payment_goods pg ON pg.payment_id = p.id
+         JOIN goods g ON g.id = pg.good_id
+GROUP BY 1, 2;
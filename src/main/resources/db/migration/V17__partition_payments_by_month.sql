@@ -0,0 +1,155 @@
+-- Платежи и их позиции секционируются по месяцам даты покупки: индексы каждой секции ограничены
+-- её месяцем, запросы с условием по date_of_purchase читают только нужные секции.
+-- Дата покупки — ключ секционирования и не может быть пустой
+UPDATE payments
+SET date_of_purchase = created_at
+WHERE date_of_purchase IS NULL;
+
+-- Создаёт секции payments и payment_goods за месяц, если их ещё нет. Каждая секция создаётся отдельной
+-- таблицей с проверочным ограничением по границам месяца и присоединяется ATTACH PARTITION: родитель
+-- блокируется в режиме SHARE UPDATE EXCLUSIVE, который не мешает чтению и записи в другие секции,
+-- а проверка границ не сканирует таблицу. Ограничение после присоединения не нужно и удаляется.
+CREATE FUNCTION ensure_payment_partition(month DATE) RETURNS BOOLEAN
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    lower_bound TIMESTAMP := date_trunc('month', month);
+    upper_bound TIMESTAMP := date_trunc('month', month) + INTERVAL '1 month';
+    suffix      TEXT      := to_char(lower_bound, '"p"YYYY_MM');
+    parent      TEXT;
+    child       TEXT;
+BEGIN
+    IF to_regclass('payments_' || suffix) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    FOREACH parent IN ARRAY ARRAY ['payments', 'payment_goods']
+        LOOP
+            child := parent || '_' || suffix;
+            EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', child, parent);
+            EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (date_of_purchase >= %L AND date_of_purchase < %L)',
+                           child, child || '_bounds', lower_bound, upper_bound);
+            EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           parent, child, lower_bound, upper_bound);
+            EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', child, child || '_bounds');
+        END LOOP;
+    RETURN TRUE;
+END;
+$$;
+
+-- Платежи не копируются: покупки до начала текущего месяца остаются в старой таблице, и она присоединяется
+-- секцией payments_legacy. Копируются только платежи текущего и следующих месяцев. Позициям нужна дата
+-- покупки, поэтому они переписываются в любом случае: копирование в новую таблицу payment_goods_legacy
+-- быстрее обновления всех строк старой.
+-- Внешний ключ позиций на платежи пересоздаётся с датой покупки: уникальный ключ секционированной
+-- таблицы обязан включать ключ секционирования
+ALTER TABLE payment_goods
+    DROP CONSTRAINT good_id_to_payment_id_fk;
+ALTER TABLE payments
+    RENAME TO payments_legacy;
+ALTER TABLE payment_goods
+    RENAME TO payment_goods_unpartitioned;
+ALTER SEQUENCE payments_id_seq OWNED BY NONE;
+
+-- Индексы старой таблицы платежей совпадают с индексами секционированной и присоединяются к ним без
+-- перестроения; первичный ключ без даты покупки удаляется
+ALTER TABLE payments_legacy
+    DROP CONSTRAINT payments_pkey,
+    ALTER COLUMN date_of_purchase SET NOT NULL;
+ALTER INDEX idx_payment_user_id RENAME TO payments_legacy_user_id_idx;
+ALTER INDEX payments_created_at_idx RENAME TO payments_legacy_created_at_idx;
+ALTER INDEX payments_archive_date_idx RENAME TO payments_legacy_archive_date_idx;
+
+CREATE TABLE payments
+(
+    id                    BIGINT         NOT NULL DEFAULT nextval('payments_id_seq'),
+    user_id               UUID           NOT NULL,
+    date_of_purchase      TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    total_purchase_amount NUMERIC(10, 2) NOT NULL,
+    archive_date          TIMESTAMP,
+    created_at            TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at            TIMESTAMP               DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (date_of_purchase);
+ALTER SEQUENCE payments_id_seq OWNED BY payments.id;
+
+-- Дата покупки копируется из платежа, чтобы позиции лежали в секции того же месяца
+CREATE TABLE payment_goods
+(
+    payment_id       BIGINT         NOT NULL,
+    good_id          BIGINT         NOT NULL,
+    quantity         BIGINT         NOT NULL DEFAULT 1,
+    unit_price       NUMERIC(10, 2) NOT NULL,
+    date_of_purchase TIMESTAMP      NOT NULL
+) PARTITION BY RANGE (date_of_purchase);
+CREATE TABLE payment_goods_legacy
+(
+    LIKE payment_goods INCLUDING DEFAULTS
+);
+
+-- Секции от текущего месяца до трёх месяцев вперёд (или до месяца самой поздней покупки); дальше их создаёт
+-- приложение
+SELECT ensure_payment_partition(CAST(month AS DATE))
+FROM generate_series(date_trunc('month', localtimestamp),
+                     greatest(date_trunc('month', localtimestamp) + INTERVAL '3 months',
+                              (SELECT date_trunc('month', max(date_of_purchase)) FROM payments_legacy)),
+                     INTERVAL '1 month') month;
+
+INSERT INTO payment_goods_legacy (payment_id, good_id, quantity, unit_price, date_of_purchase)
+SELECT pg.payment_id, pg.good_id, pg.quantity, pg.unit_price, p.date_of_purchase
+FROM payment_goods_unpartitioned pg
+         JOIN payments_legacy p ON p.id = pg.payment_id
+WHERE p.date_of_purchase < date_trunc('month', localtimestamp);
+
+INSERT INTO payment_goods (payment_id, good_id, quantity, unit_price, date_of_purchase)
+SELECT pg.payment_id, pg.good_id, pg.quantity, pg.unit_price, p.date_of_purchase
+FROM payment_goods_unpartitioned pg
+         JOIN payments_legacy p ON p.id = pg.payment_id
+WHERE p.date_of_purchase >= date_trunc('month', localtimestamp);
+
+DROP TABLE payment_goods_unpartitioned;
+
+WITH moved AS (DELETE FROM payments_legacy
+    WHERE date_of_purchase >= date_trunc('month', localtimestamp)
+    RETURNING *)
+INSERT INTO payments (id, user_id, date_of_purchase, total_purchase_amount, archive_date, created_at, updated_at)
+SELECT id, user_id, date_of_purchase, total_purchase_amount, archive_date, created_at, updated_at
+FROM moved;
+
+-- Прошлые покупки присоединяются одной секцией от месяца первой покупки до текущего месяца. Присоединение
+-- проверяет границы чтением таблицы, без копирования. Пустые старые таблицы удаляются.
+DO
+$$
+DECLARE
+    lower_bound TIMESTAMP := (SELECT date_trunc('month', min(date_of_purchase)) FROM payments_legacy);
+    upper_bound TIMESTAMP := date_trunc('month', localtimestamp);
+BEGIN
+    IF lower_bound IS NULL THEN
+        DROP TABLE payment_goods_legacy;
+        DROP TABLE payments_legacy;
+    ELSE
+        EXECUTE format('ALTER TABLE payments ATTACH PARTITION payments_legacy FOR VALUES FROM (%L) TO (%L)',
+                       lower_bound, upper_bound);
+        EXECUTE format('ALTER TABLE payment_goods ATTACH PARTITION payment_goods_legacy FOR VALUES FROM (%L) TO (%L)',
+                       lower_bound, upper_bound);
+    END IF;
+END;
+$$;
+
+-- Ключи и индексы создаются после загрузки и наследуются всеми секциями, в том числе будущими. В секции
+-- payments_legacy строится только первичный ключ, остальные индексы и внешний ключ на пользователей
+-- присоединяются существующие
+ALTER TABLE payments
+    ADD CONSTRAINT payments_pkey PRIMARY KEY (id, date_of_purchase),
+    ADD CONSTRAINT fk_user_to_payments FOREIGN KEY (user_id) REFERENCES users (id);
+CREATE INDEX idx_payment_user_id ON payments (user_id);
+CREATE INDEX payments_created_at_idx ON payments (created_at);
+CREATE INDEX payments_archive_date_idx ON payments (archive_date) WHERE archive_date IS NOT NULL;
+
+ALTER TABLE payment_goods
+    ADD CONSTRAINT payment_goods_pkey PRIMARY KEY (payment_id, good_id, date_of_purchase),
+    ADD CONSTRAINT good_id_to_payment_id_fk FOREIGN KEY (payment_id, date_of_purchase)
+        REFERENCES payments (id, date_of_purchase),
+    ADD CONSTRAINT payment_id_to_good_id_fk FOREIGN KEY (good_id) REFERENCES goods (id),
+    ADD CONSTRAINT payment_goods_quantity_check CHECK (quantity > 0),
+    ADD CONSTRAINT payment_goods_unit_price_check CHECK (unit_price >= 0);
+CREATE INDEX payment_goods_good_id_payment_id_idx ON payment_goods (good_id, payment_id);
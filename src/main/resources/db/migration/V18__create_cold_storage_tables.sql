@@ -0,0 +1,40 @@
+-- Холодное хранилище: записи, архивированные давно, переносятся из рабочих таблиц и их индексов.
+-- Запись хранится одним документом JSONB: столбцы исходной строки, для платежа — и его позиции с названиями товаров.
+-- Документ длиннее ~2 КБ (платёж с большим числом позиций) сжимается и остаётся в самой строке (STORAGE MAIN),
+-- без обращения к TOAST-таблице при чтении.
+CREATE TABLE users_archive
+(
+    id           UUID PRIMARY KEY,
+    archive_date TIMESTAMP NOT NULL,
+    data         JSONB     NOT NULL
+);
+ALTER TABLE users_archive
+    ALTER COLUMN data SET STORAGE MAIN;
+
+CREATE TABLE goods_archive
+(
+    id           BIGINT PRIMARY KEY,
+    archive_date TIMESTAMP NOT NULL,
+    data         JSONB     NOT NULL
+);
+ALTER TABLE goods_archive
+    ALTER COLUMN data SET STORAGE MAIN;
+
+CREATE TABLE payments_archive
+(
+    id           BIGINT PRIMARY KEY,
+    user_id      UUID      NOT NULL,
+    archive_date TIMESTAMP NOT NULL,
+    data         JSONB     NOT NULL
+);
+ALTER TABLE payments_archive
+    ALTER COLUMN data SET STORAGE MAIN;
+CREATE INDEX payments_archive_user_id_idx ON payments_archive (user_id);
+
+-- Порции для переноса выбираются по дате архивации
+CREATE INDEX users_archive_date_idx ON users (archive_date) WHERE archive_date IS NOT NULL;
+CREATE INDEX goods_archive_date_idx ON goods (archive_date) WHERE archive_date IS NOT NULL;
+
+-- Оценки уникальных покупателей товара сохраняются после переноса товара в холодное хранилище
+ALTER TABLE good_buyer_sketches
+    DROP CONSTRAINT good_buyer_sketches_good_id_fkey;
@@ -0,0 +1,14 @@
+-- Индексы строятся без блокировки записи (CONCURRENTLY), поэтому миграция выполняется вне транзакции.
+-- Частичные индексы содержат только активные записи (условие совпадает с фильтром Hibernate "active"),
+-- поэтому их размер и стоимость поиска не растут с числом архивированных записей.
+
+-- Поиск активного пользователя по почте; полный индекс V2 дублирует уникальное ограничение users_email_key
+CREATE INDEX CONCURRENTLY IF NOT EXISTS users_active_email_idx
+    ON users (email)
+    WHERE archive_date IS NULL;
+DROP INDEX CONCURRENTLY IF EXISTS idx_user_email;
+
+-- Поиск активного товара по названию
+CREATE INDEX CONCURRENTLY IF NOT EXISTS goods_active_name_idx
+    ON goods (name)
+    WHERE archive_date IS NULL;
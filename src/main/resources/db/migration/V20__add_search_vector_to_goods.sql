@@ -0,0 +1,13 @@
+-- Полнотекстовый поиск по товарам: вектор названия (вес A) и описания (вес B) вычисляется БД при вставке
+-- и обновлении строки и хранится в таблице, поэтому при поиске не пересчитывается.
+-- to_tsvector приводит слова к нижнему регистру по локали БД, а в локали C кириллица не приводится,
+-- поэтому текст заранее приводится к нижнему регистру по правилам ICU (тем же выражением, что и запрос).
+-- Добавление столбца перезаписывает таблицу goods под исключительной блокировкой.
+ALTER TABLE goods
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', lower(coalesce(name, '') COLLATE "und-x-icu")), 'A') ||
+        setweight(to_tsvector('russian', lower(coalesce(description, '') COLLATE "und-x-icu")), 'B')
+        ) STORED;
+
+-- Операторы равенства smallint для GIN-индекса по вектору и типу товара
+CREATE EXTENSION IF NOT EXISTS btree_gin;
@@ -0,0 +1,6 @@
+-- Индекс строится без блокировки записи (CONCURRENTLY), поэтому миграция выполняется вне транзакции.
+-- Поиск с фильтром по типу пересекает совпадения слов запроса и типа в одном индексе;
+-- архивированные товары в поиск не попадают и в индекс не включаются.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS goods_active_search_idx
+    ON goods USING gin (search_vector, type)
+    WHERE archive_date IS NULL;
@@ -0,0 +1,2 @@
+-- Триграммы для поиска товаров по началу названия и по названию с опечатками
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
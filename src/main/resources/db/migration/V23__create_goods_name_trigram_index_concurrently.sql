@@ -0,0 +1,6 @@
+-- Индекс строится без блокировки записи (CONCURRENTLY), поэтому миграция выполняется вне транзакции.
+-- Триграммный индекс обслуживает поиск по началу названия (ILIKE 'префикс%') и по похожему слову в названии
+-- (оператор <%). Слова разбиваются на триграммы по локали БД: для кириллицы нужна локаль UTF-8, а не C.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS goods_active_name_trgm_idx
+    ON goods USING gin (name gin_trgm_ops)
+    WHERE archive_date IS NULL;
@@ -0,0 +1,9 @@
+-- Индексы строятся без блокировки записи (CONCURRENTLY), поэтому миграция выполняется вне транзакции.
+
+-- Порции для переноса в холодное хранилище выбираются по дате архивации
+CREATE INDEX CONCURRENTLY IF NOT EXISTS users_archive_date_idx
+    ON users (archive_date)
+    WHERE archive_date IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS goods_archive_date_idx
+    ON goods (archive_date)
+    WHERE archive_date IS NOT NULL;
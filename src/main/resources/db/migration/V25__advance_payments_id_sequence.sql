@@ -0,0 +1,4 @@
+-- V5 вставляет платежи с явными id и не сдвигает последовательность, поэтому первый платёж приложения
+-- получил бы уже занятый id. Последовательность сдвигается за наибольший id, если она ещё не впереди.
+SELECT setval('payments_id_seq', greatest((SELECT coalesce(max(id), 1) FROM payments),
+                                          (SELECT last_value FROM payments_id_seq)));
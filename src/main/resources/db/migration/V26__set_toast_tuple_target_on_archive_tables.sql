@@ -0,0 +1,10 @@
+-- Как и в V16, toast_tuple_target = 128: строка, которую PostgreSQL начал сжимать, сжимается целиком, а сжатый
+-- документ остаётся в самой строке (STORAGE MAIN из V18). Сжатие при вставке начинается только со строк длиннее
+-- ~2 КБ (TOAST_TUPLE_THRESHOLD, задаётся при сборке PostgreSQL), и toast_tuple_target этот порог не снижает:
+-- документ пользователя, товара или платежа с парой позиций хранится несжатым (проверено на PostgreSQL 15).
+ALTER TABLE users_archive
+    SET (toast_tuple_target = 128);
+ALTER TABLE goods_archive
+    SET (toast_tuple_target = 128);
+ALTER TABLE payments_archive
+    SET (toast_tuple_target = 128);
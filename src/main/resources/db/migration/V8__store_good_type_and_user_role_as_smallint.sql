@@ -0,0 +1,19 @@
+-- Тип товара и роль пользователя хранятся кодами smallint вместо строк
+-- (коды задаются в GoodTypesEnum и UserRolesEnum и не меняются)
+ALTER TABLE goods
+    ALTER COLUMN type TYPE SMALLINT USING CASE type
+                                              WHEN 'ELECTRONICS' THEN 1
+                                              WHEN 'CLOTHING' THEN 2
+                                              WHEN 'BOOKS' THEN 3
+                                              WHEN 'OTHER' THEN 4
+        END;
+ALTER TABLE goods
+    ADD CONSTRAINT goods_type_check CHECK (type BETWEEN 1 AND 4);
+
+ALTER TABLE users
+    ALTER COLUMN role TYPE SMALLINT USING CASE role
+                                              WHEN 'USER' THEN 1
+                                              WHEN 'ADMIN' THEN 2
+        END;
+ALTER TABLE users
+    ADD CONSTRAINT users_role_check CHECK (role BETWEEN 1 AND 2);
@@ -0,0 +1,16 @@
+-- Позиция платежа хранит количество и цену товара на момент покупки:
+-- выручка считается по одной таблице payment_goods без соединения с goods
+ALTER TABLE payment_goods
+    ADD COLUMN quantity   BIGINT NOT NULL DEFAULT 1,
+    ADD COLUMN unit_price NUMERIC(10, 2);
+
+-- Для существующих позиций цена на момент покупки неизвестна, берётся текущая цена товара
+UPDATE payment_goods pg
+SET unit_price = g.price
+FROM goods g
+WHERE g.id = pg.good_id;
+
+ALTER TABLE payment_goods
+    ALTER COLUMN unit_price SET NOT NULL,
+    ADD CONSTRAINT payment_goods_quantity_check CHECK (quantity > 0),
+    ADD CONSTRAINT payment_goods_unit_price_check CHECK (unit_price >= 0);
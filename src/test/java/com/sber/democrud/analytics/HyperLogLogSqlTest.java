@@ -0,0 +1,70 @@
+package com.sber.democrud.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тестовый класс для проверки совпадения SQL-функций {@code hll_add} и {@code hll_agg} с {@link HyperLogLog}.
+ * <p>
+ * Генератор данных пересчитывает оценки в SQL, а платежи обновляют их из Java, поэтому регистры, вычисленные
+ * обоими способами для одних и тех же пользователей, должны совпадать побайтно.
+ */
+@SpringBootTest
+public class HyperLogLogSqlTest {
+
+    /**
+     * Количество проверяемых идентификаторов.
+     */
+    private static final int USERS = 5_000;
+
+    /**
+     * Детерминированные идентификаторы пользователей: {@code md5} номера, приведённый к UUID.
+     */
+    private static final String USERS_SQL = "SELECT CAST(md5(CAST(i AS text)) AS uuid) AS user_id "
+            + "FROM generate_series(1, " + USERS + ") AS i";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * {@code hll_add(NULL, user_id)} поднимает ровно один регистр {@link HyperLogLog#registerIndex}
+     * до ранга {@link HyperLogLog#rank}.
+     */
+    @Test
+    void hllAddSetsSameRegisterAndRank() {
+        int[] checked = {0};
+        jdbcTemplate.query("SELECT user_id, hll_add(NULL, user_id) AS registers FROM (" + USERS_SQL + ") u", rs -> {
+            UUID userId = rs.getObject("user_id", UUID.class);
+            long hash = HyperLogLog.hash(userId);
+            byte[] expected = new byte[HyperLogLog.REGISTERS];
+            expected[HyperLogLog.registerIndex(hash)] = (byte) HyperLogLog.rank(hash);
+
+            assertThat(rs.getBytes("registers")).as("регистры пользователя %s", userId).isEqualTo(expected);
+            checked[0]++;
+        });
+
+        assertThat(checked[0]).isEqualTo(USERS);
+    }
+
+    /**
+     * Агрегат {@code hll_agg} даёт те же регистры, что и {@link HyperLogLog#add} для тех же пользователей.
+     */
+    @Test
+    void hllAggMatchesJavaRegisters() {
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        jdbcTemplate.query(USERS_SQL, rs -> {
+            hyperLogLog.add(rs.getObject("user_id", UUID.class));
+        });
+
+        byte[] registers = jdbcTemplate.queryForObject("SELECT hll_agg(user_id) FROM (" + USERS_SQL + ") u",
+                byte[].class);
+
+        assertThat(registers).isEqualTo(hyperLogLog.toByteArray());
+    }
+}
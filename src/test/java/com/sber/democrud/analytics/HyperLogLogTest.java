@@ -0,0 +1,76 @@
+package com.sber.democrud.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Тестовый класс для проверки оценки числа уникальных пользователей {@link HyperLogLog}.
+ */
+public class HyperLogLogTest {
+
+    /**
+     * Хеш, номер регистра и ранг совпадают с SQL-функцией {@code hll_add} для того же идентификатора.
+     */
+    @Test
+    void hashMatchesSqlFunction() {
+        long hash = HyperLogLog.hash(UUID.fromString("3f1b2c4d-0000-4000-8000-000000000001"));
+
+        assertThat(hash).isEqualTo(-3559399158642993726L);
+        assertThat(HyperLogLog.registerIndex(hash)).isEqualTo(1652);
+        assertThat(HyperLogLog.rank(hash)).isEqualTo(1);
+        assertThat(HyperLogLog.rank(0L)).isEqualTo(54);
+    }
+
+    /**
+     * Относительная ошибка оценки не превышает трёх стандартных ошибок на разных мощностях,
+     * повторные пользователи оценку не меняют.
+     */
+    @Test
+    void estimatesWithinThreeStandardErrors() {
+        Random random = new Random(42);
+        for (int cardinality : new int[]{10, 1_000, 10_000, 200_000}) {
+            HyperLogLog hyperLogLog = new HyperLogLog();
+            UUID[] users = new UUID[cardinality];
+            for (int i = 0; i < cardinality; i++) {
+                users[i] = new UUID(random.nextLong(), random.nextLong());
+                hyperLogLog.add(users[i]);
+            }
+            long estimate = hyperLogLog.estimate();
+            for (UUID user : users) {
+                hyperLogLog.add(user);
+            }
+
+            assertThat(hyperLogLog.estimate()).isEqualTo(estimate);
+            assertThat((double) estimate / cardinality)
+                    .isCloseTo(1.0, within(3 * HyperLogLog.STANDARD_ERROR));
+        }
+    }
+
+    /**
+     * Объединение регистров оценивает объединение множеств, общие пользователи не учитываются дважды.
+     */
+    @Test
+    void mergeEstimatesUnion() {
+        Random random = new Random(7);
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 30_000; i++) {
+            UUID user = new UUID(random.nextLong(), random.nextLong());
+            if (i < 20_000) {
+                first.add(user);
+            }
+            if (i >= 10_000) {
+                second.add(user);
+            }
+        }
+
+        first.merge(second.toByteArray());
+
+        assertThat(first.estimate() / 30_000.0).isCloseTo(1.0, within(3 * HyperLogLog.STANDARD_ERROR));
+    }
+}
@@ -0,0 +1,113 @@
+package com.sber.democrud.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тестовый класс для проверки сводки частых элементов {@link SpaceSavingSketch}
+ * и скользящего окна {@link SlidingWindowHeavyHitters}.
+ */
+public class SpaceSavingSketchTest {
+
+    /**
+     * На скошенном распределении истинный вес каждого ключа сводки лежит в интервале {@code [count - error, count]}
+     * с погрешностью не больше {@code total / capacity}, а все ключи с весом больше {@code total / capacity} найдены.
+     */
+    @Test
+    void estimatesStayWithinErrorBounds() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(100);
+        SplittableRandom random = new SplittableRandom(42);
+        Map<Long, Long> exact = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = (long) (Math.pow(random.nextDouble(), 4) * 10_000);
+            long weight = 1 + random.nextInt(3);
+            sketch.offer(key, weight);
+            exact.merge(key, weight, Long::sum);
+        }
+
+        List<SpaceSavingSketch.Counter> top = sketch.top(100);
+        assertThat(top).hasSize(100);
+        long bound = sketch.getTotal() / sketch.getCapacity();
+        for (SpaceSavingSketch.Counter counter : top) {
+            long actual = exact.get(counter.getKey());
+            assertThat(actual).isBetween(counter.getCount() - counter.getError(), counter.getCount());
+            assertThat(counter.getError()).isLessThanOrEqualTo(bound);
+        }
+        List<Long> heavy = exact.entrySet().stream()
+                .filter(entry -> entry.getValue() > bound)
+                .map(Map.Entry::getKey)
+                .toList();
+        assertThat(heavy).isNotEmpty();
+        assertThat(top).extracting(SpaceSavingSketch.Counter::getKey).containsAll(heavy);
+    }
+
+    /**
+     * Окно учитывает только сводки последних {@code window}; пока сводки не заполнены, оценка точна.
+     */
+    @Test
+    void slidingWindowDropsExpiredBuckets() {
+        MutableClock clock = new MutableClock();
+        SlidingWindowHeavyHitters window = new SlidingWindowHeavyHitters(3, Duration.ofMinutes(4), 4, clock);
+
+        window.offer(Map.of(1L, 10L, 2L, 5L));
+        clock.advance(Duration.ofMinutes(1));
+        window.offer(Map.of(3L, 7L));
+        window.offer(Map.of(2L, 1L));
+
+        List<SlidingWindowHeavyHitters.HeavyHitter> top = window.top(3);
+        assertThat(top).extracting(SlidingWindowHeavyHitters.HeavyHitter::key).containsExactly(1L, 3L, 2L);
+        for (SlidingWindowHeavyHitters.HeavyHitter hitter : top) {
+            long actual = Map.of(1L, 10L, 2L, 6L, 3L, 7L).get(hitter.key());
+            assertThat(actual).isEqualTo(hitter.count());
+            assertThat(hitter.error()).isZero();
+        }
+        assertThat(window.total()).isEqualTo(23);
+
+        // Первая сводка выходит из окна через четыре минуты после начала
+        clock.advance(Duration.ofMinutes(3));
+        assertThat(window.top(3)).extracting(SlidingWindowHeavyHitters.HeavyHitter::key).containsExactly(3L, 2L);
+        assertThat(window.total()).isEqualTo(8);
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(window.top(3)).isEmpty();
+    }
+
+    /**
+     * Переставляемые часы для проверки сдвига окна.
+     */
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-12-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
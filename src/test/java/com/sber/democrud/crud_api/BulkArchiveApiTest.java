@@ -0,0 +1,256 @@
+package com.sber.democrud.crud_api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.dto.PaymentGoodRequestDto;
+import com.sber.democrud.dto.PaymentRequestDto;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.User;
+import com.sber.democrud.entity.UserRolesEnum;
+import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.PaymentRepository;
+import com.sber.democrud.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тестовый класс для проверки массовой архивации пользователей, товаров и платежей
+ * по списку идентификаторов и по дате создания.
+ * <p>
+ * Записи для архивации по дате создания получают дату создания 2000 года, раньше которой в БД записей нет.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BulkArchiveApiTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private static final String CREATED_BEFORE = "2000-06-01T00:00:00";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GoodRepository goodRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private final List<UUID> userIds = new ArrayList<>();
+
+    private final List<Long> paymentIds = new ArrayList<>();
+
+    private Good good;
+
+    /**
+     * Создание товара для платежей.
+     */
+    @BeforeAll
+    void setup() {
+        good = new Good();
+        good.setName("Bulk Archive Good");
+        good.setType(GoodTypesEnum.OTHER);
+        good.setDescription("Description");
+        good.setPrice(BigDecimal.valueOf(100));
+        good.setStockQuantity(10L);
+        good = goodRepository.save(good);
+    }
+
+    /**
+     * Удаление тестовых записей.
+     */
+    @AfterAll
+    void cleanup() {
+        paymentRepository.deleteAllById(paymentIds);
+        userRepository.deleteAllById(userIds);
+        goodRepository.deleteById(good.getId());
+    }
+
+    /**
+     * Тест массовой архивации пользователей по списку идентификаторов.
+     */
+    @Test
+    void testArchiveUsersByIds() throws Exception {
+        User user = saveUser("bulk-ids");
+
+        archiveByIds("/api/users", List.of(user.getId(), UUID.randomUUID()), 2, 1);
+        archiveByIds("/api/users", List.of(user.getId()), 1, 0);
+        assertArchived("users", user.getId());
+    }
+
+    /**
+     * Тест массовой архивации пользователей по дате создания.
+     */
+    @Test
+    void testArchiveUsersCreatedBefore() throws Exception {
+        User oldUser = saveUser("bulk-old");
+        User newUser = saveUser("bulk-new");
+        backdate("users", oldUser.getId());
+
+        archiveCreatedBefore("/api/users", 1);
+        assertArchived("users", oldUser.getId());
+        assertThat(archiveDate("users", newUser.getId())).isNull();
+    }
+
+    /**
+     * Тест массовой архивации товаров по дате создания.
+     */
+    @Test
+    void testArchiveGoodsCreatedBefore() throws Exception {
+        Long goodId = jdbcTemplate.queryForObject("""
+                INSERT INTO goods (name, type, description, price, stock_quantity, created_at)
+                VALUES ('Bulk Archive Old Good', ?, 'Description', 1, 1, ?)
+                RETURNING id
+                """, Long.class, GoodTypesEnum.OTHER.getCode(), CREATED_AT);
+        try {
+            archiveCreatedBefore("/api/goods", 1);
+            assertArchived("goods", goodId);
+            assertThat(archiveDate("goods", good.getId())).isNull();
+        } finally {
+            goodRepository.deleteById(goodId);
+        }
+    }
+
+    /**
+     * Тест массовой архивации платежей по дате создания: архивированные платежи вычитаются из сводки покупок.
+     */
+    @Test
+    void testArchivePaymentsCreatedBefore() throws Exception {
+        User user = saveUser("bulk-payments");
+        Long oldPaymentId = createPayment(user);
+        Long newPaymentId = createPayment(user);
+        backdate("payments", oldPaymentId);
+
+        archiveCreatedBefore("/api/payments", 1);
+        assertArchived("payments", oldPaymentId);
+        assertThat(archiveDate("payments", newPaymentId)).isNull();
+        mockMvc.perform(get("/api/users/{id}/summary", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSpend").value(100))
+                .andExpect(jsonPath("$.paymentCount").value(1));
+    }
+
+    /**
+     * Тест архивации по дате создания параллельно с другой транзакцией: заблокированный товар пропускается
+     * без ожидания, и дата, записанная другой транзакцией, не перезаписывается.
+     */
+    @Test
+    void testArchiveChunkSkipsLockedRows() throws Exception {
+        Long goodId = jdbcTemplate.queryForObject("""
+                INSERT INTO goods (name, type, description, price, stock_quantity, created_at)
+                VALUES ('Bulk Archive Locked Good', ?, 'Description', 1, 1, ?)
+                RETURNING id
+                """, Long.class, GoodTypesEnum.OTHER.getCode(), CREATED_AT);
+        try {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "UPDATE goods SET archive_date = ? WHERE id = ?")) {
+                    statement.setObject(1, CREATED_AT);
+                    statement.setLong(2, goodId);
+                    statement.executeUpdate();
+                }
+
+                assertThat(goodRepository.archiveChunkCreatedBefore(LocalDateTime.parse(CREATED_BEFORE), 10))
+                        .isZero();
+                connection.commit();
+            }
+            assertThat(archiveDate("goods", goodId)).isEqualTo(CREATED_AT);
+        } finally {
+            goodRepository.deleteById(goodId);
+        }
+    }
+
+    private void archiveByIds(String path, List<?> ids, int requested, int archived) throws Exception {
+        mockMvc.perform(post(path + "/archive/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(requested))
+                .andExpect(jsonPath("$.archived").value(archived));
+    }
+
+    private void archiveCreatedBefore(String path, int archived) throws Exception {
+        mockMvc.perform(post(path + "/archive/bulk/created-before").param("date", CREATED_BEFORE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archived").value(archived));
+    }
+
+    private void backdate(String table, Object id) {
+        jdbcTemplate.update("UPDATE " + table + " SET created_at = ? WHERE id = ?", CREATED_AT, id);
+    }
+
+    private LocalDateTime archiveDate(String table, Object id) {
+        return jdbcTemplate.queryForObject("SELECT archive_date FROM " + table + " WHERE id = ?",
+                LocalDateTime.class, id);
+    }
+
+    private void assertArchived(String table, Object id) {
+        assertThat(archiveDate(table, id)).isNotNull();
+    }
+
+    private User saveUser(String login) {
+        User user = new User();
+        user.setName("Bulk Archive User");
+        user.setLogin(login);
+        user.setPassword("password123");
+        user.setEmail(login + "@example.com");
+        user.setRole(UserRolesEnum.USER);
+        user = userRepository.save(user);
+        userIds.add(user.getId());
+        return user;
+    }
+
+    private Long createPayment(User user) throws Exception {
+        PaymentGoodRequestDto goodRequest = new PaymentGoodRequestDto();
+        goodRequest.setGoodId(good.getId());
+        goodRequest.setQuantity(1L);
+        PaymentRequestDto request = new PaymentRequestDto();
+        request.setUserId(user.getId());
+        request.setGoods(List.of(goodRequest));
+        String response = mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(response).get("id").asLong();
+        paymentIds.add(id);
+        return id;
+    }
+}
@@ -0,0 +1,232 @@
+package com.sber.democrud.crud_api;
+
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.Payment;
+import com.sber.democrud.entity.User;
+import com.sber.democrud.entity.UserRolesEnum;
+import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.HotTableVacuumRepository;
+import com.sber.democrud.repository.PaymentRepository;
+import com.sber.democrud.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тестовый класс для проверки переноса давно архивированных записей в холодное хранилище.
+ * <p>
+ * Пользователь, товар и платёж архивируются датой 2000 года и переносятся вызовами репозиториев,
+ * после чего проверяется, что записи исчезли из рабочих таблиц, но по-прежнему доступны через API.
+ */
+@SpringBootTest(properties = "app.cold-storage.enabled=false")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ColdStorageApiTest {
+
+    private static final LocalDateTime ARCHIVE_DATE = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private static final int CHUNK_SIZE = 100;
+
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GoodRepository goodRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private HotTableVacuumRepository vacuumRepository;
+
+    private UUID userId;
+
+    private Long goodId;
+
+    private Long paymentId;
+
+    /**
+     * Загрузка архивированных записей и перенос их в холодное хранилище.
+     */
+    @BeforeAll
+    void setup() {
+        userId = jdbcTemplate.queryForObject("""
+                INSERT INTO users (name, login, password, email, role, archive_date)
+                VALUES ('Cold User', 'cold-user', 'password123', 'cold-user@example.com', ?, ?)
+                RETURNING id
+                """, UUID.class, UserRolesEnum.USER.getCode(), ARCHIVE_DATE);
+        goodId = jdbcTemplate.queryForObject("""
+                INSERT INTO goods (name, type, description, price, stock_quantity, archive_date)
+                VALUES ('Cold Good', ?, 'Cold Description', 12.50, 10, ?)
+                RETURNING id
+                """, Long.class, GoodTypesEnum.BOOKS.getCode(), ARCHIVE_DATE);
+        paymentId = jdbcTemplate.queryForObject("""
+                INSERT INTO payments (user_id, total_purchase_amount, archive_date)
+                VALUES (?, 25.00, ?)
+                RETURNING id
+                """, Long.class, userId, ARCHIVE_DATE);
+        jdbcTemplate.update("""
+                INSERT INTO payment_goods (payment_id, good_id, quantity, unit_price, date_of_purchase)
+                SELECT id, ?, 2, 12.50, date_of_purchase
+                FROM payments
+                WHERE id = ?
+                """, goodId, paymentId);
+
+        LocalDateTime archivedBefore = ARCHIVE_DATE.plusDays(1);
+        assertThat(paymentRepository.moveToColdStorage(archivedBefore, CHUNK_SIZE)).isEqualTo(1);
+        assertThat(userRepository.moveToColdStorage(archivedBefore, CHUNK_SIZE)).isEqualTo(1);
+        assertThat(goodRepository.moveToColdStorage(archivedBefore, CHUNK_SIZE)).isEqualTo(1);
+    }
+
+    /**
+     * Очистка холодного хранилища после выполнения всех тестов.
+     */
+    @AfterAll
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM payments_archive WHERE id = ?", paymentId);
+        jdbcTemplate.update("DELETE FROM users_archive WHERE id = ?", userId);
+        jdbcTemplate.update("DELETE FROM goods_archive WHERE id = ?", goodId);
+    }
+
+    /**
+     * Тест удаления перенесённых записей из рабочих таблиц.
+     */
+    @Test
+    void testMovedRowsLeaveHotTables() {
+        assertThat(userRepository.existsById(userId)).isFalse();
+        assertThat(goodRepository.existsById(goodId)).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM payments WHERE id = ?", Long.class, paymentId))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM payment_goods WHERE payment_id = ?", Long.class,
+                paymentId)).isZero();
+    }
+
+    /**
+     * Тест получения платежа из холодного хранилища вместе с позициями.
+     */
+    @Test
+    void testGetPaymentFromColdStorage() throws Exception {
+        mockMvc.perform(get("/api/payments/{id}", paymentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(userId.toString()))
+                .andExpect(jsonPath("$.totalPurchaseAmount").value(25.0))
+                .andExpect(jsonPath("$.archiveDate").exists())
+                .andExpect(jsonPath("$.goods", hasSize(1)))
+                .andExpect(jsonPath("$.goods[0].goodId").value(goodId))
+                .andExpect(jsonPath("$.goods[0].name").value("Cold Good"))
+                .andExpect(jsonPath("$.goods[0].quantity").value(2))
+                .andExpect(jsonPath("$.goods[0].unitPrice").value(12.5));
+    }
+
+    /**
+     * Тест получения пользователя из холодного хранилища вместе с перенесёнными платежами.
+     */
+    @Test
+    void testGetUserFromColdStorage() throws Exception {
+        mockMvc.perform(get("/api/users/{id}", userId).param("includePayments", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.login").value("cold-user"))
+                .andExpect(jsonPath("$.payments", hasSize(1)))
+                .andExpect(jsonPath("$.payments[0].id").value(paymentId));
+
+        mockMvc.perform(get("/api/users/{id}", userId).param("fields", "email,payments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("cold-user@example.com"))
+                .andExpect(jsonPath("$.payments", hasSize(1)));
+
+        mockMvc.perform(get("/api/users/{id}/summary", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paymentCount").value(0));
+    }
+
+    /**
+     * Тест получения товара из холодного хранилища.
+     */
+    @Test
+    void testGetGoodFromColdStorage() throws Exception {
+        mockMvc.perform(get("/api/goods/{id}", goodId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Cold Good"))
+                .andExpect(jsonPath("$.description").value("Cold Description"))
+                .andExpect(jsonPath("$.price").value(12.5));
+
+        mockMvc.perform(get("/api/goods/{id}", goodId).param("fields", "name,price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Cold Good"))
+                .andExpect(jsonPath("$.price").value(12.5));
+    }
+
+    /**
+     * Тест постраничного поиска архивированных записей в рабочих таблицах и холодном хранилище.
+     */
+    @Test
+    void testFindArchivedIncludesColdStorage() {
+        assertThat(userRepository.findByArchiveDateIsNotNull(null, 1)).hasSize(1);
+        assertThat(allPages(userRepository::findByArchiveDateIsNotNull, User::getId))
+                .extracting(User::getId)
+                .doesNotHaveDuplicates()
+                .contains(userId);
+        assertThat(allPages(goodRepository::findByArchiveDateIsNotNull, Good::getId))
+                .extracting(Good::getId)
+                .doesNotHaveDuplicates()
+                .contains(goodId);
+        assertThat(allPages(paymentRepository::findByArchiveDateIsNotNull, Payment::getId))
+                .filteredOn(payment -> payment.getId().equals(paymentId))
+                .singleElement()
+                .satisfies(payment -> assertThat(payment.getArchiveDate()).isEqualTo(ARCHIVE_DATE))
+                .extracting(Payment::getGoods)
+                .satisfies(goods -> assertThat(goods).hasSize(1));
+    }
+
+    /**
+     * Тест очистки рабочих таблиц после переноса: {@code VACUUM} выполняется вне транзакции, другие таблицы
+     * не принимаются.
+     */
+    @Test
+    void testVacuumHotTables() {
+        for (String table : List.of("users", "goods", "payments", "payment_goods")) {
+            vacuumRepository.vacuum(table);
+        }
+        assertThatThrownBy(() -> vacuumRepository.vacuum("users_archive"))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static <T, K> List<T> allPages(BiFunction<K, Integer, List<T>> findPage, Function<T, K> id) {
+        List<T> all = new ArrayList<>();
+        List<T> page = findPage.apply(null, PAGE_SIZE);
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            page = findPage.apply(id.apply(page.get(page.size() - 1)), PAGE_SIZE);
+        }
+        return all;
+    }
+}
@@ -1,7 +1,9 @@
 package com.sber.democrud.crud_api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.sber.democrud.dto.GoodRequestDto;
+import com.sber.democrud.dto.GoodResponseDto;
 import com.sber.democrud.entity.Good;
 import com.sber.democrud.entity.GoodTypesEnum;
 import com.sber.democrud.repository.GoodRepository;
@@ -14,11 +16,15 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -146,6 +152,31 @@ public class GoodCrudApiTest {
                 .andExpect(jsonPath("$.stockQuantity").value(testGood.getStockQuantity()));
     }
 
+    /**
+     * Тест для проверки выборки отдельных полей товара через {@code ?fields=}.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testGetGoodFieldsById() throws Exception {
+        mockMvc.perform(get(PATH + "/{id}", testGood.getId()).param("fields", "name, price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.*", hasSize(2)))
+                .andExpect(jsonPath("$.name").value(testGood.getName()))
+                .andExpect(jsonPath("$.price").value(testGood.getPrice()))
+                .andExpect(jsonPath("$.description").doesNotExist());
+
+        mockMvc.perform(get(PATH + "/{id}", testGood.getId()).param("fields", "type"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value(testGood.getType().getValue()));
+
+        mockMvc.perform(get(PATH + "/{id}", testGood.getId()).param("fields", "unknown"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(PATH + "/{id}", 9999).param("fields", "name"))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * Тест для проверки обновления товара по его идентификатору.
      *
@@ -194,6 +225,83 @@ public class GoodCrudApiTest {
         assertThat(archivedGood.getArchiveDate()).isNotNull();
     }
 
+    /**
+     * Тест для проверки массовой архивации товаров по списку идентификаторов.
+     * <p>Повторная архивация тех же товаров не должна изменять записи.</p>
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testArchiveGoodsByIds() throws Exception {
+        Good bulkGood = new Good();
+        bulkGood.setName("Bulk Good");
+        bulkGood.setType(GoodTypesEnum.OTHER);
+        bulkGood.setDescription("Bulk Good description");
+        bulkGood.setPrice(BigDecimal.valueOf(10.50));
+        bulkGood.setStockQuantity(3L);
+        bulkGood = goodRepository.save(bulkGood);
+
+        String body = objectMapper.writeValueAsString(List.of(bulkGood.getId(), 9999L));
+        mockMvc.perform(post(PATH + "/archive/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(2))
+                .andExpect(jsonPath("$.archived").value(1));
+
+        mockMvc.perform(post(PATH + "/archive/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archived").value(0));
+
+        Good archivedGood = goodRepository.findById(bulkGood.getId()).orElseThrow();
+        assertThat(archivedGood.getArchiveDate()).isNotNull();
+
+        goodRepository.delete(archivedGood);
+    }
+
+    /**
+     * Тест для проверки обмена данными в формате CBOR.
+     * <p>Сценарий: создание товара с телом запроса в CBOR и получение его с заголовком {@code Accept: application/cbor}.</p>
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testCreateAndGetGoodInCbor() throws Exception {
+        ObjectMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+        GoodRequestDto goodRequest = new GoodRequestDto();
+        goodRequest.setName("Kindle");
+        goodRequest.setType("ELECTRONICS");
+        goodRequest.setDescription("E-book reader");
+        goodRequest.setPrice(BigDecimal.valueOf(149.99));
+        goodRequest.setStockQuantity(7L);
+
+        MvcResult created = mockMvc.perform(post(PATH)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(goodRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        GoodResponseDto createdGood = cborMapper.readValue(
+                created.getResponse().getContentAsByteArray(), GoodResponseDto.class);
+        assertThat(createdGood.getName()).isEqualTo("Kindle");
+        assertThat(createdGood.getPrice()).isEqualByComparingTo("149.99");
+
+        MvcResult found = mockMvc.perform(get(PATH + "/{id}", createdGood.getId())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        GoodResponseDto foundGood = cborMapper.readValue(
+                found.getResponse().getContentAsByteArray(), GoodResponseDto.class);
+        assertThat(foundGood.getId()).isEqualTo(createdGood.getId());
+        assertThat(foundGood.getType()).isEqualTo("ELECTRONICS");
+
+        goodRepository.deleteById(createdGood.getId());
+    }
+
     /**
      * Тест для проверки обработки ситуации, когда товар с указанным идентификатором не найден.
      *
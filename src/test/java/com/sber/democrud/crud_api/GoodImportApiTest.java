@@ -0,0 +1,162 @@
+package com.sber.democrud.crud_api;
+
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.repository.GoodRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тестовый класс для проверки импорта товаров из CSV.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class GoodImportApiTest {
+
+    private static final String PATH = "/api/goods/import";
+
+    private static final String CSV_TYPE = "text/csv";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GoodRepository goodRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long existingId;
+
+    /**
+     * Создание товара, который обновляется импортом.
+     */
+    @BeforeAll
+    void setup() {
+        Good good = new Good();
+        good.setName("Import Existing");
+        good.setType(GoodTypesEnum.OTHER);
+        good.setDescription("Old description");
+        good.setPrice(BigDecimal.ONE);
+        good.setStockQuantity(1L);
+        existingId = goodRepository.save(good).getId();
+    }
+
+    /**
+     * Удаление импортированных товаров.
+     */
+    @AfterAll
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM goods WHERE name LIKE 'Import %'");
+    }
+
+    /**
+     * Тест импорта: новые товары добавляются, существующие обновляются, строки с ошибками пропускаются
+     * и возвращаются с номерами строк.
+     */
+    @Test
+    void testImportGoods() throws Exception {
+        String csv = """
+                name,type,description,price,stock_quantity
+                Import New,BOOKS,"Description, with comma
+                and line break",15.50,7
+                Import Existing,ELECTRONICS,New description,99.99,3
+                ,BOOKS,No name,1,1
+                Import Bad Type,FOOD,Description,1,1
+                Import Bad Price,BOOKS,Description,0,1
+                Import Bad Numbers,BOOKS,Description,12.345,-1
+                Import Duplicate,BOOKS,First,1,1
+                Import Duplicate,BOOKS,Second,2,2
+                """;
+
+        mockMvc.perform(post(PATH).contentType(CSV_TYPE).content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(8))
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.failed").value(5))
+                .andExpect(jsonPath("$.errors", hasSize(5)))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("name: не должно быть пустым"))
+                .andExpect(jsonPath("$.errors[1].row").value(4))
+                .andExpect(jsonPath("$.errors[1].message").value("type: неизвестный тип товара FOOD"))
+                .andExpect(jsonPath("$.errors[2].message").value("price: Цена должна быть больше 0"))
+                .andExpect(jsonPath("$.errors[3].message").value(startsWith(
+                        "price: Цена должна быть действительным денежным значением; stockQuantity:")))
+                .andExpect(jsonPath("$.errors[4].row").value(7))
+                .andExpect(jsonPath("$.errors[4].message").value("name: повторяется в строке 8"));
+
+        Good existing = goodRepository.findById(existingId).orElseThrow();
+        assertThat(existing.getType()).isEqualTo(GoodTypesEnum.ELECTRONICS);
+        assertThat(existing.getDescription()).isEqualTo("New description");
+        assertThat(existing.getPrice()).isEqualByComparingTo("99.99");
+        assertThat(goodRepository.findByName("Import New"))
+                .hasValueSatisfying(good -> assertThat(good.getDescription()).contains("\n"));
+        assertThat(goodRepository.findByName("Import Duplicate"))
+                .hasValueSatisfying(good -> assertThat(good.getDescription()).isEqualTo("Second"));
+        assertThat(goodRepository.findByName("Import Bad Type")).isEmpty();
+    }
+
+    /**
+     * Тест импорта файла с нарушенной структурой CSV: такие записи возвращаются как строки с ошибками,
+     * а остальные строки файла импортируются.
+     */
+    @Test
+    void testImportMalformedCsv() throws Exception {
+        mockMvc.perform(post(PATH).contentType(CSV_TYPE).content("""
+                        name,type,description,price,stock_quantity
+                        Import Before Broken,BOOKS,Description,1,1
+                        Import Bro"ken,BOOKS,Description,1,1
+                        Import Extra Column,BOOKS,Description,1,1,1
+                        Import After Broken,BOOKS,"Quoted ""description""\",1,1
+                        Import Unterminated,BOOKS,"Description,1,1
+                        Import Swallowed,BOOKS,Description,1,1
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(5))
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value(startsWith("строка: некорректный CSV")))
+                .andExpect(jsonPath("$.errors[1].row").value(3))
+                .andExpect(jsonPath("$.errors[1].name").value("Import Extra Column"))
+                .andExpect(jsonPath("$.errors[1].message").value("строка: ожидается 5 значений, получено 6"))
+                .andExpect(jsonPath("$.errors[2].row").value(5))
+                .andExpect(jsonPath("$.errors[2].message").value(startsWith("строка: некорректный CSV")));
+
+        assertThat(goodRepository.findByName("Import Before Broken")).isPresent();
+        assertThat(goodRepository.findByName("Import After Broken"))
+                .hasValueSatisfying(good -> assertThat(good.getDescription()).isEqualTo("Quoted \"description\""));
+        assertThat(goodRepository.findByName("Import Swallowed")).isEmpty();
+    }
+
+    /**
+     * Тест ответа 400 на файл не в кодировке UTF-8.
+     */
+    @Test
+    void testImportNotUtf8() throws Exception {
+        byte[] csv = "name,type,description,price,stock_quantity\nImport Latin1,BOOKS,Caf\u00e9,1,1\n"
+                .getBytes(StandardCharsets.ISO_8859_1);
+        mockMvc.perform(post(PATH).contentType(CSV_TYPE).content(csv))
+                .andExpect(status().isBadRequest());
+        assertThat(goodRepository.findByName("Import Latin1")).isEmpty();
+    }
+}
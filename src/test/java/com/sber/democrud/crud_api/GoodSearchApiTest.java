@@ -0,0 +1,163 @@
+package com.sber.democrud.crud_api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.GoodSearchRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тестовый класс для проверки полнотекстового поиска товаров.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class GoodSearchApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GoodRepository goodRepository;
+
+    @Autowired
+    private GoodSearchRepository goodSearchRepository;
+
+    private final List<Long> goodIds = new ArrayList<>();
+
+    private Long titleMatchId;
+
+    private Long descriptionMatchId;
+
+    private Long bookId;
+
+    /**
+     * Создание товаров, содержащих искомое слово в названии, в описании и архивированного товара.
+     */
+    @BeforeAll
+    void setup() {
+        titleMatchId = save("Квазарный телескоп", GoodTypesEnum.ELECTRONICS, "Оптика для наблюдений", null);
+        descriptionMatchId = save("Штатив", GoodTypesEnum.ELECTRONICS, "Подходит для квазарных телескопов", null);
+        bookId = save("Телескопы", GoodTypesEnum.BOOKS, "Справочник любителя астрономии", null);
+        save("Квазарный телескоп", GoodTypesEnum.ELECTRONICS, "Снят с продажи", LocalDateTime.now());
+    }
+
+    /**
+     * Удаление тестовых товаров.
+     */
+    @AfterAll
+    void cleanup() {
+        goodRepository.deleteAllById(goodIds);
+    }
+
+    /**
+     * Тест ранжирования: совпадение в названии выше совпадения в описании, архивированные товары не находятся.
+     */
+    @Test
+    void testSearchRanksTitleMatchesFirst() throws Exception {
+        mockMvc.perform(get("/api/goods/search").param("q", "квазарный телескоп"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(titleMatchId))
+                .andExpect(jsonPath("$.items[0].name").value("Квазарный телескоп"))
+                .andExpect(jsonPath("$.items[0].type").value("ELECTRONICS"))
+                .andExpect(jsonPath("$.items[1].id").value(descriptionMatchId))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    /**
+     * Тест фильтра по типу товара.
+     */
+    @Test
+    void testSearchByType() throws Exception {
+        mockMvc.perform(get("/api/goods/search").param("q", "телескоп").param("type", "BOOKS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(bookId));
+    }
+
+    /**
+     * Тест постраничного обхода результатов по курсору.
+     */
+    @Test
+    void testSearchPagination() throws Exception {
+        List<Long> found = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/goods/search").param("q", "телескоп").param("limit", "1");
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> found.add(item.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(found).containsExactly(titleMatchId, bookId, descriptionMatchId);
+    }
+
+    /**
+     * Тест ограничения числа ранжируемых совпадений: из трёх найденных товаров ранжируются только два.
+     */
+    @Test
+    void testSearchRanksBoundedCandidates() {
+        assertThat(goodSearchRepository.search("телескоп", null, null, null, 2, 10))
+                .hasSize(2)
+                .allSatisfy(row -> assertThat(row.get("id")).isIn(titleMatchId, descriptionMatchId, bookId));
+        assertThat(goodSearchRepository.search("телескоп", null, null, null, 500, 10)).hasSize(3);
+    }
+
+    /**
+     * Тест ответа 400 на некорректные параметры поиска.
+     */
+    @Test
+    void testSearchBadRequest() throws Exception {
+        mockMvc.perform(get("/api/goods/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/goods/search").param("q", "телескоп").param("type", "FOOD"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/goods/search").param("q", "телескоп").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/goods/search").param("q", "телескоп").param("after", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long save(String name, GoodTypesEnum type, String description, LocalDateTime archiveDate) {
+        Good good = new Good();
+        good.setName(name);
+        good.setType(type);
+        good.setDescription(description);
+        good.setPrice(BigDecimal.TEN);
+        good.setStockQuantity(1L);
+        good.setArchiveDate(archiveDate);
+        Long id = goodRepository.save(good).getId();
+        goodIds.add(id);
+        return id;
+    }
+}
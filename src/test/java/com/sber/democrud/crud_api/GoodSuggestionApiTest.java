@@ -0,0 +1,168 @@
+package com.sber.democrud.crud_api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.dto.GoodRequestDto;
+import com.sber.democrud.dto.GoodResponseDto;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.repository.GoodRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тестовый класс для проверки подсказок по началу названия и по похожему названию товара.
+ * <p>
+ * Префикс {@code zep} короче {@code app.search.prefix-index-max-length}, поэтому его результаты хранятся в памяти;
+ * проверяется, что создание, изменение и архивация товара сразу видны в подсказках.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class GoodSuggestionApiTest {
+
+    private static final String PATH = "/api/goods";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GoodRepository goodRepository;
+
+    private final List<Long> goodIds = new ArrayList<>();
+
+    private Long miniId;
+
+    private Long proId;
+
+    /**
+     * Создание товаров с общим началом названия.
+     */
+    @BeforeAll
+    void setup() {
+        miniId = save("Zephyrscope Mini");
+        proId = save("Zephyrscope Pro");
+    }
+
+    /**
+     * Удаление тестовых товаров.
+     */
+    @AfterAll
+    void cleanup() {
+        goodRepository.deleteAllById(goodIds);
+    }
+
+    /**
+     * Тест обновления подсказок по префиксу из памяти после создания, изменения и архивации товара.
+     */
+    @Test
+    void testPrefixSuggestionsFollowGoodChanges() throws Exception {
+        mockMvc.perform(get(PATH + "/search/prefix").param("q", "zep"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(miniId))
+                .andExpect(jsonPath("$[0].name").value("Zephyrscope Mini"))
+                .andExpect(jsonPath("$[0].price").value(10))
+                .andExpect(jsonPath("$[1].id").value(proId));
+
+        GoodResponseDto created = objectMapper.readValue(mockMvc.perform(post(PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("Zephyrscope Lite"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), GoodResponseDto.class);
+        goodIds.add(created.getId());
+        mockMvc.perform(get(PATH + "/search/prefix").param("q", "ZEP"))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id").value(created.getId()));
+
+        mockMvc.perform(put(PATH + "/{id}", proId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("Zephyrscope Air"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(PATH + "/search/prefix").param("q", "zep"))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].name").value("Zephyrscope Air"));
+
+        mockMvc.perform(delete(PATH + "/archive/{id}", miniId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(PATH + "/search/prefix").param("q", "zep").param("limit", "5"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(proId))
+                .andExpect(jsonPath("$[1].id").value(created.getId()));
+
+        mockMvc.perform(get(PATH + "/search/prefix").param("q", "zephyrscope a"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(proId));
+    }
+
+    /**
+     * Тест поиска по названию с опечаткой.
+     */
+    @Test
+    void testSimilarNameSuggestions() throws Exception {
+        mockMvc.perform(get(PATH + "/search/similar").param("q", "zefyrscope"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", startsWith("Zephyrscope")));
+        mockMvc.perform(get(PATH + "/search/similar").param("q", "qwxzvbn"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    /**
+     * Тест буквального поиска символов шаблона LIKE и ответа 400 на некорректные параметры.
+     */
+    @Test
+    void testSuggestionParameters() throws Exception {
+        mockMvc.perform(get(PATH + "/search/prefix").param("q", "zep%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get(PATH + "/search/prefix").param("q", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(PATH + "/search/similar").param("q", "zep").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long save(String name) {
+        Good good = new Good();
+        good.setName(name);
+        good.setType(GoodTypesEnum.OTHER);
+        good.setDescription("Description");
+        good.setPrice(BigDecimal.TEN);
+        good.setStockQuantity(1L);
+        Long id = goodRepository.save(good).getId();
+        goodIds.add(id);
+        return id;
+    }
+
+    private static GoodRequestDto request(String name) {
+        GoodRequestDto request = new GoodRequestDto();
+        request.setName(name);
+        request.setType(GoodTypesEnum.OTHER.getValue());
+        request.setDescription("Description");
+        request.setPrice(BigDecimal.TEN);
+        request.setStockQuantity(1L);
+        return request;
+    }
+}
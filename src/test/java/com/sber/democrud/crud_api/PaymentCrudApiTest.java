@@ -1,9 +1,9 @@
 package com.sber.democrud.crud_api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.dto.PaymentGoodRequestDto;
 import com.sber.democrud.dto.PaymentRequestDto;
 import com.sber.democrud.entity.*;
-import com.sber.democrud.mapper.GoodMapper;
 import com.sber.democrud.repository.GoodRepository;
 import com.sber.democrud.repository.PaymentRepository;
 import com.sber.democrud.repository.UserRepository;
@@ -15,12 +15,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
@@ -72,10 +80,15 @@ public class PaymentCrudApiTest {
     private GoodRepository goodRepository;
 
     /**
-     * Маппер для преобразования Good в DTO и обратно.
+     * Шаблон для проверки сводок покупок напрямую в БД.
      */
     @Autowired
-    private GoodMapper goodMapper;
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Шаблон для выполнения подготовки данных в транзакции.
+     */
+    private TransactionTemplate transactionTemplate;
 
     /**
      * Тестовый пользователь для выполнения операций с платежами.
@@ -96,7 +109,9 @@ public class PaymentCrudApiTest {
      * Инициализация тестовых данных перед выполнением всех тестов.
      */
     @BeforeAll
-    void setup() {
+    void setup(@Autowired PlatformTransactionManager transactionManager) {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
         // Создание тестового пользователя
         testUser = new User();
         testUser.setName("Test User");
@@ -128,12 +143,16 @@ public class PaymentCrudApiTest {
         testGoods = new HashSet<>(goodRepository.saveAll(List.of(testGood1, testGood2)));
 
         // Создание тестового платежа
-        testPayment = new Payment();
-        testPayment.setTotalPurchaseAmount(BigDecimal.valueOf(300));
-        testPayment.setArchiveDate(null);
-        testPayment.setUser(testUser);
-        testPayment.setGoods(testGoods);
-        testPayment = paymentRepository.save(testPayment);
+        // Позиции платежа ссылаются на товары через составной ключ, поэтому товары должны быть управляемыми
+        testPayment = transactionTemplate.execute(status -> {
+            Payment payment = new Payment();
+            payment.setArchiveDate(null);
+            payment.setUser(testUser);
+            goodRepository.findAllById(testGoods.stream().map(Good::getId).toList())
+                    .forEach(good -> payment.addGood(good, 1L));
+            payment.recalculateTotalPurchaseAmount();
+            return paymentRepository.save(payment);
+        });
     }
 
     /**
@@ -172,22 +191,32 @@ public class PaymentCrudApiTest {
         testUserForNewPayment = userRepository.save(testUserForNewPayment);
 
         PaymentRequestDto paymentRequest = new PaymentRequestDto();
-        paymentRequest.setTotalPurchaseAmount(BigDecimal.valueOf(500));
         paymentRequest.setUserId(testUserForNewPayment.getId());
-        paymentRequest.setGoods(goodMapper.toGoodResponseDtos(testGoods));
+        paymentRequest.setGoods(toGoodRequests(testGoods));
+        // Повторная позиция того же товара увеличивает его количество
+        Good firstGood = testGoods.iterator().next();
+        paymentRequest.getGoods().add(new PaymentGoodRequestDto(firstGood.getId(), 2L));
 
         mockMvc.perform(post(PATH)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(paymentRequest)))
-                .andExpect(status().isCreated());
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.totalPurchaseAmount").value(4000))
+                .andExpect(jsonPath("$.goods", hasSize(testGoods.size())));
 
         // Проверяем создание платежа
         Payment createdPayment = paymentRepository.findPaymentByUserId(testUserForNewPayment.getId())
+                .flatMap(payment -> paymentRepository.findWithGoodsById(payment.getId()))
                 .orElseThrow();
 
         assertThat(createdPayment).isNotNull();
         assertThat(createdPayment.getUser()).isEqualTo(testUserForNewPayment);
         assertThat(createdPayment.getGoods()).hasSize(testGoods.size());
+        assertThat(createdPayment.getTotalPurchaseAmount()).isEqualByComparingTo("4000");
+        for (PaymentGood item : createdPayment.getGoods()) {
+            assertThat(item.getUnitPrice()).isEqualByComparingTo(item.getGood().getPrice());
+            assertThat(item.getQuantity()).isEqualTo(item.getGood().equals(firstGood) ? 3L : 1L);
+        }
 
         // Удаляем созданный платеж
         paymentRepository.deleteById(createdPayment.getId());
@@ -205,7 +234,7 @@ public class PaymentCrudApiTest {
         mockMvc.perform(get(PATH + "/{id}", testPayment.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(testPayment.getId()))
-                .andExpect(jsonPath("$.totalPurchaseAmount").value(300))
+                .andExpect(jsonPath("$.totalPurchaseAmount").value(2000))
                 .andExpect(jsonPath("$.userId").value(testUser.getId().toString()))
                 .andExpect(jsonPath("$.goods", hasSize(testGoods.size())));
     }
@@ -232,9 +261,9 @@ public class PaymentCrudApiTest {
 
         // Обновляем платеж
         PaymentRequestDto updateRequest = new PaymentRequestDto();
-        updateRequest.setTotalPurchaseAmount(BigDecimal.valueOf(1100.99));
         updateRequest.setUserId(testUser.getId());
-        updateRequest.setGoods(goodMapper.toGoodResponseDtos(updateSetGoods));
+        updateRequest.setGoods(toGoodRequests(updateSetGoods));
+        updateRequest.getGoods().get(0).setQuantity(2L);
 
         mockMvc.perform(put(PATH + "/{id}", testPayment.getId())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -242,15 +271,220 @@ public class PaymentCrudApiTest {
                 .andExpect(status().isOk());
 
         // Проверяем обновление
-        Payment updatedPayment = paymentRepository.findById(testPayment.getId()).orElseThrow();
-        assertThat(updatedPayment.getTotalPurchaseAmount()).isEqualTo(BigDecimal.valueOf(1100.99));
+        Payment updatedPayment = paymentRepository.findWithGoodsById(testPayment.getId()).orElseThrow();
+        assertThat(updatedPayment.getTotalPurchaseAmount()).isEqualByComparingTo("6");
         assertThat(updatedPayment.getUser()).isEqualTo(testUser);
-        assertThat(updatedPayment.getGoods()).hasSize(1);
+        assertThat(updatedPayment.getGoods())
+                .extracting(PaymentGood::getGood)
+                .containsExactlyInAnyOrderElementsOf(updateSetGoods);
 
-        // Удаляем созданные данные
+        // Возвращаем исходные товары платежа и удаляем созданные данные
+        updateRequest.setGoods(toGoodRequests(testGoods));
+        mockMvc.perform(put(PATH + "/{id}", testPayment.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
         goodRepository.deleteAll(updateSetGoods);
     }
 
+    /**
+     * Тест создания платежа со ссылкой на несуществующий товар.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testCreatePaymentWithUnknownGood() throws Exception {
+        PaymentRequestDto paymentRequest = new PaymentRequestDto();
+        paymentRequest.setUserId(testUser.getId());
+        paymentRequest.setGoods(List.of(new PaymentGoodRequestDto(Long.MAX_VALUE, 1L)));
+
+        mockMvc.perform(post(PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentRequest)))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Тест создания платежа со ссылкой на архивированный товар.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testCreatePaymentWithArchivedGood() throws Exception {
+        Good archivedGood = new Good();
+        archivedGood.setName("Archived Good");
+        archivedGood.setType(GoodTypesEnum.OTHER);
+        archivedGood.setDescription("Archived Description");
+        archivedGood.setPrice(BigDecimal.valueOf(5));
+        archivedGood.setStockQuantity(1L);
+        archivedGood.setArchiveDate(LocalDateTime.now());
+        archivedGood = goodRepository.save(archivedGood);
+
+        PaymentRequestDto paymentRequest = new PaymentRequestDto();
+        paymentRequest.setUserId(testUser.getId());
+        paymentRequest.setGoods(List.of(new PaymentGoodRequestDto(archivedGood.getId(), 1L)));
+
+        mockMvc.perform(post(PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentRequest)))
+                .andExpect(status().isBadRequest());
+
+        goodRepository.deleteById(archivedGood.getId());
+    }
+
+    /**
+     * Тест сводки покупок пользователя: создание, изменение и архивирование платежей
+     * меняют её в той же транзакции.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testUserSpendSummaryFollowsPayments() throws Exception {
+        User summaryUser = new User();
+        summaryUser.setName("Test User For Summary");
+        summaryUser.setLogin("testuserforsummary");
+        summaryUser.setPassword("testpassword123");
+        summaryUser.setEmail("testuserforsummary@example.com");
+        summaryUser.setRole(UserRolesEnum.USER);
+        summaryUser = userRepository.save(summaryUser);
+        String summaryPath = "/api/users/{id}/summary";
+        List<Long> paymentIds = new ArrayList<>();
+
+        try {
+            mockMvc.perform(get(summaryPath, summaryUser.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalSpend").value(0))
+                    .andExpect(jsonPath("$.paymentCount").value(0));
+
+            PaymentRequestDto paymentRequest = new PaymentRequestDto();
+            paymentRequest.setUserId(summaryUser.getId());
+            paymentRequest.setGoods(toGoodRequests(testGoods));
+            for (int i = 0; i < 2; i++) {
+                String response = mockMvc.perform(post(PATH)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(paymentRequest)))
+                        .andExpect(status().isCreated())
+                        .andReturn().getResponse().getContentAsString();
+                paymentIds.add(objectMapper.readTree(response).get("id").asLong());
+            }
+            mockMvc.perform(get(summaryPath, summaryUser.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalSpend").value(4000))
+                    .andExpect(jsonPath("$.paymentCount").value(2))
+                    .andExpect(jsonPath("$.lastPurchaseDate").isNotEmpty());
+            // Дата последней покупки — дата покупки платежа, как при пересчёте сводки после архивации
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT last_purchase_date FROM user_spend_summary WHERE user_id = ?",
+                    LocalDateTime.class, summaryUser.getId()))
+                    .isEqualTo(jdbcTemplate.queryForObject(
+                            "SELECT max(date_of_purchase) FROM payments WHERE user_id = ?",
+                            LocalDateTime.class, summaryUser.getId()));
+
+            // Изменение состава платежа меняет сумму, но не количество платежей; отсутствующая сводка
+            // создаётся по активным платежам пользователя
+            jdbcTemplate.update("DELETE FROM user_spend_summary WHERE user_id = ?", summaryUser.getId());
+            paymentRequest.getGoods().get(0).setQuantity(3L);
+            mockMvc.perform(put(PATH + "/{id}", paymentIds.get(0))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(paymentRequest)))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get(summaryPath, summaryUser.getId()))
+                    .andExpect(jsonPath("$.totalSpend").value(6000))
+                    .andExpect(jsonPath("$.paymentCount").value(2));
+
+            mockMvc.perform(delete(PATH + "/archive/{id}", paymentIds.get(0)))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get(summaryPath, summaryUser.getId()))
+                    .andExpect(jsonPath("$.totalSpend").value(2000))
+                    .andExpect(jsonPath("$.paymentCount").value(1));
+
+            mockMvc.perform(post(PATH + "/archive/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(paymentIds)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.archived").value(1));
+            mockMvc.perform(get(summaryPath, summaryUser.getId()))
+                    .andExpect(jsonPath("$.totalSpend").value(0))
+                    .andExpect(jsonPath("$.paymentCount").value(0))
+                    .andExpect(jsonPath("$.lastPurchaseDate").isEmpty());
+        } finally {
+            paymentRepository.deleteAllById(paymentIds);
+            userRepository.deleteById(summaryUser.getId());
+        }
+    }
+
+    /**
+     * Тест обновления платежа с датой архивации: PUT не архивирует и не восстанавливает платёж,
+     * поэтому сводка покупок пользователя не расходится с платежами.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testUpdatePaymentIgnoresArchiveDate() throws Exception {
+        User archiveUser = new User();
+        archiveUser.setName("Test User For Archive Date");
+        archiveUser.setLogin("testuserforarchivedate");
+        archiveUser.setPassword("testpassword123");
+        archiveUser.setEmail("testuserforarchivedate@example.com");
+        archiveUser.setRole(UserRolesEnum.USER);
+        archiveUser = userRepository.save(archiveUser);
+        String summaryPath = "/api/users/{id}/summary";
+        Long paymentId = null;
+
+        try {
+            PaymentRequestDto paymentRequest = new PaymentRequestDto();
+            paymentRequest.setUserId(archiveUser.getId());
+            paymentRequest.setGoods(toGoodRequests(testGoods));
+            String response = mockMvc.perform(post(PATH)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(paymentRequest)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            paymentId = objectMapper.readTree(response).get("id").asLong();
+
+            // Дата архивации в PUT не архивирует платёж
+            paymentRequest.setArchiveDate(LocalDateTime.now());
+            mockMvc.perform(put(PATH + "/{id}", paymentId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(paymentRequest)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.archiveDate").isEmpty());
+            assertThat(paymentRepository.findById(paymentId).orElseThrow().getArchiveDate()).isNull();
+            mockMvc.perform(get(summaryPath, archiveUser.getId()))
+                    .andExpect(jsonPath("$.totalSpend").value(2000))
+                    .andExpect(jsonPath("$.paymentCount").value(1));
+
+            // Пустая дата архивации в PUT не восстанавливает архивированный платёж
+            mockMvc.perform(delete(PATH + "/archive/{id}", paymentId))
+                    .andExpect(status().isOk());
+            paymentRequest.setArchiveDate(null);
+            mockMvc.perform(put(PATH + "/{id}", paymentId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(paymentRequest)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.archiveDate").isNotEmpty());
+            mockMvc.perform(get(summaryPath, archiveUser.getId()))
+                    .andExpect(jsonPath("$.totalSpend").value(0))
+                    .andExpect(jsonPath("$.paymentCount").value(0));
+        } finally {
+            if (paymentId != null) {
+                paymentRepository.deleteById(paymentId);
+            }
+            userRepository.deleteById(archiveUser.getId());
+        }
+    }
+
+    /**
+     * Тест сводки покупок несуществующего пользователя.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testUserSpendSummaryNotFound() throws Exception {
+        mockMvc.perform(get("/api/users/{id}/summary", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * Тест для архивирования платежа по идентификатору.
      *
@@ -279,4 +513,16 @@ public class PaymentCrudApiTest {
         mockMvc.perform(get(PATH + "/{id}", 9999))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    /**
+     * Формирует позиции запроса платежа по одной единице каждого товара.
+     *
+     * @param goods товары платежа.
+     * @return позиции запроса со ссылками на товары.
+     */
+    private static List<PaymentGoodRequestDto> toGoodRequests(Collection<Good> goods) {
+        return goods.stream()
+                .map(good -> new PaymentGoodRequestDto(good.getId(), 1L))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
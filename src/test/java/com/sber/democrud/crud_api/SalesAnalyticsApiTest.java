@@ -0,0 +1,381 @@
+package com.sber.democrud.crud_api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.dto.PaymentGoodRequestDto;
+import com.sber.democrud.dto.PaymentRequestDto;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.User;
+import com.sber.democrud.entity.UserRolesEnum;
+import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.PaymentRepository;
+import com.sber.democrud.repository.UserRepository;
+import com.sber.democrud.analytics.TopGoodsReconciler;
+import com.sber.democrud.service.AnalyticsService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тестовый класс для проверки аналитики продаж на дневных агрегатах.
+ * <p>
+ * Обновление по расписанию отключено, агрегаты обновляются явно без отставания водяного знака.
+ */
+@SpringBootTest(properties = {
+        "app.analytics.rollup.enabled=false",
+        "app.analytics.rollup.lag=0s",
+        "app.analytics.top-goods.reconcile-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SalesAnalyticsApiTest {
+
+    /**
+     * Путь API продаж.
+     */
+    private static final String PATH = "/api/analytics/sales";
+
+    /**
+     * Тип товара, по которому проверяются продажи.
+     */
+    private static final GoodTypesEnum TYPE = GoodTypesEnum.BOOKS;
+
+    /**
+     * Дата архивации задним числом, которую клиент передаёт в теле запроса.
+     */
+    private static final LocalDateTime BACKDATED_ARCHIVE_DATE = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TopGoodsReconciler topGoodsReconciler;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GoodRepository goodRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Тестовый пользователь.
+     */
+    private User testUser;
+
+    /**
+     * Тестовый товар проверяемого типа.
+     */
+    private Good testGood;
+
+    /**
+     * Платежи, созданные тестами.
+     */
+    private final List<Long> createdPayments = new ArrayList<>();
+
+    /**
+     * Инициализация тестовых данных перед выполнением всех тестов.
+     */
+    @BeforeAll
+    void setup() {
+        testUser = new User();
+        testUser.setName("Analytics User");
+        testUser.setLogin("analyticsuser");
+        testUser.setPassword("testpassword123");
+        testUser.setEmail("analyticsuser@example.com");
+        testUser.setRole(UserRolesEnum.USER);
+        testUser = userRepository.save(testUser);
+
+        testGood = new Good();
+        testGood.setName("Analytics Good");
+        testGood.setType(TYPE);
+        testGood.setDescription("Analytics Description");
+        testGood.setPrice(new BigDecimal("12.50"));
+        testGood.setStockQuantity(10L);
+        testGood = goodRepository.save(testGood);
+    }
+
+    /**
+     * Удаление тестовых данных после выполнения всех тестов.
+     */
+    @AfterAll
+    void cleanup() {
+        paymentRepository.deleteAllById(createdPayments);
+        goodRepository.deleteById(testGood.getId());
+        userRepository.deleteById(testUser.getId());
+    }
+
+    /**
+     * Новый платёж попадает в агрегаты после обновления, а его архивирование вычитается как корректировка.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testSalesFollowCreatedAndArchivedPayments() throws Exception {
+        analyticsService.refreshSalesRollup();
+        Sales before = todaySales();
+
+        PaymentRequestDto paymentRequest = new PaymentRequestDto();
+        paymentRequest.setUserId(testUser.getId());
+        paymentRequest.setGoods(List.of(new PaymentGoodRequestDto(testGood.getId(), 3L)));
+        String response = mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long paymentId = objectMapper.readTree(response).get("id").asLong();
+        createdPayments.add(paymentId);
+
+        // До обновления агрегатов новый платёж не виден
+        assertThat(todaySales()).isEqualTo(before);
+
+        analyticsService.refreshSalesRollup();
+        Sales afterCreate = todaySales();
+        assertThat(afterCreate.revenue().subtract(before.revenue())).isEqualByComparingTo("37.50");
+        assertThat(afterCreate.units() - before.units()).isEqualTo(3L);
+
+        mockMvc.perform(post("/api/payments/archive/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(paymentId))))
+                .andExpect(status().isOk());
+
+        analyticsService.refreshSalesRollup();
+        Sales afterArchive = todaySales();
+        assertThat(afterArchive.revenue()).isEqualByComparingTo(before.revenue());
+        assertThat(afterArchive.units()).isEqualTo(before.units());
+    }
+
+    /**
+     * Изменение позиций уже учтённого платежа сразу исправляет агрегаты, а следующее обновление
+     * не учитывает платёж повторно.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testSalesFollowUpdatedPayments() throws Exception {
+        analyticsService.refreshSalesRollup();
+        Sales before = todaySales();
+
+        PaymentRequestDto paymentRequest = new PaymentRequestDto();
+        paymentRequest.setUserId(testUser.getId());
+        paymentRequest.setGoods(List.of(new PaymentGoodRequestDto(testGood.getId(), 3L)));
+        String response = mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long paymentId = objectMapper.readTree(response).get("id").asLong();
+        createdPayments.add(paymentId);
+        analyticsService.refreshSalesRollup();
+
+        paymentRequest.setGoods(List.of(new PaymentGoodRequestDto(testGood.getId(), 5L)));
+        mockMvc.perform(put("/api/payments/{id}", paymentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentRequest)))
+                .andExpect(status().isOk());
+
+        Sales afterUpdate = todaySales();
+        assertThat(afterUpdate.revenue().subtract(before.revenue())).isEqualByComparingTo("62.50");
+        assertThat(afterUpdate.units() - before.units()).isEqualTo(5L);
+
+        analyticsService.refreshSalesRollup();
+        assertThat(todaySales()).isEqualTo(afterUpdate);
+
+        mockMvc.perform(delete("/api/payments/archive/{id}", paymentId))
+                .andExpect(status().isOk());
+        analyticsService.refreshSalesRollup();
+        Sales afterArchive = todaySales();
+        assertThat(afterArchive.revenue()).isEqualByComparingTo(before.revenue());
+        assertThat(afterArchive.units()).isEqualTo(before.units());
+    }
+
+    /**
+     * Дата архивации из тела запроса, в том числе задним числом, не архивирует платёж мимо агрегатов.
+     * Архивирование отдельным запросом получает дату по часам БД и вычитается из агрегатов один раз.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testSalesIgnoreBackdatedArchiveDate() throws Exception {
+        analyticsService.refreshSalesRollup();
+        Sales before = todaySales();
+
+        PaymentRequestDto paymentRequest = new PaymentRequestDto();
+        paymentRequest.setUserId(testUser.getId());
+        paymentRequest.setGoods(List.of(new PaymentGoodRequestDto(testGood.getId(), 2L)));
+        paymentRequest.setArchiveDate(BACKDATED_ARCHIVE_DATE);
+        String response = mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long paymentId = objectMapper.readTree(response).get("id").asLong();
+        createdPayments.add(paymentId);
+
+        mockMvc.perform(put("/api/payments/{id}", paymentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentRequest)))
+                .andExpect(status().isOk());
+
+        analyticsService.refreshSalesRollup();
+        Sales afterCreate = todaySales();
+        assertThat(afterCreate.revenue().subtract(before.revenue())).isEqualByComparingTo("25.00");
+        assertThat(afterCreate.units() - before.units()).isEqualTo(2L);
+
+        LocalDateTime archiveStart = databaseTime();
+        mockMvc.perform(delete("/api/payments/archive/{id}", paymentId))
+                .andExpect(status().isOk());
+        LocalDateTime archiveDate = paymentRepository.findById(paymentId).orElseThrow().getArchiveDate();
+        assertThat(archiveDate).isBetween(archiveStart, databaseTime());
+
+        // Повторное архивирование не сдвигает дату и не вычитает платёж ещё раз
+        mockMvc.perform(delete("/api/payments/archive/{id}", paymentId))
+                .andExpect(status().isOk());
+        assertThat(paymentRepository.findById(paymentId).orElseThrow().getArchiveDate()).isEqualTo(archiveDate);
+
+        analyticsService.refreshSalesRollup();
+        Sales afterArchive = todaySales();
+        assertThat(afterArchive.revenue()).isEqualByComparingTo(before.revenue());
+        assertThat(afterArchive.units()).isEqualTo(before.units());
+    }
+
+    /**
+     * Проданные единицы созданного платежа сразу попадают в оценку самых продаваемых товаров,
+     * а сверка с БД находит товар в оценке.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testTopGoodsFollowCreatedPayments() throws Exception {
+        PaymentRequestDto paymentRequest = new PaymentRequestDto();
+        paymentRequest.setUserId(testUser.getId());
+        paymentRequest.setGoods(List.of(new PaymentGoodRequestDto(testGood.getId(), 1_000_000L)));
+        String response = mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        createdPayments.add(objectMapper.readTree(response).get("id").asLong());
+
+        JsonNode top = objectMapper.readTree(mockMvc.perform(get("/api/analytics/top-goods").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(top).hasSize(1);
+        assertThat(top.get(0).get("goodId").asLong()).isEqualTo(testGood.getId());
+        assertThat(top.get(0).get("name").asText()).isEqualTo("Analytics Good");
+        assertThat(top.get(0).get("units").asLong()).isGreaterThanOrEqualTo(1_000_000L);
+
+        TopGoodsReconciler.Reconciliation reconciliation = topGoodsReconciler.compare(1);
+        assertThat(reconciliation.size()).isEqualTo(1);
+        assertThat(reconciliation.recall()).isEqualTo(1.0);
+        assertThat(reconciliation.outOfBounds()).isZero();
+
+        mockMvc.perform(get("/api/analytics/top-goods").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Тест запроса продаж с началом периода позже его конца.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testGetSalesWithInvertedPeriod() throws Exception {
+        mockMvc.perform(get(PATH)
+                        .param("from", "2024-02-01")
+                        .param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Тест запроса продаж по неизвестному типу товара.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testGetSalesWithUnknownType() throws Exception {
+        mockMvc.perform(get(PATH)
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-01-31")
+                        .param("type", "unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Тест помесячной группировки: период строки — первый день месяца.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testGetSalesByMonth() throws Exception {
+        LocalDate today = LocalDate.now();
+        String response = mockMvc.perform(get(PATH)
+                        .param("from", today.withDayOfMonth(1).toString())
+                        .param("to", today.toString())
+                        .param("granularity", "MONTH"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        for (JsonNode row : objectMapper.readTree(response)) {
+            assertThat(row.get("period").asText()).isEqualTo(today.withDayOfMonth(1).toString());
+        }
+    }
+
+    /**
+     * Продажи проверяемого типа за сегодня.
+     */
+    private Sales todaySales() throws Exception {
+        String today = LocalDate.now().toString();
+        String response = mockMvc.perform(get(PATH)
+                        .param("from", today)
+                        .param("to", today)
+                        .param("type", TYPE.getValue()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode rows = objectMapper.readTree(response);
+        if (rows.isEmpty()) {
+            return new Sales(BigDecimal.ZERO, 0L);
+        }
+        return new Sales(rows.get(0).get("revenue").decimalValue(), rows.get(0).get("units").asLong());
+    }
+
+    private LocalDateTime databaseTime() {
+        return jdbcTemplate.queryForObject("SELECT localtimestamp", LocalDateTime.class);
+    }
+
+    private record Sales(BigDecimal revenue, long units) {
+    }
+}
@@ -0,0 +1,265 @@
+package com.sber.democrud.crud_api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.analytics.HyperLogLog;
+import com.sber.democrud.dto.PaymentGoodRequestDto;
+import com.sber.democrud.dto.PaymentRequestDto;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.UserRolesEnum;
+import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.PaymentPartitionRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тестовый класс для проверки оценки уникальных покупателей по дневным оценкам HyperLogLog.
+ * <p>
+ * Синтетические платежи загружаются SQL-запросами за неделю 2001 года в отдельную секцию, чтобы не пересекаться
+ * с другими данными, а оценки строятся агрегатом {@code hll_agg}, как при генерации данных.
+ */
+@SpringBootTest(properties = "app.analytics.rollup.enabled=false")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class UniqueBuyersApiTest {
+
+    private static final String PATH = "/api/analytics/unique-buyers";
+
+    private static final String LOGIN_PREFIX = "hll-user-";
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2001, 1, 1);
+
+    private static final LocalDate LAST_DAY = FIRST_DAY.plusDays(6);
+
+    private static final int USERS = 5_000;
+
+    private static final int PAYMENTS = 30_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GoodRepository goodRepository;
+
+    @Autowired
+    private PaymentPartitionRepository partitionRepository;
+
+    /**
+     * Товары тестовых платежей: первые два — электроника и одежда синтетических платежей.
+     */
+    private final List<Good> goods = new ArrayList<>();
+
+    /**
+     * Платежи, созданные через API.
+     */
+    private final List<Long> createdPayments = new ArrayList<>();
+
+    /**
+     * Загрузка синтетических пользователей, платежей и оценок.
+     */
+    @BeforeAll
+    void setup() {
+        partitionRepository.ensurePartition(YearMonth.from(FIRST_DAY), Duration.ofSeconds(5));
+        goods.add(goodRepository.save(newGood("HLL Good Electronics", GoodTypesEnum.ELECTRONICS)));
+        goods.add(goodRepository.save(newGood("HLL Good Clothing", GoodTypesEnum.CLOTHING)));
+
+        jdbcTemplate.update("""
+                INSERT INTO users (name, login, password, email, role)
+                SELECT 'HLL User ' || g, ? || g, 'password123', ? || g || '@example.com', ?
+                FROM generate_series(0, ? - 1) g
+                """, LOGIN_PREFIX, LOGIN_PREFIX, UserRolesEnum.USER.getCode(), USERS);
+        // Каждый пользователь покупает несколько раз, в том числе в разные дни и разные товары
+        jdbcTemplate.update("""
+                WITH u AS (SELECT id, row_number() OVER (ORDER BY login) - 1 AS rn
+                           FROM users
+                           WHERE login LIKE ? || '%')
+                INSERT INTO payments (user_id, total_purchase_amount, date_of_purchase, created_at)
+                SELECT u.id, 1, ?::date + g % 7, ?::date + g % 7
+                FROM generate_series(0, ? - 1) g
+                         JOIN u ON u.rn = (g::bigint * 7919) % ?
+                """, LOGIN_PREFIX, FIRST_DAY, FIRST_DAY, PAYMENTS, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO payment_goods (payment_id, good_id, quantity, unit_price, date_of_purchase)
+                SELECT p.id, CASE WHEN p.id % 3 = 0 THEN ? ELSE ? END, 1, 1, p.date_of_purchase
+                FROM payments p
+                         JOIN users u ON u.id = p.user_id
+                WHERE u.login LIKE ? || '%'
+                """, goods.get(1).getId(), goods.get(0).getId(), LOGIN_PREFIX);
+
+        jdbcTemplate.update("""
+                INSERT INTO good_buyer_sketches (good_id, sales_date, registers)
+                SELECT pg.good_id, CAST(p.created_at AS date), hll_agg(p.user_id)
+                FROM payments p
+                         JOIN payment_goods pg ON pg.payment_id = p.id
+                WHERE pg.good_id IN (?, ?)
+                GROUP BY 1, 2
+                """, goods.get(0).getId(), goods.get(1).getId());
+        jdbcTemplate.update("""
+                INSERT INTO good_type_buyer_sketches (good_type, sales_date, registers)
+                SELECT g.type, CAST(p.created_at AS date), hll_agg(DISTINCT p.user_id)
+                FROM payments p
+                         JOIN payment_goods pg ON pg.payment_id = p.id
+                         JOIN goods g ON g.id = pg.good_id
+                WHERE p.created_at >= ? AND p.created_at < ?
+                GROUP BY 1, 2
+                """, FIRST_DAY, LAST_DAY.plusDays(1));
+    }
+
+    /**
+     * Удаление тестовых данных после выполнения всех тестов.
+     */
+    @AfterAll
+    void cleanup() {
+        jdbcTemplate.update("""
+                DELETE FROM payment_goods
+                WHERE payment_id IN (SELECT p.id
+                                     FROM payments p
+                                              JOIN users u ON u.id = p.user_id
+                                     WHERE u.login LIKE ? || '%')
+                """, LOGIN_PREFIX);
+        jdbcTemplate.update("DELETE FROM payment_goods WHERE payment_id = ANY(?)",
+                (Object) createdPayments.toArray(Long[]::new));
+        jdbcTemplate.update("DELETE FROM payments WHERE id = ANY(?)", (Object) createdPayments.toArray(Long[]::new));
+        jdbcTemplate.update("DELETE FROM payments WHERE user_id IN (SELECT id FROM users WHERE login LIKE ? || '%')",
+                LOGIN_PREFIX);
+        jdbcTemplate.update("DELETE FROM users WHERE login LIKE ? || '%'", LOGIN_PREFIX);
+        jdbcTemplate.update("DELETE FROM good_type_buyer_sketches WHERE sales_date BETWEEN ? AND ?",
+                FIRST_DAY, LAST_DAY);
+        jdbcTemplate.update("DELETE FROM good_buyer_sketches WHERE good_id = ANY(?)",
+                (Object) goods.stream().map(Good::getId).toArray(Long[]::new));
+        goodRepository.deleteAllById(goods.stream().map(Good::getId).toList());
+        partitionRepository.detachPartition(YearMonth.from(FIRST_DAY));
+        jdbcTemplate.execute("DROP TABLE payment_goods_p2001_01, payments_p2001_01");
+    }
+
+    /**
+     * Оценки по товару и типу товара за весь период и его часть отличаются от точного
+     * {@code COUNT(DISTINCT user_id)} не больше чем на три стандартные ошибки.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testEstimatesMatchExactCounts() throws Exception {
+        for (Good good : goods.subList(0, 2)) {
+            assertAccurate(FIRST_DAY, LAST_DAY, good.getId(), null, exactBuyers(FIRST_DAY, LAST_DAY, good.getId()));
+            assertAccurate(FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(3), good.getId(), null,
+                    exactBuyers(FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(3), good.getId()));
+        }
+        assertAccurate(FIRST_DAY, LAST_DAY, null, GoodTypesEnum.ELECTRONICS.getValue(),
+                exactBuyers(FIRST_DAY, LAST_DAY, goods.get(0).getId()));
+    }
+
+    /**
+     * Покупатель учитывается при создании платежа, повторная покупка того же пользователя оценку не меняет.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testBuyerRecordedOnPaymentCreation() throws Exception {
+        Good good = goodRepository.save(newGood("HLL Good Live", GoodTypesEnum.BOOKS));
+        goods.add(good);
+        List<UUID> buyers = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE login LIKE ? || '%' ORDER BY login LIMIT 2", UUID.class, LOGIN_PREFIX);
+        LocalDate today = LocalDate.now();
+
+        assertThat(estimate(today, today, good.getId(), null)).isZero();
+        createPayment(buyers.get(0), good);
+        createPayment(buyers.get(0), good);
+        assertThat(estimate(today, today, good.getId(), null)).isEqualTo(1);
+        createPayment(buyers.get(1), good);
+        assertThat(estimate(today, today, good.getId(), null)).isEqualTo(2);
+    }
+
+    /**
+     * Тест запроса без товара и типа товара.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testUniqueBuyersRequiresGoodOrType() throws Exception {
+        mockMvc.perform(get(PATH)
+                        .param("from", FIRST_DAY.toString())
+                        .param("to", LAST_DAY.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void assertAccurate(LocalDate from, LocalDate to, Long goodId, String type, long exact) throws Exception {
+        assertThat(exact).isGreaterThan(1000);
+        assertThat((double) estimate(from, to, goodId, type) / exact)
+                .isCloseTo(1.0, within(3 * HyperLogLog.STANDARD_ERROR));
+    }
+
+    private long exactBuyers(LocalDate from, LocalDate to, long goodId) {
+        return jdbcTemplate.queryForObject("""
+                SELECT count(DISTINCT p.user_id)
+                FROM payments p
+                         JOIN payment_goods pg ON pg.payment_id = p.id
+                WHERE pg.good_id = ?
+                  AND p.created_at >= ? AND p.created_at < ?
+                """, Long.class, goodId, from, to.plusDays(1));
+    }
+
+    private long estimate(LocalDate from, LocalDate to, Long goodId, String type) throws Exception {
+        var request = get(PATH).param("from", from.toString()).param("to", to.toString());
+        if (goodId != null) {
+            request.param("goodId", goodId.toString());
+        }
+        if (type != null) {
+            request.param("type", type);
+        }
+        String response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("buyers").asLong();
+    }
+
+    private void createPayment(UUID userId, Good good) throws Exception {
+        PaymentRequestDto paymentRequest = new PaymentRequestDto();
+        paymentRequest.setUserId(userId);
+        paymentRequest.setGoods(List.of(new PaymentGoodRequestDto(good.getId(), 1L)));
+        String response = mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        createdPayments.add(objectMapper.readTree(response).get("id").asLong());
+    }
+
+    private static Good newGood(String name, GoodTypesEnum type) {
+        Good good = new Good();
+        good.setName(name);
+        good.setType(type);
+        good.setDescription(name);
+        good.setPrice(BigDecimal.ONE);
+        good.setStockQuantity(10_000L);
+        return good;
+    }
+}
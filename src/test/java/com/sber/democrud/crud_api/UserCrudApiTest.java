@@ -1,6 +1,9 @@
 package com.sber.democrud.crud_api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.entity.Payment;
+import com.sber.democrud.entity.User;
+import com.sber.democrud.entity.UserRolesEnum;
 import com.sber.democrud.repository.PaymentRepository;
 import com.sber.democrud.repository.UserRepository;
 import org.junit.jupiter.api.Test;
@@ -10,7 +13,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -36,4 +43,81 @@ public class UserCrudApiTest {
         mockMvc.perform(get("/api/users/{id}", 9999))
                 .andExpect(status().isNotFound());
     }
+
+    /**
+     * Тест для проверки получения пользователя с платежами и без них при выключенном open-session-in-view:
+     * платежи загружаются явно только по флагу {@code includePayments}.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testGetUserByIdWithAndWithoutPayments() throws Exception {
+        User user = new User();
+        user.setName("Test User With Payments");
+        user.setLogin("testuserwithpayments");
+        user.setPassword("testpassword123");
+        user.setEmail("testuserwithpayments@example.com");
+        user.setRole(UserRolesEnum.USER);
+        user = userRepository.save(user);
+
+        Payment payment = new Payment();
+        payment.setTotalPurchaseAmount(BigDecimal.valueOf(100));
+        payment.setUser(user);
+        payment = paymentRepository.save(payment);
+
+        try {
+            mockMvc.perform(get("/api/users/{id}", user.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.payments", hasSize(0)));
+
+            mockMvc.perform(get("/api/users/{id}", user.getId()).param("includePayments", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.payments", hasSize(1)));
+        } finally {
+            paymentRepository.deleteById(payment.getId());
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    /**
+     * Тест для проверки выборки отдельных полей пользователя через {@code ?fields=}:
+     * в ответе только запрошенные поля, платежи возвращаются, только если запрошены.
+     *
+     * @throws Exception если происходит ошибка при выполнении запроса
+     */
+    @Test
+    void testGetUserFieldsById() throws Exception {
+        User user = new User();
+        user.setName("Test User With Fields");
+        user.setLogin("testuserwithfields");
+        user.setPassword("testpassword123");
+        user.setEmail("testuserwithfields@example.com");
+        user.setRole(UserRolesEnum.ADMIN);
+        user = userRepository.save(user);
+
+        Payment payment = new Payment();
+        payment.setTotalPurchaseAmount(BigDecimal.valueOf(100));
+        payment.setUser(user);
+        payment = paymentRepository.save(payment);
+
+        try {
+            mockMvc.perform(get("/api/users/{id}", user.getId()).param("fields", "name,role"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.*", hasSize(2)))
+                    .andExpect(jsonPath("$.name").value("Test User With Fields"))
+                    .andExpect(jsonPath("$.role").value("ADMIN"));
+
+            mockMvc.perform(get("/api/users/{id}", user.getId()).param("fields", "id,payments"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(user.getId().toString()))
+                    .andExpect(jsonPath("$.payments", hasSize(1)))
+                    .andExpect(jsonPath("$.payments[0].id").value(payment.getId()));
+
+            mockMvc.perform(get("/api/users/{id}", user.getId()).param("fields", "name,password"))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            paymentRepository.deleteById(payment.getId());
+            userRepository.deleteById(user.getId());
+        }
+    }
 }
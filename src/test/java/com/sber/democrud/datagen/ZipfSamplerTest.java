@@ -0,0 +1,59 @@
+package com.sber.democrud.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Тестовый класс для проверки генератора распределения Ципфа {@link ZipfSampler}.
+ */
+public class ZipfSamplerTest {
+
+    private static final int SAMPLES = 1_000_000;
+
+    /**
+     * Частоты рангов совпадают с теоретическими {@code (1 / k^s) / H(n, s)}.
+     */
+    @Test
+    void frequenciesFollowZipfLaw() {
+        int n = 100;
+        double exponent = 1.1;
+        long[] counts = sample(new ZipfSampler(n, exponent), n);
+
+        double harmonic = 0;
+        for (int k = 1; k <= n; k++) {
+            harmonic += Math.pow(k, -exponent);
+        }
+        for (int k : new int[]{1, 2, 10, 100}) {
+            double expected = Math.pow(k, -exponent) / harmonic;
+            assertThat((double) counts[k] / SAMPLES).isCloseTo(expected, within(expected * 0.05 + 1e-4));
+        }
+    }
+
+    /**
+     * Все значения лежат в диапазоне {@code 1..n}, в том числе при показателе, равном 1.
+     */
+    @Test
+    void samplesStayInRange() {
+        int n = 7;
+        long[] counts = sample(new ZipfSampler(n, 1.0), n);
+
+        assertThat(counts[0]).isZero();
+        for (int k = 1; k <= n; k++) {
+            assertThat(counts[k]).isPositive();
+        }
+        assertThat(counts[1]).isGreaterThan(counts[2]);
+    }
+
+    private static long[] sample(ZipfSampler sampler, int n) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] counts = new long[n + 1];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,66 @@
+package com.sber.democrud.datasource;
+
+import com.sber.democrud.deadline.RequestDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для проверки ограничения ожидания соединения в {@link ConcurrencyGatedDataSource}.
+ */
+public class ConcurrencyGatedDataSourceTest {
+
+    @AfterEach
+    void clearDeadline() {
+        RequestDeadline.clear();
+    }
+
+    /**
+     * Соединение, которое пул выдал уже после истечения срока запроса, возвращается в пул,
+     * а разрешение семафора освобождается.
+     */
+    @Test
+    void returnsConnectionObtainedAfterDeadline() throws Exception {
+        Connection connection = mock(Connection.class);
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return connection;
+        });
+        ConcurrencyGatedDataSource dataSource = new ConcurrencyGatedDataSource(pool, 1, Duration.ofSeconds(30));
+        RequestDeadline.set(RequestDeadline.after(Duration.ofMillis(10)));
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTimeoutException.class);
+        verify(connection).close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+
+    /**
+     * Соединение, полученное до истечения срока, выдаётся, а разрешение возвращается при его закрытии.
+     */
+    @Test
+    void releasesPermitWhenConnectionIsClosed() throws Exception {
+        Connection connection = mock(Connection.class);
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenReturn(connection);
+        ConcurrencyGatedDataSource dataSource = new ConcurrencyGatedDataSource(pool, 1, Duration.ofSeconds(30));
+        RequestDeadline.set(RequestDeadline.after(Duration.ofSeconds(5)));
+
+        Connection gated = dataSource.getConnection();
+        assertThat(dataSource.getAvailablePermits()).isZero();
+
+        gated.close();
+        verify(connection).close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.sber.democrud.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тестовый класс для проверки выбора бюджета запроса в {@link DeadlineFilter}.
+ */
+public class DeadlineFilterTest {
+
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setDefaultTimeout(Duration.ofSeconds(10));
+        properties.getEndpoints().put("/api/users/*", Duration.ofSeconds(3));
+        filter = new DeadlineFilter(properties, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Без заголовка применяется бюджет эндпоинта.
+     */
+    @Test
+    void usesEndpointBudgetWithoutHeader() throws Exception {
+        long remainingMillis = remainingMillis(new MockHttpServletRequest("GET", "/api/users/1"));
+
+        assertThat(remainingMillis).isBetween(2_000L, 3_000L);
+    }
+
+    /**
+     * Заголовок больше бюджета эндпоинта не продлевает обработку.
+     */
+    @Test
+    void headerCannotExtendEndpointBudget() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("X-Request-Timeout", "60000");
+
+        assertThat(remainingMillis(request)).isBetween(2_000L, 3_000L);
+    }
+
+    /**
+     * Заголовок больше бюджета по умолчанию также сокращается до него.
+     */
+    @Test
+    void headerCannotExtendDefaultBudget() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/goods/1/positions");
+        request.addHeader("X-Request-Timeout", "600000");
+
+        assertThat(remainingMillis(request)).isBetween(9_000L, 10_000L);
+    }
+
+    /**
+     * Заголовок меньше бюджета эндпоинта сокращает бюджет.
+     */
+    @Test
+    void headerShortensEndpointBudget() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("X-Request-Timeout", "500");
+
+        assertThat(remainingMillis(request)).isBetween(1L, 500L);
+    }
+
+    /**
+     * Выполняет запрос через фильтр и возвращает остаток бюджета, видимый обработчику.
+     */
+    private long remainingMillis(MockHttpServletRequest request) throws Exception {
+        AtomicLong remaining = new AtomicLong(-1);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> remaining.set(
+                TimeUnit.NANOSECONDS.toMillis(RequestDeadline.current().orElseThrow().remainingNanos())));
+        return remaining.get();
+    }
+}
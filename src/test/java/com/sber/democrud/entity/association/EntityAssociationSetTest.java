@@ -0,0 +1,86 @@
+package com.sber.democrud.entity.association;
+
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.Payment;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тестовый класс для проверки множества связей {@link EntityAssociationSet}.
+ */
+public class EntityAssociationSetTest {
+
+    /**
+     * Сохранённые сущности ищутся по идентификатору, дубликаты по идентификатору не добавляются.
+     */
+    @Test
+    void persistedEntitiesAreLookedUpById() {
+        EntityAssociationSet<Payment> payments = new EntityAssociationSet<>();
+
+        assertThat(payments.add(payment(1L))).isTrue();
+        assertThat(payments.add(payment(2L))).isTrue();
+        assertThat(payments.add(payment(1L))).isFalse();
+
+        assertThat(payments).hasSize(2);
+        assertThat(payments.contains(payment(2L))).isTrue();
+        assertThat(payments.contains(payment(3L))).isFalse();
+        assertThat(payments.remove(payment(1L))).isTrue();
+        assertThat(payments).hasSize(1);
+    }
+
+    /**
+     * Несохранённые сущности сравниваются по ссылке и находятся по идентификатору после сохранения.
+     */
+    @Test
+    void transientEntityIsFoundAfterItGetsId() {
+        EntityAssociationSet<Good> goods = new EntityAssociationSet<>();
+        Good first = new Good();
+        Good second = new Good();
+
+        assertThat(goods.add(first)).isTrue();
+        assertThat(goods.add(second)).isTrue();
+        assertThat(goods.add(first)).isFalse();
+        assertThat(goods.contains(new Good())).isFalse();
+
+        first.setId(10L);
+        assertThat(goods.contains(good(10L))).isTrue();
+        assertThat(goods.add(good(10L))).isFalse();
+        assertThat(goods).hasSize(2);
+
+        assertThat(goods.remove(good(10L))).isTrue();
+        assertThat(goods).containsExactly(second);
+    }
+
+    /**
+     * Удаление через итератор работает для сохранённых и несохранённых элементов.
+     */
+    @Test
+    void iteratorRemovesElements() {
+        EntityAssociationSet<Good> goods = new EntityAssociationSet<>();
+        goods.add(good(1L));
+        goods.add(new Good());
+
+        Iterator<Good> iterator = goods.iterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+
+        assertThat(goods).isEmpty();
+    }
+
+    private static Payment payment(Long id) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        return payment;
+    }
+
+    private static Good good(Long id) {
+        Good good = new Good();
+        good.setId(id);
+        return good;
+    }
+}
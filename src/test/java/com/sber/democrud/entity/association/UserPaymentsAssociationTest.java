@@ -0,0 +1,203 @@
+package com.sber.democrud.entity.association;
+
+import com.sber.democrud.dto.PaymentGoodRequestDto;
+import com.sber.democrud.dto.PaymentRequestDto;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.Payment;
+import com.sber.democrud.entity.User;
+import com.sber.democrud.entity.UserRolesEnum;
+import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.PaymentRepository;
+import com.sber.democrud.repository.UserRepository;
+import com.sber.democrud.service.PaymentService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тестовый класс для проверки связи {@link User#getPayments()} с типом коллекции
+ * {@link EntityAssociationSetType} в Hibernate: загрузка, проверка изменений, удаление элемента и слияние.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class UserPaymentsAssociationTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GoodRepository goodRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private final List<UUID> userIds = new ArrayList<>();
+
+    private final List<Long> paymentIds = new ArrayList<>();
+
+    private Good good;
+
+    /**
+     * Создание товара для платежей.
+     */
+    @BeforeAll
+    void setup() {
+        good = new Good();
+        good.setName("Association Good");
+        good.setType(GoodTypesEnum.OTHER);
+        good.setDescription("Description");
+        good.setPrice(BigDecimal.valueOf(100));
+        good.setStockQuantity(100L);
+        good = goodRepository.save(good);
+    }
+
+    /**
+     * Удаление тестовых записей.
+     */
+    @AfterAll
+    void cleanup() {
+        paymentRepository.deleteAllById(paymentIds);
+        userRepository.deleteAllById(userIds);
+        goodRepository.deleteById(good.getId());
+    }
+
+    /**
+     * Платежи загружаются лениво в {@link PersistentEntityAssociationSet}, элементы ищутся по идентификатору.
+     */
+    @Test
+    void loadsPaymentsLazilyIntoAssociationSet() {
+        UUID userId = saveUser("association-load");
+        Long first = createPayment(userId);
+        Long second = createPayment(userId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = entityManager.find(User.class, userId);
+
+            assertThat(user.getPayments()).isInstanceOf(PersistentEntityAssociationSet.class);
+            assertThat(Hibernate.isInitialized(user.getPayments())).isFalse();
+            assertThat(user.getPayments()).extracting(Payment::getId).containsExactlyInAnyOrder(first, second);
+            assertThat(user.getPayments().contains(paymentWithId(first))).isTrue();
+        });
+    }
+
+    /**
+     * Чтение платежей не делает пользователя и коллекцию изменёнными, добавление платежа — делает.
+     */
+    @Test
+    void readingPaymentsIsNotDirty() {
+        UUID userId = saveUser("association-dirty");
+        createPayment(userId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = entityManager.find(User.class, userId);
+            user.getPayments().forEach(Payment::getTotalPurchaseAmount);
+
+            Session session = entityManager.unwrap(Session.class);
+            assertThat(session.isDirty()).isFalse();
+
+            user.getPayments().add(paymentWithId(Long.MAX_VALUE));
+            assertThat(((PersistentCollection<?>) user.getPayments()).isDirty()).isTrue();
+            status.setRollbackOnly();
+        });
+    }
+
+    /**
+     * Связь обратная ({@code mappedBy}) и без {@code orphanRemoval}: удалённый из коллекции платёж
+     * остаётся в БД у того же пользователя.
+     */
+    @Test
+    void removedPaymentIsNotDeleted() {
+        UUID userId = saveUser("association-orphan");
+        Long paymentId = createPayment(userId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = entityManager.find(User.class, userId);
+            assertThat(user.getPayments().remove(paymentWithId(paymentId))).isTrue();
+            assertThat(user.getPayments()).isEmpty();
+        });
+
+        assertThat(jdbcTemplate.queryForObject("SELECT user_id FROM payments WHERE id = ?", UUID.class, paymentId))
+                .isEqualTo(userId);
+    }
+
+    /**
+     * Слияние отсоединённого пользователя заменяет платежи управляемыми экземплярами
+     * и не помечает коллекцию изменённой.
+     */
+    @Test
+    void mergeReplacesPaymentsWithManagedInstances() {
+        UUID userId = saveUser("association-merge");
+        Long paymentId = createPayment(userId);
+        User detached = userRepository.findWithPaymentsById(userId).orElseThrow();
+        detached.setName("Association Merged");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User merged = entityManager.merge(detached);
+            Payment managed = entityManager.find(Payment.class, paymentId);
+
+            assertThat(merged.getPayments()).isInstanceOf(PersistentEntityAssociationSet.class);
+            assertThat(merged.getPayments()).singleElement().isSameAs(managed);
+            assertThat(((PersistentCollection<?>) merged.getPayments()).isDirty()).isFalse();
+        });
+
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM users WHERE id = ?", String.class, userId))
+                .isEqualTo("Association Merged");
+    }
+
+    private UUID saveUser(String login) {
+        User user = new User();
+        user.setName("Association User");
+        user.setLogin(login);
+        user.setPassword("password123");
+        user.setEmail(login + "@example.com");
+        user.setRole(UserRolesEnum.USER);
+        UUID id = userRepository.save(user).getId();
+        userIds.add(id);
+        return id;
+    }
+
+    private Long createPayment(UUID userId) {
+        PaymentRequestDto request = new PaymentRequestDto();
+        request.setUserId(userId);
+        request.setGoods(List.of(new PaymentGoodRequestDto(good.getId(), 1L)));
+        Long id = paymentService.createPayment(request).getId();
+        paymentIds.add(id);
+        return id;
+    }
+
+    private static Payment paymentWithId(Long id) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        return payment;
+    }
+}
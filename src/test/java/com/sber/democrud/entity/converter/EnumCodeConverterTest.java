@@ -0,0 +1,60 @@
+package com.sber.democrud.entity.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.UserRolesEnum;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тестовый класс для проверки хранения {@link GoodTypesEnum} и {@link UserRolesEnum} кодами
+ * и их поиска по строковому значению.
+ */
+public class EnumCodeConverterTest {
+
+    /**
+     * Каждое значение переводится в код и обратно без потерь, коды уникальны.
+     */
+    @Test
+    void convertsToCodeAndBack() {
+        GoodTypeConverter goodTypeConverter = new GoodTypeConverter();
+        for (GoodTypesEnum type : GoodTypesEnum.values()) {
+            assertThat(goodTypeConverter.convertToEntityAttribute(goodTypeConverter.convertToDatabaseColumn(type)))
+                    .isEqualTo(type);
+        }
+        UserRoleConverter userRoleConverter = new UserRoleConverter();
+        for (UserRolesEnum role : UserRolesEnum.values()) {
+            assertThat(userRoleConverter.convertToEntityAttribute(userRoleConverter.convertToDatabaseColumn(role)))
+                    .isEqualTo(role);
+        }
+        assertThat(goodTypeConverter.convertToDatabaseColumn(null)).isNull();
+        assertThat(userRoleConverter.convertToEntityAttribute(null)).isNull();
+    }
+
+    /**
+     * Неизвестный код в БД приводит к исключению, а не к {@code null}.
+     */
+    @Test
+    void rejectsUnknownCode() {
+        assertThatThrownBy(() -> new GoodTypeConverter().convertToEntityAttribute((short) 99))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UserRolesEnum.fromCode((short) -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Поиск по строке и десериализация Jackson используют статический {@code fromString}.
+     */
+    @Test
+    void looksUpByValue() throws Exception {
+        assertThat(GoodTypesEnum.fromString("BOOKS")).isEqualTo(GoodTypesEnum.BOOKS);
+        assertThat(GoodTypesEnum.fromString("UNKNOWN")).isNull();
+        assertThat(UserRolesEnum.fromString(null)).isNull();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertThat(objectMapper.readValue("\"ADMIN\"", UserRolesEnum.class)).isEqualTo(UserRolesEnum.ADMIN);
+        assertThat(objectMapper.readValue("\"UNKNOWN\"", GoodTypesEnum.class)).isNull();
+    }
+}
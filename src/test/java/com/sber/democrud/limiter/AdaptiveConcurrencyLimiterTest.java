@@ -0,0 +1,86 @@
+package com.sber.democrud.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тестовый класс для проверки адаптивного ограничителя параллелизма {@link AdaptiveConcurrencyLimiter}.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Запросы сверх лимита отклоняются сразу и учитываются в счётчике отклонённых.
+     */
+    @Test
+    void rejectsRequestsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new VegasLimit(2, 1, 10, 1.0, 30));
+
+        assertThat(limiter.tryAcquire()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isEqualTo(2);
+        assertThat(limiter.tryAcquire()).isEqualTo(-1);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+
+        limiter.release(BASE_RTT, 2, false);
+        assertThat(limiter.tryAcquire()).isEqualTo(2);
+    }
+
+    /**
+     * При стабильной задержке и полной загрузке лимит растёт, но не выше максимального.
+     */
+    @Test
+    void limitGrowsWhileLatencyIsStable() {
+        VegasLimit limit = new VegasLimit(10, 1, 50, 1.0, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(BASE_RTT, limit.getLimit(), false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(50);
+    }
+
+    /**
+     * При росте задержки (очередь в БД) и при сбросах лимит уменьшается, но не ниже минимального.
+     */
+    @Test
+    void limitShrinksWhenLatencyGrowsOrRequestsDrop() {
+        VegasLimit limit = new VegasLimit(40, 5, 50, 1.0, 1000);
+        limit.onSample(BASE_RTT, 40, false);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(BASE_RTT * 10, limit.getLimit(), false);
+        }
+        int afterLatencyGrowth = limit.getLimit();
+        assertThat(afterLatencyGrowth).isLessThan(40);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(BASE_RTT, limit.getLimit(), true);
+        }
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    /**
+     * Сброс с задержкой меньше минимальной (быстрый отказ) уменьшает лимит и не становится
+     * задержкой «без нагрузки».
+     */
+    @Test
+    void fastDropsShrinkLimit() {
+        VegasLimit limit = new VegasLimit(40, 5, 50, 1.0, 1000);
+        limit.onSample(BASE_RTT, 40, false);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(BASE_RTT / 100, limit.getLimit(), true);
+        }
+        int afterDrops = limit.getLimit();
+        assertThat(afterDrops).isLessThan(40);
+
+        // Минимальная задержка осталась прежней: при той же задержке очереди нет, и лимит растёт
+        limit.onSample(BASE_RTT, afterDrops, false);
+        assertThat(limit.getLimit()).isGreaterThan(afterDrops);
+    }
+}
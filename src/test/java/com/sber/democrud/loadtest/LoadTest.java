@@ -0,0 +1,166 @@
+package com.sber.democrud.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный тест: приложение на случайном порту, PostgreSQL в Testcontainers (или существующая БД из
+ * {@code loadtest.jdbc-url}), открытая модель нагрузки по HTTP и отчёт с перцентилями HdrHistogram.
+ * <p>
+ * Запускается только в профиле {@code loadtest}: {@code mvn -Ploadtest test -Dloadtest.rate=300}.
+ * Все параметры описаны в {@link LoadTestSettings}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.com.sber.democrud=WARN")
+public class LoadTest {
+
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.fromSystemProperties();
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void registerDatabaseProperties(DynamicPropertyRegistry registry) {
+        String url = SETTINGS.jdbcUrl();
+        String user = SETTINGS.jdbcUser();
+        String password = SETTINGS.jdbcPassword();
+        if (url == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15.10-alpine").withDatabaseName("sber_demo_crud");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            user = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+        registry.add("spring.datasource.url", url::toString);
+        registry.add("spring.datasource.username", user::toString);
+        registry.add("spring.datasource.password", password::toString);
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    /**
+     * Подаёт смешанную нагрузку и записывает отчёт.
+     */
+    @Test
+    void mixedWorkload() throws Exception {
+        String prefix = "lt" + Long.toString(System.currentTimeMillis(), 36);
+        LoadTestDataSeeder.LoadTestData data = new LoadTestDataSeeder(jdbcTemplate, prefix).seed(SETTINGS);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(client, scenarios(data));
+            Map<String, ScenarioStats> stats = generator.run(SETTINGS.rate(), SETTINGS.warmup(), SETTINGS.duration());
+
+            Map<String, Object> report = LoadTestReport.write(SETTINGS, stats);
+            System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report.get("total")));
+            assertThat(((Number) ((Map<?, ?>) report.get("total")).get("requests")).longValue()).isPositive();
+        }
+    }
+
+    /**
+     * Сценарии смеси; неизвестные в {@code loadtest.mix} названия приводят к ошибке.
+     */
+    private List<Scenario> scenarios(LoadTestDataSeeder.LoadTestData data) {
+        List<UUID> users = data.userIds();
+        List<Long> goods = data.goodIds();
+        List<Long> payments = data.paymentIds();
+        AtomicInteger nextArchived = new AtomicInteger();
+
+        Map<String, Function<Random, HttpRequest>> requests = Map.of(
+                "browse-goods", random -> get("/api/goods/" + pick(goods, random)),
+                "get-user", random -> get("/api/users/" + pick(users, random)),
+                "get-user-with-payments", random -> get("/api/users/" + pick(users, random) + "?includePayments=true"),
+                "create-payment", random -> post("/api/payments", paymentRequest(users, goods, random)),
+                "archive-payment", random -> delete("/api/payments/archive/"
+                        + payments.get(nextArchived.getAndIncrement() % payments.size())));
+
+        List<Scenario> scenarios = new ArrayList<>();
+        SETTINGS.mix().forEach((name, weight) -> {
+            Function<Random, HttpRequest> request = requests.get(name);
+            if (request == null) {
+                throw new IllegalArgumentException("Неизвестный сценарий: " + name);
+            }
+            scenarios.add(new Scenario(name, weight, request));
+        });
+        return scenarios;
+    }
+
+    private Map<String, Object> paymentRequest(List<UUID> users, List<Long> goods, Random random) {
+        List<Map<String, Object>> paymentGoods = new ArrayList<>();
+        for (int i = 0; i < SETTINGS.goodsPerPayment(); i++) {
+            paymentGoods.add(Map.of("goodId", pick(goods, random), "quantity", 1));
+        }
+        return Map.of(
+                "userId", pick(users, random),
+                "goods", paymentGoods);
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest delete(String path) {
+        return request(path).DELETE().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.sber.democrud.loadtest;
+
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.UserRolesEnum;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Заполняет БД данными для нагрузочного теста.
+ * <p>
+ * Данные создаются запросами {@code INSERT ... SELECT FROM generate_series} с уникальным префиксом прогона,
+ * поэтому тест можно повторять на одной и той же БД.
+ */
+final class LoadTestDataSeeder {
+
+    /**
+     * Коды всех типов товара в виде литерала массива PostgreSQL.
+     */
+    private static final String GOOD_TYPE_CODES = Stream.of(GoodTypesEnum.values())
+            .map(type -> String.valueOf(type.getCode()))
+            .collect(Collectors.joining(",", "{", "}"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String prefix;
+
+    /**
+     * Создаёт заполнитель данных.
+     *
+     * @param jdbcTemplate шаблон JDBC.
+     * @param prefix       префикс прогона в логинах и названиях.
+     */
+    LoadTestDataSeeder(JdbcTemplate jdbcTemplate, String prefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Создаёт пользователей, товары и платежи.
+     *
+     * @param settings параметры теста.
+     * @return идентификаторы созданных записей.
+     */
+    LoadTestData seed(LoadTestSettings settings) {
+        List<UUID> userIds = jdbcTemplate.queryForList("""
+                INSERT INTO users (name, login, password, email, role)
+                SELECT 'Load User ' || g, ? || '-user-' || g, 'password123', ? || '-user-' || g || '@example.com', ?
+                FROM generate_series(1, ?) g
+                RETURNING id
+                """, UUID.class, prefix, prefix, UserRolesEnum.USER.getCode(), settings.users());
+
+        List<Long> goodIds = jdbcTemplate.queryForList("""
+                INSERT INTO goods (name, type, description, price, stock_quantity)
+                SELECT ? || '-good-' || g,
+                       (?::smallint[])[1 + g % ?],
+                       'Load test good ' || g,
+                       round((1 + random() * 999)::numeric, 2),
+                       1000000
+                FROM generate_series(1, ?) g
+                RETURNING id
+                """, Long.class, prefix, GOOD_TYPE_CODES, GoodTypesEnum.values().length, settings.goods());
+
+        List<Long> paymentIds = jdbcTemplate.queryForList("""
+                WITH u AS (SELECT id, row_number() OVER (ORDER BY login) - 1 AS rn
+                           FROM users
+                           WHERE login LIKE ? || '-user-%')
+                INSERT INTO payments (user_id, total_purchase_amount)
+                SELECT u.id, round((1 + random() * 999)::numeric, 2)
+                FROM generate_series(0, ? - 1) g
+                         JOIN u ON u.rn = g % ?
+                RETURNING id
+                """, Long.class, prefix, settings.payments(), settings.users());
+
+        jdbcTemplate.update("""
+                WITH g AS (SELECT id, price, row_number() OVER (ORDER BY id) - 1 AS rn
+                           FROM goods
+                           WHERE name LIKE ? || '-good-%')
+                INSERT INTO payment_goods (payment_id, good_id, quantity, unit_price, date_of_purchase)
+                SELECT p.id, g.id, 1, g.price, p.date_of_purchase
+                FROM payments p
+                         CROSS JOIN generate_series(0, ? - 1) k
+                         JOIN g ON g.rn = (p.id + k) % ?
+                WHERE p.id BETWEEN ? AND ?
+                """, prefix, Math.min(settings.goodsPerPayment(), settings.goods()), settings.goods(),
+                Collections.min(paymentIds), Collections.max(paymentIds));
+
+        jdbcTemplate.update("""
+                UPDATE payments p
+                SET total_purchase_amount = s.total
+                FROM (SELECT payment_id, sum(quantity * unit_price) AS total
+                      FROM payment_goods
+                      WHERE payment_id BETWEEN ? AND ?
+                      GROUP BY payment_id) s
+                WHERE p.id = s.payment_id
+                """, Collections.min(paymentIds), Collections.max(paymentIds));
+
+        jdbcTemplate.update("""
+                INSERT INTO user_spend_summary (user_id, total_spend, payment_count, last_purchase_date)
+                SELECT user_id, sum(total_purchase_amount), count(*), max(date_of_purchase)
+                FROM payments
+                WHERE id BETWEEN ? AND ?
+                GROUP BY user_id
+                """, Collections.min(paymentIds), Collections.max(paymentIds));
+
+        jdbcTemplate.execute("ANALYZE");
+        return new LoadTestData(userIds, goodIds, paymentIds);
+    }
+
+    /**
+     * Идентификаторы созданных записей.
+     *
+     * @param userIds    пользователи.
+     * @param goodIds    товары.
+     * @param paymentIds платежи.
+     */
+    record LoadTestData(List<UUID> userIds, List<Long> goodIds, List<Long> paymentIds) {
+    }
+}
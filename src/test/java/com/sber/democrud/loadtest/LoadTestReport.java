@@ -0,0 +1,117 @@
+package com.sber.democrud.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Отчёт нагрузочного теста в формате JSON.
+ * <p>
+ * Для каждого сценария и для всей смеси записываются пропускная способность, счётчики HTTP-статусов,
+ * перцентили времени ответа и времени обслуживания в миллисекундах, а также сжатая гистограмма
+ * HdrHistogram (base64), по которой можно пересчитать любые перцентили или объединить несколько прогонов.
+ */
+final class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9, 99.99};
+
+    private LoadTestReport() {
+    }
+
+    /**
+     * Формирует и записывает отчёт.
+     *
+     * @param settings параметры теста.
+     * @param stats    статистика по сценариям.
+     * @return содержимое отчёта.
+     */
+    static Map<String, Object> write(LoadTestSettings settings, Map<String, ScenarioStats> stats) throws IOException {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        Histogram totalResponse = new Histogram(3);
+        Histogram totalService = new Histogram(3);
+        Map<String, Long> totalStatuses = new LinkedHashMap<>();
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+
+        for (Map.Entry<String, ScenarioStats> entry : stats.entrySet()) {
+            Histogram response = entry.getValue().responseTime();
+            Histogram service = entry.getValue().serviceTime();
+            Map<String, Long> statuses = new LinkedHashMap<>();
+            entry.getValue().statuses().forEach((status, count) -> {
+                statuses.put(String.valueOf(status), count);
+                totalStatuses.merge(String.valueOf(status), count, Long::sum);
+            });
+            totalResponse.add(response);
+            totalService.add(service);
+            scenarios.put(entry.getKey(), section(response, service, statuses, seconds));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("settings", Map.of(
+                "users", settings.users(),
+                "goods", settings.goods(),
+                "payments", settings.payments(),
+                "goodsPerPayment", settings.goodsPerPayment(),
+                "targetRate", settings.rate(),
+                "warmupSeconds", settings.warmup().toSeconds(),
+                "durationSeconds", settings.duration().toSeconds(),
+                "mix", settings.mix()));
+        report.put("total", section(totalResponse, totalService, totalStatuses, seconds));
+        report.put("scenarios", scenarios);
+
+        Files.createDirectories(settings.report().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(settings.report().toFile(), report);
+        return report;
+    }
+
+    /**
+     * Раздел отчёта для сценария или всей смеси.
+     */
+    private static Map<String, Object> section(Histogram response, Histogram service, Map<String, Long> statuses,
+                                               double seconds) {
+        long successful = statuses.entrySet().stream()
+                .filter(status -> status.getKey().startsWith("2"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        Map<String, Object> section = new LinkedHashMap<>();
+        section.put("requests", response.getTotalCount());
+        section.put("successful", successful);
+        section.put("throughput", response.getTotalCount() / seconds);
+        section.put("statuses", statuses);
+        section.put("responseTimeMs", percentiles(response));
+        section.put("serviceTimeMs", percentiles(service));
+        section.put("responseTimeHistogram", encode(response));
+        return section;
+    }
+
+    /**
+     * Перцентили гистограммы в миллисекундах.
+     */
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put("mean", histogram.getMean() / 1000);
+        for (double percentile : PERCENTILES) {
+            values.put("p" + percentile, histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        values.put("max", histogram.getMaxValue() / 1000.0);
+        return values;
+    }
+
+    /**
+     * Сжатая гистограмма в base64.
+     */
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+}
@@ -0,0 +1,78 @@
+package com.sber.democrud.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного теста, задаваемые системными свойствами {@code loadtest.*}.
+ *
+ * @param jdbcUrl         адрес существующей БД; если не задан, поднимается контейнер Testcontainers.
+ * @param jdbcUser        пользователь существующей БД.
+ * @param jdbcPassword    пароль существующей БД.
+ * @param users           количество создаваемых пользователей.
+ * @param goods           количество создаваемых товаров.
+ * @param payments        количество создаваемых платежей.
+ * @param goodsPerPayment количество товаров в каждом платеже.
+ * @param rate            частота поступления запросов, запросов в секунду.
+ * @param warmup          длительность прогрева, результаты которого не учитываются.
+ * @param duration        длительность измерения.
+ * @param mix             веса сценариев по названию.
+ * @param report          путь к файлу отчёта.
+ */
+record LoadTestSettings(String jdbcUrl,
+                        String jdbcUser,
+                        String jdbcPassword,
+                        int users,
+                        int goods,
+                        int payments,
+                        int goodsPerPayment,
+                        double rate,
+                        Duration warmup,
+                        Duration duration,
+                        Map<String, Integer> mix,
+                        Path report) {
+
+    /**
+     * Смесь сценариев по умолчанию.
+     */
+    private static final String DEFAULT_MIX =
+            "browse-goods=50,get-user=15,get-user-with-payments=10,create-payment=20,archive-payment=5";
+
+    /**
+     * Читает параметры из системных свойств.
+     *
+     * @return параметры теста.
+     */
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("loadtest.jdbc-url"),
+                System.getProperty("loadtest.jdbc-user", "postgres"),
+                System.getProperty("loadtest.jdbc-password", "postgres"),
+                Integer.getInteger("loadtest.users", 1_000),
+                Integer.getInteger("loadtest.goods", 1_000),
+                Integer.getInteger("loadtest.payments", 10_000),
+                Integer.getInteger("loadtest.goods-per-payment", 3),
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60)),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json")));
+    }
+
+    /**
+     * Разбирает веса сценариев вида {@code name=weight,name=weight}.
+     *
+     * @param mix строка с весами.
+     * @return веса по названию сценария.
+     */
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
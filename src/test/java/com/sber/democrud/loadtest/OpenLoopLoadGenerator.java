@@ -0,0 +1,114 @@
+package com.sber.democrud.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки с открытой моделью поступления запросов.
+ * <p>
+ * Запросы отправляются асинхронно по фиксированному расписанию ({@code rate} в секунду) независимо от того,
+ * ответил ли сервер на предыдущие: медленный сервер не снижает входящий поток, как это было бы
+ * в замкнутом цикле "запрос — ожидание ответа".
+ */
+final class OpenLoopLoadGenerator {
+
+    /**
+     * Сколько ждать ответов на последние запросы после окончания расписания.
+     */
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient client;
+
+    private final List<Scenario> scenarios;
+
+    private final int totalWeight;
+
+    private final Map<String, ScenarioStats> stats = new LinkedHashMap<>();
+
+    private final Random random = new Random(42);
+
+    /**
+     * Создаёт генератор.
+     *
+     * @param client    HTTP-клиент.
+     * @param scenarios сценарии с весами.
+     */
+    OpenLoopLoadGenerator(HttpClient client, List<Scenario> scenarios) {
+        this.client = client;
+        this.scenarios = scenarios;
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        scenarios.forEach(scenario -> stats.put(scenario.name(), new ScenarioStats()));
+    }
+
+    /**
+     * Подаёт нагрузку: сначала прогрев, затем измерение.
+     *
+     * @param rate     частота запросов в секунду.
+     * @param warmup   длительность прогрева.
+     * @param duration длительность измерения.
+     * @return статистика по сценариям за время измерения (запросы, запланированные после прогрева).
+     */
+    Map<String, ScenarioStats> run(double rate, Duration warmup, Duration duration)
+            throws InterruptedException, TimeoutException {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        AtomicLong inFlight = new AtomicLong();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            Scenario scenario = pick();
+            ScenarioStats scenarioStats = intended >= measureStart ? stats.get(scenario.name()) : null;
+            inFlight.incrementAndGet();
+            long sent = System.nanoTime();
+            client.sendAsync(scenario.request().apply(random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (scenarioStats != null) {
+                            scenarioStats.record(intended, sent, System.nanoTime(),
+                                    error == null ? response.statusCode() : 0);
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() > drainDeadline) {
+                throw new TimeoutException("Не дождались ответа на " + inFlight.get() + " запросов");
+            }
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+
+    /**
+     * Выбирает сценарий пропорционально весам.
+     */
+    private Scenario pick() {
+        int point = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            point -= scenario.weight();
+            if (point < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException("Пустая смесь сценариев");
+    }
+}
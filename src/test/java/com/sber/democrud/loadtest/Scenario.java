@@ -0,0 +1,15 @@
+package com.sber.democrud.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Сценарий нагрузки: тип HTTP-запроса и его доля в общем потоке.
+ *
+ * @param name    название сценария в отчёте.
+ * @param weight  вес сценария в смеси.
+ * @param request фабрика запросов; вызывается из потока планировщика.
+ */
+record Scenario(String name, int weight, Function<Random, HttpRequest> request) {
+}
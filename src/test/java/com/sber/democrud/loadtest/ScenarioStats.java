@@ -0,0 +1,78 @@
+package com.sber.democrud.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика одного сценария.
+ * <p>
+ * Время ответа отсчитывается от запланированного момента отправки, а не от фактического, поэтому задержки
+ * планировщика и очереди на стороне клиента не скрывают медленные ответы (coordinated omission). Время
+ * обслуживания (от фактической отправки) записывается отдельно для сравнения.
+ */
+final class ScenarioStats {
+
+    /**
+     * Время ответа от запланированного момента отправки, мкс.
+     */
+    private final Recorder responseTime = new Recorder(3);
+
+    /**
+     * Время от фактической отправки до получения ответа, мкс.
+     */
+    private final Recorder serviceTime = new Recorder(3);
+
+    /**
+     * Количество ответов по HTTP-статусу; {@code 0} — ошибка транспорта.
+     */
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * Записывает результат запроса.
+     *
+     * @param intendedNanos запланированный момент отправки.
+     * @param sentNanos     фактический момент отправки.
+     * @param doneNanos     момент получения ответа.
+     * @param status        HTTP-статус или {@code 0} при ошибке транспорта.
+     */
+    void record(long intendedNanos, long sentNanos, long doneNanos, int status) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos));
+        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Возвращает гистограмму времени ответа с момента последнего сброса.
+     *
+     * @return гистограмма, мкс.
+     */
+    Histogram responseTime() {
+        return responseTime.getIntervalHistogram();
+    }
+
+    /**
+     * Возвращает гистограмму времени обслуживания с момента последнего сброса.
+     *
+     * @return гистограмма, мкс.
+     */
+    Histogram serviceTime() {
+        return serviceTime.getIntervalHistogram();
+    }
+
+    /**
+     * Возвращает количество ответов по HTTP-статусу.
+     *
+     * @return снимок счётчиков.
+     */
+    Map<Integer, Long> statuses() {
+        Map<Integer, Long> snapshot = new TreeMap<>();
+        statuses.forEach((status, count) -> snapshot.put(status, count.sum()));
+        return snapshot;
+    }
+}
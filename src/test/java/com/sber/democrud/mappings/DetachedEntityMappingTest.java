@@ -0,0 +1,158 @@
+package com.sber.democrud.mappings;
+
+import com.sber.democrud.dto.PaymentGoodRequestDto;
+import com.sber.democrud.dto.PaymentRequestDto;
+import com.sber.democrud.dto.PaymentResponseDto;
+import com.sber.democrud.dto.UserResponseDto;
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import com.sber.democrud.entity.Payment;
+import com.sber.democrud.entity.User;
+import com.sber.democrud.entity.UserRolesEnum;
+import com.sber.democrud.mapper.PaymentMapper;
+import com.sber.democrud.mapper.UserMapper;
+import com.sber.democrud.repository.GoodRepository;
+import com.sber.democrud.repository.PaymentRepository;
+import com.sber.democrud.repository.UserRepository;
+import com.sber.democrud.service.PaymentService;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тестовый класс для проверки маппинга отсоединённых сущностей {@link User} и {@link Payment}
+ * вне транзакции.
+ * <p>
+ * Открытая на весь запрос сессия отключена ({@code spring.jpa.open-in-view: false}), а ленивая загрузка
+ * без транзакции запрещена ({@code hibernate.enable_lazy_load_no_trans: false}). Поэтому обращение
+ * к незагруженной связи после закрытия сессии должно падать с {@link LazyInitializationException},
+ * а не открывать новое соединение.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DetachedEntityMappingTest {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private PaymentMapper paymentMapper;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GoodRepository goodRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private User user;
+
+    private Good good;
+
+    private Long paymentId;
+
+    /**
+     * Создание пользователя с одним платежом.
+     */
+    @BeforeAll
+    void setup() {
+        user = new User();
+        user.setName("Detached User");
+        user.setLogin("detached-user");
+        user.setPassword("password123");
+        user.setEmail("detached-user@example.com");
+        user.setRole(UserRolesEnum.USER);
+        user = userRepository.save(user);
+
+        good = new Good();
+        good.setName("Detached Good");
+        good.setType(GoodTypesEnum.OTHER);
+        good.setDescription("Description");
+        good.setPrice(BigDecimal.valueOf(100));
+        good.setStockQuantity(10L);
+        good = goodRepository.save(good);
+
+        PaymentRequestDto request = new PaymentRequestDto();
+        request.setUserId(user.getId());
+        request.setGoods(List.of(new PaymentGoodRequestDto(good.getId(), 1L)));
+        paymentId = paymentService.createPayment(request).getId();
+    }
+
+    /**
+     * Удаление тестовых записей.
+     */
+    @AfterAll
+    void cleanup() {
+        paymentRepository.deleteById(paymentId);
+        userRepository.deleteById(user.getId());
+        goodRepository.deleteById(good.getId());
+    }
+
+    /**
+     * Маппинг платежа, загруженного без позиций, вне транзакции падает на ленивой коллекции позиций.
+     */
+    @Test
+    void detachedPaymentWithoutGoodsFailsToMap() {
+        assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+        Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+
+        assertThatThrownBy(() -> paymentMapper.toPaymentResponseDto(payment))
+                .isInstanceOf(LazyInitializationException.class);
+    }
+
+    /**
+     * Платёж, загруженный вместе с позициями и товарами, маппится вне транзакции без обращений к БД.
+     */
+    @Test
+    void detachedPaymentWithGoodsMaps() {
+        Payment payment = paymentRepository.findWithGoodsById(paymentId).orElseThrow();
+
+        PaymentResponseDto dto = paymentMapper.toPaymentResponseDto(payment);
+
+        assertThat(dto.getUserId()).isEqualTo(user.getId());
+        assertThat(dto.getGoods()).singleElement()
+                .satisfies(item -> assertThat(item.getName()).isEqualTo("Detached Good"));
+    }
+
+    /**
+     * Обращение к незагруженным платежам отсоединённого пользователя падает, а маппер их пропускает.
+     */
+    @Test
+    void detachedUserWithoutPaymentsSkipsPayments() {
+        User detached = userRepository.findById(user.getId()).orElseThrow();
+
+        assertThatThrownBy(() -> detached.getPayments().size())
+                .isInstanceOf(LazyInitializationException.class);
+        UserResponseDto dto = userMapper.toUserResponseDto(detached);
+        assertThat(dto.getId()).isEqualTo(user.getId());
+        assertThat(dto.getPayments()).isNullOrEmpty();
+    }
+
+    /**
+     * Пользователь, загруженный вместе с платежами, маппится вне транзакции вместе с ними.
+     */
+    @Test
+    void detachedUserWithPaymentsMapsPayments() {
+        User detached = userRepository.findWithPaymentsById(user.getId()).orElseThrow();
+
+        UserResponseDto dto = userMapper.toUserResponseDto(detached);
+
+        assertThat(dto.getPayments()).extracting(PaymentResponseDto::getId).containsExactly(paymentId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.sber.democrud.mappings;
 
-import com.sber.democrud.dto.GoodResponseDto;
+import com.sber.democrud.dto.PaymentGoodRequestDto;
+import com.sber.democrud.dto.PaymentGoodResponseDto;
 import com.sber.democrud.dto.PaymentRequestDto;
 import com.sber.democrud.dto.PaymentResponseDto;
 import com.sber.democrud.entity.*;
@@ -11,9 +12,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -27,7 +28,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * Проверяются следующие сценарии:
  * <ul>
  *     <li>Маппинг сущности {@link Payment} в DTO {@link PaymentResponseDto}</li>
- *     <li>Маппинг DTO {@link PaymentRequestDto} в сущность {@link Payment}</li>
+ *     <li>Маппинг DTO {@link PaymentRequestDto} в сущность {@link Payment} без товаров</li>
  *     <li>Обновление сущности {@link Payment} данными из {@link PaymentRequestDto}</li>
  * </ul>
  */
@@ -64,24 +65,20 @@ public class PaymentMappingTest {
         assertThat(paymentResponseDto.getGoods()).isNotEmpty();
         assertThat(paymentResponseDto.getGoods().size()).isEqualTo(payment.getGoods().size());
 
-        // Создаем мапу для сопоставления товаров
-        Map<Long, Good> goodMap = payment.getGoods().stream()
-                .collect(Collectors.toMap(Good::getId, Function.identity()));
+        // Создаем мапу для сопоставления позиций
+        Map<Long, PaymentGood> itemMap = payment.getGoods().stream()
+                .collect(Collectors.toMap(item -> item.getGood().getId(), Function.identity()));
 
-        // Проверяем каждый товар
-        for (GoodResponseDto dto : paymentResponseDto.getGoods()) {
+        // Проверяем каждую позицию
+        for (PaymentGoodResponseDto dto : paymentResponseDto.getGoods()) {
             assertThat(dto).isNotNull();
-            Good good = goodMap.get(dto.getId());
-            assertThat(good).isNotNull();
+            PaymentGood item = itemMap.get(dto.getGoodId());
+            assertThat(item).isNotNull();
 
             // Тестируем корректность маппинга
-            assertThat(dto.getId()).isEqualTo(good.getId());
-            assertThat(dto.getName()).isEqualTo(good.getName());
-            assertThat(dto.getType()).isEqualTo(good.getType().getValue());
-            assertThat(dto.getDescription()).isEqualTo(good.getDescription());
-            assertThat(dto.getPrice()).isEqualTo(good.getPrice());
-            assertThat(dto.getStockQuantity()).isEqualTo(good.getStockQuantity());
-            assertThat(dto.getArchiveDate()).isEqualTo(good.getArchiveDate());
+            assertThat(dto.getName()).isEqualTo(item.getGood().getName());
+            assertThat(dto.getQuantity()).isEqualTo(item.getQuantity());
+            assertThat(dto.getUnitPrice()).isEqualTo(item.getUnitPrice());
         }
     }
 
@@ -96,82 +93,45 @@ public class PaymentMappingTest {
 
         Payment payment = paymentMapper.toPayment(paymentRequestDto);
 
-        // Проверяем обязательные поля
+        // Проверяем, что игнорируемые поля не заполнены: новый платёж активен независимо от запроса
         assertThat(payment).isNotNull();
-        assertThat(payment.getTotalPurchaseAmount()).isEqualTo(paymentRequestDto.getTotalPurchaseAmount());
-        assertThat(payment.getArchiveDate()).isEqualTo(paymentRequestDto.getArchiveDate());
-
-        // Проверяем, что игнорируемые поля не заполнены
+        assertThat(payment.getArchiveDate()).isNull();
         assertThat(payment.getId()).isNull();
+        assertThat(payment.getTotalPurchaseAmount()).isNull();
         assertThat(payment.getUser()).isNull();
         assertThat(payment.getDateOfPurchase()).isNull();
         assertThat(payment.getCreatedAt()).isNull();
         assertThat(payment.getUpdatedAt()).isNull();
 
-        // Проверяем вложенное поле goods
-        assertThat(payment.getGoods()).isNotEmpty();
-        assertThat(payment.getGoods().size()).isEqualTo(paymentRequestDto.getGoods().size());
-
-        Map<Long, GoodResponseDto> dtosMap = paymentRequestDto.getGoods().stream()
-                .collect(Collectors.toMap(GoodResponseDto::getId, Function.identity()));
-
-        // Проверяем каждый сопоставленный товар
-        for (Good good : payment.getGoods()) {
-            assertThat(good).isNotNull();
-            GoodResponseDto dto = dtosMap.get(good.getId());
-            assertThat(dto).isNotNull();
-
-            // Тестируем корректность маппинга
-            assertThat(good.getId()).isEqualTo(dto.getId());
-            assertThat(good.getName()).isEqualTo(dto.getName());
-            assertThat(good.getType()).isEqualTo(GoodTypesEnum.valueOf(dto.getType()));
-            assertThat(good.getDescription()).isEqualTo(dto.getDescription());
-            assertThat(good.getPrice()).isEqualTo(dto.getPrice());
-            assertThat(good.getStockQuantity()).isEqualTo(dto.getStockQuantity());
-            assertThat(good.getArchiveDate()).isEqualTo(dto.getArchiveDate());
-        }
+        // Товары связываются сервисом по идентификаторам, маппер их не заполняет
+        assertThat(payment.getGoods()).isEmpty();
     }
 
     /**
      * Тестирует обновление существующей сущности {@link Payment} данными из
      * DTO {@link PaymentRequestDto}.
      * <p>
-     * Проверяет, что поля платежа корректно обновляются, а также что новый товар
-     * добавляется в список товаров.
+     * Проверяет, что поля платежа корректно обновляются, а итоговая сумма, набор товаров и дата архивации
+     * маппером не изменяются.
      */
     @Test
     void updatePaymentFromPaymentRequestDtoTest() {
         Payment payment = getPayment();
+        BigDecimal totalBefore = payment.getTotalPurchaseAmount();
+        List<PaymentGood> goodsBefore = new ArrayList<>(payment.getGoods());
         PaymentRequestDto paymentRequestDto = getPaymentRequestDto();
-
-        // Добавляем новый товар в платеж
-        GoodResponseDto newGoodDto = new GoodResponseDto();
-        newGoodDto.setId(3L);
-        newGoodDto.setName("Other");
-        newGoodDto.setType(GoodTypesEnum.OTHER.name());
-        newGoodDto.setDescription("Other description");
-        newGoodDto.setPrice(new BigDecimal("1.99"));
-        newGoodDto.setStockQuantity(1L);
-        newGoodDto.setArchiveDate(null);
-
-        Set<GoodResponseDto> updatedGoodsDto = new HashSet<>(paymentRequestDto.getGoods());
-        updatedGoodsDto.add(newGoodDto);
-        paymentRequestDto.setGoods(updatedGoodsDto);
+        paymentRequestDto.getGoods().add(new PaymentGoodRequestDto(3L, 1L));
 
         // Выполняем обновление
         paymentMapper.updatePaymentFromDto(paymentRequestDto, payment);
 
-        // Проверяем обновленные поля
+        // Дата архивации из запроса не переносится: платёж архивируется только запросом архивации
         assertThat(payment).isNotNull();
-        assertThat(payment.getTotalPurchaseAmount()).isEqualTo(paymentRequestDto.getTotalPurchaseAmount());
-        assertThat(payment.getArchiveDate()).isEqualTo(paymentRequestDto.getArchiveDate());
-
-        // Проверяем, что новые товары добавлены
-        assertThat(payment.getGoods()).isNotNull();
-        assertThat(payment.getGoods().size()).isEqualTo(paymentRequestDto.getGoods().size());
+        assertThat(payment.getArchiveDate()).isNull();
 
-        // Проверка на наличие нового товара
-        assertThat(payment.getGoods().stream().anyMatch(g -> g.getId().equals(newGoodDto.getId()))).isTrue();
+        // Проверяем, что сумма и товары остались прежними
+        assertThat(payment.getTotalPurchaseAmount()).isEqualTo(totalBefore);
+        assertThat(payment.getGoods()).containsExactlyInAnyOrderElementsOf(goodsBefore);
     }
 
     /**
@@ -183,9 +143,9 @@ public class PaymentMappingTest {
         Payment payment = new Payment();
         payment.setId(1L);
         payment.setUser(createUser());
-        payment.setTotalPurchaseAmount(new BigDecimal("50.99"));
         payment.setArchiveDate(null);
-        payment.setGoods(GoodsMappingTest.getSetGoods());
+        GoodsMappingTest.getSetGoods().forEach(good -> payment.addGood(good, 2L));
+        payment.recalculateTotalPurchaseAmount();
 
         return payment;
     }
@@ -198,9 +158,10 @@ public class PaymentMappingTest {
     protected static PaymentRequestDto getPaymentRequestDto() {
         PaymentRequestDto paymentRequestDto = new PaymentRequestDto();
         paymentRequestDto.setUserId(UserMappingTest.getUser().getId());
-        paymentRequestDto.setTotalPurchaseAmount(new BigDecimal("10.00"));
         paymentRequestDto.setArchiveDate(LocalDateTime.now());
-        paymentRequestDto.setGoods(GoodsMappingTest.getSetGoodResponseDtos());
+        paymentRequestDto.setGoods(GoodsMappingTest.getSetGoods().stream()
+                .map(good -> new PaymentGoodRequestDto(good.getId(), 1L))
+                .collect(Collectors.toCollection(ArrayList::new)));
 
         return paymentRequestDto;
     }
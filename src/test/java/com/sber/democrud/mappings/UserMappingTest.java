@@ -172,7 +172,7 @@ public class UserMappingTest {
 
         goodsForPayment1.add(good1);
         goodsForPayment1.add(good2);
-        payment1.setGoods(goodsForPayment1);
+        goodsForPayment1.forEach(good -> payment1.addGood(good, 1L));
 
         // Второй платёж с одним товаром
         Payment payment2 = new Payment();
@@ -192,7 +192,7 @@ public class UserMappingTest {
         good3.setArchiveDate(null);
 
         goodsForPayment2.add(good3);
-        payment2.setGoods(goodsForPayment2);
+        goodsForPayment2.forEach(good -> payment2.addGood(good, 1L));
 
         payments.add(payment1);
         payments.add(payment2);
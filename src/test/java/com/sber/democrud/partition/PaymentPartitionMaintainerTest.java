@@ -0,0 +1,165 @@
+package com.sber.democrud.partition;
+
+import com.sber.democrud.repository.PaymentPartitionRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тестовый класс для проверки обслуживания месячных секций платежей.
+ * <p>
+ * Часы обслуживания установлены на июнь 2000 года: создаваемые и отсоединяемые секции не пересекаются
+ * с секциями остальных тестов.
+ */
+@SpringBootTest(properties = "app.partitions.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PaymentPartitionMaintainerTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2000, 6);
+
+    private static final YearMonth EXPIRED = YearMonth.of(2000, 1);
+
+    @Autowired
+    private PaymentPartitionRepository partitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Идентификатор платежа в секции, которая отсоединяется по сроку хранения.
+     */
+    private Long expiredPaymentId;
+
+    /**
+     * Создание секции с платежом за январь 2000 года и обслуживание секций на 15 июня 2000 года:
+     * секции создаются на месяц вперёд, хранятся три месяца.
+     */
+    @BeforeAll
+    void setup() {
+        partitionRepository.ensurePartition(EXPIRED, Duration.ofSeconds(5));
+        expiredPaymentId = jdbcTemplate.queryForObject("""
+                INSERT INTO payments (user_id, total_purchase_amount, date_of_purchase)
+                SELECT id, 10, TIMESTAMP '2000-01-15 12:00' FROM users ORDER BY id LIMIT 1
+                RETURNING id
+                """, Long.class);
+        jdbcTemplate.update("""
+                INSERT INTO payment_goods (payment_id, good_id, quantity, unit_price, date_of_purchase)
+                SELECT ?, id, 1, 10, TIMESTAMP '2000-01-15 12:00' FROM goods ORDER BY id LIMIT 1
+                """, expiredPaymentId);
+
+        Clock clock = Clock.fixed(CURRENT.atDay(15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        new PaymentPartitionMaintainer(partitionRepository, properties(1, 3), clock).maintain();
+    }
+
+    /**
+     * Удаление секций и отсоединённых таблиц после выполнения всех тестов.
+     */
+    @AfterAll
+    void cleanup() {
+        // Секция платежей, на которую ссылается внешний ключ позиций, удаляется только после отсоединения
+        partitionRepository.detachPartition(CURRENT);
+        partitionRepository.detachPartition(CURRENT.plusMonths(1));
+        jdbcTemplate.execute("""
+                DROP TABLE IF EXISTS payment_goods_p2000_01, payments_p2000_01,
+                    payment_goods_p2000_06, payments_p2000_06, payment_goods_p2000_07, payments_p2000_07
+                """);
+    }
+
+    /**
+     * Секции текущего и следующего месяца созданы, секция старше срока хранения отсоединена.
+     */
+    @Test
+    void testPartitionsCreatedAheadAndExpiredDetached() {
+        List<YearMonth> partitions = partitionRepository.findPartitions();
+
+        assertThat(partitions).contains(CURRENT, CURRENT.plusMonths(1)).doesNotContain(EXPIRED);
+        assertThat(partitions).contains(YearMonth.now(), YearMonth.now().plusMonths(3));
+    }
+
+    /**
+     * Отсоединённые секции остаются отдельными таблицами с данными, но не видны через {@code payments}.
+     */
+    @Test
+    void testDetachedPartitionKeepsRows() {
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM payments WHERE id = ?", Long.class,
+                expiredPaymentId)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM payments_p2000_01 WHERE id = ?", Long.class,
+                expiredPaymentId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM payment_goods_p2000_01 WHERE payment_id = ?",
+                Long.class, expiredPaymentId)).isEqualTo(1);
+    }
+
+    /**
+     * Запрос с условием по дате покупки читает только секцию своего месяца.
+     */
+    @Test
+    void testDateBoundedQueryPrunesPartitions() {
+        LocalDateTime from = CURRENT.atDay(1).atStartOfDay();
+        LocalDateTime to = CURRENT.plusMonths(1).atDay(1).atStartOfDay();
+        String plan = String.join("\n", jdbcTemplate.queryForList("""
+                EXPLAIN SELECT sum(pg.quantity * pg.unit_price)
+                FROM payments p
+                         JOIN payment_goods pg ON pg.payment_id = p.id AND pg.date_of_purchase = p.date_of_purchase
+                WHERE p.date_of_purchase >= ? AND p.date_of_purchase < ?
+                  AND pg.date_of_purchase >= ? AND pg.date_of_purchase < ?
+                """, String.class, from, to, from, to));
+
+        assertThat(plan).contains("payments_p2000_06", "payment_goods_p2000_06")
+                .doesNotContain("payments_p2000_07", "payment_goods_p2000_07");
+    }
+
+    /**
+     * Запуск с секциями текущего и следующего месяца проходит.
+     */
+    @Test
+    void testStartupPassesWithPartitions() {
+        Clock clock = Clock.fixed(CURRENT.atDay(20).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+
+        assertThatCode(() -> new PaymentPartitionMaintainer(partitionRepository, properties(1, 0), clock).run(null))
+                .doesNotThrowAnyException();
+    }
+
+    /**
+     * Запуск прерывается, если секцию текущего месяца создать не удалось: таблица с именем секции позиций
+     * уже занята.
+     */
+    @Test
+    void testStartupFailsWithoutCurrentPartition() {
+        jdbcTemplate.execute("CREATE TABLE payment_goods_p1999_05 (id BIGINT)");
+        try {
+            Clock clock = Clock.fixed(LocalDateTime.of(1999, 5, 10, 0, 0).toInstant(ZoneOffset.UTC),
+                    ZoneId.of("UTC"));
+
+            assertThatThrownBy(() -> new PaymentPartitionMaintainer(partitionRepository, properties(0, 0), clock)
+                    .run(null))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("1999-05");
+            assertThat(partitionRepository.findPartitions()).doesNotContain(YearMonth.of(1999, 5));
+        } finally {
+            jdbcTemplate.execute("DROP TABLE payment_goods_p1999_05");
+        }
+    }
+
+    private static PaymentPartitionProperties properties(int monthsAhead, int retentionMonths) {
+        PaymentPartitionProperties properties = new PaymentPartitionProperties();
+        properties.setMonthsAhead(monthsAhead);
+        properties.setRetentionMonths(retentionMonths);
+        return properties;
+    }
+}
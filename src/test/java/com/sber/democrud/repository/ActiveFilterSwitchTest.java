@@ -0,0 +1,106 @@
+package com.sber.democrud.repository;
+
+import com.sber.democrud.entity.Good;
+import com.sber.democrud.entity.GoodTypesEnum;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тестовый класс для проверки фильтра активных записей и его выключения.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ActiveFilterSwitchTest {
+
+    private static final String NAME = "Active Filter Good";
+
+    @Autowired
+    private GoodRepository goodRepository;
+
+    @Autowired
+    private ActiveFilterSwitch activeFilterSwitch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Good active;
+
+    private Good archived;
+
+    /**
+     * Создание активного и архивированного товаров с одинаковым названием.
+     */
+    @BeforeAll
+    void setup() {
+        active = goodRepository.save(newGood(null));
+        archived = goodRepository.save(newGood(LocalDateTime.now()));
+    }
+
+    /**
+     * Удаление тестовых товаров.
+     */
+    @AfterAll
+    void cleanup() {
+        goodRepository.deleteAllById(List.of(active.getId(), archived.getId()));
+    }
+
+    /**
+     * Тест исключения архивированных записей из запросов по умолчанию.
+     */
+    @Test
+    void testArchivedRowsExcludedFromQueries() {
+        assertThat(goodRepository.findByName(NAME)).map(Good::getId).contains(active.getId());
+        assertThat(goodRepository.findAllById(List.of(active.getId(), archived.getId())))
+                .extracting(Good::getId)
+                .containsExactly(active.getId());
+        assertThat(goodRepository.findById(archived.getId())).isPresent();
+    }
+
+    /**
+     * Тест выключения фильтра на время запроса.
+     */
+    @Test
+    void testIncludingArchived() {
+        assertThat(activeFilterSwitch.includingArchived(
+                () -> goodRepository.findAllById(List.of(active.getId(), archived.getId()))))
+                .extracting(Good::getId)
+                .containsExactlyInAnyOrder(active.getId(), archived.getId());
+        assertThat(goodRepository.existsById(archived.getId())).isFalse();
+    }
+
+    /**
+     * Тест частичных индексов активных записей.
+     */
+    @Test
+    void testPartialIndexesCoverActiveRowsOnly() {
+        assertThat(jdbcTemplate.queryForList("""
+                        SELECT indexname
+                        FROM pg_indexes
+                        WHERE indexdef LIKE '%WHERE (archive_date IS NULL)'
+                        """, String.class))
+                .contains("users_active_email_idx", "goods_active_name_idx");
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('idx_user_email')", String.class)).isNull();
+    }
+
+    private static Good newGood(LocalDateTime archiveDate) {
+        Good good = new Good();
+        good.setName(NAME);
+        good.setType(GoodTypesEnum.BOOKS);
+        good.setDescription("Description");
+        good.setPrice(BigDecimal.TEN);
+        good.setStockQuantity(1L);
+        good.setArchiveDate(archiveDate);
+        return good;
+    }
+}
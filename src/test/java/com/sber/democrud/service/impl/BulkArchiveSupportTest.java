@@ -0,0 +1,59 @@
+package com.sber.democrud.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тестовый класс для проверки архивации порциями.
+ */
+public class BulkArchiveSupportTest {
+
+    /**
+     * Тест отказа от неположительного размера порции, при котором архивация не завершалась бы.
+     */
+    @Test
+    void testNonPositiveChunkSizeRejected() {
+        assertThatThrownBy(() -> BulkArchiveSupport.checkChunkSize(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BulkArchiveSupport.checkChunkSize(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(BulkArchiveSupport.checkChunkSize(1)).isEqualTo(1);
+    }
+
+    /**
+     * Тест разбиения списка идентификаторов на порции.
+     */
+    @Test
+    void testArchiveByIdsSplitsIntoChunks() {
+        List<List<Integer>> chunks = new ArrayList<>();
+        long archived = BulkArchiveSupport.archiveByIds(List.of(1, 2, 3, 4, 5), 2, chunk -> {
+            chunks.add(chunk);
+            return chunk.size();
+        });
+
+        assertThat(archived).isEqualTo(5);
+        assertThat(chunks).containsExactly(List.of(1, 2), List.of(3, 4), List.of(5));
+    }
+
+    /**
+     * Тест повторения порций, пока очередная порция не окажется неполной.
+     */
+    @Test
+    void testArchiveWhileFullStopsOnPartialChunk() {
+        AtomicInteger remaining = new AtomicInteger(5);
+        long archived = BulkArchiveSupport.archiveWhileFull(2, () -> {
+            int updated = Math.min(2, remaining.get());
+            remaining.addAndGet(-updated);
+            return updated;
+        });
+
+        assertThat(archived).isEqualTo(5);
+        assertThat(remaining).hasValue(0);
+    }
+}